@@ -5,14 +5,32 @@ import com.blockchain.analytics.AnalyticsLocalPersistence
 import com.blockchain.analytics.NabuAnalyticsEvent
 import com.blockchain.nabu.filesystem.QueueFile
 import io.reactivex.rxjava3.core.Completable
+import io.reactivex.rxjava3.core.Scheduler
 import io.reactivex.rxjava3.core.Single
+import io.reactivex.rxjava3.schedulers.Schedulers
 import java.io.File
 import java.io.IOException
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
 import kotlinx.serialization.decodeFromString
 import kotlinx.serialization.encodeToString
 import kotlinx.serialization.json.Json
+import timber.log.Timber
 
-class AnalyticsFileLocalPersistence(context: Context) : AnalyticsLocalPersistence {
+/**
+ * Every write to the queue file is synchronous, so saved events are buffered in memory and committed to the file
+ * in groups, once [COMMIT_SIZE] events are pending or [COMMIT_DELAY_SECONDS] after the first one, on [scheduler].
+ * Reads and removals commit the pending events first, so they always see the events in the order they were saved.
+ *
+ * [save] adds its event before counting it, so the pending count is only ever lowered by the number of events
+ * actually taken off the queue, otherwise an event cleared between the two would leave the count one too high.
+ */
+class AnalyticsFileLocalPersistence(
+    context: Context,
+    private val scheduler: Scheduler = Schedulers.io()
+) : AnalyticsLocalPersistence {
 
     private val json = Json {
         encodeDefaults = true
@@ -24,27 +42,49 @@ class AnalyticsFileLocalPersistence(context: Context) : AnalyticsLocalPersistenc
         createQueueFile(folder) ?: throw IllegalStateException("File system failed to initialised")
     }
 
-    override fun size(): Single<Long> = Single.just(queueFile.size())
+    private val lock = Any()
+    private val pendingEvents = ConcurrentLinkedQueue<NabuAnalyticsEvent>()
+    private val pendingCount = AtomicInteger(0)
+    private val isCommitScheduled = AtomicBoolean(false)
+
+    override fun size(): Single<Long> = Single.fromCallable {
+        synchronized(lock) { queueFile.size() } + pendingCount.get().coerceAtLeast(0)
+    }
 
     override fun save(item: NabuAnalyticsEvent): Completable = Completable.fromAction {
-        queueFile.add(json.encodeToString(item).toByteArray())
+        pendingEvents.add(item)
+        // Each count is seen by a single caller, so reaching the group size schedules one commit
+        if (pendingCount.incrementAndGet() == COMMIT_SIZE) {
+            scheduler.scheduleDirect { commitInBackground() }
+        } else if (isCommitScheduled.compareAndSet(false, true)) {
+            scheduler.scheduleDirect({ commitInBackground() }, COMMIT_DELAY_SECONDS, TimeUnit.SECONDS)
+        }
     }
 
     override fun removeOldestItems(n: Int): Completable = Completable.fromAction {
-        if (n <= queueFile.size()) {
-            queueFile.remove(n)
-        } else {
-            queueFile.clear()
+        synchronized(lock) {
+            commit()
+            if (n <= queueFile.size()) {
+                queueFile.remove(n)
+            } else {
+                queueFile.clear()
+            }
         }
     }
 
     override fun clear(): Completable = Completable.fromAction {
-        queueFile.clear()
+        synchronized(lock) {
+            pendingCount.addAndGet(-pollPending().size)
+            queueFile.clear()
+        }
     }
 
     override fun getAllItems(): Single<List<NabuAnalyticsEvent>> {
         return Single.fromCallable {
-            queueFile.read(queueFile.size()).map {
+            synchronized(lock) {
+                commit()
+                queueFile.read(queueFile.size())
+            }.map {
                 json.decodeFromString(it)
             }
         }
@@ -52,12 +92,39 @@ class AnalyticsFileLocalPersistence(context: Context) : AnalyticsLocalPersistenc
 
     override fun getOldestItems(n: Int): Single<List<NabuAnalyticsEvent>> {
         return Single.fromCallable {
-            queueFile.read(n.toLong()).map {
+            synchronized(lock) {
+                commit()
+                queueFile.read(minOf(n.toLong(), queueFile.size()))
+            }.map {
                 json.decodeFromString(it)
             }
         }
     }
 
+    private fun commitInBackground() {
+        try {
+            synchronized(lock) { commit() }
+        } catch (e: IOException) {
+            Timber.e(e, "Failed to commit analytics events")
+        }
+    }
+
+    /**
+     * Appends the pending events to the queue file at once. Must hold [lock].
+     */
+    private fun commit() {
+        isCommitScheduled.set(false)
+        val events = pollPending()
+        if (events.isEmpty()) return
+        try {
+            queueFile.addAll(events.map { json.encodeToString(it).toByteArray() })
+        } finally {
+            pendingCount.addAndGet(-events.size)
+        }
+    }
+
+    private fun pollPending(): List<NabuAnalyticsEvent> = generateSequence { pendingEvents.poll() }.toList()
+
     private fun createQueueFile(folder: File): QueueFile? {
         createDirectory(folder)
         val file = File(folder, FILE_NAME)
@@ -81,5 +148,7 @@ class AnalyticsFileLocalPersistence(context: Context) : AnalyticsLocalPersistenc
     companion object {
         private const val DIR_NAME = "analytics-disk-queue"
         private const val FILE_NAME = "analytics.json"
+        private const val COMMIT_SIZE = 20
+        private const val COMMIT_DELAY_SECONDS = 5L
     }
 }
@@ -19,6 +19,7 @@ import com.blockchain.utils.then
 import com.blockchain.utils.toJsonElement
 import com.blockchain.utils.toUtcIso8601
 import io.reactivex.rxjava3.core.Completable
+import io.reactivex.rxjava3.core.Single
 import io.reactivex.rxjava3.disposables.CompositeDisposable
 import io.reactivex.rxjava3.kotlin.plusAssign
 import io.reactivex.rxjava3.schedulers.Schedulers
@@ -98,25 +99,26 @@ class NabuAnalytics(
         get() = "nabu_analytics_flush"
 
     override fun flush(): Completable {
-        return localAnalyticsPersistence.getAllItems().flatMapCompletable { events ->
-            // Whats happening here is that we split the retrieved items into sublists of size = BATCH_SIZE
-            // and then each one of these sublists is converted to the corresponding completable that actually is the
-            // api request.
-            val listOfSublists = mutableListOf<List<NabuAnalyticsEvent>>()
-            for (i in events.indices step BATCH_SIZE) {
-                listOfSublists.add(
-                    events.subList(i, (i + BATCH_SIZE).coerceAtMost(events.size))
-                )
-            }
+        // Batches are read, posted and removed one at a time, so only BATCH_SIZE events are ever held in memory
+        return flushOldestBatch()
+            .repeat()
+            .takeUntil { isLastBatch -> isLastBatch }
+            .ignoreElements()
+    }
 
-            val completables = listOfSublists.map { list ->
-                postEvents(list).then {
-                    localAnalyticsPersistence.removeOldestItems(list.size)
-                }
+    /**
+     * @return true once there are no more events to post after this batch
+     */
+    private fun flushOldestBatch(): Single<Boolean> =
+        localAnalyticsPersistence.getOldestItems(BATCH_SIZE).flatMap { events ->
+            if (events.isEmpty()) {
+                Single.just(true)
+            } else {
+                postEvents(events).then {
+                    localAnalyticsPersistence.removeOldestItems(events.size)
+                }.toSingleDefault(events.size < BATCH_SIZE)
             }
-            Completable.concat(completables)
         }
-    }
 
     private fun batchToApiAndFlush(): Completable {
         return localAnalyticsPersistence.getOldestItems(BATCH_SIZE).flatMapCompletable {
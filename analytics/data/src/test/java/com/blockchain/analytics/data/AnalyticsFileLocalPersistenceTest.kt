@@ -0,0 +1,80 @@
+package com.blockchain.analytics.data
+
+import android.content.Context
+import com.blockchain.analytics.NabuAnalyticsEvent
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.mock
+import io.reactivex.rxjava3.schedulers.TestScheduler
+import java.util.concurrent.TimeUnit
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+class AnalyticsFileLocalPersistenceTest {
+
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    private val context: Context = mock {
+        on { getDir(any(), any()) }.thenAnswer { folder.root }
+    }
+    private val scheduler = TestScheduler()
+
+    private val subject = AnalyticsFileLocalPersistence(context, scheduler)
+
+    @Test
+    fun `saved events are committed after a delay`() {
+        subject.save(event(0)).test().assertComplete()
+        subject.save(event(1)).test().assertComplete()
+
+        scheduler.advanceTimeBy(4, TimeUnit.SECONDS)
+        reopened().size().test().assertValue(0)
+
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+        reopened().getOldestItems(10).test().assertValue(listOf(event(0), event(1)))
+    }
+
+    @Test
+    fun `saved events are committed once a group is pending`() {
+        repeat(19) { subject.save(event(it)).test() }
+        scheduler.triggerActions()
+        reopened().size().test().assertValue(0)
+
+        subject.save(event(19)).test()
+        scheduler.triggerActions()
+        reopened().size().test().assertValue(20)
+    }
+
+    @Test
+    fun `reads and removals include pending events in order`() {
+        repeat(3) { subject.save(event(it)).test() }
+
+        subject.size().test().assertValue(3)
+        subject.getOldestItems(2).test().assertValue(listOf(event(0), event(1)))
+
+        subject.save(event(3)).test()
+        subject.removeOldestItems(2).test().assertComplete()
+        subject.getOldestItems(10).test().assertValue(listOf(event(2), event(3)))
+    }
+
+    @Test
+    fun `clearing drops pending events from the count`() {
+        repeat(3) { subject.save(event(it)).test() }
+
+        subject.clear().test().assertComplete()
+        subject.size().test().assertValue(0)
+
+        subject.save(event(3)).test()
+        subject.size().test().assertValue(1)
+        subject.getOldestItems(10).test().assertValue(listOf(event(3)))
+    }
+
+    private fun reopened() = AnalyticsFileLocalPersistence(context, scheduler)
+
+    private fun event(index: Int) = NabuAnalyticsEvent(
+        name = "name$index",
+        type = "EVENT",
+        originalTimestamp = "originalTimestamp$index",
+        properties = emptyMap()
+    )
+}
@@ -78,7 +78,11 @@ import org.mockito.Mockito
             )
         ).thenReturn(Completable.complete())
 
-        whenever(localAnalyticsPersistence.getAllItems()).thenReturn(Single.just(randomListOfEventsWithSize(84)))
+        whenever(localAnalyticsPersistence.getOldestItems(30)).thenReturn(
+            Single.just(randomListOfEventsWithSize(30)),
+            Single.just(randomListOfEventsWithSize(30)),
+            Single.just(randomListOfEventsWithSize(24))
+        )
         whenever(localAnalyticsPersistence.removeOldestItems(any())).thenReturn(Completable.complete())
         val testSubscriber = subject.flush().test()
 
@@ -103,7 +107,7 @@ import org.mockito.Mockito
             )
         ).thenReturn(Completable.complete())
 
-        whenever(localAnalyticsPersistence.getAllItems()).thenReturn(Single.just(randomListOfEventsWithSize(0)))
+        whenever(localAnalyticsPersistence.getOldestItems(30)).thenReturn(Single.just(randomListOfEventsWithSize(0)))
         whenever(localAnalyticsPersistence.removeOldestItems(any())).thenReturn(Completable.complete())
         val testSubscriber = subject.flush().test()
 
@@ -127,13 +131,42 @@ import org.mockito.Mockito
             )
         ).thenReturn(Completable.error(Throwable()))
 
-        whenever(localAnalyticsPersistence.getAllItems()).thenReturn(Single.just(randomListOfEventsWithSize(10)))
+        whenever(localAnalyticsPersistence.getOldestItems(30)).thenReturn(Single.just(randomListOfEventsWithSize(10)))
         whenever(localAnalyticsPersistence.removeOldestItems(any())).thenReturn(Completable.complete())
         val testSubscriber = subject.flush().test()
 
         testSubscriber.assertNotComplete()
     }
 
+    @Test
+    fun flushPostsOneBatchAtATimeUntilStorageIsEmpty() = runTest {
+        whenever(analyticsContextProvider.context()).thenReturn(mockedContext)
+        whenever(
+            analyticsService.postEvents(
+                events = any(),
+                id = any(),
+                analyticsContext = any(),
+                platform = any(),
+                device = any(),
+                authorization = anyOrNull()
+            )
+        ).thenReturn(Completable.complete())
+
+        whenever(localAnalyticsPersistence.getOldestItems(30)).thenReturn(
+            Single.just(randomListOfEventsWithSize(30)),
+            Single.just(randomListOfEventsWithSize(30)),
+            Single.just(randomListOfEventsWithSize(0))
+        )
+        whenever(localAnalyticsPersistence.removeOldestItems(any())).thenReturn(Completable.complete())
+        // The analytics context is resolved on a coroutine dispatcher
+        val testSubscriber = subject.flush().test().await()
+
+        testSubscriber.assertComplete()
+        Mockito.verify(localAnalyticsPersistence, times(3)).getOldestItems(30)
+        Mockito.verify(localAnalyticsPersistence, times(2)).removeOldestItems(30)
+        Mockito.verify(localAnalyticsPersistence, never()).getAllItems()
+    }
+
     private fun randomListOfEventsWithSize(i: Int): List<NabuAnalyticsEvent> {
         return IntArray(i) { i }.map {
             NabuAnalyticsEvent(
@@ -55,6 +55,9 @@ import com.blockchain.payments.checkoutcom.CheckoutFactory
 import com.blockchain.payments.core.CardProcessor
 import com.blockchain.payments.stripe.StripeCardProcessor
 import com.blockchain.payments.stripe.StripeFactory
+import com.blockchain.store.StoreMetrics
+import com.blockchain.store.impl.StoreMetricsRecorder
+import com.blockchain.store.impl.StoreRefreshScheduler
 import com.blockchain.ui.password.SecondPasswordHandler
 import com.blockchain.wallet.BackupWallet
 import com.blockchain.wallet.DefaultLabels
@@ -219,6 +222,16 @@ val applicationModule = module {
     single { LifecycleInterestedComponent() }
         .bind(LifecycleObservable::class)
 
+    single { StoreMetricsRecorder() }
+        .bind(StoreMetrics::class)
+
+    single {
+        StoreRefreshScheduler(
+            scope = get(applicationScope),
+            lifecycleObservable = get()
+        )
+    }
+
     single {
         SiftDigitalTrust(
             accountId = BuildConfig.SIFT_ACCOUNT_ID,
@@ -553,7 +566,8 @@ val applicationModule = module {
 
         scoped {
             GetRecurringBuysStore(
-                tradeService = get()
+                tradeService = get(),
+                storeMetrics = getOrNull()
             )
         }
 
@@ -24,6 +24,7 @@ import com.blockchain.logging.MomentEvent
 import com.blockchain.logging.RemoteLogger
 import com.blockchain.preferences.AppInfoPrefs
 import com.blockchain.preferences.AppInfoPrefs.Companion.DEFAULT_APP_VERSION_CODE
+import com.blockchain.store.impl.StoreMetricsRecorder
 import com.facebook.stetho.Stetho
 import com.google.android.gms.ads.identifier.AdvertisingIdClient
 import com.google.android.gms.common.ConnectionResult
@@ -57,9 +58,10 @@ open class BlockchainApplication : Application() {
     private val remoteLogger: RemoteLogger by inject()
     private val trust: SiftDigitalTrust by inject()
     private val fraudService: FraudService by inject()
+    private val storeMetricsRecorder: StoreMetricsRecorder by inject()
 
     private val lifecycleListener: AppLifecycleListener by lazy {
-        AppLifecycleListener(lifeCycleInterestedComponent, remoteLogger)
+        AppLifecycleListener(lifeCycleInterestedComponent, remoteLogger, storeMetricsRecorder)
     }
 
     override fun onCreate() {
@@ -4,6 +4,7 @@ import com.blockchain.api.services.TradeService
 import com.blockchain.api.trade.data.RecurringBuyResponse
 import com.blockchain.store.Fetcher
 import com.blockchain.store.KeyedStore
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.Freshness
 import com.blockchain.store.impl.FreshnessMediator
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
@@ -12,8 +13,9 @@ import kotlinx.serialization.Serializable
 import kotlinx.serialization.builtins.ListSerializer
 
 class GetRecurringBuysStore(
-    private val tradeService: TradeService
-) : KeyedStore<GetRecurringBuysStore.Key, List<RecurringBuyResponse>> by PersistedJsonSqlDelightStoreBuilder()
+    private val tradeService: TradeService,
+    storeMetrics: StoreMetrics? = null
+) : KeyedStore<GetRecurringBuysStore.Key, List<RecurringBuyResponse>> by PersistedJsonSqlDelightStoreBuilder(storeMetrics)
     .buildKeyed(
         storeId = STORE_ID,
         fetcher = Fetcher.Keyed.ofSingle(
@@ -15,10 +15,11 @@ object GetAssetPriceUseCase {
     operator fun invoke(
         asset: CryptoAsset,
         timeSpan: HistoricalTimeSpan,
-        fiatCurrency: FiatCurrency
+        fiatCurrency: FiatCurrency,
+        maxChartPoints: Int? = null
     ): Flow<DataResource<CoinviewAssetPriceHistory>> {
         return combine(
-            asset.historicRateSeries(timeSpan),
+            asset.historicRateSeries(period = timeSpan, maxPoints = maxChartPoints),
             asset.getPricesWith24hDelta()
         ) { historicRates, prices ->
 
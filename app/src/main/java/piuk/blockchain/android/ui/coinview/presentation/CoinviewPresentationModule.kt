@@ -1,6 +1,7 @@
 package piuk.blockchain.android.ui.coinview.presentation
 
 import com.blockchain.koin.payloadScopeQualifier
+import org.koin.android.ext.koin.androidContext
 import org.koin.androidx.viewmodel.dsl.viewModel
 import org.koin.dsl.module
 
@@ -19,7 +20,8 @@ val coinviewPresentationModule = module {
                 loadAssetRecurringBuysUseCase = get(),
                 loadQuickActionsUseCase = get(),
                 assetService = get(),
-                custodialWalletManager = get()
+                custodialWalletManager = get(),
+                maxChartPoints = androidContext().resources.displayMetrics.widthPixels
             )
         }
     }
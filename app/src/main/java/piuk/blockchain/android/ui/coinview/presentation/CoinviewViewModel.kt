@@ -72,7 +72,9 @@ class CoinviewViewModel(
     private val loadAssetRecurringBuysUseCase: LoadAssetRecurringBuysUseCase,
     private val loadQuickActionsUseCase: LoadQuickActionsUseCase,
     private val assetService: AssetService,
-    private val custodialWalletManager: CustodialWalletManager
+    private val custodialWalletManager: CustodialWalletManager,
+    // the chart is downsampled to one point per pixel of its width
+    private val maxChartPoints: Int? = null
 ) : MviViewModel<
     CoinviewIntent,
     CoinviewViewState,
@@ -1020,7 +1022,10 @@ class CoinviewViewModel(
         loadPriceDataJob?.cancel()
         loadPriceDataJob = viewModelScope.launch {
             getAssetPriceUseCase(
-                asset = asset, timeSpan = requestedTimeSpan, fiatCurrency = fiatCurrency
+                asset = asset,
+                timeSpan = requestedTimeSpan,
+                fiatCurrency = fiatCurrency,
+                maxChartPoints = maxChartPoints
             ).collectLatest { dataResource ->
                 when (dataResource) {
                     DataResource.Loading -> {
@@ -5,34 +5,51 @@ import com.blockchain.coincore.Coincore
 import com.blockchain.coincore.SingleAccount
 import com.blockchain.store.Fetcher
 import com.blockchain.store.KeyedStore
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.Freshness
 import com.blockchain.store.impl.FreshnessMediator
+import com.blockchain.store.impl.StoreRefreshScheduler
 import com.blockchain.store_caches_inmemory.InMemoryCacheStoreBuilder
 import com.blockchain.walletmode.WalletMode
 import io.reactivex.rxjava3.core.Single
 
-class WalletModeBalanceCache(private val coincore: Coincore) : KeyedStore<
+class WalletModeBalanceCache(
+    private val coincore: Coincore,
+    refreshScheduler: StoreRefreshScheduler,
+    storeMetrics: StoreMetrics? = null
+) : KeyedStore<
     WalletMode,
     Map<SingleAccount, AccountBalance?>
-    > by InMemoryCacheStoreBuilder().buildKeyed(
-    storeId = "WalletModeBalanceCache",
-    fetcher = Fetcher.Keyed.ofSingle(
-        mapper = { walletMode: WalletMode ->
-            coincore.activeWalletsInModeRx(walletMode).firstOrError().map { it.accounts }.flatMap { accounts ->
-                if (accounts.isEmpty()) {
-                    Single.just(emptyMap())
-                } else
-                    Single.just(accounts).flattenAsObservable { it }.flatMapSingle { account ->
-                        account.balanceRx.firstOrError().map { balance ->
-                            account to balance
-                        }.onErrorReturn {
-                            account to null
+    > by refreshScheduler.schedule(
+    InMemoryCacheStoreBuilder(storeMetrics).buildKeyed(
+        storeId = "WalletModeBalanceCache",
+        fetcher = Fetcher.Keyed.ofSingle(
+            mapper = { walletMode: WalletMode ->
+                coincore.activeWalletsInModeRx(walletMode).firstOrError().map { it.accounts }.flatMap { accounts ->
+                    if (accounts.isEmpty()) {
+                        Single.just(emptyMap())
+                    } else
+                        Single.just(accounts).flattenAsObservable { it }.flatMapSingle { account ->
+                            account.balanceRx.firstOrError().map { balance ->
+                                account to balance
+                            }.onErrorReturn {
+                                account to null
+                            }
+                        }.toList().map {
+                            it.toMap()
                         }
-                    }.toList().map {
-                        it.toMap()
-                    }
+                }
             }
-        }
+        ),
+        mediator = FreshnessMediator(
+            freshness = BALANCE_FRESHNESS,
+            staleWhileRevalidate = BALANCE_STALE_WHILE_REVALIDATE
+        )
     ),
-    mediator = FreshnessMediator(Freshness.ofMinutes(30))
-)
+    BALANCE_FRESHNESS
+) {
+    companion object {
+        private val BALANCE_FRESHNESS = Freshness.ofMinutes(30)
+        private val BALANCE_STALE_WHILE_REVALIDATE = Freshness.ofHours(24)
+    }
+}
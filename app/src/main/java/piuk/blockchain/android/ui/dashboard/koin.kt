@@ -221,7 +221,13 @@ val dashboardModule = module {
             )
         }
 
-        scoped { WalletModeBalanceCache(coincore = get()) }
+        scoped {
+            WalletModeBalanceCache(
+                coincore = get(),
+                refreshScheduler = get(),
+                storeMetrics = getOrNull()
+            )
+        }
 
         scoped {
             CowboysPromoDataProvider(
@@ -15,6 +15,7 @@ import com.blockchain.core.access.PinRepository
 import com.blockchain.core.kyc.data.datasources.KycTiersStore
 import com.blockchain.logging.RemoteLogger
 import com.blockchain.nabu.api.getuser.data.GetUserStore
+import com.blockchain.network.metrics.NetworkMetrics
 import com.blockchain.preferences.AppMaintenancePrefs
 import com.blockchain.preferences.AppRatingPrefs
 import com.blockchain.preferences.CurrencyPrefs
@@ -52,6 +53,7 @@ class FeatureFlagsHandlingActivity : BlockchainActivity() {
     private val remoteConfigPrefs: RemoteConfigPrefs by inject()
     private val getUserStore: GetUserStore by scopedInject()
     private val kycTiersStore: KycTiersStore by scopedInject()
+    private val networkMetrics: NetworkMetrics by inject()
 
     private val featuresAdapter: FeatureFlagAdapter = FeatureFlagAdapter()
 
@@ -91,6 +93,7 @@ class FeatureFlagsHandlingActivity : BlockchainActivity() {
             btnResetAnnounce.setOnClickListener { onResetAnnounce() }
             btnResetPrefs.setOnClickListener { onResetPrefs() }
             btnComponentLib.setOnClickListener { onComponentLib() }
+            btnNetworkMetrics.setOnClickListener { onNetworkMetrics() }
             deviceCurrency.text = "Select a new currency. Current one is ${currencyPrefs.selectedFiatCurrency}"
             firebaseToken.text = notificationPrefs.firebaseToken
 
@@ -207,6 +210,13 @@ class FeatureFlagsHandlingActivity : BlockchainActivity() {
         startActivity(Intent(this, ComponentLibDemoActivity::class.java))
     }
 
+    private fun onNetworkMetrics() {
+        with(binding.networkMetrics) {
+            text = networkMetrics.report().ifEmpty { "No calls recorded yet" }
+            visibleIf { true }
+        }
+    }
+
     override fun onPause() {
         compositeDisposable.clear()
         super.onPause()
@@ -7,6 +7,7 @@ import com.blockchain.core.payload.PayloadDataManager
 import com.blockchain.core.price.ExchangeRatesDataManager
 import com.blockchain.core.settings.SettingsDataManager
 import com.blockchain.logging.RemoteLogger
+import com.blockchain.metadata.MetadataEntry
 import com.blockchain.metadata.MetadataInitException
 import com.blockchain.metadata.MetadataService
 import com.blockchain.sunriver.XlmDataManager
@@ -35,9 +36,15 @@ class Prerequisites(
 
     fun initMetadataAndRelatedPrerequisites(): Completable =
         metadataService.attemptMetadataSetup().then {
-            if (payloadDataManager.isDoubleEncrypted) {
-                checkIfCoinsMissingPubKeyDerivation()
-            } else Completable.complete()
+            // Entries read while initialising the coins and credentials are loaded together up front,
+            // instead of one round trip at a time
+            metadataService.prefetchMetadata(LOGIN_METADATA_ENTRIES)
+                .logAndCompleteOnError(METADATA_PREFETCH)
+                .mergeWith(
+                    if (payloadDataManager.isDoubleEncrypted) {
+                        checkIfCoinsMissingPubKeyDerivation()
+                    } else Completable.complete()
+                )
         }
             .logOnError(METADATA_ERROR_MESSAGE)
             .onErrorResumeNext {
@@ -106,8 +113,18 @@ class Prerequisites(
 
     companion object {
         private const val METADATA_ERROR_MESSAGE = "metadata_init"
+        private const val METADATA_PREFETCH = "metadata_prefetch"
         private const val SIMPLE_BUY_SYNC = "simple_buy_sync"
         private const val WALLET_CREDENTIALS = "wallet_credentials"
         private const val WALLET_CONNECT = "wallet_connect"
+
+        private val LOGIN_METADATA_ENTRIES = listOf(
+            MetadataEntry.METADATA_ETH,
+            MetadataEntry.METADATA_BCH,
+            MetadataEntry.METADATA_XLM,
+            MetadataEntry.WALLET_CREDENTIALS,
+            MetadataEntry.BLOCKCHAIN_UNIFIED_CREDENTIALS,
+            MetadataEntry.WALLET_CONNECT_METADATA
+        )
     }
 }
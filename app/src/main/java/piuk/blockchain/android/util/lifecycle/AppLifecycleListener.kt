@@ -6,10 +6,12 @@ import androidx.lifecycle.OnLifecycleEvent
 import com.blockchain.lifecycle.AppState
 import com.blockchain.lifecycle.LifecycleInterestedComponent
 import com.blockchain.logging.RemoteLogger
+import com.blockchain.store.impl.StoreMetricsRecorder
 
 class AppLifecycleListener(
     private val lifecycleInterestedComponent: LifecycleInterestedComponent,
-    private val remoteLogger: RemoteLogger
+    private val remoteLogger: RemoteLogger,
+    private val storeMetricsRecorder: StoreMetricsRecorder
 ) : LifecycleObserver {
 
     @OnLifecycleEvent(Lifecycle.Event.ON_START)
@@ -21,6 +23,7 @@ class AppLifecycleListener(
     @OnLifecycleEvent(Lifecycle.Event.ON_STOP)
     fun onMoveToBackground() {
         remoteLogger.logEvent("App to background")
+        storeMetricsRecorder.reportTo(remoteLogger)
         lifecycleInterestedComponent.appStateUpdated.onNext(AppState.BACKGROUNDED)
     }
 }
@@ -175,6 +175,7 @@ object Versions {
     const val mockk = "1.12.2"
     const val hamcrestJunit = "2.0.0.0"
     const val junit = "4.12"
+    const val jmh = "1.36"
     const val robolectric = "4.4"
     const val json = "20140107"
     const val espresso = "3.2.0"
@@ -262,12 +263,14 @@ object Libraries {
     const val okHttpInterceptor = "com.squareup.okhttp3:logging-interceptor:${Versions.okHttp}"
     const val gson = "com.google.code.gson:gson:${Versions.gson}"
     const val kotlinJson = "org.jetbrains.kotlinx:kotlinx-serialization-json:${Versions.kotlinJson}"
+    const val kotlinCbor = "org.jetbrains.kotlinx:kotlinx-serialization-cbor:${Versions.kotlinJson}"
 
     // SqlDelight
     const val sqlDelight = "com.squareup.sqldelight:android-driver:${Versions.sqlDelight}"
     const val sqlDelightPlugin = "com.squareup.sqldelight:gradle-plugin:${Versions.sqlDelight}"
     const val rxSqlDelight = "com.squareup.sqldelight:rxjava3-extensions:${Versions.sqlDelight}"
     const val coroutinesSqlDelight = "com.squareup.sqldelight:coroutines-extensions:${Versions.sqlDelight}"
+    const val sqlDelightJdbcDriver = "com.squareup.sqldelight:sqlite-driver:${Versions.sqlDelight}"
 
     const val koin = "io.insert-koin:koin-core:${Versions.koin}"
     const val koinAndroid = "io.insert-koin:koin-android:${Versions.koinAndroid}"
@@ -403,4 +406,8 @@ object Libraries {
     const val espresso = "androidx.test.espresso:espresso-core:${Versions.espresso}"
     const val retrofitMock = "com.squareup.retrofit2:retrofit-mock:${Versions.retrofit}"
     const val okHttpMock = "com.squareup.okhttp3:mockwebserver:${Versions.okHttp}"
+
+    // Benchmarks
+    const val jmhCore = "org.openjdk.jmh:jmh-core:${Versions.jmh}"
+    const val jmhAnnotationProcessor = "org.openjdk.jmh:jmh-generator-annprocess:${Versions.jmh}"
 }
@@ -152,9 +152,13 @@ interface Asset {
         freshnessStrategy: FreshnessStrategy = FreshnessStrategy.Cached(forceRefresh = true)
     ): Flow<DataResource<Prices24HrWithDelta>>
 
+    /**
+     * @param maxPoints downsample the series to about this many points for charting, null for every point
+     */
     fun historicRateSeries(
         period: HistoricalTimeSpan,
-        freshnessStrategy: FreshnessStrategy = FreshnessStrategy.Cached(forceRefresh = true)
+        freshnessStrategy: FreshnessStrategy = FreshnessStrategy.Cached(forceRefresh = true),
+        maxPoints: Int? = null
     ): Flow<DataResource<HistoricalRateList>>
 }
 
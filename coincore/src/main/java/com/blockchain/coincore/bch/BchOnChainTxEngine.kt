@@ -14,6 +14,7 @@ import com.blockchain.coincore.TxValidationFailure
 import com.blockchain.coincore.ValidationState
 import com.blockchain.coincore.copyAndPut
 import com.blockchain.coincore.impl.txEngine.OnChainTxEngineBase
+import com.blockchain.coincore.impl.txEngine.UtxoSessionCache
 import com.blockchain.coincore.updateTxValidity
 import com.blockchain.core.chains.bitcoin.SendDataManager
 import com.blockchain.core.chains.bitcoincash.BchBalanceCache
@@ -40,7 +41,6 @@ import info.blockchain.wallet.payment.SpendableUnspentOutputs
 import info.blockchain.wallet.util.FormatsUtil
 import io.reactivex.rxjava3.core.Completable
 import io.reactivex.rxjava3.core.Single
-import io.reactivex.rxjava3.kotlin.Singles
 import java.math.BigInteger
 import org.bitcoinj.core.Transaction
 import org.spongycastle.util.encoders.Hex
@@ -97,41 +97,49 @@ class BchOnChainTxEngine(
             )
         )
 
+    private val utxoCache: UtxoSessionCache by unsafeLazy {
+        UtxoSessionCache(
+            balance = sourceAccount.balanceRx,
+            fetchCoins = { total -> getUnspentApiResponse(bchSource.xpubAddress, total) },
+            fetchFeeOptions = { feeManager.bchFeeOptions.firstOrError() }
+        )
+    }
+
     override fun doUpdateAmount(amount: Money, pendingTx: PendingTx): Single<PendingTx> {
         require(amount is CryptoValue)
         require(amount.currency == sourceAsset)
 
-        return Singles.zip(
-            sourceAccount.balanceRx.firstOrError().map { it.total as CryptoValue },
-            getUnspentApiResponse(bchSource.xpubAddress),
-            getDynamicFeePerKb()
-        ) { balance, coins, feePerKb ->
-            updatePendingTx(amount, balance, pendingTx, feePerKb, coins)
-        }.onErrorReturn {
-            pendingTx.copy(
-                validationState = ValidationState.INSUFFICIENT_FUNDS
-            )
-        }
+        return utxoCache.session()
+            .map { session ->
+                updatePendingTx(
+                    amount,
+                    session.total as CryptoValue,
+                    pendingTx,
+                    feeToCrypto(session.feeOptions.regularFee),
+                    session.coins
+                )
+            }.onErrorReturn {
+                pendingTx.copy(
+                    validationState = ValidationState.INSUFFICIENT_FUNDS
+                )
+            }
     }
 
-    private fun getUnspentApiResponse(address: String): Single<List<Utxo>> {
-        return sourceAccount.balanceRx.firstOrError().flatMap {
-            if (it.total.isPositive) {
-                sendDataManager.getUnspentBchOutputs(address)
-                    // If we get here, we should have balance and valid UTXOs. IF we don't, then, um... we'd best fail hard
-                    .map { utxo ->
-                        if (utxo.isEmpty()) {
-                            Timber.e("No BTC UTXOs found for non-zero balance!")
-                            throw IllegalStateException("No BTC UTXOs found for non-zero balance")
-                        } else {
-                            utxo
-                        }
+    private fun getUnspentApiResponse(address: String, total: Money): Single<List<Utxo>> =
+        if (total.isPositive) {
+            sendDataManager.getUnspentBchOutputs(address)
+                // If we get here, we should have balance and valid UTXOs. IF we don't, then, um... we'd best fail hard
+                .map { utxo ->
+                    if (utxo.isEmpty()) {
+                        Timber.e("No BTC UTXOs found for non-zero balance!")
+                        throw IllegalStateException("No BTC UTXOs found for non-zero balance")
+                    } else {
+                        utxo
                     }
-            } else {
-                Single.error(Throwable("No BCH funds"))
-            }
+                }
+        } else {
+            Single.error(Throwable("No BCH funds"))
         }
-    }
 
     private fun updatePendingTx(
         amount: CryptoValue,
@@ -175,12 +183,6 @@ class BchOnChainTxEngine(
         )
     }
 
-    private fun getDynamicFeePerKb(): Single<Money> =
-        feeManager.bchFeeOptions
-            .map { feeOptions ->
-                feeToCrypto(feeOptions.regularFee)
-            }.firstOrError()
-
     private fun feeToCrypto(feePerKb: Long): Money =
         Money.fromMinor(sourceAsset, (feePerKb * 1000).toBigInteger())
 
@@ -325,6 +327,10 @@ class BchOnChainTxEngine(
             .doOnComplete { bchSource.forceRefresh() }
             .doOnComplete { bchBalanceCache.invalidate() }
 
+    override fun stop(pendingTx: PendingTx) {
+        utxoCache.invalidate()
+    }
+
     companion object {
         private val AVAILABLE_FEE_LEVELS = setOf(FeeLevel.Regular)
         private val MAX_BCH_AMOUNT = 2_100_000_000_000_000L.toBigInteger()
@@ -340,6 +346,7 @@ class BchOnChainTxEngine(
     }
 
     override fun doOnTransactionSuccess(pendingTx: PendingTx) {
+        utxoCache.invalidate()
         incrementBchReceiveAddress(pendingTx)
     }
 
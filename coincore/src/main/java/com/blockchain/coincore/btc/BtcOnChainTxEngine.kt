@@ -16,6 +16,7 @@ import com.blockchain.coincore.TxValidationFailure
 import com.blockchain.coincore.ValidationState
 import com.blockchain.coincore.copyAndPut
 import com.blockchain.coincore.impl.txEngine.OnChainTxEngineBase
+import com.blockchain.coincore.impl.txEngine.UtxoSessionCache
 import com.blockchain.coincore.toUserFiat
 import com.blockchain.coincore.updateTxValidity
 import com.blockchain.core.chains.bitcoin.SendDataManager
@@ -122,56 +123,52 @@ class BtcOnChainTxEngine(
             )
         )
 
+    private val utxoCache: UtxoSessionCache by unsafeLazy {
+        UtxoSessionCache(
+            balance = sourceAccount.balanceRx,
+            fetchCoins = { total -> getUnspentApiResponse(btcSource.xpubs, total) },
+            fetchFeeOptions = { feeManager.btcFeeOptions.singleOrError() }
+        )
+    }
+
     override fun doUpdateAmount(amount: Money, pendingTx: PendingTx): Single<PendingTx> =
-        Single.zip(
-            sourceAccount.balanceRx.firstOrError().map { it.total as CryptoValue },
-            getDynamicFeesPerKb(pendingTx),
-            getUnspentApiResponse(btcSource.xpubs)
-        ) { total, optionsAndFeesPerKb, coins ->
-            updatePendingTxFromAmount(
-                amount as CryptoValue,
-                total,
-                pendingTx,
-                optionsAndFeesPerKb.second,
-                optionsAndFeesPerKb.first,
-                coins
-            )
-        }.onErrorReturnItem(
-            pendingTx.copy(
-                validationState = ValidationState.INSUFFICIENT_FUNDS
+        utxoCache.session()
+            .map { session ->
+                updatePendingTxFromAmount(
+                    amount as CryptoValue,
+                    session.total,
+                    pendingTx,
+                    getDynamicFeesPerKb(pendingTx, session.feeOptions),
+                    session.feeOptions,
+                    session.coins
+                )
+            }.onErrorReturnItem(
+                pendingTx.copy(
+                    validationState = ValidationState.INSUFFICIENT_FUNDS
+                )
             )
-        )
 
-    private fun getUnspentApiResponse(xpubs: XPubs): Single<List<Utxo>> {
-        return sourceAccount.balanceRx.firstOrError().flatMap {
-            if (it.total.isPositive) {
-                sendDataManager.getUnspentBtcOutputs(xpubs)
-                    // If we get here, we should have balance...
-                    // but if we have no UTXOs then we have a problem:
-                    .map { utxo ->
-                        utxo.ifEmpty {
-                            throw fatalError(IllegalStateException("No BTC UTXOs found for non-zero balance"))
-                        }
+    private fun getUnspentApiResponse(xpubs: XPubs, total: Money): Single<List<Utxo>> =
+        if (total.isPositive) {
+            sendDataManager.getUnspentBtcOutputs(xpubs)
+                // If we get here, we should have balance...
+                // but if we have no UTXOs then we have a problem:
+                .map { utxo ->
+                    utxo.ifEmpty {
+                        throw fatalError(IllegalStateException("No BTC UTXOs found for non-zero balance"))
                     }
-            } else {
-                Single.error(IllegalStateException("No BTC funds"))
-            }
+                }
+        } else {
+            Single.error(IllegalStateException("No BTC funds"))
         }
-    }
 
-    private fun getDynamicFeesPerKb(pendingTx: PendingTx): Single<Pair<FeeOptions, Map<FeeLevel, Money>>> =
-        feeManager.btcFeeOptions
-            .map { feeOptions ->
-                Pair(
-                    feeOptions,
-                    mapOf(
-                        FeeLevel.None to Money.zero(sourceAsset),
-                        FeeLevel.Regular to feeToCrypto(feeOptions.regularFee),
-                        FeeLevel.Priority to feeToCrypto(feeOptions.priorityFee),
-                        FeeLevel.Custom to feeToCrypto(pendingTx.feeSelection.customAmount)
-                    )
-                )
-            }.singleOrError()
+    private fun getDynamicFeesPerKb(pendingTx: PendingTx, feeOptions: FeeOptions): Map<FeeLevel, Money> =
+        mapOf(
+            FeeLevel.None to Money.zero(sourceAsset),
+            FeeLevel.Regular to feeToCrypto(feeOptions.regularFee),
+            FeeLevel.Priority to feeToCrypto(feeOptions.priorityFee),
+            FeeLevel.Custom to feeToCrypto(pendingTx.feeSelection.customAmount)
+        )
 
     private fun feeToCrypto(feePerKb: Long): Money =
         Money.fromMinor(sourceAsset, (feePerKb * 1000).toBigInteger())
@@ -462,6 +459,7 @@ class BtcOnChainTxEngine(
         }
 
     override fun doOnTransactionSuccess(pendingTx: PendingTx) {
+        utxoCache.invalidate()
         btcSource.incrementReceiveAddress()
         updateInternalBtcBalances(pendingTx)
     }
@@ -489,6 +487,10 @@ class BtcOnChainTxEngine(
         super.doPostExecute(pendingTx, txResult)
             .doOnComplete { btcSource.forceRefresh() }
 
+    override fun stop(pendingTx: PendingTx) {
+        utxoCache.invalidate()
+    }
+
     companion object {
         const val LARGE_TX_FIAT = "USD"
         const val LARGE_TX_FEE = 0.5
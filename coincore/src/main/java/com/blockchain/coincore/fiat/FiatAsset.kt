@@ -85,10 +85,16 @@ class FiatAsset(
 
     override fun historicRateSeries(
         period: HistoricalTimeSpan,
-        freshnessStrategy: FreshnessStrategy
+        freshnessStrategy: FreshnessStrategy,
+        maxPoints: Int?
     ): Flow<DataResource<HistoricalRateList>> =
         currency.startDate?.let {
-            exchangeRates.getHistoricPriceSeries(asset = currency, span = period, freshnessStrategy = freshnessStrategy)
+            exchangeRates.getHistoricPriceSeries(
+                asset = currency,
+                span = period,
+                freshnessStrategy = freshnessStrategy,
+                maxPoints = maxPoints
+            )
         } ?: flowOf(DataResource.Data(emptyList()))
 
     override fun lastDayTrend(): Flow<DataResource<HistoricalRateList>> {
@@ -258,10 +258,16 @@ internal abstract class CryptoAssetBase : CryptoAsset, AccountRefreshTrigger, Ko
 
     final override fun historicRateSeries(
         period: HistoricalTimeSpan,
-        freshnessStrategy: FreshnessStrategy
+        freshnessStrategy: FreshnessStrategy,
+        maxPoints: Int?
     ): Flow<DataResource<HistoricalRateList>> =
         currency.startDate?.let {
-            exchangeRates.getHistoricPriceSeries(asset = currency, span = period, freshnessStrategy = freshnessStrategy)
+            exchangeRates.getHistoricPriceSeries(
+                asset = currency,
+                span = period,
+                freshnessStrategy = freshnessStrategy,
+                maxPoints = maxPoints
+            )
         } ?: flowOf(DataResource.Data(emptyList()))
 
     final override fun lastDayTrend(): Flow<DataResource<HistoricalRateList>> {
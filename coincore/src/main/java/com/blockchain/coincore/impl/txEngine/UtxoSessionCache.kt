@@ -0,0 +1,83 @@
+package com.blockchain.coincore.impl.txEngine
+
+import com.blockchain.coincore.AccountBalance
+import info.blockchain.balance.Money
+import info.blockchain.wallet.api.data.FeeOptions
+import info.blockchain.wallet.payload.model.Utxo
+import io.reactivex.rxjava3.core.Observable
+import io.reactivex.rxjava3.core.Single
+import io.reactivex.rxjava3.disposables.SerialDisposable
+import io.reactivex.rxjava3.kotlin.Singles
+import io.reactivex.rxjava3.kotlin.subscribeBy
+
+/**
+ * Balance, unspent outputs and fee options of a UTXO based account, fetched once per transaction session so that
+ * updating the amount of a [com.blockchain.coincore.PendingTx] is a local computation.
+ *
+ * The session is dropped with [invalidate] once a transaction is broadcast, and whenever the account balance changes,
+ * which is how transactions picked up by the websocket reach the account. The next [session] call fetches it again.
+ */
+class UtxoSessionCache(
+    private val balance: Observable<AccountBalance>,
+    private val fetchCoins: (total: Money) -> Single<List<Utxo>>,
+    private val fetchFeeOptions: () -> Single<FeeOptions>
+) {
+    private val lock = Any()
+    private var session: Single<UtxoSession>? = null
+    private val balanceWatch = SerialDisposable()
+
+    fun session(): Single<UtxoSession> = synchronized(lock) {
+        session ?: load().also { session = it }
+    }
+
+    fun invalidate() {
+        synchronized(lock) {
+            session = null
+            balanceWatch.set(null)
+        }
+    }
+
+    private fun load(): Single<UtxoSession> {
+        lateinit var loading: Single<UtxoSession>
+        loading = balance.firstOrError()
+            .flatMap { balance ->
+                Singles.zip(fetchCoins(balance.total), fetchFeeOptions()) { coins, feeOptions ->
+                    UtxoSession(balance.total, coins, feeOptions)
+                }
+            }
+            .doOnSuccess { watchBalance(loading, it.total) }
+            // Failures are not kept, the next amount update tries again
+            .doOnError { drop(loading) }
+            .cache()
+        return loading
+    }
+
+    private fun watchBalance(loaded: Single<UtxoSession>, total: Money) {
+        synchronized(lock) {
+            if (session !== loaded) return
+            balanceWatch.set(
+                balance.filter { it.total != total }
+                    .firstElement()
+                    .subscribeBy(
+                        onSuccess = { drop(loaded) },
+                        onError = { drop(loaded) }
+                    )
+            )
+        }
+    }
+
+    private fun drop(loaded: Single<UtxoSession>) {
+        synchronized(lock) {
+            if (session === loaded) {
+                session = null
+                balanceWatch.set(null)
+            }
+        }
+    }
+}
+
+data class UtxoSession(
+    val total: Money,
+    val coins: List<Utxo>,
+    val feeOptions: FeeOptions
+)
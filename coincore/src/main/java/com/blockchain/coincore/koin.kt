@@ -255,13 +255,15 @@ val coincoreModule = module {
 
     single {
         CoinNetworksStore(
-            discoveryService = get()
+            discoveryService = get(),
+            storeMetrics = getOrNull()
         )
     }
 
     single {
         NonCustodialL2sDynamicAssetStore(
-            discoveryService = get()
+            discoveryService = get(),
+            storeMetrics = getOrNull()
         )
     }
 
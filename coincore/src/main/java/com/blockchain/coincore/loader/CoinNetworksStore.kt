@@ -4,6 +4,7 @@ import com.blockchain.api.coinnetworks.data.CoinNetworkDto
 import com.blockchain.api.services.AssetDiscoveryApiService
 import com.blockchain.store.Fetcher
 import com.blockchain.store.Store
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.Freshness
 import com.blockchain.store.impl.FreshnessMediator
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
@@ -11,8 +12,9 @@ import com.blockchain.storedatasource.FlushableDataSource
 import kotlinx.serialization.builtins.ListSerializer
 
 class CoinNetworksStore(
-    private val discoveryService: AssetDiscoveryApiService
-) : Store<List<CoinNetworkDto>> by PersistedJsonSqlDelightStoreBuilder()
+    private val discoveryService: AssetDiscoveryApiService,
+    storeMetrics: StoreMetrics? = null
+) : Store<List<CoinNetworkDto>> by PersistedJsonSqlDelightStoreBuilder(storeMetrics)
     .build(
         storeId = STORE_ID,
         fetcher = Fetcher.ofOutcome(
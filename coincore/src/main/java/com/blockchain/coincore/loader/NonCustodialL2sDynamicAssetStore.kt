@@ -5,6 +5,7 @@ import com.blockchain.api.services.DynamicAsset
 import com.blockchain.api.services.DynamicAssetList
 import com.blockchain.store.Fetcher
 import com.blockchain.store.KeyedStore
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.Freshness
 import com.blockchain.store.impl.FreshnessMediator
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
@@ -13,8 +14,9 @@ import kotlinx.serialization.Serializable
 import kotlinx.serialization.builtins.ListSerializer
 
 class NonCustodialL2sDynamicAssetStore(
-    private val discoveryService: AssetDiscoveryApiService
-) : KeyedStore<NonCustodialL2sDynamicAssetStore.Key, DynamicAssetList> by PersistedJsonSqlDelightStoreBuilder()
+    private val discoveryService: AssetDiscoveryApiService,
+    storeMetrics: StoreMetrics? = null
+) : KeyedStore<NonCustodialL2sDynamicAssetStore.Key, DynamicAssetList> by PersistedJsonSqlDelightStoreBuilder(storeMetrics)
     .buildKeyed(
         storeId = STORE_ID,
         fetcher = Fetcher.Keyed.ofOutcome(
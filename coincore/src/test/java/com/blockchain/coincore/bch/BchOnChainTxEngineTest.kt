@@ -19,7 +19,6 @@ import com.blockchain.testutils.satoshiCash
 import com.nhaarman.mockitokotlin2.atLeastOnce
 import com.nhaarman.mockitokotlin2.atMost
 import com.nhaarman.mockitokotlin2.mock
-import com.nhaarman.mockitokotlin2.times
 import com.nhaarman.mockitokotlin2.verify
 import com.nhaarman.mockitokotlin2.verifyNoMoreInteractions
 import com.nhaarman.mockitokotlin2.whenever
@@ -288,7 +287,7 @@ class BchOnChainTxEngineTest : CoincoreTestBase() {
         verify(txTarget, atMost(2)).address
         verify(sourceAccount, atLeastOnce()).currency
         verify(sourceAccount).xpubAddress
-        verify(sourceAccount, times(2)).balanceRx
+        verify(sourceAccount).balanceRx
         verify(feeManager).bchFeeOptions
         verify(bchFeeOptions).regularFee
         verify(sendDataManager).getUnspentBchOutputs(SOURCE_XPUB)
@@ -18,6 +18,7 @@ import com.blockchain.core.payload.PayloadDataManager
 import com.blockchain.preferences.WalletStatusPrefs
 import com.blockchain.testutils.bitcoin
 import com.blockchain.testutils.satoshi
+import com.nhaarman.mockitokotlin2.any
 import com.nhaarman.mockitokotlin2.atLeastOnce
 import com.nhaarman.mockitokotlin2.atMost
 import com.nhaarman.mockitokotlin2.mock
@@ -963,6 +964,111 @@ class BtcOnChainTxEngineTest : CoincoreTestBase() {
         noMoreInteractions(sourceAccount, txTarget)
     }
 
+    @Test
+    fun `repeated amount updates reuse the unspent outputs and fees of the session`() {
+        // Arrange
+        val feePerKb = (FEE_REGULAR * 1000).satoshi()
+        val totalBalance = 21.bitcoin()
+        val sourceAccount = mockSourceAccount(totalBalance, totalBalance)
+        val txTarget: CryptoAddress = mock {
+            on { asset }.thenReturn(ASSET)
+            on { address }.thenReturn(TARGET_ADDRESS)
+        }
+
+        val unspentOutputs = listOf<Utxo>(mock(), mock())
+        whenever(sendDataManager.getUnspentBtcOutputs(SOURCE_XPUBS))
+            .thenReturn(Single.just(unspentOutputs))
+        whenever(sendDataManager.getMaximumAvailable(any(), any(), any(), any()))
+            .thenReturn(SendDataManager.MaxAvailable(totalBalance as CryptoValue, CryptoValue.zero(ASSET)))
+        val utxoBundle: SpendableUnspentOutputs = mock {
+            on { absoluteFee }.thenReturn(feePerKb.toBigInteger())
+        }
+        whenever(sendDataManager.getSpendableCoins(any(), any(), any(), any(), any()))
+            .thenReturn(utxoBundle)
+
+        subject.start(
+            sourceAccount,
+            txTarget,
+            exchangeRates
+        )
+
+        val pendingTx = PendingTx(
+            amount = CryptoValue.zero(ASSET),
+            totalBalance = CryptoValue.zero(ASSET),
+            availableBalance = CryptoValue.zero(ASSET),
+            feeForFullAvailable = CryptoValue.zero(ASSET),
+            feeAmount = CryptoValue.zero(ASSET),
+            selectedFiat = TEST_USER_FIAT,
+            feeSelection = FeeSelection(
+                selectedLevel = FeeLevel.Regular,
+                availableLevels = EXPECTED_AVAILABLE_FEE_LEVELS,
+                asset = CryptoCurrency.BTC
+            )
+        )
+
+        // Act
+        listOf(1.bitcoin(), 12.bitcoin(), 123.satoshi()).forEach { amount ->
+            subject.doUpdateAmount(amount, pendingTx)
+                .test()
+                .assertComplete()
+                .assertValue { it.amount == amount && it.totalBalance == totalBalance }
+        }
+
+        // Assert
+        verify(sendDataManager).getUnspentBtcOutputs(SOURCE_XPUBS)
+        verify(feeManager).btcFeeOptions
+    }
+
+    @Test
+    fun `broadcasting a transaction drops the unspent outputs of the session`() {
+        // Arrange
+        val totalBalance = 21.bitcoin()
+        val sourceAccount = mockSourceAccount(totalBalance, totalBalance)
+        val txTarget: CryptoAddress = mock {
+            on { asset }.thenReturn(ASSET)
+            on { address }.thenReturn(TARGET_ADDRESS)
+        }
+
+        whenever(sendDataManager.getUnspentBtcOutputs(SOURCE_XPUBS))
+            .thenReturn(Single.just(listOf<Utxo>(mock())))
+        whenever(sendDataManager.getMaximumAvailable(any(), any(), any(), any()))
+            .thenReturn(SendDataManager.MaxAvailable(totalBalance as CryptoValue, CryptoValue.zero(ASSET)))
+        val utxoBundle: SpendableUnspentOutputs = mock {
+            on { absoluteFee }.thenReturn(BigInteger.ONE)
+        }
+        whenever(sendDataManager.getSpendableCoins(any(), any(), any(), any(), any()))
+            .thenReturn(utxoBundle)
+
+        subject.start(
+            sourceAccount,
+            txTarget,
+            exchangeRates
+        )
+
+        val pendingTx = PendingTx(
+            amount = CryptoValue.zero(ASSET),
+            totalBalance = CryptoValue.zero(ASSET),
+            availableBalance = CryptoValue.zero(ASSET),
+            feeForFullAvailable = CryptoValue.zero(ASSET),
+            feeAmount = CryptoValue.zero(ASSET),
+            selectedFiat = TEST_USER_FIAT,
+            feeSelection = FeeSelection(
+                selectedLevel = FeeLevel.Regular,
+                availableLevels = EXPECTED_AVAILABLE_FEE_LEVELS,
+                asset = CryptoCurrency.BTC
+            )
+        )
+
+        // Act
+        subject.doUpdateAmount(1.bitcoin(), pendingTx).test().assertComplete()
+        subject.doOnTransactionSuccess(pendingTx)
+        subject.doUpdateAmount(1.bitcoin(), pendingTx).test().assertComplete()
+
+        // Assert
+        verify(sendDataManager, times(2)).getUnspentBtcOutputs(SOURCE_XPUBS)
+        verify(feeManager, times(2)).btcFeeOptions
+    }
+
     private fun verifyFeeLevels(feeSelection: FeeSelection, expectedLevel: FeeLevel, customFee: Long = -1) =
         feeSelection.selectedLevel == expectedLevel &&
             feeSelection.availableLevels == EXPECTED_AVAILABLE_FEE_LEVELS &&
@@ -0,0 +1,115 @@
+package com.blockchain.network.metrics
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+
+/**
+ * Timings of the calls made through the shared OkHttp clients, grouped by endpoint and kept for diagnostics.
+ *
+ * An endpoint is the Retrofit service method that made the call, or the host for calls made outside Retrofit.
+ * DNS, connect and TLS averages only count calls that opened a new connection, so comparing [EndpointTimings.calls]
+ * with [EndpointTimings.connections] shows how well connections are reused.
+ */
+class NetworkMetrics {
+
+    private val endpoints = ConcurrentHashMap<String, EndpointAccumulator>()
+
+    internal fun record(endpoint: String, timings: CallTimings) {
+        endpoints.getOrPut(endpoint) { EndpointAccumulator() }.add(timings)
+    }
+
+    fun snapshot(): List<EndpointTimings> =
+        endpoints.map { (endpoint, accumulator) -> accumulator.snapshot(endpoint) }
+            .sortedByDescending { it.calls }
+
+    fun report(): String =
+        snapshot().joinToString(separator = "\n") {
+            "${it.endpoint}: ${it.calls} calls (${it.failures} failed, ${it.connections} new connections), " +
+                "dns ${it.averageDnsMillis}ms, connect ${it.averageConnectMillis}ms, " +
+                "tls ${it.averageTlsMillis}ms, ttfb ${it.averageTimeToFirstByteMillis}ms, " +
+                "total ${it.averageCallMillis}ms (max ${it.maxCallMillis}ms)"
+        }
+
+    fun clear() {
+        endpoints.clear()
+    }
+}
+
+data class EndpointTimings(
+    val endpoint: String,
+    val calls: Int,
+    val failures: Int,
+    val connections: Int,
+    val averageDnsMillis: Long,
+    val averageConnectMillis: Long,
+    val averageTlsMillis: Long,
+    /**
+     * From sending the request headers to receiving the response headers
+     */
+    val averageTimeToFirstByteMillis: Long,
+    val averageCallMillis: Long,
+    val maxCallMillis: Long
+)
+
+/**
+ * Durations of one call in nanoseconds, null for the phases the call did not go through
+ */
+internal data class CallTimings(
+    val dnsNanos: Long?,
+    val connectNanos: Long?,
+    val tlsNanos: Long?,
+    val timeToFirstByteNanos: Long?,
+    val callNanos: Long,
+    val failed: Boolean
+)
+
+private class EndpointAccumulator {
+    private var calls = 0
+    private var failures = 0
+    private val dns = Average()
+    private val connect = Average()
+    private val tls = Average()
+    private val timeToFirstByte = Average()
+    private val call = Average()
+    private var maxCallNanos = 0L
+
+    @Synchronized
+    fun add(timings: CallTimings) {
+        calls++
+        if (timings.failed) failures++
+        timings.dnsNanos?.let { dns.add(it) }
+        timings.connectNanos?.let { connect.add(it) }
+        timings.tlsNanos?.let { tls.add(it) }
+        timings.timeToFirstByteNanos?.let { timeToFirstByte.add(it) }
+        call.add(timings.callNanos)
+        maxCallNanos = maxOf(maxCallNanos, timings.callNanos)
+    }
+
+    @Synchronized
+    fun snapshot(endpoint: String) = EndpointTimings(
+        endpoint = endpoint,
+        calls = calls,
+        failures = failures,
+        connections = connect.count,
+        averageDnsMillis = dns.millis(),
+        averageConnectMillis = connect.millis(),
+        averageTlsMillis = tls.millis(),
+        averageTimeToFirstByteMillis = timeToFirstByte.millis(),
+        averageCallMillis = call.millis(),
+        maxCallMillis = TimeUnit.NANOSECONDS.toMillis(maxCallNanos)
+    )
+}
+
+private class Average {
+    var count = 0
+        private set
+    private var totalNanos = 0L
+
+    fun add(nanos: Long) {
+        count++
+        totalNanos += nanos
+    }
+
+    fun millis(): Long =
+        if (count == 0) 0 else TimeUnit.NANOSECONDS.toMillis(totalNanos / count)
+}
@@ -0,0 +1,115 @@
+package com.blockchain.network.metrics
+
+import java.io.IOException
+import java.net.InetAddress
+import java.net.InetSocketAddress
+import java.net.Proxy
+import okhttp3.Call
+import okhttp3.EventListener
+import okhttp3.Handshake
+import okhttp3.Protocol
+import okhttp3.Request
+import retrofit2.Invocation
+
+class NetworkMetricsEventListenerFactory(
+    private val metrics: NetworkMetrics,
+    private val nanoTime: () -> Long = System::nanoTime
+) : EventListener.Factory {
+    override fun create(call: Call): EventListener =
+        NetworkMetricsEventListener(metrics, call.request().endpoint(), nanoTime)
+}
+
+private fun Request.endpoint(): String =
+    tag(Invocation::class.java)?.method()?.let { "${it.declaringClass.simpleName}.${it.name}" }
+        ?: url.host
+
+/**
+ * Measures the phases of one call. OkHttp creates a listener per call and reports its events in order,
+ * so no synchronisation is needed. Retries and redirects add to the connection phases and restart
+ * the time to first byte.
+ */
+private class NetworkMetricsEventListener(
+    private val metrics: NetworkMetrics,
+    private val endpoint: String,
+    private val nanoTime: () -> Long
+) : EventListener() {
+
+    private var callStart = 0L
+    private var dnsStart = 0L
+    private var connectStart = 0L
+    private var tlsStart = 0L
+    private var requestStart = 0L
+
+    private var dnsNanos: Long? = null
+    private var connectNanos: Long? = null
+    private var tlsNanos: Long? = null
+    private var timeToFirstByteNanos: Long? = null
+
+    override fun callStart(call: Call) {
+        callStart = nanoTime()
+    }
+
+    override fun dnsStart(call: Call, domainName: String) {
+        dnsStart = nanoTime()
+    }
+
+    override fun dnsEnd(call: Call, domainName: String, inetAddressList: List<InetAddress>) {
+        dnsNanos = (dnsNanos ?: 0L) + nanoTime() - dnsStart
+    }
+
+    override fun connectStart(call: Call, inetSocketAddress: InetSocketAddress, proxy: Proxy) {
+        connectStart = nanoTime()
+    }
+
+    override fun secureConnectStart(call: Call) {
+        tlsStart = nanoTime()
+    }
+
+    override fun secureConnectEnd(call: Call, handshake: Handshake?) {
+        tlsNanos = (tlsNanos ?: 0L) + nanoTime() - tlsStart
+    }
+
+    override fun connectEnd(call: Call, inetSocketAddress: InetSocketAddress, proxy: Proxy, protocol: Protocol?) {
+        connectNanos = (connectNanos ?: 0L) + nanoTime() - connectStart
+    }
+
+    override fun connectFailed(
+        call: Call,
+        inetSocketAddress: InetSocketAddress,
+        proxy: Proxy,
+        protocol: Protocol?,
+        ioe: IOException
+    ) {
+        connectNanos = (connectNanos ?: 0L) + nanoTime() - connectStart
+    }
+
+    override fun requestHeadersStart(call: Call) {
+        requestStart = nanoTime()
+    }
+
+    override fun responseHeadersStart(call: Call) {
+        timeToFirstByteNanos = nanoTime() - requestStart
+    }
+
+    override fun callEnd(call: Call) {
+        record(failed = false)
+    }
+
+    override fun callFailed(call: Call, ioe: IOException) {
+        record(failed = true)
+    }
+
+    private fun record(failed: Boolean) {
+        metrics.record(
+            endpoint,
+            CallTimings(
+                dnsNanos = dnsNanos,
+                connectNanos = connectNanos,
+                tlsNanos = tlsNanos,
+                timeToFirstByteNanos = timeToFirstByteNanos,
+                callNanos = nanoTime() - callStart,
+                failed = failed
+            )
+        )
+    }
+}
@@ -5,24 +5,54 @@ import com.blockchain.koin.authOkHttpClient
 import com.blockchain.network.TLSSocketFactory
 import com.blockchain.network.interceptor.RequestCacheInterceptor
 import com.blockchain.network.interceptor.ResponseCacheInterceptor
+import com.blockchain.network.metrics.NetworkMetrics
+import com.blockchain.network.metrics.NetworkMetricsEventListenerFactory
 import java.io.File
 import java.util.concurrent.TimeUnit
 import okhttp3.Cache
+import okhttp3.ConnectionPool
 import okhttp3.ConnectionSpec
+import okhttp3.Dispatcher
 import okhttp3.OkHttpClient
 import org.koin.dsl.module
 
 private const val API_TIMEOUT = 30L
 private const val PING_INTERVAL = 10L
 
-private const val HTTP_CACHE_SIZE = 5 * 1024 * 1024.toLong()
+// Most calls go to a handful of hosts, OkHttp's default of 5 per host queues the calls made at startup
+private const val MAX_REQUESTS = 64
+private const val MAX_REQUESTS_PER_HOST = 10
+private const val MAX_IDLE_CONNECTIONS = 10
+private const val KEEP_ALIVE_DURATION = 5L
 
-private fun cache(dir: File): Cache =
-    Cache(dir, HTTP_CACHE_SIZE)
+// Only responses of @Cacheable endpoints are stored, which are small and long lived.
+// The cache has its own directory, so that nothing else in the cache directory is counted against it
+private const val HTTP_CACHE_DIRECTORY = "http"
+private const val HTTP_CACHE_SIZE = 10 * 1024 * 1024.toLong()
 
+/**
+ * Every client shares one connection pool, dispatcher and cache, so that calls to the same host
+ * reuse connections whichever client makes them.
+ */
 val okHttpModule = module {
+    single {
+        ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_DURATION, TimeUnit.MINUTES)
+    }
+
+    single {
+        Dispatcher().apply {
+            maxRequests = MAX_REQUESTS
+            maxRequestsPerHost = MAX_REQUESTS_PER_HOST
+        }
+    }
+
+    single {
+        Cache(File(get<AppInfo>().cacheDir, HTTP_CACHE_DIRECTORY), HTTP_CACHE_SIZE)
+    }
+
+    single { NetworkMetrics() }
+
     factory {
-        val appInfo: AppInfo = get()
         val builder = OkHttpClient.Builder()
             .connectionSpecs(listOf(ConnectionSpec.MODERN_TLS))
             .connectTimeout(API_TIMEOUT, TimeUnit.SECONDS)
@@ -31,7 +61,10 @@ val okHttpModule = module {
             .pingInterval(PING_INTERVAL, TimeUnit.SECONDS)
             .retryOnConnectionFailure(false)
             .certificatePinner(get())
-            .cache(cache(appInfo.cacheDir))
+            .connectionPool(get())
+            .dispatcher(get())
+            .cache(get<Cache>())
+            .eventListenerFactory(NetworkMetricsEventListenerFactory(get()))
             .addNetworkInterceptor(ResponseCacheInterceptor())
 
         get<OkHttpInterceptors>().forEach {
@@ -0,0 +1,87 @@
+package com.blockchain.network.metrics
+
+import com.nhaarman.mockitokotlin2.mock
+import java.io.IOException
+import java.net.InetSocketAddress
+import java.net.Proxy
+import java.util.concurrent.TimeUnit
+import okhttp3.Call
+import okhttp3.Protocol
+import okhttp3.Request
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+class NetworkMetricsEventListenerTest {
+
+    private var now = 0L
+    private val metrics = NetworkMetrics()
+    private val subject = NetworkMetricsEventListenerFactory(metrics) { TimeUnit.MILLISECONDS.toNanos(now) }
+
+    private val call: Call = mock {
+        on { request() }.thenReturn(Request.Builder().url("https://api.blockchain.info/price").build())
+    }
+    private val address = InetSocketAddress.createUnresolved("api.blockchain.info", 443)
+
+    @Test
+    fun `records the phases of a call that opens a connection`() {
+        subject.create(call).apply {
+            callStart(call)
+            dnsStart(call, "api.blockchain.info")
+            now += 10
+            dnsEnd(call, "api.blockchain.info", emptyList())
+            connectStart(call, address, Proxy.NO_PROXY)
+            now += 20
+            secureConnectStart(call)
+            now += 30
+            secureConnectEnd(call, null)
+            connectEnd(call, address, Proxy.NO_PROXY, Protocol.HTTP_2)
+            requestHeadersStart(call)
+            now += 40
+            responseHeadersStart(call)
+            now += 5
+            callEnd(call)
+        }
+
+        assertEquals(
+            listOf(
+                EndpointTimings(
+                    endpoint = "api.blockchain.info",
+                    calls = 1,
+                    failures = 0,
+                    connections = 1,
+                    averageDnsMillis = 10,
+                    averageConnectMillis = 50,
+                    averageTlsMillis = 30,
+                    averageTimeToFirstByteMillis = 40,
+                    averageCallMillis = 105,
+                    maxCallMillis = 105
+                )
+            ),
+            metrics.snapshot()
+        )
+    }
+
+    @Test
+    fun `connection phases only average over calls that opened a connection`() {
+        subject.create(call).apply {
+            callStart(call)
+            connectStart(call, address, Proxy.NO_PROXY)
+            now += 20
+            connectEnd(call, address, Proxy.NO_PROXY, Protocol.HTTP_2)
+            callEnd(call)
+        }
+        subject.create(call).apply {
+            callStart(call)
+            now += 10
+            callFailed(call, IOException())
+        }
+
+        metrics.snapshot().single().apply {
+            assertEquals(2, calls)
+            assertEquals(1, failures)
+            assertEquals(1, connections)
+            assertEquals(20, averageConnectMillis)
+            assertEquals(15, averageCallMillis)
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.blockchain.commonarch.presentation.mvi
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+
+/**
+ * Time spent in [MviIntent.reduce], grouped by intent type, for finding the intents that make a
+ * model drop frames.
+ */
+class IntentReduceMetrics {
+
+    private val intents = ConcurrentHashMap<String, ReduceAccumulator>()
+
+    internal fun record(intent: String, nanos: Long) {
+        intents.getOrPut(intent) { ReduceAccumulator() }.add(nanos)
+    }
+
+    fun snapshot(): List<IntentReduceTimings> =
+        intents.map { (intent, accumulator) -> accumulator.snapshot(intent) }
+            .sortedByDescending { it.totalMicros }
+
+    fun report(): String =
+        snapshot().joinToString(separator = "\n") {
+            "${it.intent}: ${it.count} reduced, average ${it.averageMicros}us, max ${it.maxMicros}us"
+        }
+
+    fun clear() {
+        intents.clear()
+    }
+}
+
+data class IntentReduceTimings(
+    val intent: String,
+    val count: Int,
+    val totalMicros: Long,
+    val averageMicros: Long,
+    val maxMicros: Long
+)
+
+private class ReduceAccumulator {
+    private var count = 0
+    private var totalNanos = 0L
+    private var maxNanos = 0L
+
+    @Synchronized
+    fun add(nanos: Long) {
+        count++
+        totalNanos += nanos
+        maxNanos = maxOf(maxNanos, nanos)
+    }
+
+    @Synchronized
+    fun snapshot(intent: String) = IntentReduceTimings(
+        intent = intent,
+        count = count,
+        totalMicros = TimeUnit.NANOSECONDS.toMicros(totalNanos),
+        averageMicros = if (count == 0) 0 else TimeUnit.NANOSECONDS.toMicros(totalNanos / count),
+        maxMicros = TimeUnit.NANOSECONDS.toMicros(maxNanos)
+    )
+}
@@ -8,10 +8,9 @@ import io.reactivex.rxjava3.core.Scheduler
 import io.reactivex.rxjava3.disposables.CompositeDisposable
 import io.reactivex.rxjava3.disposables.Disposable
 import io.reactivex.rxjava3.kotlin.plusAssign
-import io.reactivex.rxjava3.kotlin.subscribeBy
 import io.reactivex.rxjava3.schedulers.Schedulers
-import io.reactivex.rxjava3.subjects.PublishSubject
-import io.reactivex.rxjava3.subjects.ReplaySubject
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.atomic.AtomicInteger
 import timber.log.Timber
 
 interface MviState
@@ -36,55 +35,65 @@ abstract class MviModel<S : MviState, I : MviIntent<S>>(
 
     protected val disposables = CompositeDisposable()
 
-    // In principle, "intents" could - and should - be a PublishSubject.
-    // However, we use Koin for DI, which is lazy and doesn't create injected objects until they are first
-    // accessed. So, if the UI code issues Intents early in it's lifecycle (ie in, say, onCreate()) then the model may
-    // only be created at the point - as an Intent is issued via process() - and we can end up in a race between
-    // the arrival of the first intent and the set up of the main processing rx chain.
-    // When that happens if the intent chain loses, the initial Intent gets dropped and that's that.
-    // To mitigate that, we use a ReplaySubject with a small buffer, so that if the init()
-    // happens after the process() from the UI, we still see those initial Intents.
-    private val intents = ReplaySubject.create<I>(5)
-
-    // A consequence of using a ReplaySubject, is that sometimes, when we are processing a lot of Intents rapidly from
-    // from multiple threads, it can get confused and miss some. We see this as an IndexOutOfRange exception which can
-    // stall, or stop, the intent flow. Leading to a jammed or glitching UI/UX
-    // To mitigate this, we use another subject to marshal all the inbound Intents on to the same, known, thread.
-    // See: https://github.com/ReactiveX/RxJava/issues/1029 for an (older) explanation.
-    private val threadProxy = PublishSubject.create<I>()
-        .apply {
-            disposables += observeOn(uiScheduler)
-                .subscribe {
-                    intents.onNext(it)
-                }
+    /**
+     * Reduce times of the intents processed by this model. Only collected in debug builds.
+     */
+    val reduceMetrics: IntentReduceMetrics? =
+        if (environmentConfig.isRunningInDebugMode()) IntentReduceMetrics() else null
+
+    // Intents can be processed from any thread, so they are queued on a lock-free queue. The caller
+    // that finds the model idle schedules a drain on a single worker, so reducing is serial and the
+    // model state needs no locking. Each pass of the drain reduces every intent queued when it
+    // started and publishes only the state reached at the end, so a burst of intents that queued up
+    // while the worker was busy costs the UI a single state. Intents issued while a pass is running,
+    // including those issued from performAction(), are reduced in the next pass. The queue exists
+    // before process() can be called, so intents issued while Koin is still creating the model are
+    // never dropped.
+    private val pendingIntents = ConcurrentLinkedQueue<I>()
+    private val pendingCount = AtomicInteger()
+    private val worker = Schedulers.io().createWorker().also { disposables += it }
+    private val drainIntents = Runnable { drain() }
+
+    private var currentState: S = initialState
+    private var previousIntent: I? = null
+
+    fun process(intent: I) {
+        pendingIntents.offer(intent)
+        if (pendingCount.getAndIncrement() == 0) {
+            worker.schedule(drainIntents)
         }
+    }
 
-    init {
-        disposables +=
-            intents.distinctUntilChanged(::distinctIntentFilter)
-                .observeOn(Schedulers.io())
-                .scan(initialState) { previousState, intent ->
-                    Timber.d("***> Model: ProcessIntent: ${intent.javaClass.simpleName}")
-                    if (intent.isValidFor(previousState)) {
-                        performAction(previousState, intent)?.let { disposables += it }
-                        intent.reduce(previousState)
-                    } else {
-                        Timber.d("***> Model: Dropping invalid Intent: ${intent.javaClass.simpleName}")
-                        previousState
-                    }
-                }
-                .subscribeOn(Schedulers.io())
-                .subscribeBy(
-                    onNext = { newState ->
-                        _state.accept(newState)
-                    },
-                    onError = { throwable ->
-                        throw throwable
-                    }
-                )
+    private fun drain() {
+        var missed = pendingCount.get()
+        while (true) {
+            repeat(missed) {
+                pendingIntents.poll()?.let { reduce(it) }
+            }
+            _state.accept(currentState)
+            missed = pendingCount.addAndGet(-missed)
+            if (missed == 0) break
+        }
     }
 
-    fun process(intent: I) = threadProxy.onNext(intent)
+    private fun reduce(intent: I) {
+        val previous = previousIntent
+        previousIntent = intent
+        if (previous != null && distinctIntentFilter(previous, intent)) return
+
+        val previousState = currentState
+        if (intent.isValidFor(previousState)) {
+            if (reduceMetrics != null) {
+                Timber.d("***> Model: ProcessIntent: ${intent.javaClass.simpleName}")
+            }
+            performAction(previousState, intent)?.let { disposables += it }
+            val start = System.nanoTime()
+            currentState = intent.reduce(previousState)
+            reduceMetrics?.record(intent.javaClass.simpleName, System.nanoTime() - start)
+        } else if (reduceMetrics != null) {
+            Timber.d("***> Model: Dropping invalid Intent: ${intent.javaClass.simpleName}")
+        }
+    }
 
     fun destroy() {
         disposables.clear()
@@ -3,13 +3,16 @@ package com.blockchain.commonarch.presentation.mvi_v2
 import android.os.Parcelable
 import androidx.lifecycle.ViewModel
 import androidx.lifecycle.viewModelScope
+import kotlinx.coroutines.delay
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.MutableSharedFlow
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.SharingStarted
 import kotlinx.coroutines.flow.StateFlow
-import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.dropWhile
 import kotlinx.coroutines.flow.stateIn
+import kotlinx.coroutines.flow.transform
+import kotlinx.coroutines.flow.update
 import kotlinx.coroutines.launch
 import timber.log.Timber
 
@@ -84,10 +87,12 @@ abstract class MviViewModel<TIntent : Intent<TModelState>,
 
     /**
      * Called by the Viewmodel whenever states [modelState] and [viewState] need to get updated.
+     * The update is atomic, so concurrent intents never overwrite each other's changes. The lambda
+     * may run more than once when updates race and must not have side effects.
      * @param stateUpdate a lambda that generates a new [modelState]
      */
     protected fun updateState(stateUpdate: (state: TModelState) -> TModelState) {
-        _modelState.value = stateUpdate(modelState)
+        _modelState.update(stateUpdate)
     }
 
     /**
@@ -100,12 +105,29 @@ abstract class MviViewModel<TIntent : Intent<TModelState>,
     }
 
     /**
-     * [viewState] flow always has a value
+     * Minimum time in milliseconds between two [reduce] calls. Model states updated in between are
+     * conflated and only the latest one is reduced once the interval has passed. Screens that update
+     * their state many times per frame can set this to [FRAME_MILLIS]. Defaults to reducing every state.
      */
-    val viewState: StateFlow<TViewState>
-        get() = _modelState.map {
-            reduce(it)
-        }.stateIn(viewModelScope, SharingStarted.Eagerly, reduce(initialState))
+    protected open val reduceIntervalMillis: Long = 0L
+
+    /**
+     * [viewState] flow always has a value.
+     *
+     * The flow is built once, on first access, and shared by every reader. Model states that are equal
+     * to the previous one are never reduced, and view states equal to the current one are not emitted.
+     * A slow [reduce] skips the model states that were replaced while it was running.
+     */
+    val viewState: StateFlow<TViewState> by lazy {
+        val currentState = modelState
+        _modelState
+            .dropWhile { it == currentState }
+            .transform {
+                emit(reduce(it))
+                if (reduceIntervalMillis > 0) delay(reduceIntervalMillis)
+            }
+            .stateIn(viewModelScope, SharingStarted.Eagerly, reduce(currentState))
+    }
 
     /**
      * Method that should be override in every Model created. In this method, base on the latest internal
@@ -136,4 +158,11 @@ abstract class MviViewModel<TIntent : Intent<TModelState>,
      * @param modelState The latest model internal state
      */
     protected abstract suspend fun handleIntent(modelState: TModelState, intent: TIntent)
+
+    companion object {
+        /**
+         * Duration of one frame at 60fps, for use as [reduceIntervalMillis]
+         */
+        const val FRAME_MILLIS = 16L
+    }
 }
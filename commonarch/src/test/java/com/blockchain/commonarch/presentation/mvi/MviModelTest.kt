@@ -0,0 +1,103 @@
+package com.blockchain.commonarch.presentation.mvi
+
+import com.blockchain.enviroment.EnvironmentConfig
+import com.blockchain.testutils.rxInit
+import com.nhaarman.mockitokotlin2.mock
+import io.reactivex.rxjava3.core.Completable
+import io.reactivex.rxjava3.disposables.Disposable
+import io.reactivex.rxjava3.schedulers.Schedulers
+import io.reactivex.rxjava3.schedulers.TestScheduler
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Rule
+import org.junit.Test
+
+class MviModelTest {
+
+    private val ioScheduler = TestScheduler()
+
+    @get:Rule
+    val rx = rxInit {
+        io(ioScheduler)
+    }
+
+    @Test
+    fun `a burst of intents is reduced in one batch and publishes only its final state`() {
+        val subject = CounterModel(debug = false)
+        val test = subject.state.test()
+
+        repeat(10) { subject.process(CounterIntent.Add(1)) }
+        ioScheduler.triggerActions()
+
+        test.assertValues(CounterState(0), CounterState(10))
+    }
+
+    @Test
+    fun `intents issued while reducing are reduced in the next batch`() {
+        val subject = CounterModel(debug = false)
+        val test = subject.state.test()
+
+        subject.process(CounterIntent.AddTwice(1))
+        ioScheduler.triggerActions()
+
+        test.assertValues(CounterState(0), CounterState(1), CounterState(2))
+    }
+
+    @Test
+    fun `intents processed from several threads are all reduced`() {
+        val subject = CounterModel(debug = false)
+
+        val threads = List(4) {
+            Thread { repeat(1_000) { subject.process(CounterIntent.Add(1)) } }
+        }
+        threads.forEach { it.start() }
+        threads.forEach { it.join() }
+        ioScheduler.triggerActions()
+
+        subject.state.test().assertValue(CounterState(4_000))
+    }
+
+    @Test
+    fun `reduce times are only recorded in debug builds`() {
+        val release = CounterModel(debug = false)
+        val debug = CounterModel(debug = true)
+
+        repeat(3) { debug.process(CounterIntent.Add(1)) }
+        ioScheduler.triggerActions()
+
+        assertNull(release.reduceMetrics)
+        debug.reduceMetrics!!.snapshot().single().apply {
+            assertEquals("Add", intent)
+            assertEquals(3, count)
+        }
+    }
+}
+
+private data class CounterState(val count: Int) : MviState
+
+private sealed class CounterIntent : MviIntent<CounterState> {
+    class Add(private val amount: Int) : CounterIntent() {
+        override fun reduce(oldState: CounterState) = oldState.copy(count = oldState.count + amount)
+    }
+
+    class AddTwice(val amount: Int) : CounterIntent() {
+        override fun reduce(oldState: CounterState) = oldState.copy(count = oldState.count + amount)
+    }
+}
+
+private class CounterModel(debug: Boolean) : MviModel<CounterState, CounterIntent>(
+    initialState = CounterState(0),
+    uiScheduler = Schedulers.trampoline(),
+    environmentConfig = mock<EnvironmentConfig> {
+        on { isRunningInDebugMode() }.thenReturn(debug)
+    },
+    remoteLogger = mock()
+) {
+    override fun performAction(previousState: CounterState, intent: CounterIntent): Disposable? =
+        when (intent) {
+            is CounterIntent.AddTwice -> Completable.complete().subscribe {
+                process(CounterIntent.Add(intent.amount))
+            }
+            is CounterIntent.Add -> null
+        }
+}
@@ -0,0 +1,112 @@
+package com.blockchain.commonarch.presentation.mvi_v2
+
+import androidx.lifecycle.viewModelScope
+import com.blockchain.testutils.CoroutineTestRule
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.test.advanceTimeBy
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertSame
+import org.junit.Rule
+import org.junit.Test
+
+@ExperimentalCoroutinesApi
+class MviViewModelTest {
+
+    @get:Rule
+    val coroutineTestRule = CoroutineTestRule()
+
+    @Test
+    fun `reading the view state does not start new coroutines`() {
+        val subject = CounterViewModel()
+        val viewState = subject.viewState
+        val coroutines = subject.runningCoroutines()
+
+        repeat(1_000) {
+            assertSame(viewState, subject.viewState)
+        }
+
+        assertEquals(coroutines, subject.runningCoroutines())
+        assertEquals(1, subject.reduceCount)
+    }
+
+    @Test
+    fun `each distinct model state is reduced once`() {
+        val subject = CounterViewModel()
+        subject.viewState
+
+        subject.onIntent(CounterIntent.Add(1))
+        subject.onIntent(CounterIntent.Add(0))
+        subject.onIntent(CounterIntent.Add(2))
+        repeat(10) { subject.viewState.value }
+
+        assertEquals(CounterViewState("3"), subject.viewState.value)
+        assertEquals(3, subject.reduceCount)
+    }
+
+    @Test
+    fun `concurrent updates are not lost`() {
+        val subject = CounterViewModel()
+
+        val threads = List(4) {
+            Thread { repeat(1_000) { subject.onIntent(CounterIntent.Add(1)) } }
+        }
+        threads.forEach { it.start() }
+        threads.forEach { it.join() }
+
+        assertEquals(CounterViewState("4000"), subject.viewState.value)
+    }
+
+    @Test
+    fun `a reduce interval conflates the states updated within it`() = runTest {
+        val subject = CounterViewModel(reduceIntervalMillis = MviViewModel.FRAME_MILLIS)
+        subject.viewState
+
+        repeat(10) { subject.onIntent(CounterIntent.Add(1)) }
+        assertEquals(CounterViewState("1"), subject.viewState.value)
+
+        advanceTimeBy(MviViewModel.FRAME_MILLIS)
+        runCurrent()
+
+        assertEquals(CounterViewState("10"), subject.viewState.value)
+        assertEquals(3, subject.reduceCount)
+    }
+
+    private fun MviViewModel<*, *, *, *, *>.runningCoroutines() =
+        viewModelScope.coroutineContext[Job]!!.children.count()
+}
+
+private data class CounterModelState(val count: Int = 0) : ModelState
+
+private data class CounterViewState(val count: String) : ViewState
+
+private sealed interface CounterIntent : Intent<CounterModelState> {
+    data class Add(val amount: Int) : CounterIntent
+}
+
+private object CounterNavigationEvent : NavigationEvent
+
+private class CounterViewModel(
+    override val reduceIntervalMillis: Long = 0L
+) : MviViewModel<CounterIntent, CounterViewState, CounterModelState, CounterNavigationEvent, ModelConfigArgs.NoArgs>(
+    CounterModelState()
+) {
+    @Volatile
+    var reduceCount = 0
+        private set
+
+    override fun viewCreated(args: ModelConfigArgs.NoArgs) {}
+
+    override fun reduce(state: CounterModelState): CounterViewState {
+        reduceCount++
+        return CounterViewState(state.count.toString())
+    }
+
+    override suspend fun handleIntent(modelState: CounterModelState, intent: CounterIntent) {
+        when (intent) {
+            is CounterIntent.Add -> updateState { it.copy(count = it.count + intent.amount) }
+        }
+    }
+}
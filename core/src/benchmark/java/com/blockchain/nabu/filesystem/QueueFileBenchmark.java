@@ -0,0 +1,203 @@
+package com.blockchain.nabu.filesystem;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link QueueFile} with {@link JournaledQueueFile} on the analytics access pattern: records of a few hundred
+ * bytes appended one at a time or in groups, then read and removed in batches of 30.
+ *
+ * Both queues force every change to storage, so the numbers depend heavily on the device or disk they run on.
+ *
+ * Run with `./gradlew :core:queueFileBenchmark`
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueueFileBenchmark {
+
+    private static final int RECORD_SIZE = 256;
+    private static final int READ_BATCH_SIZE = 30;
+    private static final int PRELOADED_RECORDS = 1000;
+
+    @Param({"QueueFile", "JournaledQueueFile"})
+    public String implementation;
+
+    @Param({"1", "20"})
+    public int appendBatchSize;
+
+    private File directory;
+    private Queue queue;
+    private List<byte[]> batch;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("queue-benchmark").toFile();
+        File file = new File(directory, "queue");
+        queue = implementation.equals("QueueFile")
+            ? new LegacyQueue(new QueueFile(file))
+            : new JournaledQueue(new JournaledQueueFile(file));
+
+        byte[] record = new byte[RECORD_SIZE];
+        Arrays.fill(record, (byte) 'a');
+        batch = new ArrayList<>(appendBatchSize);
+        for (int i = 0; i < appendBatchSize; i++) {
+            batch.add(record);
+        }
+        for (int i = 0; i < PRELOADED_RECORDS; i++) {
+            queue.add(record);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        queue.close();
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                //noinspection ResultOfMethodCallIgnored
+                file.delete();
+            }
+        }
+        //noinspection ResultOfMethodCallIgnored
+        directory.delete();
+    }
+
+    /**
+     * One group of appends, as an event burst would produce
+     */
+    @Benchmark
+    public long append() throws IOException {
+        if (appendBatchSize == 1) {
+            queue.add(batch.get(0));
+        } else {
+            queue.addAll(batch);
+        }
+        return queue.size();
+    }
+
+    /**
+     * Reads and removes a batch, refilling the queue first so that it never runs dry
+     */
+    @Benchmark
+    public List<String> readAndRemove() throws IOException {
+        if (queue.size() < READ_BATCH_SIZE) {
+            for (int i = 0; i < PRELOADED_RECORDS; i += appendBatchSize) {
+                queue.addAll(batch);
+            }
+        }
+        List<String> items = queue.read(READ_BATCH_SIZE);
+        queue.remove(READ_BATCH_SIZE);
+        return items;
+    }
+
+    private interface Queue extends Closeable {
+        void add(byte[] record) throws IOException;
+
+        void addAll(List<byte[]> records) throws IOException;
+
+        List<String> read(long n) throws IOException;
+
+        void remove(int n) throws IOException;
+
+        long size();
+    }
+
+    private static final class LegacyQueue implements Queue {
+        private final QueueFile queueFile;
+
+        LegacyQueue(QueueFile queueFile) {
+            this.queueFile = queueFile;
+        }
+
+        @Override
+        public void add(byte[] record) throws IOException {
+            queueFile.add(record);
+        }
+
+        @Override
+        public void addAll(List<byte[]> records) throws IOException {
+            queueFile.addAll(records);
+        }
+
+        @Override
+        public List<String> read(long n) throws IOException {
+            return queueFile.read(n);
+        }
+
+        @Override
+        public void remove(int n) throws IOException {
+            queueFile.remove(n);
+        }
+
+        @Override
+        public long size() {
+            return queueFile.size();
+        }
+
+        @Override
+        public void close() throws IOException {
+            queueFile.close();
+        }
+    }
+
+    private static final class JournaledQueue implements Queue {
+        private final JournaledQueueFile queueFile;
+
+        JournaledQueue(JournaledQueueFile queueFile) {
+            this.queueFile = queueFile;
+        }
+
+        @Override
+        public void add(byte[] record) throws IOException {
+            queueFile.add(record);
+        }
+
+        @Override
+        public void addAll(List<byte[]> records) throws IOException {
+            queueFile.addAll(records);
+        }
+
+        @Override
+        public List<String> read(long n) throws IOException {
+            return queueFile.read(n);
+        }
+
+        @Override
+        public void remove(int n) throws IOException {
+            queueFile.remove(n);
+        }
+
+        @Override
+        public long size() {
+            return queueFile.size();
+        }
+
+        @Override
+        public void close() throws IOException {
+            queueFile.close();
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.blockchain.api.assetdiscovery.data.AssetInformationDto
 import com.blockchain.api.services.AssetDiscoveryApiService
 import com.blockchain.store.Fetcher
 import com.blockchain.store.KeyedStore
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.Freshness
 import com.blockchain.store.impl.FreshnessMediator
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
@@ -11,8 +12,9 @@ import com.blockchain.storedatasource.KeyedFlushableDataSource
 import kotlinx.serialization.Serializable
 
 class AssetInformationStore(
-    private val discoveryService: AssetDiscoveryApiService
-) : KeyedStore<AssetInformationStore.Key, AssetInformationDto> by PersistedJsonSqlDelightStoreBuilder()
+    private val discoveryService: AssetDiscoveryApiService,
+    storeMetrics: StoreMetrics? = null
+) : KeyedStore<AssetInformationStore.Key, AssetInformationDto> by PersistedJsonSqlDelightStoreBuilder(storeMetrics)
     .buildKeyed(
         storeId = STORE_ID,
         fetcher = Fetcher.Keyed.ofOutcome(
@@ -5,6 +5,7 @@ import com.blockchain.nabu.models.responses.simplebuy.BuySellOrderResponse
 import com.blockchain.nabu.service.NabuService
 import com.blockchain.store.Fetcher
 import com.blockchain.store.KeyedStore
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.Freshness
 import com.blockchain.store.impl.FreshnessMediator
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
@@ -14,8 +15,9 @@ import kotlinx.serialization.Serializable
 import kotlinx.serialization.builtins.ListSerializer
 
 class BuyOrdersStore(
-    private val nabuService: NabuService
-) : KeyedStore<BuyOrdersStore.Key, BuyOrderListResponse> by PersistedJsonSqlDelightStoreBuilder()
+    private val nabuService: NabuService,
+    storeMetrics: StoreMetrics? = null
+) : KeyedStore<BuyOrdersStore.Key, BuyOrderListResponse> by PersistedJsonSqlDelightStoreBuilder(storeMetrics)
     .buildKeyed(
         storeId = STORE_ID,
         fetcher = Fetcher.Keyed.ofOutcome(
@@ -4,14 +4,16 @@ import com.blockchain.nabu.models.responses.simplebuy.SimpleBuyPairsDto
 import com.blockchain.nabu.service.NabuService
 import com.blockchain.store.Fetcher
 import com.blockchain.store.Store
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.Freshness
 import com.blockchain.store.impl.FreshnessMediator
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
 import com.blockchain.storedatasource.FlushableDataSource
 
 class BuyPairsStore(
-    private val nabuService: NabuService
-) : Store<SimpleBuyPairsDto> by PersistedJsonSqlDelightStoreBuilder()
+    private val nabuService: NabuService,
+    storeMetrics: StoreMetrics? = null
+) : Store<SimpleBuyPairsDto> by PersistedJsonSqlDelightStoreBuilder(storeMetrics)
     .build(
         storeId = STORE_ID,
         fetcher = Fetcher.Keyed.ofSingle(
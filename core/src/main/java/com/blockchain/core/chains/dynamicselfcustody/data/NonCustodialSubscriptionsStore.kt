@@ -4,6 +4,7 @@ import com.blockchain.api.selfcustody.GetSubscriptionsResponse
 import com.blockchain.api.services.DynamicSelfCustodyService
 import com.blockchain.store.Fetcher
 import com.blockchain.store.Store
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.Freshness
 import com.blockchain.store.impl.FreshnessMediator
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
@@ -11,7 +12,8 @@ import com.blockchain.storedatasource.FlushableDataSource
 
 internal class NonCustodialSubscriptionsStore(
     private val dynamicSelfCustodyService: DynamicSelfCustodyService,
-) : Store<GetSubscriptionsResponse> by PersistedJsonSqlDelightStoreBuilder()
+    storeMetrics: StoreMetrics? = null,
+) : Store<GetSubscriptionsResponse> by PersistedJsonSqlDelightStoreBuilder(storeMetrics)
     .build(
         storeId = STORE_ID,
         fetcher = Fetcher.ofOutcome(
@@ -5,31 +5,49 @@ import com.blockchain.api.ethereum.evm.TransactionDirection
 import com.blockchain.api.services.Erc20Transfer
 import com.blockchain.api.services.NonCustodialErc20Service
 import com.blockchain.api.services.NonCustodialEvmService
+import com.blockchain.core.chains.erc20.data.store.Erc20TransactionFeeStore
 import com.blockchain.core.chains.erc20.domain.model.Erc20HistoryEvent
 import com.blockchain.core.chains.erc20.domain.model.Erc20HistoryList
 import com.blockchain.core.chains.ethereum.EthDataManager
+import com.blockchain.data.KeyedFreshnessStrategy
 import com.blockchain.extensions.filterIf
 import com.blockchain.outcome.map
+import com.blockchain.store.firstOutcome
 import com.blockchain.utils.rxSingleOutcome
 import info.blockchain.balance.AssetCatalogue
 import info.blockchain.balance.AssetInfo
 import info.blockchain.balance.CryptoCurrency
 import info.blockchain.balance.CryptoValue
 import info.blockchain.balance.Money
+import io.reactivex.rxjava3.core.Observable
 import io.reactivex.rxjava3.core.Single
 import java.math.BigInteger
+import java.util.concurrent.ConcurrentHashMap
 
-// This doesn't cache anything at this time, since it makes a call for a single
-// asset. We can review this, when we look at activity caching in detail
+// Keeps each history call for a short while, so that screens opened one after the other share it.
+// Fees of ETH network transfers are resolved in batches and persisted by [Erc20TransactionFeeStore].
 
 internal class Erc20HistoryCallCache(
     private val ethDataManager: EthDataManager,
     private val erc20Service: NonCustodialErc20Service,
     private val evmService: NonCustodialEvmService,
-    private val assetCatalogue: AssetCatalogue
+    private val assetCatalogue: AssetCatalogue,
+    private val feeStore: Erc20TransactionFeeStore,
+    private val currentTimeMillis: () -> Long = System::currentTimeMillis
 ) {
+    private val historyCache = ConcurrentHashMap<HistoryKey, CachedHistory>()
+
     fun fetch(accountHash: String, asset: AssetInfo, parentChain: String): Single<Erc20HistoryList> {
+        val key = HistoryKey(accountHash, asset.networkTicker, parentChain)
+        val now = currentTimeMillis()
+        val cached = historyCache.compute(key) { _, existing ->
+            existing?.takeIf { now - it.fetchedAt < HISTORY_TTL_MILLIS }
+                ?: CachedHistory(fetchFromNetwork(accountHash, asset, parentChain).cache(), now)
+        }!!
+        return cached.history.doOnError { historyCache.remove(key, cached) }
+    }
 
+    private fun fetchFromNetwork(accountHash: String, asset: AssetInfo, parentChain: String): Single<Erc20HistoryList> {
         return if (parentChain == CryptoCurrency.ETHER.networkTicker) {
             fetchErc20FromEthNetwork(accountHash, asset)
         } else {
@@ -58,21 +76,40 @@ internal class Erc20HistoryCallCache(
         checkNotNull(contractAddress)
         return erc20Service.getTokenTransfers(accountHash, contractAddress)
             .map { list ->
-                list.map { tx ->
-                    tx.toHistoryEvent(
-                        asset,
-                        getFeeFetcher(tx.transactionHash)
-                    )
+                // The first fee requested from a batch resolves the fees of the whole batch
+                list.chunked(FEE_BATCH_SIZE).flatMap { batch ->
+                    val fees = resolveFees(batch.map { it.transactionHash }).cache()
+                    batch.map { tx ->
+                        val fee = fees.flatMap { resolved ->
+                            resolved[tx.transactionHash]?.let { Single.just(it) } ?: getFee(tx.transactionHash)
+                        }
+                        tx.toHistoryEvent(asset, fee)
+                    }
                 }
             }
     }
 
-    private fun getFeeFetcher(txHash: String): Single<Money> =
-        ethDataManager.getTransaction(txHash)
-            .map { transaction ->
-                val fee = transaction.gasUsed * transaction.gasPrice
-                Money.fromMinor(CryptoCurrency.ETHER, fee)
-            }.firstOrError()
+    /**
+     * Resolves the fee of every transaction, with at most [MAX_CONCURRENT_FEE_REQUESTS] in flight.
+     * Transactions whose fee could not be resolved are left out of the result.
+     */
+    private fun resolveFees(txHashes: List<String>): Single<Map<String, Money>> =
+        Observable.fromIterable(txHashes.distinct())
+            .flatMapMaybe(
+                { txHash -> getFee(txHash).map { txHash to it }.toMaybe().onErrorComplete() },
+                false,
+                MAX_CONCURRENT_FEE_REQUESTS
+            )
+            .toList()
+            .map { it.toMap() }
+
+    private fun getFee(txHash: String): Single<Money> =
+        rxSingleOutcome {
+            feeStore.stream(
+                KeyedFreshnessStrategy.Cached(Erc20TransactionFeeStore.Key(txHash), forceRefresh = false)
+            ).firstOutcome()
+                .map { Money.fromMinor(CryptoCurrency.ETHER, it.fee) }
+        }
 
     private fun getFeeFromEvmNetwork(
         evmTransactionResponse: EvmTransactionResponse,
@@ -94,7 +131,24 @@ internal class Erc20HistoryCallCache(
         } != null
 
     fun flush(asset: AssetInfo) {
-        // Do nothing
+        historyCache.keys.removeAll { it.assetTicker == asset.networkTicker }
+    }
+
+    private data class HistoryKey(
+        val accountHash: String,
+        val assetTicker: String,
+        val parentChain: String
+    )
+
+    private class CachedHistory(
+        val history: Single<Erc20HistoryList>,
+        val fetchedAt: Long
+    )
+
+    companion object {
+        private const val HISTORY_TTL_MILLIS = 60_000L
+        private const val FEE_BATCH_SIZE = 20
+        private const val MAX_CONCURRENT_FEE_REQUESTS = 4
     }
 }
 
@@ -13,6 +13,7 @@ import com.blockchain.store.CachedData
 import com.blockchain.store.Fetcher
 import com.blockchain.store.KeyedStore
 import com.blockchain.store.Mediator
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.mapData
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
 import com.blockchain.utils.rxSingleOutcome
@@ -24,7 +25,8 @@ import kotlinx.serialization.Serializable
 class Erc20L2Store(
     private val evmService: NonCustodialEvmService,
     private val ethDataManager: EthDataManager,
-) : KeyedStore<Erc20L2Store.Key, Erc20L2BalancesStore> by PersistedJsonSqlDelightStoreBuilder()
+    storeMetrics: StoreMetrics? = null,
+) : KeyedStore<Erc20L2Store.Key, Erc20L2BalancesStore> by PersistedJsonSqlDelightStoreBuilder(storeMetrics)
     .buildKeyed(
         storeId = STORE_ID,
         fetcher = Fetcher.Keyed.ofSingle(
@@ -12,6 +12,7 @@ import com.blockchain.store.CachedData
 import com.blockchain.store.Fetcher
 import com.blockchain.store.Mediator
 import com.blockchain.store.Store
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.mapData
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
 import java.util.Calendar
@@ -21,7 +22,8 @@ import kotlinx.coroutines.flow.Flow
 internal class Erc20Store(
     private val erc20Service: NonCustodialErc20Service,
     private val ethDataManager: EthDataManager,
-) : Store<Erc20TokenBalancesStore> by PersistedJsonSqlDelightStoreBuilder()
+    storeMetrics: StoreMetrics? = null,
+) : Store<Erc20TokenBalancesStore> by PersistedJsonSqlDelightStoreBuilder(storeMetrics)
     .build(
         storeId = STORE_ID,
         fetcher = Fetcher.ofSingle(
@@ -0,0 +1,58 @@
+package com.blockchain.core.chains.erc20.data.store
+
+import com.blockchain.core.chains.ethereum.EthDataManager
+import com.blockchain.serializers.BigIntSerializer
+import com.blockchain.store.CachedData
+import com.blockchain.store.Fetcher
+import com.blockchain.store.KeyedStore
+import com.blockchain.store.Mediator
+import com.blockchain.store.StoreMetrics
+import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
+import java.math.BigInteger
+import kotlinx.serialization.Serializable
+
+/**
+ * Fees paid by ETH transactions, keyed by transaction hash.
+ * The fee of a confirmed transaction never changes, so it is only fetched once.
+ */
+class Erc20TransactionFeeStore(
+    private val ethDataManager: EthDataManager,
+    storeMetrics: StoreMetrics? = null,
+) : KeyedStore<Erc20TransactionFeeStore.Key, Erc20TransactionFee> by PersistedJsonSqlDelightStoreBuilder(storeMetrics)
+    .buildKeyed(
+        storeId = STORE_ID,
+        fetcher = Fetcher.Keyed.ofSingle { key ->
+            ethDataManager.getTransaction(key.txHash)
+                .firstOrError()
+                .map { transaction ->
+                    Erc20TransactionFee(
+                        fee = transaction.gasUsed * transaction.gasPrice,
+                        isConfirmed = transaction.state == CONFIRMED_STATE
+                    )
+                }
+        },
+        keySerializer = Key.serializer(),
+        dataSerializer = Erc20TransactionFee.serializer(),
+        mediator = object : Mediator<Key, Erc20TransactionFee> {
+            override fun shouldFetch(cachedData: CachedData<Key, Erc20TransactionFee>?): Boolean =
+                cachedData == null || !cachedData.data.isConfirmed
+        }
+    ) {
+
+    @Serializable
+    data class Key(
+        val txHash: String
+    )
+
+    companion object {
+        private const val STORE_ID = "Erc20TransactionFeeStore"
+        private const val CONFIRMED_STATE = "CONFIRMED"
+    }
+}
+
+@Serializable
+data class Erc20TransactionFee(
+    @Serializable(with = BigIntSerializer::class)
+    val fee: BigInteger,
+    val isConfirmed: Boolean
+)
@@ -7,6 +7,7 @@ import com.blockchain.outcome.Outcome
 import com.blockchain.serializers.BigIntSerializer
 import com.blockchain.store.Fetcher
 import com.blockchain.store.KeyedStore
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.Freshness
 import com.blockchain.store.impl.FreshnessMediator
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
@@ -19,8 +20,9 @@ import kotlinx.serialization.Serializable
  */
 class L1BalanceStore(
     private val ethDataManager: EthDataManager,
-    private val remoteLogger: RemoteLogger
-) : KeyedStore<L1BalanceStore.Key, BigInteger> by PersistedJsonSqlDelightStoreBuilder()
+    private val remoteLogger: RemoteLogger,
+    storeMetrics: StoreMetrics? = null
+) : KeyedStore<L1BalanceStore.Key, BigInteger> by PersistedJsonSqlDelightStoreBuilder(storeMetrics)
     .buildKeyed(
         storeId = STORE_ID,
         fetcher = Fetcher.Keyed.ofOutcome(
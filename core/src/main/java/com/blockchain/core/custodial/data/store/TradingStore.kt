@@ -4,6 +4,7 @@ import com.blockchain.api.custodial.data.TradingBalanceResponseDto
 import com.blockchain.api.services.CustodialBalanceService
 import com.blockchain.store.Fetcher
 import com.blockchain.store.Store
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.Freshness
 import com.blockchain.store.impl.FreshnessMediator
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
@@ -13,7 +14,8 @@ import kotlinx.serialization.builtins.serializer
 
 class TradingStore(
     private val balanceService: CustodialBalanceService,
-) : Store<Map<String, TradingBalanceResponseDto>> by PersistedJsonSqlDelightStoreBuilder()
+    storeMetrics: StoreMetrics? = null,
+) : Store<Map<String, TradingBalanceResponseDto>> by PersistedJsonSqlDelightStoreBuilder(storeMetrics)
     .build(
         storeId = STORE_ID,
         fetcher = Fetcher.ofSingle(
@@ -5,13 +5,15 @@ import com.blockchain.core.eligibility.mapper.toDomain
 import com.blockchain.outcome.map
 import com.blockchain.store.Fetcher
 import com.blockchain.store.Store
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.Freshness
 import com.blockchain.store.impl.FreshnessMediator
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
 
 class ProductsEligibilityStore(
-    private val productEligibilityApi: EligibilityApiService
-) : Store<ProductsEligibilityData> by PersistedJsonSqlDelightStoreBuilder().build(
+    private val productEligibilityApi: EligibilityApiService,
+    storeMetrics: StoreMetrics? = null
+) : Store<ProductsEligibilityData> by PersistedJsonSqlDelightStoreBuilder(storeMetrics).build(
     storeId = STORE_ID,
     fetcher = Fetcher.ofOutcome {
         productEligibilityApi.getProductEligibility()
@@ -22,7 +24,8 @@ class ProductsEligibilityStore(
             }
     },
     dataSerializer = ProductsEligibilityData.serializer(),
-    mediator = FreshnessMediator(Freshness.ofMinutes(15))
+    mediator = FreshnessMediator(Freshness.ofMinutes(15)),
+    payloadFormat = PersistedJsonSqlDelightStoreBuilder.PayloadFormat.CBOR
 ) {
     fun invalidate() {
         markAsStale()
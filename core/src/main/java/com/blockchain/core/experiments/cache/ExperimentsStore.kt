@@ -3,14 +3,16 @@ package com.blockchain.core.experiments.cache
 import com.blockchain.api.services.ExperimentsApiService
 import com.blockchain.store.Fetcher
 import com.blockchain.store.Store
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.Freshness
 import com.blockchain.store.impl.FreshnessMediator
 import com.blockchain.store_caches_inmemory.InMemoryCacheStoreBuilder
 import com.blockchain.utils.rxSingleOutcome
 
 class ExperimentsStore(
-    private val experimentsApiService: ExperimentsApiService
-) : Store<Map<String, Int>> by InMemoryCacheStoreBuilder().build(
+    private val experimentsApiService: ExperimentsApiService,
+    storeMetrics: StoreMetrics? = null
+) : Store<Map<String, Int>> by InMemoryCacheStoreBuilder(storeMetrics).build(
     storeId = STORE_ID,
     fetcher = Fetcher.ofSingle(
         mapper = {
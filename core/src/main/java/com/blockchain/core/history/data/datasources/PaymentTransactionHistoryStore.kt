@@ -4,6 +4,7 @@ import com.blockchain.nabu.models.responses.simplebuy.TransactionsResponse
 import com.blockchain.nabu.service.NabuService
 import com.blockchain.store.Fetcher
 import com.blockchain.store.KeyedStore
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.Freshness
 import com.blockchain.store.impl.FreshnessMediator
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
@@ -14,7 +15,8 @@ import kotlinx.serialization.Serializable
 // todo(othman) rename?
 class PaymentTransactionHistoryStore(
     private val nabuService: NabuService,
-) : KeyedStore<PaymentTransactionHistoryStore.Key, TransactionsResponse> by PersistedJsonSqlDelightStoreBuilder()
+    storeMetrics: StoreMetrics? = null,
+) : KeyedStore<PaymentTransactionHistoryStore.Key, TransactionsResponse> by PersistedJsonSqlDelightStoreBuilder(storeMetrics)
     .buildKeyed(
         storeId = STORE_ID,
         fetcher = Fetcher.Keyed.ofSingle(
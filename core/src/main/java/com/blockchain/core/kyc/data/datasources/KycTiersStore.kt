@@ -9,6 +9,7 @@ import com.blockchain.store.CachedData
 import com.blockchain.store.Fetcher
 import com.blockchain.store.Mediator
 import com.blockchain.store.Store
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
 import com.blockchain.storedatasource.FlushableDataSource
 import java.util.Calendar
@@ -16,7 +17,8 @@ import java.util.concurrent.TimeUnit
 
 class KycTiersStore internal constructor(
     private val kycApiService: KycApiService,
-) : Store<KycTiersDto> by PersistedJsonSqlDelightStoreBuilder()
+    storeMetrics: StoreMetrics? = null,
+) : Store<KycTiersDto> by PersistedJsonSqlDelightStoreBuilder(storeMetrics)
     .build(
         storeId = STORE_ID,
         fetcher = Fetcher.Keyed.ofSingle(
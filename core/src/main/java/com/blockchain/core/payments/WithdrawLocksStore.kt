@@ -5,6 +5,7 @@ import com.blockchain.api.services.PaymentsService
 import com.blockchain.preferences.CurrencyPrefs
 import com.blockchain.store.Fetcher
 import com.blockchain.store.Store
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.Freshness
 import com.blockchain.store.impl.FreshnessMediator
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
@@ -13,8 +14,9 @@ import com.blockchain.utils.awaitOutcome
 
 class WithdrawLocksStore(
     private val paymentsService: PaymentsService,
-    private val currencyPrefs: CurrencyPrefs
-) : Store<CollateralLocks> by PersistedJsonSqlDelightStoreBuilder()
+    private val currencyPrefs: CurrencyPrefs,
+    storeMetrics: StoreMetrics? = null
+) : Store<CollateralLocks> by PersistedJsonSqlDelightStoreBuilder(storeMetrics)
     .build(
         storeId = STORE_ID,
         fetcher = Fetcher.ofOutcome(
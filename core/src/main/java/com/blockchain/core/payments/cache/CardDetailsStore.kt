@@ -4,6 +4,7 @@ import com.blockchain.api.paymentmethods.models.CardResponse
 import com.blockchain.api.services.PaymentMethodsService
 import com.blockchain.store.Fetcher
 import com.blockchain.store.KeyedStore
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.Freshness
 import com.blockchain.store.impl.FreshnessMediator
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
@@ -11,10 +12,11 @@ import com.blockchain.storedatasource.KeyedFlushableDataSource
 import kotlinx.serialization.Serializable
 
 class CardDetailsStore(
-    private val paymentMethodsService: PaymentMethodsService
+    private val paymentMethodsService: PaymentMethodsService,
+    storeMetrics: StoreMetrics? = null
 ) : KeyedStore<CardDetailsStore.Key,
     CardResponse
-    > by PersistedJsonSqlDelightStoreBuilder().buildKeyed(
+    > by PersistedJsonSqlDelightStoreBuilder(storeMetrics).buildKeyed(
     storeId = "CardDetailsStore",
     fetcher = Fetcher.Keyed.ofSingle(
         mapper = { key ->
@@ -4,6 +4,7 @@ import com.blockchain.api.payments.data.LinkedBankTransferResponse
 import com.blockchain.api.services.PaymentMethodsService
 import com.blockchain.store.Fetcher
 import com.blockchain.store.KeyedStore
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.Freshness
 import com.blockchain.store.impl.FreshnessMediator
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
@@ -11,10 +12,11 @@ import com.blockchain.storedatasource.KeyedFlushableDataSource
 import kotlinx.serialization.Serializable
 
 class LinkedBankStore(
-    private val paymentMethodsService: PaymentMethodsService
+    private val paymentMethodsService: PaymentMethodsService,
+    storeMetrics: StoreMetrics? = null
 ) : KeyedStore<LinkedBankStore.Key,
     LinkedBankTransferResponse
-    > by PersistedJsonSqlDelightStoreBuilder().buildKeyed(
+    > by PersistedJsonSqlDelightStoreBuilder(storeMetrics).buildKeyed(
     storeId = "LinkedBankStore",
     fetcher = Fetcher.Keyed.ofSingle { key ->
         paymentMethodsService.getLinkedBank(id = key.id)
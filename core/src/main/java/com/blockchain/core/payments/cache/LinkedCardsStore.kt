@@ -4,6 +4,7 @@ import com.blockchain.api.paymentmethods.models.CardResponse
 import com.blockchain.api.services.PaymentMethodsService
 import com.blockchain.store.Fetcher
 import com.blockchain.store.Store
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.Freshness
 import com.blockchain.store.impl.FreshnessMediator
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
@@ -11,7 +12,8 @@ import kotlinx.serialization.builtins.ListSerializer
 
 class LinkedCardsStore(
     private val paymentMethodsService: PaymentMethodsService,
-) : Store<List<CardResponse>> by PersistedJsonSqlDelightStoreBuilder().build(
+    storeMetrics: StoreMetrics? = null,
+) : Store<List<CardResponse>> by PersistedJsonSqlDelightStoreBuilder(storeMetrics).build(
     storeId = STORE_ID,
     fetcher = Fetcher.ofSingle {
         paymentMethodsService.getCards(cardProvidersSupported = true)
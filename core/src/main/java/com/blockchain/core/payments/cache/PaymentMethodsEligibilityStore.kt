@@ -4,6 +4,7 @@ import com.blockchain.api.paymentmethods.models.PaymentMethodResponse
 import com.blockchain.api.services.PaymentMethodsService
 import com.blockchain.store.Fetcher
 import com.blockchain.store.KeyedStore
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.Freshness
 import com.blockchain.store.impl.FreshnessMediator
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
@@ -11,11 +12,12 @@ import kotlinx.serialization.Serializable
 import kotlinx.serialization.builtins.ListSerializer
 
 class PaymentMethodsEligibilityStore(
-    private val paymentMethodsService: PaymentMethodsService
+    private val paymentMethodsService: PaymentMethodsService,
+    storeMetrics: StoreMetrics? = null
 ) : KeyedStore<
     PaymentMethodsEligibilityStore.Key,
     List<PaymentMethodResponse>
-    > by PersistedJsonSqlDelightStoreBuilder().buildKeyed(
+    > by PersistedJsonSqlDelightStoreBuilder(storeMetrics).buildKeyed(
     storeId = STORE_ID,
     fetcher = Fetcher.Keyed.ofSingle(
         mapper = { key ->
@@ -4,6 +4,7 @@ import com.blockchain.api.payments.data.PaymentMethodDetailsResponse
 import com.blockchain.api.services.PaymentsService
 import com.blockchain.store.Fetcher
 import com.blockchain.store.KeyedStore
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.Freshness
 import com.blockchain.store.impl.FreshnessMediator
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
@@ -11,10 +12,11 @@ import com.blockchain.storedatasource.KeyedFlushableDataSource
 import kotlinx.serialization.Serializable
 
 class PaymentMethodsStore(
-    private val paymentsService: PaymentsService
+    private val paymentsService: PaymentsService,
+    storeMetrics: StoreMetrics? = null
 ) : KeyedStore<PaymentMethodsStore.Key,
     PaymentMethodDetailsResponse
-    > by PersistedJsonSqlDelightStoreBuilder().buildKeyed(
+    > by PersistedJsonSqlDelightStoreBuilder(storeMetrics).buildKeyed(
     storeId = "PaymentMethodsStore",
     fetcher = Fetcher.Keyed.ofOutcome { key ->
         paymentsService.getPaymentMethodDetailsForId(key.paymentId)
@@ -99,11 +99,16 @@ interface ExchangeRatesDataManager : ExchangeRates {
         freshnessStrategy: FreshnessStrategy = FreshnessStrategy.Cached(forceRefresh = true)
     ): Flow<DataResource<Prices24HrWithDelta>>
 
+    /**
+     * @param maxPoints downsample the series to about this many points, usually the width of the chart in
+     * pixels, while keeping its shape and extremes. Null returns every point.
+     */
     fun getHistoricPriceSeries(
         asset: Currency,
         span: HistoricalTimeSpan,
         now: Calendar = Calendar.getInstance(),
-        freshnessStrategy: FreshnessStrategy = FreshnessStrategy.Cached(forceRefresh = true)
+        freshnessStrategy: FreshnessStrategy = FreshnessStrategy.Cached(forceRefresh = true),
+        maxPoints: Int? = null
     ): Flow<DataResource<HistoricalRateList>>
 
     // Specialised call to historic rates for sparkline caching
@@ -1,37 +1,171 @@
 package com.blockchain.core.price.historic
 
-import com.blockchain.data.KeyedFreshnessStrategy
-import com.blockchain.outcome.map
-import com.blockchain.store.firstOutcome
-import com.blockchain.utils.rxSingleOutcome
+import com.blockchain.api.services.AssetPriceService
+import com.blockchain.api.services.PriceTimescale
+import com.blockchain.core.price.model.AssetPriceNotFoundException
+import com.blockchain.store.Cache
+import com.blockchain.store.CachedData
 import info.blockchain.balance.AssetInfo
 import info.blockchain.balance.ExchangeRate
 import info.blockchain.balance.FiatCurrency
 import info.blockchain.balance.Money
+import io.reactivex.rxjava3.core.Completable
+import io.reactivex.rxjava3.core.Scheduler
 import io.reactivex.rxjava3.core.Single
+import io.reactivex.rxjava3.kotlin.subscribeBy
+import io.reactivex.rxjava3.schedulers.Schedulers
+import io.reactivex.rxjava3.subjects.SingleSubject
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.rx3.rxCompletable
+import kotlinx.coroutines.rx3.rxMaybe
+import kotlinx.serialization.Serializable
 
 // Moved here fromm app. This should be under, rather than over, ExchangeRateDM TODO
+/**
+ * Resolves the rate of an asset at the time of a transaction.
+ *
+ * Timestamps are bucketed to the finest [PriceTimescale] whose series from that time until now stays
+ * under [MAX_POINTS_PER_SERIES] points, so recent transactions get 15 minute rates and older ones coarser
+ * rates. Lookups that miss the cache are gathered for [BATCH_WINDOW_MILLIS], which is enough for a list
+ * to bind its visible rows, and each (asset, fiat, timescale) in the batch is fetched with a single
+ * series call starting at its earliest bucket. The series are kept in memory and serve every later
+ * lookup they cover.
+ *
+ * Every fetched series is also written to [seriesCache], and read back from it the first time a key misses
+ * memory, so past rates survive a restart instead of being fetched again on each cold start.
+ */
 class HistoricRateFetcher internal constructor(
-    private val historicRateStore: HistoricRateStore,
+    private val assetPriceService: AssetPriceService,
+    private val seriesCache: Cache<SeriesKey, HistoricRateSeries>,
+    private val scheduler: Scheduler = Schedulers.computation(),
+    private val currentTimeMillis: () -> Long = System::currentTimeMillis
 ) {
+    private val series = ConcurrentHashMap<SeriesKey, HistoricRateSeries>()
+    private val restored = ConcurrentHashMap<SeriesKey, Completable>()
+    private val pending = mutableMapOf<SeriesKey, MutableMap<Long, SingleSubject<Double>>>()
+
     fun fetch(asset: AssetInfo, selectedFiat: FiatCurrency, timestampMs: Long, value: Money): Single<Money> =
-        rxSingleOutcome {
-            historicRateStore.stream(
-                KeyedFreshnessStrategy.Cached(
-                    HistoricRateStore.Key(
-                        fiatTicker = selectedFiat.networkTicker,
-                        assetTicker = asset.networkTicker,
-                        requestedTimestamp = timestampMs,
-                    ),
-                    false
+        rate(asset.networkTicker, selectedFiat.networkTicker, TimeUnit.MILLISECONDS.toSeconds(timestampMs))
+            .map {
+                ExchangeRate(
+                    rate = it.toBigDecimal(),
+                    from = asset,
+                    to = selectedFiat,
+                ).convert(value)
+            }
+
+    private fun rate(assetTicker: String, fiatTicker: String, timestampSeconds: Long): Single<Double> =
+        Single.defer {
+            val timescale = timescaleFor(timestampSeconds)
+            val bucket = timestampSeconds.bucket(timescale)
+            cachedRate(assetTicker, fiatTicker, timescale, bucket)?.let { Single.just(it) }
+                ?: restore(assetTicker, fiatTicker, timescale).andThen(
+                    Single.defer {
+                        cachedRate(assetTicker, fiatTicker, timescale, bucket)?.let { Single.just(it) }
+                            ?: enqueue(SeriesKey(assetTicker, fiatTicker, timescale), bucket)
+                    }
                 )
-            ).firstOutcome()
-                .map {
-                    ExchangeRate(
-                        rate = it.rate.toBigDecimal(),
-                        from = asset,
-                        to = selectedFiat,
-                    ).convert(value)
+        }
+
+    private fun timescaleFor(timestampSeconds: Long): PriceTimescale {
+        val ageSeconds = TimeUnit.MILLISECONDS.toSeconds(currentTimeMillis()) - timestampSeconds
+        return PriceTimescale.values().firstOrNull { ageSeconds / it.intervalSeconds <= MAX_POINTS_PER_SERIES }
+            ?: PriceTimescale.FIVE_DAYS
+    }
+
+    private fun cachedRate(assetTicker: String, fiatTicker: String, timescale: PriceTimescale, bucket: Long): Double? =
+        PriceTimescale.values()
+            .filter { it.intervalSeconds <= timescale.intervalSeconds }
+            .firstNotNullOfOrNull { finerTimescale ->
+                series[SeriesKey(assetTicker, fiatTicker, finerTimescale)]
+                    ?.takeIf { it.covers(bucket) }
+                    ?.rateAt(bucket)
+            }
+
+    /**
+     * Loads the persisted series of [timescale] and its finer timescales into memory, once per key
+     */
+    private fun restore(assetTicker: String, fiatTicker: String, timescale: PriceTimescale): Completable =
+        Completable.merge(
+            PriceTimescale.values()
+                .filter { it.intervalSeconds <= timescale.intervalSeconds }
+                .map { finerTimescale ->
+                    restored.computeIfAbsent(SeriesKey(assetTicker, fiatTicker, finerTimescale)) { key ->
+                        // Unconfined, the persister already moves its reads off the calling thread
+                        rxMaybe(Dispatchers.Unconfined) { seriesCache.read(key).first()?.data }
+                            .doOnSuccess { persisted ->
+                                series.merge(key, persisted) { cached, _ -> persisted.merge(cached) }
+                            }
+                            .ignoreElement()
+                            .onErrorComplete()
+                            .cache()
+                    }
                 }
+        )
+
+    @Synchronized
+    private fun enqueue(key: SeriesKey, bucket: Long): Single<Double> {
+        if (pending.isEmpty()) {
+            scheduler.scheduleDirect(::flush, BATCH_WINDOW_MILLIS, TimeUnit.MILLISECONDS)
         }
+        return pending.getOrPut(key) { mutableMapOf() }.getOrPut(bucket) { SingleSubject.create() }
+    }
+
+    private fun flush() {
+        val batch = synchronized(this) {
+            pending.toMap().also { pending.clear() }
+        }
+        batch.forEach { (key, requests) -> fetchSeries(key, requests) }
+    }
+
+    private fun fetchSeries(key: SeriesKey, requests: Map<Long, SingleSubject<Double>>) {
+        assetPriceService.getHistoricPriceSeriesSince(
+            base = key.assetTicker,
+            quote = key.fiatTicker,
+            start = requests.keys.minOf { it },
+            scale = key.timescale
+        ).map {
+            HistoricRateSeries.of(key.timescale, it)
+        }.subscribeBy(
+            onSuccess = { fetched ->
+                val merged = series.merge(key, fetched) { cached, new -> cached.merge(new) } ?: fetched
+                persist(key, merged)
+                requests.forEach { (bucket, subject) ->
+                    merged.rateAt(bucket)?.let { subject.onSuccess(it) }
+                        ?: subject.onError(AssetPriceNotFoundException(key.assetTicker, key.fiatTicker))
+                }
+            },
+            onError = { error ->
+                requests.values.forEach { it.onError(error) }
+            }
+        )
+    }
+
+    /**
+     * Written on the thread delivering the series, which is never the main thread
+     */
+    private fun persist(key: SeriesKey, merged: HistoricRateSeries) {
+        rxCompletable(Dispatchers.Unconfined) { seriesCache.write(CachedData(key, merged, currentTimeMillis())) }
+            .onErrorComplete()
+            .subscribe()
+    }
+
+    private fun Long.bucket(timescale: PriceTimescale): Long =
+        this - this % timescale.intervalSeconds
+
+    @Serializable
+    internal data class SeriesKey(
+        val assetTicker: String,
+        val fiatTicker: String,
+        val timescale: PriceTimescale
+    )
+
+    companion object {
+        internal const val STORE_ID = "HistoricRateSeriesStore"
+        private const val BATCH_WINDOW_MILLIS = 50L
+        private const val MAX_POINTS_PER_SERIES = 1_500
+    }
 }
@@ -0,0 +1,64 @@
+package com.blockchain.core.price.historic
+
+import com.blockchain.api.services.AssetPrice
+import com.blockchain.api.services.PriceTimescale
+import kotlin.math.abs
+import kotlinx.serialization.Serializable
+
+/**
+ * Prices of one asset in one fiat at a fixed [timescale], sorted by time and kept in primitive arrays
+ * so a series covering months of history stays small, in memory and once persisted.
+ */
+@Serializable
+internal class HistoricRateSeries private constructor(
+    val timescale: PriceTimescale,
+    private val timestampsSeconds: LongArray,
+    private val rates: DoubleArray
+) {
+    private val intervalSeconds: Long
+        get() = timescale.intervalSeconds.toLong()
+
+    /**
+     * The rate of the point closest to [timestampSeconds], or null when no point lies within one interval of it
+     */
+    fun rateAt(timestampSeconds: Long): Double? {
+        if (timestampsSeconds.isEmpty()) return null
+
+        val index = timestampsSeconds.binarySearch(timestampSeconds)
+        if (index >= 0) return rates[index]
+
+        val after = -index - 1
+        val closest = listOf(after - 1, after)
+            .filter { it in timestampsSeconds.indices }
+            .minByOrNull { abs(timestampsSeconds[it] - timestampSeconds) }
+            ?: return null
+
+        return rates[closest].takeIf { abs(timestampsSeconds[closest] - timestampSeconds) <= intervalSeconds }
+    }
+
+    fun covers(timestampSeconds: Long): Boolean =
+        timestampsSeconds.isNotEmpty() &&
+            timestampSeconds >= timestampsSeconds.first() - intervalSeconds &&
+            timestampSeconds <= timestampsSeconds.last() + intervalSeconds
+
+    /**
+     * A series holding the points of both series. Where both have a point at the same time, [other] wins.
+     */
+    fun merge(other: HistoricRateSeries): HistoricRateSeries {
+        val points = sortedMapOf<Long, Double>()
+        timestampsSeconds.forEachIndexed { i, timestamp -> points[timestamp] = rates[i] }
+        other.timestampsSeconds.forEachIndexed { i, timestamp -> points[timestamp] = other.rates[i] }
+        return HistoricRateSeries(timescale, points.keys.toLongArray(), points.values.toDoubleArray())
+    }
+
+    companion object {
+        fun of(timescale: PriceTimescale, prices: List<AssetPrice>): HistoricRateSeries {
+            val sorted = prices.filterNot { it.price.isNaN() }.sortedBy { it.timestampSeconds }
+            return HistoricRateSeries(
+                timescale = timescale,
+                timestampsSeconds = sorted.map { it.timestampSeconds }.toLongArray(),
+                rates = sorted.map { it.price }.toDoubleArray()
+            )
+        }
+    }
+}
@@ -44,6 +44,13 @@ internal class ExchangeRatesDataManagerImpl(
     private val userFiat: Currency
         get() = currencyPrefs.selectedFiatCurrency
 
+    private val downsampledSeries = object : LinkedHashMap<DownsampledSeriesKey, DownsampledSeries>(
+        MAX_DOWNSAMPLED_SERIES, 0.75f, true
+    ) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<DownsampledSeriesKey, DownsampledSeries>) =
+            size > MAX_DOWNSAMPLED_SERIES
+    }
+
     override fun init(): Completable = rxCompletableOutcome {
         priceStore.warmSupportedTickersCache()
     }
@@ -289,14 +296,38 @@ internal class ExchangeRatesDataManagerImpl(
         asset: Currency,
         span: HistoricalTimeSpan,
         now: Calendar,
-        freshnessStrategy: FreshnessStrategy
+        freshnessStrategy: FreshnessStrategy,
+        maxPoints: Int?
     ): Flow<DataResource<HistoricalRateList>> {
         require(asset.startDate != null)
-        return priceStore.getHistoricalPriceForAsset(asset, userFiat, span, freshnessStrategy)
-            .mapData { prices -> prices.map { it.toHistoricalRate() } }
-            .mapError { AssetPriceNotFoundException(asset.networkTicker, userFiat.networkTicker) }
+        val quote = userFiat
+        return priceStore.getHistoricalPriceForAsset(asset, quote, span, freshnessStrategy)
+            .mapData { prices ->
+                if (maxPoints == null) {
+                    prices.map { it.toHistoricalRate() }
+                } else {
+                    downsampledSeries(
+                        key = DownsampledSeriesKey(asset.networkTicker, quote.networkTicker, span, maxPoints),
+                        prices = prices
+                    )
+                }
+            }
+            .mapError { AssetPriceNotFoundException(asset.networkTicker, quote.networkTicker) }
     }
 
+    /**
+     * The store emits the same list until it fetches again, so a series is only downsampled once per fetch,
+     * however many times the chart subscribes to it.
+     */
+    private fun downsampledSeries(key: DownsampledSeriesKey, prices: List<AssetPriceRecord>): HistoricalRateList =
+        synchronized(downsampledSeries) {
+            downsampledSeries[key]?.takeIf { it.source === prices }?.rates
+        } ?: prices.map { it.toHistoricalRate() }.downsample(key.maxPoints).also { rates ->
+            synchronized(downsampledSeries) {
+                downsampledSeries[key] = DownsampledSeries(prices, rates)
+            }
+        }
+
     override fun get24hPriceSeries(
         asset: Currency,
         freshnessStrategy: FreshnessStrategy
@@ -331,4 +362,21 @@ internal class ExchangeRatesDataManagerImpl(
 
     private fun AssetPriceRecord.toHistoricalRate(): HistoricalRate =
         HistoricalRate(this.fetchedAt.toSeconds(), this.rate?.toDouble() ?: 0.0)
+
+    private data class DownsampledSeriesKey(
+        val assetTicker: String,
+        val quoteTicker: String,
+        val span: HistoricalTimeSpan,
+        val maxPoints: Int
+    )
+
+    private class DownsampledSeries(
+        val source: List<AssetPriceRecord>,
+        val rates: HistoricalRateList
+    )
+
+    companion object {
+        // a chart per asset and time span, at one or two widths
+        private const val MAX_DOWNSAMPLED_SERIES = 50
+    }
 }
@@ -0,0 +1,55 @@
+package com.blockchain.core.price.impl
+
+import com.blockchain.core.price.HistoricalRateList
+import kotlin.math.abs
+
+/**
+ * Reduces the series to about [maxPoints] points with Largest-Triangle-Three-Buckets. The first and last
+ * points are kept and the points in between are split into equal buckets. Each bucket keeps the point that
+ * forms the largest triangle with the point kept before it and the average of the next bucket, which keeps
+ * the visual shape of the line. The lowest and highest points are then added if LTTB dropped them, so the
+ * chart's range and scrubbing extremes are unchanged.
+ */
+internal fun HistoricalRateList.downsample(maxPoints: Int): HistoricalRateList {
+    if (maxPoints < MIN_POINTS || size <= maxPoints) return this
+
+    val kept = sortedSetOf(0, lastIndex)
+    val bucketSize = (size - 2).toDouble() / (maxPoints - 2)
+    var previous = 0
+
+    for (bucket in 0 until maxPoints - 2) {
+        val start = (bucket * bucketSize).toInt() + 1
+        val end = ((bucket + 1) * bucketSize).toInt() + 1
+        val nextEnd = minOf(((bucket + 2) * bucketSize).toInt() + 1, size)
+
+        var nextX = 0.0
+        var nextY = 0.0
+        for (i in end until nextEnd) {
+            nextX += this[i].timestamp
+            nextY += this[i].rate
+        }
+        nextX /= nextEnd - end
+        nextY /= nextEnd - end
+
+        val previousX = this[previous].timestamp.toDouble()
+        val previousY = this[previous].rate
+        var largestArea = -1.0
+        for (i in start until end) {
+            val area = abs(
+                (previousX - nextX) * (this[i].rate - previousY) -
+                    (previousX - this[i].timestamp) * (nextY - previousY)
+            )
+            if (area > largestArea) {
+                largestArea = area
+                previous = i
+            }
+        }
+        kept.add(previous)
+    }
+
+    kept.add(indices.minByOrNull { this[it].rate }!!)
+    kept.add(indices.maxByOrNull { this[it].rate }!!)
+    return kept.map { this[it] }
+}
+
+private const val MIN_POINTS = 3
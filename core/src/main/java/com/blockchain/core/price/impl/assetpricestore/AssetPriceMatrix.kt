@@ -0,0 +1,29 @@
+package com.blockchain.core.price.impl.assetpricestore
+
+import com.blockchain.core.price.model.AssetPriceRecord
+
+/**
+ * Immutable index of a fetched list of price records by quote and base ticker, so looking up the
+ * price of one pair does not scan the list. Built once per fetched list and shared by every
+ * subscriber to that list.
+ */
+internal class AssetPriceMatrix private constructor(
+    private val source: List<AssetPriceRecord>,
+    private val records: Map<String, Map<String, AssetPriceRecord>>
+) {
+    operator fun get(base: String, quote: String): AssetPriceRecord? =
+        records[quote]?.get(base)
+
+    fun isBuiltFrom(records: List<AssetPriceRecord>): Boolean =
+        source === records
+
+    companion object {
+        fun of(records: List<AssetPriceRecord>): AssetPriceMatrix {
+            val index = HashMap<String, HashMap<String, AssetPriceRecord>>()
+            records.forEach { record ->
+                index.getOrPut(record.quote) { HashMap() }.putIfAbsent(record.base, record)
+            }
+            return AssetPriceMatrix(records, index)
+        }
+    }
+}
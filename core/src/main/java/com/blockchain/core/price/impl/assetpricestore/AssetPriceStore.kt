@@ -17,7 +17,6 @@ import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.distinctUntilChanged
 import kotlinx.coroutines.flow.flowOf
 import kotlinx.coroutines.flow.map
-import kotlinx.coroutines.flow.onEach
 
 internal typealias SupportedTickerList = List<String>
 
@@ -26,7 +25,9 @@ internal class AssetPriceStore(
     private val supportedTickersStore: SupportedTickersStore,
 ) {
 
-    private val quoteTickerToCurrentPrices = ConcurrentHashMap<String, List<AssetPriceRecord>>()
+    // The latest prices fetched for each quote ticker, indexed for lookup by pair
+    private val currentPrices = ConcurrentHashMap<String, AssetPriceMatrix>()
+    private val yesterdayPrices = ConcurrentHashMap<String, AssetPriceMatrix>()
     lateinit var fiatQuoteTickers: SupportedTickerList
         private set
 
@@ -50,11 +51,7 @@ internal class AssetPriceStore(
                 freshnessStrategy.withKey(
                     AssetPriceStoreCache.Key.GetAllCurrent(quote.networkTicker)
                 )
-            ).onEach { response ->
-                if (response is DataResource.Data) {
-                    quoteTickerToCurrentPrices.putAll(response.data.groupBy { it.quote })
-                }
-            }.findAssetOrError(base, quote)
+            ).findAssetOrError(base, quote, currentPrices)
                 .distinctUntilChanged()
         }
 
@@ -70,7 +67,7 @@ internal class AssetPriceStore(
                 freshnessStrategy.withKey(
                     AssetPriceStoreCache.Key.GetAllYesterday(quote.networkTicker)
                 )
-            ).findAssetOrError(base, quote)
+            ).findAssetOrError(base, quote, yesterdayPrices)
                 .distinctUntilChanged()
         }
 
@@ -86,25 +83,30 @@ internal class AssetPriceStore(
     )
 
     fun getCachedAssetPrice(fromAsset: Currency, toFiat: Currency): AssetPriceRecord =
-        quoteTickerToCurrentPrices[toFiat.networkTicker]
-            ?.find { it.base == fromAsset.networkTicker }
+        currentPrices[toFiat.networkTicker]
+            ?.get(fromAsset.networkTicker, toFiat.networkTicker)
             ?: throw AssetPriceNotFoundException(fromAsset.networkTicker, toFiat.networkTicker)
 
     fun getCachedFiatPrice(fromFiat: Currency, toFiat: Currency): AssetPriceRecord =
-        quoteTickerToCurrentPrices[toFiat.networkTicker]
-            ?.find { it.base == fromFiat.networkTicker }
+        currentPrices[toFiat.networkTicker]
+            ?.get(fromFiat.networkTicker, toFiat.networkTicker)
             ?: throw AssetPriceNotFoundException(fromFiat.networkTicker, toFiat.networkTicker)
 
+    /**
+     * Every subscriber to a quote ticker receives the same fetched list, so the list is indexed by the
+     * first subscriber to see it and the others reuse that index. Combined with distinctUntilChanged,
+     * a price tick only reaches the subscribers whose pair changed.
+     */
     private fun Flow<DataResource<List<AssetPriceRecord>>>.findAssetOrError(
         base: Currency,
-        quote: Currency
+        quote: Currency,
+        matrices: ConcurrentHashMap<String, AssetPriceMatrix>
     ): Flow<DataResource<AssetPriceRecord>> =
         map { response ->
             when (response) {
                 is DataResource.Data -> {
-                    val assetPrice = response.data.find {
-                        it.base == base.networkTicker && it.quote == quote.networkTicker
-                    }
+                    val assetPrice = matrices.indexed(quote.networkTicker, response.data)
+                        .get(base.networkTicker, quote.networkTicker)
                     if (assetPrice != null) DataResource.Data(assetPrice)
                     else DataResource.Error(AssetPriceNotFoundException(base, quote))
                 }
@@ -113,6 +115,13 @@ internal class AssetPriceStore(
             }
         }
 
+    private fun ConcurrentHashMap<String, AssetPriceMatrix>.indexed(
+        quoteTicker: String,
+        records: List<AssetPriceRecord>
+    ): AssetPriceMatrix =
+        get(quoteTicker)?.takeIf { it.isBuiltFrom(records) }
+            ?: AssetPriceMatrix.of(records).also { put(quoteTicker, it) }
+
     private fun createEqualityRecordResponse(
         base: String,
         quote: String
@@ -12,19 +12,22 @@ import com.blockchain.outcome.flatMap
 import com.blockchain.outcome.map
 import com.blockchain.store.Fetcher
 import com.blockchain.store.KeyedStore
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.firstOutcome
 import com.blockchain.store_caches_inmemory.InMemoryCacheStoreBuilder
+import com.blockchain.store_caches_inmemory.LruCacheConfig
 import com.blockchain.utils.awaitOutcome
 import info.blockchain.balance.Currency
 import java.util.Calendar
 
 internal class AssetPriceStoreCache(
     private val assetPriceService: AssetPriceService,
-    private val supportedTickersStore: SupportedTickersStore
+    private val supportedTickersStore: SupportedTickersStore,
+    storeMetrics: StoreMetrics? = null
 ) : KeyedStore<
     AssetPriceStoreCache.Key,
     List<AssetPriceRecord>
-    > by InMemoryCacheStoreBuilder().buildKeyed(
+    > by InMemoryCacheStoreBuilder(storeMetrics).buildKeyed(
     storeId = STORE_ID,
     fetcher = Fetcher.Keyed.ofOutcome { key ->
         supportedTickersStore
@@ -54,7 +57,9 @@ internal class AssetPriceStoreCache(
                 it.map { item -> item.toAssetPriceRecord() }
             }
     },
-    mediator = AssetPriceStoreMediator
+    mediator = AssetPriceStoreMediator,
+    // historical keys are per asset, quote and time span, so the key space grows with every chart opened
+    lruConfig = LruCacheConfig(maxEntries = MAX_CACHED_KEYS)
 ) {
 
     sealed class Key {
@@ -69,6 +74,7 @@ internal class AssetPriceStoreCache(
 
     companion object {
         private const val STORE_ID = "AssetPriceStoreCache"
+        private const val MAX_CACHED_KEYS = 200
 
         private fun AssetPrice.toAssetPriceRecord(): AssetPriceRecord =
             AssetPriceRecord(
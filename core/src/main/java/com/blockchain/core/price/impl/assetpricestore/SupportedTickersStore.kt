@@ -5,11 +5,13 @@ import com.blockchain.store.CachedData
 import com.blockchain.store.Fetcher
 import com.blockchain.store.Mediator
 import com.blockchain.store.Store
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store_caches_inmemory.InMemoryCacheStoreBuilder
 
 internal class SupportedTickersStore(
-    private val assetPriceService: AssetPriceService
-) : Store<SupportedTickerGroup> by InMemoryCacheStoreBuilder().build(
+    private val assetPriceService: AssetPriceService,
+    storeMetrics: StoreMetrics? = null
+) : Store<SupportedTickerGroup> by InMemoryCacheStoreBuilder(storeMetrics).build(
     storeId = STORE_ID,
     fetcher = Fetcher.ofSingle(
         mapper = {
@@ -1,11 +1,12 @@
 package com.blockchain.core.price
 
 import com.blockchain.core.price.historic.HistoricRateFetcher
-import com.blockchain.core.price.historic.HistoricRateStore
+import com.blockchain.core.price.historic.HistoricRateSeries
 import com.blockchain.core.price.impl.ExchangeRatesDataManagerImpl
 import com.blockchain.core.price.impl.assetpricestore.AssetPriceStore
 import com.blockchain.core.price.impl.assetpricestore.AssetPriceStoreCache
 import com.blockchain.core.price.impl.assetpricestore.SupportedTickersStore
+import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
 import org.koin.dsl.bind
 import org.koin.dsl.module
 
@@ -31,25 +32,27 @@ val pricesModule = module {
     factory {
         AssetPriceStoreCache(
             assetPriceService = get(),
-            supportedTickersStore = get()
+            supportedTickersStore = get(),
+            storeMetrics = getOrNull()
         )
     }
 
     factory {
         SupportedTickersStore(
-            assetPriceService = get()
+            assetPriceService = get(),
+            storeMetrics = getOrNull()
         )
     }
 
     single {
         HistoricRateFetcher(
-            historicRateStore = get()
-        )
-    }
-
-    single {
-        HistoricRateStore(
-            assetPriceService = get()
+            assetPriceService = get(),
+            seriesCache = PersistedJsonSqlDelightStoreBuilder(getOrNull()).buildCache(
+                storeId = HistoricRateFetcher.STORE_ID,
+                keySerializer = HistoricRateFetcher.SeriesKey.serializer(),
+                dataSerializer = HistoricRateSeries.serializer(),
+                payloadFormat = PersistedJsonSqlDelightStoreBuilder.PayloadFormat.CBOR
+            )
         )
     }
 }
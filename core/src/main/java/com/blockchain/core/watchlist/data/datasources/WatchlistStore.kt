@@ -4,6 +4,7 @@ import com.blockchain.api.services.WatchlistApiService
 import com.blockchain.api.watchlist.model.WatchlistDto
 import com.blockchain.store.Fetcher
 import com.blockchain.store.Store
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.Freshness
 import com.blockchain.store.impl.FreshnessMediator
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
@@ -12,7 +13,8 @@ import com.blockchain.utils.rxSingleOutcome
 
 class WatchlistStore internal constructor(
     private val watchlistService: WatchlistApiService,
-) : Store<WatchlistDto> by PersistedJsonSqlDelightStoreBuilder()
+    storeMetrics: StoreMetrics? = null,
+) : Store<WatchlistDto> by PersistedJsonSqlDelightStoreBuilder(storeMetrics)
     .build(
         storeId = STORE_ID,
         fetcher = Fetcher.Keyed.ofSingle(
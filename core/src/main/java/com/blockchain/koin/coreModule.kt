@@ -33,6 +33,7 @@ import com.blockchain.core.chains.erc20.data.store.Erc20DataSource
 import com.blockchain.core.chains.erc20.data.store.Erc20L2DataSource
 import com.blockchain.core.chains.erc20.data.store.Erc20L2Store
 import com.blockchain.core.chains.erc20.data.store.Erc20Store
+import com.blockchain.core.chains.erc20.data.store.Erc20TransactionFeeStore
 import com.blockchain.core.chains.erc20.data.store.L1BalanceStore
 import com.blockchain.core.chains.erc20.domain.Erc20L2StoreService
 import com.blockchain.core.chains.erc20.domain.Erc20StoreService
@@ -136,7 +137,8 @@ val coreModule = module {
 
     single {
         EthLastTxCache(
-            ethAccountApi = get()
+            ethAccountApi = get(),
+            storeMetrics = getOrNull()
         )
     }
 
@@ -153,6 +155,7 @@ val coreModule = module {
         scoped {
             TradingStore(
                 balanceService = get(),
+                storeMetrics = getOrNull(),
             )
         }
 
@@ -179,7 +182,8 @@ val coreModule = module {
 
         factory {
             ProductsEligibilityStore(
-                productEligibilityApi = get()
+                productEligibilityApi = get(),
+                storeMetrics = getOrNull()
             )
         }
 
@@ -203,7 +207,8 @@ val coreModule = module {
 
         scoped {
             SddEligibilityStore(
-                nabuService = get()
+                nabuService = get(),
+                storeMetrics = getOrNull()
             )
         }
 
@@ -214,12 +219,13 @@ val coreModule = module {
         }
 
         scoped {
-            BuyPairsStore(nabuService = get())
+            BuyPairsStore(nabuService = get(), storeMetrics = getOrNull())
         }
 
         scoped {
             SimpleBuyEligibilityStore(
-                nabuService = get()
+                nabuService = get(),
+                storeMetrics = getOrNull()
             )
         }
 
@@ -242,18 +248,21 @@ val coreModule = module {
         scoped {
             PaymentTransactionHistoryStore(
                 nabuService = get(),
+                storeMetrics = getOrNull(),
             )
         }
 
         scoped {
             SwapTransactionsStore(
                 nabuService = get(),
+                storeMetrics = getOrNull(),
             )
         }
 
         scoped {
             BuyOrdersStore(
-                nabuService = get()
+                nabuService = get(),
+                storeMetrics = getOrNull()
             )
         }
 
@@ -280,14 +289,16 @@ val coreModule = module {
         scoped {
             L1BalanceStore(
                 ethDataManager = get(),
-                remoteLogger = get()
+                remoteLogger = get(),
+                storeMetrics = getOrNull()
             )
         }
 
         scoped<Erc20DataSource> {
             Erc20Store(
                 erc20Service = get(),
-                ethDataManager = get()
+                ethDataManager = get(),
+                storeMetrics = getOrNull()
             )
         }
 
@@ -301,7 +312,8 @@ val coreModule = module {
         scoped<Erc20L2DataSource> {
             Erc20L2Store(
                 evmService = get(),
-                ethDataManager = get()
+                ethDataManager = get(),
+                storeMetrics = getOrNull()
             )
         }
 
@@ -312,12 +324,20 @@ val coreModule = module {
             )
         }
 
-        factory {
+        scoped {
+            Erc20TransactionFeeStore(
+                ethDataManager = get(),
+                storeMetrics = getOrNull()
+            )
+        }
+
+        scoped {
             Erc20HistoryCallCache(
                 ethDataManager = get(),
                 erc20Service = get(),
                 evmService = get(),
-                assetCatalogue = get()
+                assetCatalogue = get(),
+                feeStore = get()
             )
         }
 
@@ -406,7 +426,8 @@ val coreModule = module {
 
         scoped {
             SettingsStore(
-                settingsService = get()
+                settingsService = get(),
+                storeMetrics = getOrNull()
             )
         }
 
@@ -459,35 +480,39 @@ val coreModule = module {
 
         scoped {
             LinkedCardsStore(
-                paymentMethodsService = get()
+                paymentMethodsService = get(),
+                storeMetrics = getOrNull()
             )
         }
 
         scoped {
             LinkedBankStore(
-                paymentMethodsService = get()
+                paymentMethodsService = get(),
+                storeMetrics = getOrNull()
             )
         }
 
         scoped {
             PaymentMethodsEligibilityStore(
-                paymentMethodsService = get()
+                paymentMethodsService = get(),
+                storeMetrics = getOrNull()
             )
         }
 
         scoped {
             WithdrawLocksStore(
                 paymentsService = get(),
-                currencyPrefs = get()
+                currencyPrefs = get(),
+                storeMetrics = getOrNull()
             )
         }
 
         scoped {
-            PaymentMethodsStore(paymentsService = get())
+            PaymentMethodsStore(paymentsService = get(), storeMetrics = getOrNull())
         }
 
         scoped {
-            CardDetailsStore(paymentMethodsService = get())
+            CardDetailsStore(paymentMethodsService = get(), storeMetrics = getOrNull())
         }
 
         scoped {
@@ -531,7 +556,8 @@ val coreModule = module {
 
         scoped {
             WatchlistStore(
-                watchlistService = get()
+                watchlistService = get(),
+                storeMetrics = getOrNull()
             )
         }
 
@@ -563,13 +589,15 @@ val coreModule = module {
 
         scoped {
             CoinTypeStore(
-                discoveryService = get()
+                discoveryService = get(),
+                storeMetrics = getOrNull()
             )
         }
 
         scoped {
             NonCustodialSubscriptionsStore(
-                dynamicSelfCustodyService = get()
+                dynamicSelfCustodyService = get(),
+                storeMetrics = getOrNull()
             )
         }
 
@@ -598,7 +626,8 @@ val coreModule = module {
 
     single {
         AssetInformationStore(
-            discoveryService = get()
+            discoveryService = get(),
+            storeMetrics = getOrNull()
         )
     }
 
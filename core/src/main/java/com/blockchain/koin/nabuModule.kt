@@ -88,7 +88,8 @@ val nabuModule = module {
                 remoteLogger = get(),
                 walletReporter = get(uniqueId),
                 sessionInfo = SessionInfo,
-                payloadDataManager = get()
+                payloadDataManager = get(),
+                storeMetrics = getOrNull()
             )
         }
 
@@ -173,6 +174,7 @@ val nabuModule = module {
         scoped {
             KycTiersStore(
                 kycApiService = get(),
+                storeMetrics = getOrNull(),
             )
         }
 
@@ -198,13 +200,15 @@ val nabuModule = module {
 
         scoped {
             CustodialSwapActivityStore(
-                nabuService = get()
+                nabuService = get(),
+                storeMetrics = getOrNull()
             )
         }
 
         scoped {
             CustodialTradingPairsStore(
-                nabuService = get()
+                nabuService = get(),
+                storeMetrics = getOrNull()
             )
         }
 
@@ -249,6 +253,7 @@ val nabuModule = module {
     single {
         ExperimentsStore(
             experimentsApiService = get(),
+            storeMetrics = getOrNull(),
         )
     }
 }
@@ -14,6 +14,7 @@ import com.blockchain.store.CachedData
 import com.blockchain.store.Fetcher
 import com.blockchain.store.Mediator
 import com.blockchain.store.Store
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
 import com.blockchain.storedatasource.FlushableDataSource
 import java.util.Calendar
@@ -26,8 +27,9 @@ class GetUserStore(
     private val trust: DigitalTrust,
     private val walletReporter: WalletReporter,
     private val sessionInfo: SessionInfo,
-    private val payloadDataManager: PayloadDataManager
-) : Store<NabuUser> by PersistedJsonSqlDelightStoreBuilder()
+    private val payloadDataManager: PayloadDataManager,
+    storeMetrics: StoreMetrics? = null
+) : Store<NabuUser> by PersistedJsonSqlDelightStoreBuilder(storeMetrics)
     .build(
         storeId = STORE_ID,
         fetcher = Fetcher.Keyed.ofSingle(
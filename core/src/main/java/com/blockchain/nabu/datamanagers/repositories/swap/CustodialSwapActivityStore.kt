@@ -4,6 +4,7 @@ import com.blockchain.nabu.models.responses.swap.CustodialOrderResponse
 import com.blockchain.nabu.service.NabuService
 import com.blockchain.store.Fetcher
 import com.blockchain.store.Store
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.Freshness
 import com.blockchain.store.impl.FreshnessMediator
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
@@ -12,8 +13,9 @@ import com.blockchain.utils.awaitOutcome
 import kotlinx.serialization.builtins.ListSerializer
 
 class CustodialSwapActivityStore(
-    private val nabuService: NabuService
-) : Store<List<CustodialOrderResponse>> by PersistedJsonSqlDelightStoreBuilder()
+    private val nabuService: NabuService,
+    storeMetrics: StoreMetrics? = null
+) : Store<List<CustodialOrderResponse>> by PersistedJsonSqlDelightStoreBuilder(storeMetrics)
     .build(
         storeId = STORE_ID,
         fetcher = Fetcher.ofOutcome(
@@ -22,7 +24,8 @@ class CustodialSwapActivityStore(
             }
         ),
         dataSerializer = ListSerializer(CustodialOrderResponse.serializer()),
-        mediator = FreshnessMediator(Freshness.DURATION_24_HOURS)
+        mediator = FreshnessMediator(Freshness.DURATION_24_HOURS),
+        payloadFormat = PersistedJsonSqlDelightStoreBuilder.PayloadFormat.CBOR
     ),
     FlushableDataSource {
 
@@ -0,0 +1,500 @@
+package com.blockchain.nabu.filesystem;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32;
+
+/**
+ * A durable FIFO queue of byte records with the same add, read and remove semantics as {@link QueueFile}, which
+ * doesn't depend on atomic segment writes to survive a crash.
+ *
+ * <p>
+ * Records are appended to a data file and only become part of the queue once a commit naming the new queue bounds
+ * is appended to a journal. Data is forced to storage before its commit is written, and commits carry a checksum,
+ * so after a crash the queue is whatever the last complete commit describes: a partially written batch or commit
+ * is simply ignored. That makes {@link #addAll(List)} atomic, and makes {@link #remove(int)} a single commit that
+ * moves the head, without erasing or moving any data.
+ *
+ * <p>
+ * Records are read through a {@link MappedByteBuffer}. Removed records are reclaimed by compaction: once the dead
+ * space at the front of the data file is both larger than the compaction threshold and larger than the live
+ * records, the live records are copied to a data file of the next generation, which a commit then switches to.
+ * The journal itself is rewritten with just the latest commit once it grows past {@link #MAX_JOURNAL_LENGTH}.
+ *
+ * <pre>
+ *   Files, for a queue at "name":
+ *     name.journal     Commits
+ *     name.GENERATION  Records
+ * <p/>
+ *   Commit (40 bytes):
+ *     Sequence        (8 bytes)
+ *     Generation      (8 bytes)
+ *     Head position   (8 bytes)
+ *     Tail position   (8 bytes)
+ *     Record count    (4 bytes)
+ *     CRC32 of above  (4 bytes)
+ * <p/>
+ *   Record:
+ *     Length          (4 bytes)
+ *     CRC32 of data   (4 bytes)
+ *     Data            (Length bytes)
+ * </pre>
+ */
+public class JournaledQueueFile implements Closeable {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    static final int COMMIT_LENGTH = 40;
+    static final int RECORD_HEADER_LENGTH = 8;
+
+    /**
+     * Journal length past which it's rewritten with only the latest commit.
+     */
+    static final long MAX_JOURNAL_LENGTH = COMMIT_LENGTH * 1024;
+
+    /**
+     * Dead bytes at the front of the data file below which it's never compacted.
+     */
+    static final long DEFAULT_COMPACTION_THRESHOLD = 1024 * 1024;
+
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final File directory;
+    private final String name;
+    private final File journalFile;
+    private final long compactionThreshold;
+
+    private RandomAccessFile journal;
+    private long journalLength;
+
+    private RandomAccessFile data;
+    private FileChannel dataChannel;
+
+    /**
+     * Read only view of the data file, remapped whenever records past its end are read.
+     */
+    private MappedByteBuffer mapped;
+
+    private long sequence;
+    private long generation;
+    private long head;
+    private long tail;
+    private int elementCount;
+
+    /**
+     * Opens the queue stored at the given path, creating it if needed. Only one instance should access a given
+     * queue at a time.
+     */
+    public JournaledQueueFile(File file) throws IOException {
+        this(file, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    JournaledQueueFile(File file, long compactionThreshold) throws IOException {
+        this.directory = file.getAbsoluteFile().getParentFile();
+        this.name = file.getName();
+        this.journalFile = new File(directory, name + JOURNAL_SUFFIX);
+        this.compactionThreshold = compactionThreshold;
+
+        journal = new RandomAccessFile(journalFile, "rw");
+        if (!recover()) {
+            openData(0);
+            dataChannel.truncate(0);
+            commit(0, 0, 0, 0);
+        }
+        deleteStaleFiles();
+    }
+
+    /**
+     * Restores the queue from the last complete commit, discarding anything written after it.
+     *
+     * @return false if the journal has no commits yet
+     */
+    private boolean recover() throws IOException {
+        int length = (int) Math.min(journal.length(), Integer.MAX_VALUE);
+        byte[] bytes = new byte[length];
+        journal.seek(0);
+        journal.readFully(bytes);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+        long validLength = 0;
+        boolean found = false;
+        while (buffer.remaining() >= COMMIT_LENGTH) {
+            int start = buffer.position();
+            long commitSequence = buffer.getLong();
+            long commitGeneration = buffer.getLong();
+            long commitHead = buffer.getLong();
+            long commitTail = buffer.getLong();
+            int commitCount = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (checksum != crc(bytes, start, COMMIT_LENGTH - 4) || (found && commitSequence <= sequence)) {
+                break;
+            }
+            sequence = commitSequence;
+            generation = commitGeneration;
+            head = commitHead;
+            tail = commitTail;
+            elementCount = commitCount;
+            validLength = buffer.position();
+            found = true;
+        }
+        if (!found) {
+            if (length >= COMMIT_LENGTH) {
+                throw new IOException("Journal is corrupt; no valid commit in " + length + " bytes.");
+            }
+            journal.setLength(0);
+            journalLength = 0;
+            return false;
+        }
+
+        // Drop a partially written commit so the next one is appended after the last valid one
+        journal.setLength(validLength);
+        journalLength = validLength;
+
+        openData(generation);
+        if (dataChannel.size() < tail) {
+            throw new IOException(
+                "Data file is truncated. Expected length: " + tail + ", Actual length: " + dataChannel.size());
+        }
+        // Drop a partially written batch
+        dataChannel.truncate(tail);
+        return true;
+    }
+
+    private void openData(long dataGeneration) throws IOException {
+        data = new RandomAccessFile(dataFile(dataGeneration), "rw");
+        dataChannel = data.getChannel();
+        mapped = null;
+    }
+
+    private File dataFile(long dataGeneration) {
+        return new File(directory, name + "." + dataGeneration);
+    }
+
+    /**
+     * Deletes data files of other generations and temporary files left by an interrupted compaction.
+     */
+    private void deleteStaleFiles() {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        String current = dataFile(generation).getName();
+        for (File file : files) {
+            String fileName = file.getName();
+            if (!fileName.startsWith(name + ".") || fileName.equals(current)) {
+                continue;
+            }
+            String suffix = fileName.substring(name.length() + 1);
+            if (suffix.endsWith(TEMP_SUFFIX) || isGeneration(suffix)) {
+                //noinspection ResultOfMethodCallIgnored
+                file.delete();
+            }
+        }
+    }
+
+    private static boolean isGeneration(String suffix) {
+        if (suffix.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < suffix.length(); i++) {
+            if (!Character.isDigit(suffix.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Appends a commit to the journal and forces it to storage. Member fields are only updated once it succeeds.
+     */
+    private void commit(long newGeneration, long newHead, long newTail, int newCount) throws IOException {
+        if (journalLength + COMMIT_LENGTH > MAX_JOURNAL_LENGTH) {
+            rewriteJournal(newGeneration, newHead, newTail, newCount);
+        } else {
+            byte[] commit = encodeCommit(sequence + 1, newGeneration, newHead, newTail, newCount);
+            journal.seek(journalLength);
+            journal.write(commit);
+            journal.getChannel().force(false);
+            journalLength += COMMIT_LENGTH;
+        }
+        sequence++;
+        generation = newGeneration;
+        head = newHead;
+        tail = newTail;
+        elementCount = newCount;
+    }
+
+    /**
+     * Replaces the journal with one holding a single commit. A rename is atomic, so a crash leaves either journal.
+     */
+    private void rewriteJournal(long newGeneration, long newHead, long newTail, int newCount) throws IOException {
+        File tempFile = new File(directory, name + JOURNAL_SUFFIX + TEMP_SUFFIX);
+        RandomAccessFile temp = new RandomAccessFile(tempFile, "rw");
+        try {
+            temp.setLength(0);
+            temp.write(encodeCommit(sequence + 1, newGeneration, newHead, newTail, newCount));
+            temp.getChannel().force(false);
+        } finally {
+            temp.close();
+        }
+        journal.close();
+        if (!tempFile.renameTo(journalFile)) {
+            journal = new RandomAccessFile(journalFile, "rw");
+            throw new IOException("Rename failed!");
+        }
+        journal = new RandomAccessFile(journalFile, "rw");
+        journalLength = COMMIT_LENGTH;
+    }
+
+    private static byte[] encodeCommit(long sequence, long generation, long head, long tail, int count) {
+        ByteBuffer buffer = ByteBuffer.allocate(COMMIT_LENGTH);
+        buffer.putLong(sequence);
+        buffer.putLong(generation);
+        buffer.putLong(head);
+        buffer.putLong(tail);
+        buffer.putInt(count);
+        buffer.putInt(crc(buffer.array(), 0, COMMIT_LENGTH - 4));
+        return buffer.array();
+    }
+
+    private static int crc(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Adds an element to the end of the queue.
+     */
+    public void add(byte[] element) throws IOException {
+        addAll(Collections.singletonList(element));
+    }
+
+    /**
+     * Adds elements to the end of the queue atomically: after a crash either all of them are in the queue or none.
+     */
+    public synchronized void addAll(List<byte[]> elements) throws IOException {
+        if (elements.isEmpty()) {
+            return;
+        }
+        long totalLength = 0;
+        for (byte[] element : elements) {
+            if (element == null) {
+                throw new NullPointerException("data == null");
+            }
+            totalLength += RECORD_HEADER_LENGTH + element.length;
+        }
+        if (totalLength > Integer.MAX_VALUE || elementCount + (long) elements.size() > Integer.MAX_VALUE) {
+            throw new IOException("Cannot add " + totalLength + " bytes in a single batch");
+        }
+
+        ByteBuffer batch = ByteBuffer.allocate((int) totalLength);
+        for (byte[] element : elements) {
+            batch.putInt(element.length);
+            batch.putInt(crc(element, 0, element.length));
+            batch.put(element);
+        }
+        batch.flip();
+
+        long position = tail;
+        while (batch.hasRemaining()) {
+            position += dataChannel.write(batch, position);
+        }
+        dataChannel.force(false);
+
+        commit(generation, head, tail + totalLength, elementCount + elements.size());
+    }
+
+    /**
+     * Returns up to {@code n} of the eldest elements, without removing them.
+     */
+    public synchronized List<byte[]> peek(int n) throws IOException {
+        int total = Math.min(Math.max(n, 0), elementCount);
+        List<byte[]> elements = new ArrayList<>(total);
+        if (total == 0) {
+            return elements;
+        }
+        ByteBuffer buffer = mappedData().duplicate();
+        long position = head;
+        for (int i = 0; i < total; i++) {
+            int length = buffer.getInt((int) position);
+            int checksum = buffer.getInt((int) position + 4);
+            byte[] element = new byte[length];
+            buffer.position((int) position + RECORD_HEADER_LENGTH);
+            buffer.get(element);
+            if (checksum != crc(element, 0, length)) {
+                throw new IOException("Record at " + position + " is corrupt.");
+            }
+            elements.add(element);
+            position += RECORD_HEADER_LENGTH + length;
+        }
+        return elements;
+    }
+
+    /**
+     * Same as {@link QueueFile#read(long)}: up to {@code n} of the eldest elements as trimmed UTF-8 strings.
+     */
+    public List<String> read(long n) throws IOException {
+        List<byte[]> elements = peek((int) Math.min(n, Integer.MAX_VALUE));
+        List<String> items = new ArrayList<>(elements.size());
+        for (byte[] element : elements) {
+            items.add(new String(element, UTF_8).trim());
+        }
+        return items;
+    }
+
+    private MappedByteBuffer mappedData() throws IOException {
+        if (tail > Integer.MAX_VALUE) {
+            throw new IOException("Data file is too large to map: " + tail);
+        }
+        if (mapped == null || mapped.capacity() < tail) {
+            mapped = dataChannel.map(FileChannel.MapMode.READ_ONLY, 0, dataChannel.size());
+        }
+        return mapped;
+    }
+
+    /**
+     * Returns the number of elements in this queue.
+     */
+    public synchronized long size() {
+        return elementCount;
+    }
+
+    /**
+     * Returns true if this queue contains no entries.
+     */
+    public synchronized boolean isEmpty() {
+        return elementCount == 0;
+    }
+
+    /**
+     * Removes the eldest element.
+     *
+     * @throws NoSuchElementException if the queue is empty
+     */
+    public void remove() throws IOException {
+        remove(1);
+    }
+
+    /**
+     * Removes the eldest {@code n} elements with a single commit.
+     *
+     * @throws NoSuchElementException if the queue is empty
+     */
+    public synchronized void remove(int n) throws IOException {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        if (n < 0) {
+            throw new IllegalArgumentException(
+                "Cannot remove negative (" + n + ") number of elements.");
+        }
+        if (n == 0) {
+            return;
+        }
+        if (n == elementCount) {
+            clear();
+            return;
+        }
+        if (n > elementCount) {
+            throw new IllegalArgumentException(
+                "Cannot remove more elements ("
+                + n
+                + ") than present in queue ("
+                + elementCount
+                + ").");
+        }
+
+        MappedByteBuffer buffer = mappedData();
+        long newHead = head;
+        for (int i = 0; i < n; i++) {
+            newHead += RECORD_HEADER_LENGTH + buffer.getInt((int) newHead);
+        }
+        commit(generation, newHead, tail, elementCount - n);
+
+        if (head >= compactionThreshold && head >= tail - head) {
+            compact();
+        }
+    }
+
+    /**
+     * Copies the live records to the start of a new data file, then switches to it with a commit. Until that commit
+     * is written the current data file is left untouched, and the new one is deleted when the queue is reopened.
+     */
+    private void compact() throws IOException {
+        long newGeneration = generation + 1;
+        long liveLength = tail - head;
+        RandomAccessFile newData = new RandomAccessFile(dataFile(newGeneration), "rw");
+        try {
+            FileChannel newChannel = newData.getChannel();
+            newChannel.truncate(0);
+            long copied = 0;
+            while (copied < liveLength) {
+                copied += dataChannel.transferTo(head + copied, liveLength - copied, newChannel.position(copied));
+            }
+            newChannel.force(false);
+
+            commit(newGeneration, 0, liveLength, elementCount);
+        } catch (IOException e) {
+            newData.close();
+            //noinspection ResultOfMethodCallIgnored
+            dataFile(newGeneration).delete();
+            throw e;
+        }
+
+        File oldFile = dataFile(newGeneration - 1);
+        data.close();
+        //noinspection ResultOfMethodCallIgnored
+        oldFile.delete();
+        data = newData;
+        dataChannel = newData.getChannel();
+        mapped = null;
+    }
+
+    /**
+     * Clears this queue, then truncates the data file.
+     */
+    public synchronized void clear() throws IOException {
+        commit(generation, 0, 0, 0);
+        mapped = null;
+        dataChannel.truncate(0);
+    }
+
+    /**
+     * Closes the underlying files.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        mapped = null;
+        try {
+            data.close();
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName()
+               + "["
+               + "generation = "
+               + generation
+               + ", head = "
+               + head
+               + ", tail = "
+               + tail
+               + ", size = "
+               + elementCount
+               + "]";
+    }
+}
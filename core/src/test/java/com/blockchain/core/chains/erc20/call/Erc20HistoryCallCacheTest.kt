@@ -0,0 +1,111 @@
+package com.blockchain.core.chains.erc20.call
+
+import com.blockchain.api.services.Erc20Transfer
+import com.blockchain.api.services.NonCustodialErc20Service
+import com.blockchain.core.chains.erc20.data.store.Erc20TransactionFee
+import com.blockchain.core.chains.erc20.data.store.Erc20TransactionFeeStore
+import com.blockchain.data.DataResource
+import com.blockchain.data.KeyedFreshnessStrategy
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.times
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.whenever
+import info.blockchain.balance.AssetCategory
+import info.blockchain.balance.AssetInfo
+import info.blockchain.balance.CryptoCurrency
+import info.blockchain.balance.Money
+import io.reactivex.rxjava3.core.Single
+import java.math.BigInteger
+import kotlinx.coroutines.flow.flowOf
+import org.junit.Before
+import org.junit.Test
+
+class Erc20HistoryCallCacheTest {
+
+    private val erc20Service: NonCustodialErc20Service = mock()
+    private val feeStore: Erc20TransactionFeeStore = mock()
+    private var now = 0L
+
+    private val subject = Erc20HistoryCallCache(
+        ethDataManager = mock(),
+        erc20Service = erc20Service,
+        evmService = mock(),
+        assetCatalogue = mock(),
+        feeStore = feeStore,
+        currentTimeMillis = { now }
+    )
+
+    @Before
+    fun setUp() {
+        whenever(erc20Service.getTokenTransfers(ACCOUNT_HASH, CONTRACT_ADDRESS))
+            .thenReturn(Single.just(listOf(transfer(TX_HASH_1), transfer(TX_HASH_2))))
+        whenever(feeStore.stream(any())).thenReturn(
+            flowOf(DataResource.Data(Erc20TransactionFee(fee = BigInteger.TEN, isConfirmed = true)))
+        )
+    }
+
+    @Test
+    fun `history is fetched once until it expires`() {
+        repeat(2) { fetch().test().assertComplete() }
+        verify(erc20Service).getTokenTransfers(ACCOUNT_HASH, CONTRACT_ADDRESS)
+
+        now += 60_000L
+        fetch().test().assertComplete()
+        verify(erc20Service, times(2)).getTokenTransfers(ACCOUNT_HASH, CONTRACT_ADDRESS)
+    }
+
+    @Test
+    fun `flushing an asset drops its history`() {
+        fetch().test().assertComplete()
+
+        subject.flush(ERC20_TOKEN)
+        fetch().test().assertComplete()
+
+        verify(erc20Service, times(2)).getTokenTransfers(ACCOUNT_HASH, CONTRACT_ADDRESS)
+    }
+
+    @Test
+    fun `the fees of a batch are resolved together and only once`() {
+        val events = fetch().blockingGet()
+
+        events.forEach {
+            it.fee.test().await().assertValue(Money.fromMinor(CryptoCurrency.ETHER, BigInteger.TEN))
+        }
+
+        verify(feeStore).stream(KeyedFreshnessStrategy.Cached(Erc20TransactionFeeStore.Key(TX_HASH_1), false))
+        verify(feeStore).stream(KeyedFreshnessStrategy.Cached(Erc20TransactionFeeStore.Key(TX_HASH_2), false))
+    }
+
+    private fun fetch() = subject.fetch(ACCOUNT_HASH, ERC20_TOKEN, CryptoCurrency.ETHER.networkTicker)
+
+    private fun transfer(txHash: String) = Erc20Transfer(
+        logIndex = "0",
+        transactionHash = txHash,
+        value = BigInteger.ONE,
+        from = ACCOUNT_HASH,
+        to = "0x0",
+        blockNumber = BigInteger.ONE,
+        timestamp = 0L
+    )
+
+    companion object {
+        private const val ACCOUNT_HASH = "0x4058a004dd718babab47e14dd0d744742e5b9903"
+        private const val CONTRACT_ADDRESS = "0x8e870d67f660d95d5be530380d0ec0bd388289e1"
+        private const val TX_HASH_1 = "0xfd7d583fa54bf55f6cfbfec97c0c55cc6af8c121b71addb7d06a9e1e305ae8ff"
+        private const val TX_HASH_2 = "0x3c6d8b5a0a7f2e3f9b1c5d2a4e6f8a0b2c4d6e8f0a1b3c5d7e9f1a3b5c7d9e1f"
+
+        private val ERC20_TOKEN: AssetInfo = object : CryptoCurrency(
+            displayTicker = "DUMMY",
+            networkTicker = "DUMMY",
+            name = "Dummies",
+            categories = setOf(AssetCategory.NON_CUSTODIAL),
+            precisionDp = 8,
+            l1chainTicker = ETHER.networkTicker,
+            l2identifier = CONTRACT_ADDRESS,
+            requiredConfirmations = 5,
+            colour = "#123456",
+            isErc20 = true
+        ) {}
+    }
+}
@@ -0,0 +1,149 @@
+package com.blockchain.core.price.historic
+
+import com.blockchain.api.services.AssetPrice
+import com.blockchain.api.services.AssetPriceService
+import com.blockchain.api.services.PriceTimescale
+import com.blockchain.core.price.historic.HistoricRateFetcher.SeriesKey
+import com.blockchain.core.price.model.AssetPriceNotFoundException
+import com.blockchain.nabu.USD
+import com.blockchain.store.Cache
+import com.blockchain.store.CachedData
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.times
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.verifyNoMoreInteractions
+import com.nhaarman.mockitokotlin2.whenever
+import info.blockchain.balance.CryptoCurrency
+import info.blockchain.balance.Money
+import io.reactivex.rxjava3.core.Single
+import io.reactivex.rxjava3.schedulers.TestScheduler
+import java.util.concurrent.TimeUnit
+import kotlinx.coroutines.flow.flowOf
+import org.junit.Before
+import org.junit.Test
+
+class HistoricRateFetcherTest {
+
+    private val assetPriceService: AssetPriceService = mock()
+    private val scheduler = TestScheduler()
+
+    private val seriesCache = FakeSeriesCache()
+
+    private val subject = fetcher()
+
+    private fun fetcher() = HistoricRateFetcher(
+        assetPriceService = assetPriceService,
+        seriesCache = seriesCache,
+        scheduler = scheduler,
+        currentTimeMillis = { TimeUnit.SECONDS.toMillis(NOW_SECONDS) }
+    )
+
+    @Before
+    fun setUp() {
+        whenever(assetPriceService.getHistoricPriceSeriesSince(any(), any(), any(), any())).thenAnswer {
+            val start = it.getArgument<Long>(2)
+            val scale = it.getArgument<PriceTimescale>(3)
+            Single.just(
+                (start..NOW_SECONDS step scale.intervalSeconds.toLong()).map { timestamp ->
+                    price(timestamp, rate = (timestamp - start) / scale.intervalSeconds + 1.0)
+                }
+            )
+        }
+    }
+
+    @Test
+    fun `the lookups of a list render are resolved by one series call`() {
+        val start = NOW_SECONDS - DAY_SECONDS
+        val tests = (0 until 200).map {
+            subject.fetch(CryptoCurrency.BTC, USD, TimeUnit.SECONDS.toMillis(start + it * 300L), ONE_BTC).test()
+        }
+
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        tests.forEach { it.assertComplete() }
+        tests.first().assertValue(Money.fromMajor(USD, 1.0.toBigDecimal()))
+        verify(assetPriceService).getHistoricPriceSeriesSince("BTC", "USD", start, PriceTimescale.FIFTEEN_MINUTES)
+        verifyNoMoreInteractions(assetPriceService)
+    }
+
+    @Test
+    fun `lookups covered by a fetched series are served from the cache`() {
+        val timestampMs = TimeUnit.SECONDS.toMillis(NOW_SECONDS - DAY_SECONDS)
+        subject.fetch(CryptoCurrency.BTC, USD, timestampMs, ONE_BTC).test()
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        subject.fetch(CryptoCurrency.BTC, USD, timestampMs + TimeUnit.HOURS.toMillis(1), ONE_BTC)
+            .test()
+            .assertValue(Money.fromMajor(USD, 5.0.toBigDecimal()))
+
+        verify(assetPriceService, times(1)).getHistoricPriceSeriesSince(any(), any(), any(), any())
+    }
+
+    @Test
+    fun `series fetched before a restart are read back instead of fetched again`() {
+        val timestampMs = TimeUnit.SECONDS.toMillis(NOW_SECONDS - DAY_SECONDS)
+        subject.fetch(CryptoCurrency.BTC, USD, timestampMs, ONE_BTC).test()
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        fetcher().fetch(CryptoCurrency.BTC, USD, timestampMs + TimeUnit.HOURS.toMillis(1), ONE_BTC)
+            .test()
+            .assertValue(Money.fromMajor(USD, 5.0.toBigDecimal()))
+
+        verify(assetPriceService, times(1)).getHistoricPriceSeriesSince(any(), any(), any(), any())
+    }
+
+    @Test
+    fun `older transactions are bucketed to coarser timescales`() {
+        subject.fetch(CryptoCurrency.BTC, USD, TimeUnit.SECONDS.toMillis(NOW_SECONDS - 365 * DAY_SECONDS), ONE_BTC)
+            .test()
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        verify(assetPriceService).getHistoricPriceSeriesSince(
+            "BTC",
+            "USD",
+            (NOW_SECONDS - 365 * DAY_SECONDS).let { it - it % DAY_SECONDS },
+            PriceTimescale.ONE_DAY
+        )
+    }
+
+    @Test
+    fun `a lookup without a price nearby fails`() {
+        whenever(assetPriceService.getHistoricPriceSeriesSince(any(), any(), any(), any()))
+            .thenReturn(Single.just(emptyList()))
+
+        val test = subject.fetch(CryptoCurrency.BTC, USD, TimeUnit.SECONDS.toMillis(NOW_SECONDS), ONE_BTC).test()
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        test.assertError(AssetPriceNotFoundException("BTC", "USD"))
+    }
+
+    private fun price(timestampSeconds: Long, rate: Double) = AssetPrice(
+        base = "BTC",
+        quote = "USD",
+        price = rate,
+        timestampSeconds = timestampSeconds,
+        marketCap = null,
+        tradingVolume24h = null
+    )
+
+    private class FakeSeriesCache : Cache<SeriesKey, HistoricRateSeries> {
+        private val data = mutableMapOf<SeriesKey, CachedData<SeriesKey, HistoricRateSeries>>()
+
+        override fun read(key: SeriesKey) = flowOf(data[key])
+
+        override suspend fun write(cachedData: CachedData<SeriesKey, HistoricRateSeries>) {
+            data[cachedData.key] = cachedData
+        }
+
+        override suspend fun markAsStale(key: SeriesKey) = Unit
+
+        override suspend fun markStoreAsStale() = Unit
+    }
+
+    companion object {
+        private const val DAY_SECONDS = 86_400L
+        private const val NOW_SECONDS = 1_660_000_000L - 1_660_000_000L % DAY_SECONDS
+        private val ONE_BTC = Money.fromMajor(CryptoCurrency.BTC, 1.toBigDecimal())
+    }
+}
@@ -0,0 +1,43 @@
+package com.blockchain.core.price.impl
+
+import com.blockchain.core.price.HistoricalRate
+import kotlin.math.sin
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class HistoricalRateDownsamplingTest {
+
+    private val series = (0 until 5_000L).map {
+        HistoricalRate(timestamp = it * 3_600, rate = 20_000 + 5_000 * sin(it / 200.0))
+    }
+
+    @Test
+    fun `series within the limit are returned unchanged`() {
+        assertSame(series, series.downsample(maxPoints = series.size))
+    }
+
+    @Test
+    fun `a long series is reduced to about the requested number of points`() {
+        val downsampled = series.downsample(maxPoints = 400)
+
+        assertTrue(downsampled.size in 400..402)
+        assertEquals(downsampled.sortedBy { it.timestamp }, downsampled)
+    }
+
+    @Test
+    fun `the first, last, lowest and highest points are kept`() {
+        val spiked = series.toMutableList().apply {
+            this[1_234] = HistoricalRate(this[1_234].timestamp, 100_000.0)
+            this[3_210] = HistoricalRate(this[3_210].timestamp, 1.0)
+        }
+
+        val downsampled = spiked.downsample(maxPoints = 100)
+
+        assertEquals(spiked.first(), downsampled.first())
+        assertEquals(spiked.last(), downsampled.last())
+        assertTrue(spiked[1_234] in downsampled)
+        assertTrue(spiked[3_210] in downsampled)
+    }
+}
@@ -8,12 +8,14 @@ import com.blockchain.data.DataResource
 import com.blockchain.data.FreshnessStrategy
 import com.blockchain.data.KeyedFreshnessStrategy
 import com.blockchain.outcome.Outcome
+import com.blockchain.testutils.EUR
 import com.blockchain.testutils.USD
 import info.blockchain.balance.CryptoCurrency
 import io.mockk.every
 import io.mockk.mockk
 import io.mockk.verify
 import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
 import kotlinx.coroutines.flow.MutableSharedFlow
 import kotlinx.coroutines.test.runTest
 import org.junit.Test
@@ -63,6 +65,58 @@ class AssetPriceStoreTest {
         }
     }
 
+    @Test
+    fun `getCachedAssetPrice should throw until a current price list has been emitted`() = runTest {
+        assertFailsWith<AssetPriceNotFoundException> { subject.getCachedAssetPrice(BTC, USD) }
+
+        subject.getCurrentPriceForAsset(BTC, USD, FreshnessStrategy.Cached(false)).test {
+            cacheFlow.emit(DataResource.Data(RECORDS_LIST))
+            assertEquals(DataResource.Data(RECORD_BTC_USD), awaitItem())
+        }
+
+        assertEquals(RECORD_BTC_USD, subject.getCachedAssetPrice(BTC, USD))
+    }
+
+    @Test
+    fun `getCachedAssetPrice should throw for a pair missing from the emitted list`() = runTest {
+        subject.getCurrentPriceForAsset(BTC, USD, FreshnessStrategy.Cached(false)).test {
+            cacheFlow.emit(DataResource.Data(listOf(RECORD_BTC_USD)))
+            assertEquals(DataResource.Data(RECORD_BTC_USD), awaitItem())
+        }
+
+        assertEquals(RECORD_BTC_USD, subject.getCachedFiatPrice(BTC, USD))
+        assertFailsWith<AssetPriceNotFoundException> { subject.getCachedAssetPrice(ETH, USD) }
+        assertFailsWith<AssetPriceNotFoundException> { subject.getCachedAssetPrice(BTC, EUR) }
+    }
+
+    @Test
+    fun `getCachedAssetPrice should not be served from yesterday prices`() = runTest {
+        subject.getYesterdayPriceForAsset(BTC, USD, FreshnessStrategy.Cached(false)).test {
+            cacheFlow.emit(DataResource.Data(RECORDS_LIST))
+            assertEquals(DataResource.Data(RECORD_BTC_USD), awaitItem())
+        }
+
+        assertFailsWith<AssetPriceNotFoundException> { subject.getCachedAssetPrice(BTC, USD) }
+    }
+
+    @Test
+    fun `getCurrentPriceForAsset should rebuild the index when a new price list arrives`() = runTest {
+        val updatedBtcUsd = RECORD_BTC_USD.copy(rate = 3.0.toBigDecimal(), fetchedAt = 3L)
+
+        subject.getCurrentPriceForAsset(BTC, USD, FreshnessStrategy.Cached(false)).test {
+            cacheFlow.emit(DataResource.Data(RECORDS_LIST))
+            assertEquals(DataResource.Data(RECORD_BTC_USD), awaitItem())
+            assertEquals(RECORD_ETH_USD, subject.getCachedAssetPrice(ETH, USD))
+
+            cacheFlow.emit(DataResource.Data(listOf(updatedBtcUsd)))
+            assertEquals(DataResource.Data(updatedBtcUsd), awaitItem())
+            expectNoEvents()
+        }
+
+        assertEquals(updatedBtcUsd, subject.getCachedAssetPrice(BTC, USD))
+        assertFailsWith<AssetPriceNotFoundException> { subject.getCachedAssetPrice(ETH, USD) }
+    }
+
     @Test
     fun `getCurrentPriceForAsset should request cache and filter for the requested asset and emit Data if found`() =
         runTest {
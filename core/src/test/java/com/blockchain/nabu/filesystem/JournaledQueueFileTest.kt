@@ -0,0 +1,125 @@
+package com.blockchain.nabu.filesystem
+
+import java.io.File
+import java.io.RandomAccessFile
+import org.amshove.kluent.`should be equal to`
+import org.junit.After
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+class JournaledQueueFileTest {
+
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    private val file: File by lazy { File(folder.root, "queue") }
+    private var queue: JournaledQueueFile? = null
+
+    @After
+    fun tearDown() {
+        queue?.close()
+    }
+
+    @Test
+    fun `elements are read and removed in insertion order`() {
+        val subject = open()
+        subject.add("one".toByteArray())
+        subject.addAll(listOf("two".toByteArray(), "three".toByteArray()))
+
+        subject.size() `should be equal to` 3L
+        subject.read(2) `should be equal to` listOf("one", "two")
+
+        subject.remove(2)
+        subject.read(10) `should be equal to` listOf("three")
+    }
+
+    @Test
+    fun `elements survive reopening`() {
+        open().apply {
+            addAll(listOf("one".toByteArray(), "two".toByteArray(), "three".toByteArray()))
+            remove()
+        }
+
+        reopen().read(10) `should be equal to` listOf("two", "three")
+    }
+
+    @Test
+    fun `a partially written batch or commit is discarded`() {
+        open().addAll(listOf("one".toByteArray(), "two".toByteArray()))
+        queue!!.close()
+        // Records written without their commit, followed by a torn commit
+        RandomAccessFile(File(folder.root, "queue.0"), "rw").use {
+            it.seek(it.length())
+            it.write(ByteArray(64) { 7 })
+        }
+        RandomAccessFile(File(folder.root, "queue.journal"), "rw").use {
+            it.seek(it.length())
+            it.write(ByteArray(JournaledQueueFile.COMMIT_LENGTH / 2) { 7 })
+        }
+
+        val subject = reopen()
+        subject.read(10) `should be equal to` listOf("one", "two")
+
+        subject.add("three".toByteArray())
+        reopen().read(10) `should be equal to` listOf("one", "two", "three")
+    }
+
+    @Test
+    fun `removed records are compacted into a new data file`() {
+        val subject = open(compactionThreshold = 1024)
+        val elements = (0 until 100).map { "element $it".padEnd(32, '.') }
+        subject.addAll(elements.map { it.toByteArray() })
+
+        subject.remove(80)
+
+        folder.root.list()!!.sorted() `should be equal to` listOf("queue.1", "queue.journal")
+        subject.read(100) `should be equal to` elements.drop(80)
+        reopen().read(100) `should be equal to` elements.drop(80)
+    }
+
+    @Test
+    fun `the journal is rewritten once it grows too long`() {
+        val subject = open()
+        val commits = JournaledQueueFile.MAX_JOURNAL_LENGTH / JournaledQueueFile.COMMIT_LENGTH
+        repeat(commits.toInt() + 10) { subject.add("element $it".toByteArray()) }
+
+        (File(folder.root, "queue.journal").length() < JournaledQueueFile.MAX_JOURNAL_LENGTH) `should be equal to` true
+        reopen().size() `should be equal to` commits + 10
+    }
+
+    @Test
+    fun `removing every element clears the queue`() {
+        val subject = open()
+        subject.addAll(listOf("one".toByteArray(), "two".toByteArray()))
+
+        subject.remove(2)
+
+        subject.isEmpty `should be equal to` true
+        File(folder.root, "queue.0").length() `should be equal to` 0L
+        reopen().read(10) `should be equal to` emptyList()
+    }
+
+    @Test(expected = NoSuchElementException::class)
+    fun `removing from an empty queue fails`() {
+        open().remove()
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun `removing more elements than present fails`() {
+        open().apply {
+            add("one".toByteArray())
+            add("two".toByteArray())
+            remove(3)
+        }
+    }
+
+    private fun open(
+        compactionThreshold: Long = JournaledQueueFile.DEFAULT_COMPACTION_THRESHOLD
+    ): JournaledQueueFile = JournaledQueueFile(file, compactionThreshold).also { queue = it }
+
+    private fun reopen(): JournaledQueueFile {
+        queue?.close()
+        return open()
+    }
+}
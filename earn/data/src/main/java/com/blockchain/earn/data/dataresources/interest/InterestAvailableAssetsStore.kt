@@ -4,14 +4,16 @@ import com.blockchain.api.interest.InterestApiService
 import com.blockchain.api.interest.data.InterestAvailableTickersDto
 import com.blockchain.store.Fetcher
 import com.blockchain.store.Store
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.Freshness
 import com.blockchain.store.impl.FreshnessMediator
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
 import com.blockchain.storedatasource.FlushableDataSource
 
 class InterestAvailableAssetsStore(
-    private val interestApiService: InterestApiService
-) : Store<InterestAvailableTickersDto> by PersistedJsonSqlDelightStoreBuilder()
+    private val interestApiService: InterestApiService,
+    storeMetrics: StoreMetrics? = null
+) : Store<InterestAvailableTickersDto> by PersistedJsonSqlDelightStoreBuilder(storeMetrics)
     .build(
         storeId = STORE_ID,
         fetcher = Fetcher.ofSingle(
@@ -4,6 +4,7 @@ import com.blockchain.api.interest.InterestApiService
 import com.blockchain.api.interest.data.InterestEligibilityDto
 import com.blockchain.store.Fetcher
 import com.blockchain.store.Store
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.Freshness
 import com.blockchain.store.impl.FreshnessMediator
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
@@ -12,8 +13,9 @@ import kotlinx.serialization.builtins.MapSerializer
 import kotlinx.serialization.builtins.serializer
 
 class InterestEligibilityStore(
-    private val interestApiService: InterestApiService
-) : Store<Map<String, InterestEligibilityDto>> by PersistedJsonSqlDelightStoreBuilder()
+    private val interestApiService: InterestApiService,
+    storeMetrics: StoreMetrics? = null
+) : Store<Map<String, InterestEligibilityDto>> by PersistedJsonSqlDelightStoreBuilder(storeMetrics)
     .build(
         storeId = STORE_ID,
         fetcher = Fetcher.ofSingle(
@@ -6,6 +6,7 @@ import com.blockchain.logging.Logger
 import com.blockchain.preferences.CurrencyPrefs
 import com.blockchain.store.Fetcher
 import com.blockchain.store.Store
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.Freshness
 import com.blockchain.store.impl.FreshnessMediator
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
@@ -13,8 +14,9 @@ import com.blockchain.storedatasource.FlushableDataSource
 
 class InterestLimitsStore(
     private val interestApiService: InterestApiService,
-    private val currencyPrefs: CurrencyPrefs
-) : Store<InterestTickerLimitsDto> by PersistedJsonSqlDelightStoreBuilder()
+    private val currencyPrefs: CurrencyPrefs,
+    storeMetrics: StoreMetrics? = null
+) : Store<InterestTickerLimitsDto> by PersistedJsonSqlDelightStoreBuilder(storeMetrics)
     .build(
         storeId = STORE_ID,
         fetcher = Fetcher.ofSingle(
@@ -4,6 +4,7 @@ import com.blockchain.api.interest.InterestApiService
 import com.blockchain.api.interest.data.InterestRateDto
 import com.blockchain.store.Fetcher
 import com.blockchain.store.KeyedStore
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.Freshness
 import com.blockchain.store.impl.FreshnessMediator
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
@@ -12,7 +13,8 @@ import kotlinx.serialization.Serializable
 
 class InterestRateStore(
     private val interestApiService: InterestApiService,
-) : KeyedStore<InterestRateStore.Key, InterestRateDto> by PersistedJsonSqlDelightStoreBuilder()
+    storeMetrics: StoreMetrics? = null,
+) : KeyedStore<InterestRateStore.Key, InterestRateDto> by PersistedJsonSqlDelightStoreBuilder(storeMetrics)
     .buildKeyed(
         storeId = STORE_ID,
         fetcher = Fetcher.Keyed.ofSingle(
@@ -4,6 +4,7 @@ import com.blockchain.api.staking.StakingApiService
 import com.blockchain.api.staking.data.StakingEligibilityDto
 import com.blockchain.store.Fetcher
 import com.blockchain.store.Store
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.Freshness
 import com.blockchain.store.impl.FreshnessMediator
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
@@ -13,7 +14,8 @@ import kotlinx.serialization.builtins.serializer
 
 class StakingEligibilityStore(
     private val stakingApiService: StakingApiService,
-) : Store<Map<String, StakingEligibilityDto>> by PersistedJsonSqlDelightStoreBuilder()
+    storeMetrics: StoreMetrics? = null,
+) : Store<Map<String, StakingEligibilityDto>> by PersistedJsonSqlDelightStoreBuilder(storeMetrics)
     .build(
         storeId = STORE_ID,
         fetcher = Fetcher.Keyed.ofOutcome(
@@ -5,6 +5,7 @@ import com.blockchain.api.staking.data.StakingLimitsMapDto
 import com.blockchain.preferences.CurrencyPrefs
 import com.blockchain.store.Fetcher
 import com.blockchain.store.Store
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.Freshness
 import com.blockchain.store.impl.FreshnessMediator
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
@@ -12,8 +13,9 @@ import com.blockchain.storedatasource.FlushableDataSource
 
 class StakingLimitsStore(
     private val stakingApiService: StakingApiService,
-    private val currencyPrefs: CurrencyPrefs
-) : Store<StakingLimitsMapDto> by PersistedJsonSqlDelightStoreBuilder()
+    private val currencyPrefs: CurrencyPrefs,
+    storeMetrics: StoreMetrics? = null
+) : Store<StakingLimitsMapDto> by PersistedJsonSqlDelightStoreBuilder(storeMetrics)
     .build(
         storeId = STORE_ID,
         fetcher = Fetcher.ofOutcome(
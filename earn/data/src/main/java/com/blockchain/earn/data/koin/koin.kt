@@ -23,26 +23,30 @@ val earnDataModule = module {
 
         scoped {
             StakingRatesStore(
-                stakingApiService = get()
+                stakingApiService = get(),
+                storeMetrics = getOrNull()
             )
         }
 
         scoped {
             StakingEligibilityStore(
-                stakingApiService = get()
+                stakingApiService = get(),
+                storeMetrics = getOrNull()
             )
         }
 
         scoped {
             StakingBalanceStore(
-                stakingApiService = get()
+                stakingApiService = get(),
+                storeMetrics = getOrNull()
             )
         }
 
         scoped {
             StakingLimitsStore(
                 stakingApiService = get(),
-                currencyPrefs = get()
+                currencyPrefs = get(),
+                storeMetrics = getOrNull()
             )
         }
 
@@ -63,37 +67,43 @@ val earnDataModule = module {
         scoped {
             InterestBalancesStore(
                 interestApiService = get(),
+                storeMetrics = getOrNull(),
             )
         }
 
         scoped {
             InterestAvailableAssetsStore(
                 interestApiService = get(),
+                storeMetrics = getOrNull(),
             )
         }
 
         scoped {
             InterestEligibilityStore(
                 interestApiService = get(),
+                storeMetrics = getOrNull(),
             )
         }
 
         scoped {
             InterestLimitsStore(
                 interestApiService = get(),
-                currencyPrefs = get()
+                currencyPrefs = get(),
+                storeMetrics = getOrNull()
             )
         }
 
         scoped {
             InterestRateStore(
                 interestApiService = get(),
+                storeMetrics = getOrNull(),
             )
         }
 
         scoped {
             InterestRateForAllStore(
                 interestApiService = get(),
+                storeMetrics = getOrNull(),
             )
         }
 
@@ -4,14 +4,16 @@ import com.blockchain.coincore.ActivitySummaryList
 import com.blockchain.coincore.Coincore
 import com.blockchain.store.Fetcher
 import com.blockchain.store.Store
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.Freshness
 import com.blockchain.store.impl.FreshnessMediator
 import com.blockchain.store_caches_inmemory.InMemoryCacheStoreBuilder
 import com.blockchain.walletmode.WalletMode
 
 class CustodialActivityStore(
-    private val coincore: Coincore
-) : Store<ActivitySummaryList> by InMemoryCacheStoreBuilder().build(
+    private val coincore: Coincore,
+    storeMetrics: StoreMetrics? = null
+) : Store<ActivitySummaryList> by InMemoryCacheStoreBuilder(storeMetrics).build(
     storeId = "CustodialActivityStore",
     fetcher = Fetcher.ofSingle(
         mapper = {
@@ -22,7 +22,7 @@ val homeDataModule = module {
         }.bind(HomeAccountsService::class)
 
         scoped {
-            CustodialActivityStore(coincore = get())
+            CustodialActivityStore(coincore = get(), storeMetrics = getOrNull())
         }
 
         factory <CustodialActivityService> {
@@ -11,8 +11,11 @@ import info.blockchain.wallet.metadata.data.RemoteMetadataNodes
 import info.blockchain.wallet.payload.WalletPayloadService
 import io.reactivex.rxjava3.core.Completable
 import io.reactivex.rxjava3.core.Maybe
+import io.reactivex.rxjava3.core.Observable
 import io.reactivex.rxjava3.core.Single
 import io.reactivex.rxjava3.schedulers.Schedulers
+import java.util.concurrent.ConcurrentHashMap
+import org.bitcoinj.crypto.DeterministicKey
 import org.spongycastle.crypto.InvalidCipherTextException
 
 /**
@@ -33,7 +36,8 @@ internal class MetadataManager(
     private val walletPayloadService: WalletPayloadService,
     private val metadataInteractor: MetadataInteractor,
     private val metadataDerivation: MetadataDerivation,
-    private val remoteLogger: RemoteLogger
+    private val remoteLogger: RemoteLogger,
+    private val currentTimeMillis: () -> Long = System::currentTimeMillis
 ) : MetadataService {
     private val credentials: MetadataCredentials
         get() = MetadataCredentials(
@@ -56,6 +60,14 @@ internal class MetadataManager(
             _metadataNodeFactory = it
         }
 
+    // Deriving an entry's keys and address takes three hardened derivations, so instances are kept per type
+    // for as long as the metadata node they were derived from is in use
+    private val metadataInstances = ConcurrentHashMap<Int, Metadata>()
+    private val prefetchedPayloads = ConcurrentHashMap<Int, PrefetchedPayload>()
+
+    @Volatile
+    private var cachedNode: DeterministicKey? = null
+
     override fun attemptMetadataSetup(): Completable = Completable.defer { initMetadataNodes() }
 
     override fun metadataForMasterKey(masterKey: MasterKey, type: MetadataEntry): Maybe<String> {
@@ -78,17 +90,54 @@ internal class MetadataManager(
             )
     }
 
+    override fun prefetchMetadata(entries: List<MetadataEntry>): Completable = Completable.defer {
+        val node = metadataNodeFactory.metadataNode
+            ?: return@defer Completable.error(IllegalStateException("Metadata node is null"))
+        Observable.fromIterable(entries.map { it.index }.distinct())
+            .flatMapCompletable(
+                { type ->
+                    prefetchedPayloads.getOrPut(type) {
+                        PrefetchedPayload(loadMetadata(node, type).cache(), currentTimeMillis())
+                    }.payload.ignoreElement().onErrorComplete()
+                },
+                false,
+                MAX_CONCURRENT_LOADS
+            )
+    }.subscribeOn(Schedulers.io())
+
     internal fun fetchMetadata(metadataType: Int): Maybe<String> =
-        metadataNodeFactory.metadataNode?.let {
-            metadataInteractor.loadRemoteMetadata(
-                Metadata.newInstance(
-                    metaDataHDNode = it,
-                    type = metadataType,
-                    metadataDerivation = metadataDerivation
-                )
-            ).doOnError { logPaddingError(it, metadataType) }
+        metadataNodeFactory.metadataNode?.let { node ->
+            // A prefetched payload serves a single read, later reads go to the service again
+            prefetchedPayloads.remove(metadataType)
+                ?.takeIf { cachedNode === node && currentTimeMillis() - it.timestamp < PREFETCH_TTL_MILLIS }
+                ?.payload
+                ?.onErrorResumeNext { loadMetadata(node, metadataType) }
+                ?: loadMetadata(node, metadataType)
         } ?: Maybe.error(IllegalStateException("Metadata node is null"))
 
+    private fun loadMetadata(node: DeterministicKey, metadataType: Int): Maybe<String> =
+        metadataInteractor.loadRemoteMetadata(metadataInstance(node, metadataType))
+            .doOnError { logPaddingError(it, metadataType) }
+
+    private fun metadataInstance(node: DeterministicKey, metadataType: Int): Metadata {
+        if (cachedNode !== node) {
+            synchronized(metadataInstances) {
+                if (cachedNode !== node) {
+                    clearCaches()
+                    cachedNode = node
+                }
+            }
+        }
+        return metadataInstances.getOrPut(metadataType) {
+            Metadata.newInstance(metaDataHDNode = node, type = metadataType, metadataDerivation = metadataDerivation)
+        }
+    }
+
+    private fun clearCaches() {
+        metadataInstances.clear()
+        prefetchedPayloads.clear()
+    }
+
     private fun logPaddingError(e: Throwable, metadataType: Int) {
         if (e is InvalidCipherTextException) {
             remoteLogger.logException(
@@ -99,10 +148,8 @@ internal class MetadataManager(
 
     internal fun saveToMetadata(data: String, metadataType: Int): Completable =
         metadataNodeFactory.metadataNode?.let {
-            metadataInteractor.putMetadata(
-                data,
-                Metadata.newInstance(metaDataHDNode = it, type = metadataType, metadataDerivation = metadataDerivation)
-            )
+            prefetchedPayloads.remove(metadataType)
+            metadataInteractor.putMetadata(data, metadataInstance(it, metadataType))
         } ?: Completable.error(IllegalStateException("Metadata node is null"))
 
     /**
@@ -150,6 +197,10 @@ internal class MetadataManager(
 
     override fun reset() {
         _metadataNodeFactory = null
+        synchronized(metadataInstances) {
+            clearCaches()
+            cachedNode = null
+        }
     }
 
     /**
@@ -169,5 +220,15 @@ internal class MetadataManager(
     }
 }
 
+private class PrefetchedPayload(
+    val payload: Maybe<String>,
+    val timestamp: Long
+)
+
+private const val MAX_CONCURRENT_LOADS = 4
+
+// Prefetching is meant for reads right after login, anything older is fetched again
+private const val PREFETCH_TTL_MILLIS = 60_000L
+
 private class MetadataBadPaddingTracker(metadataType: Int, throwable: Throwable) :
     Exception("metadataType == $metadataType ($metadataType -- ${throwable.message}", throwable)
@@ -13,5 +13,11 @@ interface MetadataService {
         type: MetadataEntry
     ): Maybe<String>
 
+    /**
+     * Loads the given entries concurrently, so that the next read of each of them is served without another round
+     * trip. Entries which fail to load are skipped and fetched again when read.
+     */
+    fun prefetchMetadata(entries: List<MetadataEntry>): Completable
+
     fun reset()
 }
@@ -2,11 +2,15 @@ package com.blockchain.metadata
 
 import com.blockchain.testutils.rxInit
 import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.argumentCaptor
 import com.nhaarman.mockitokotlin2.eq
 import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.times
+import com.nhaarman.mockitokotlin2.verify
 import com.nhaarman.mockitokotlin2.whenever
 import info.blockchain.wallet.exceptions.InvalidCredentialsException
 import info.blockchain.wallet.keys.MasterKey
+import info.blockchain.wallet.metadata.Metadata
 import info.blockchain.wallet.metadata.MetadataDerivation
 import info.blockchain.wallet.metadata.MetadataInteractor
 import info.blockchain.wallet.metadata.data.RemoteMetadataNodes
@@ -15,6 +19,7 @@ import io.reactivex.rxjava3.core.Completable
 import io.reactivex.rxjava3.core.Maybe
 import java.lang.IllegalStateException
 import org.bitcoinj.crypto.HDKeyDerivation
+import org.junit.Assert.assertSame
 import org.junit.Before
 import org.junit.Rule
 import org.junit.Test
@@ -26,6 +31,7 @@ class MetadataManagerTest {
     private val walletPayloadService: WalletPayloadService = mock()
     private val metadataInteractor: MetadataInteractor = mock()
     private val metadataDerivation: MetadataDerivation = MetadataDerivation()
+    private var now = 0L
 
     private val seed = "15e23aa73d25994f1921a1256f93f72c"
     private val mockMasterKey: MasterKey = mock {
@@ -53,7 +59,8 @@ class MetadataManagerTest {
             walletPayloadService,
             metadataInteractor,
             metadataDerivation,
-            mock()
+            mock(),
+            { now }
         )
 
         whenever(walletPayloadService.password).thenReturn(
@@ -171,7 +178,76 @@ class MetadataManagerTest {
             .then { subject.saveToMetadata("metadata save payload", 0) }.test()
         test.assertError { it is IllegalStateException }
     }
+
+    @Test
+    fun `metadata instances are derived once per type`() {
+        whenever(metadataInteractor.loadRemoteMetadata(any())).thenReturn(Maybe.just(fakeRemoteMetadata))
+        whenever(metadataInteractor.putMetadata(any(), any())).thenReturn(Completable.complete())
+
+        subject.attemptMetadataSetup()
+            .thenMaybe { subject.fetchMetadata(5) }
+            .ignoreElement()
+            .thenMaybe { subject.fetchMetadata(5) }
+            .ignoreElement()
+            .then { subject.saveToMetadata("{}", 5) }
+            .test()
+            .assertComplete()
+
+        val loaded = argumentCaptor<Metadata>()
+        // The first load is the second password node
+        verify(metadataInteractor, times(3)).loadRemoteMetadata(loaded.capture())
+        assertSame(loaded.allValues[1], loaded.allValues[2])
+        val saved = argumentCaptor<Metadata>()
+        verify(metadataInteractor).putMetadata(any(), saved.capture())
+        assertSame(loaded.allValues[1], saved.firstValue)
+    }
+
+    @Test
+    fun `prefetched entries are served without another load`() {
+        whenever(metadataInteractor.loadRemoteMetadata(any())).thenReturn(Maybe.just(fakeRemoteMetadata))
+
+        subject.attemptMetadataSetup()
+            .then { subject.prefetchMetadata(listOf(MetadataEntry.METADATA_ETH, MetadataEntry.METADATA_BCH)) }
+            .thenMaybe { subject.fetchMetadata(MetadataEntry.METADATA_ETH.index) }
+            .test()
+            .assertValue(fakeRemoteMetadata)
+
+        // Second password node, then ETH and BCH
+        verify(metadataInteractor, times(3)).loadRemoteMetadata(any())
+
+        subject.fetchMetadata(MetadataEntry.METADATA_ETH.index).test().assertValue(fakeRemoteMetadata)
+        verify(metadataInteractor, times(4)).loadRemoteMetadata(any())
+    }
+
+    @Test
+    fun `stale prefetched entries are loaded again`() {
+        whenever(metadataInteractor.loadRemoteMetadata(any())).thenReturn(Maybe.just(fakeRemoteMetadata))
+
+        subject.attemptMetadataSetup()
+            .then { subject.prefetchMetadata(listOf(MetadataEntry.METADATA_XLM)) }
+            .test()
+            .assertComplete()
+        now += 5 * 60 * 1000L
+
+        subject.fetchMetadata(MetadataEntry.METADATA_XLM.index).test().assertValue(fakeRemoteMetadata)
+        verify(metadataInteractor, times(3)).loadRemoteMetadata(any())
+    }
+
+    @Test
+    fun `failed prefetches complete and are retried on read`() {
+        whenever(metadataInteractor.loadRemoteMetadata(any()))
+            .thenReturn(Maybe.just(fakeRemoteMetadata))
+            .thenReturn(Maybe.error(IllegalStateException()))
+            .thenReturn(Maybe.just(fakeRemoteMetadata))
+
+        subject.attemptMetadataSetup()
+            .then { subject.prefetchMetadata(listOf(MetadataEntry.METADATA_BCH)) }
+            .thenMaybe { subject.fetchMetadata(MetadataEntry.METADATA_BCH.index) }
+            .test()
+            .assertValue(fakeRemoteMetadata)
+    }
 }
+
 fun Completable.then(block: () -> Completable): Completable =
     andThen(Completable.defer { block() })
 
@@ -4,6 +4,7 @@ import com.blockchain.api.nfts.data.NftAssetsDto
 import com.blockchain.api.services.NftApiService
 import com.blockchain.store.Fetcher
 import com.blockchain.store.KeyedStore
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.Freshness
 import com.blockchain.store.impl.FreshnessMediator
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
@@ -11,8 +12,9 @@ import com.blockchain.storedatasource.KeyedFlushableDataSource
 import kotlinx.serialization.Serializable
 
 class NftCollectionStore(
-    private val nftApiService: NftApiService
-) : KeyedStore<NftCollectionStore.Key, NftAssetsDto> by PersistedJsonSqlDelightStoreBuilder()
+    private val nftApiService: NftApiService,
+    storeMetrics: StoreMetrics? = null
+) : KeyedStore<NftCollectionStore.Key, NftAssetsDto> by PersistedJsonSqlDelightStoreBuilder(storeMetrics)
     .buildKeyed(
         storeId = "NftCollectionStore",
         fetcher = Fetcher.Keyed.ofSingle(
@@ -9,7 +9,7 @@ import org.koin.dsl.module
 val nftDataModule = module {
     scope(payloadScopeQualifier) {
         factory {
-            NftCollectionStore(nftApiService = get())
+            NftCollectionStore(nftApiService = get(), storeMetrics = getOrNull())
         }
 
         factory<NftService> {
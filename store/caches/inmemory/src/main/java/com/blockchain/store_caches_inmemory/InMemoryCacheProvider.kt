@@ -1,6 +1,8 @@
 package com.blockchain.store_caches_inmemory
 
+import com.blockchain.store.Cache
 import com.blockchain.store.StoreId
+import com.blockchain.store.StoreMetrics
 import kotlinx.coroutines.runBlocking
 import kotlinx.coroutines.sync.Mutex
 import kotlinx.coroutines.sync.withLock
@@ -9,10 +11,11 @@ object InMemoryCacheProvider {
 
     private val mutex = Mutex()
 
-    private val caches: MutableMap<StoreId, InMemoryCache<*, *>> = mutableMapOf()
+    private val caches: MutableMap<StoreId, Cache<*, *>> = mutableMapOf()
 
     suspend fun wipeAll() {
         mutex.withLock {
+            caches.values.forEach { (it as? LruInMemoryCache<*, *>)?.clear() }
             caches.clear()
         }
     }
@@ -30,4 +33,22 @@ object InMemoryCacheProvider {
             }
         }
     }
+
+    fun <K, T> provideLru(
+        storeId: StoreId,
+        config: LruCacheConfig,
+        metrics: StoreMetrics? = null
+    ): LruInMemoryCache<K, T> = runBlocking {
+        mutex.withLock {
+            val cache = caches[storeId]
+            if (cache != null) {
+                @Suppress("UNCHECKED_CAST")
+                cache as LruInMemoryCache<K, T>
+            } else {
+                LruInMemoryCache<K, T>(config, storeId, metrics).also {
+                    caches[storeId] = it
+                }
+            }
+        }
+    }
 }
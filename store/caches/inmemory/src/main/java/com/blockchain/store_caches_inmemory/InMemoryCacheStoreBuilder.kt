@@ -8,14 +8,21 @@ import com.blockchain.store.KeyedStore
 import com.blockchain.store.Mediator
 import com.blockchain.store.Store
 import com.blockchain.store.StoreId
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.MulticasterFetcher
 import com.blockchain.store.impl.RealStore
+import com.blockchain.store.impl.instrumented
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.DelicateCoroutinesApi
 import kotlinx.coroutines.GlobalScope
 import kotlinx.coroutines.flow.Flow
 
-class InMemoryCacheStoreBuilder {
+/**
+ * @param metrics when set the fetcher and mediator of the built stores are instrumented
+ */
+class InMemoryCacheStoreBuilder(
+    private val metrics: StoreMetrics? = null
+) {
     @OptIn(DelicateCoroutinesApi::class)
     fun <T : Any> build(
         storeId: StoreId,
@@ -40,16 +47,27 @@ class InMemoryCacheStoreBuilder {
         override fun markAsStale() = backingStore.markAsStale(Unit)
     }
 
+    /**
+     * @param lruConfig when set the store is backed by a size and age bounded [LruInMemoryCache], meant for stores
+     * with a large or unbounded key space
+     */
     @OptIn(DelicateCoroutinesApi::class)
     fun <K : Any, T : Any> buildKeyed(
         storeId: StoreId,
         fetcher: Fetcher<K, T>,
         mediator: Mediator<K, T>,
-        scope: CoroutineScope = GlobalScope
+        scope: CoroutineScope = GlobalScope,
+        lruConfig: LruCacheConfig? = null
     ): KeyedStore<K, T> = RealStore(
         scope,
-        MulticasterFetcher(fetcher, scope),
-        InMemoryCacheProvider.provide(storeId),
-        mediator
+        MulticasterFetcher(
+            fetcher = fetcher.instrumented(storeId, metrics),
+            scope = scope,
+            storeId = storeId,
+            metrics = metrics
+        ),
+        lruConfig?.let { InMemoryCacheProvider.provideLru<K, T>(storeId, it, metrics) }
+            ?: InMemoryCacheProvider.provide<K, T>(storeId),
+        mediator.instrumented(storeId, metrics)
     )
 }
@@ -0,0 +1,156 @@
+package com.blockchain.store_caches_inmemory
+
+import com.blockchain.store.Cache
+import com.blockchain.store.CachedData
+import com.blockchain.store.StoreId
+import com.blockchain.store.StoreMetrics
+import com.blockchain.store.impl.Freshness
+import com.blockchain.utils.CurrentTimeProvider
+import kotlinx.coroutines.channels.BufferOverflow
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.flow.emitAll
+import kotlinx.coroutines.flow.flow
+
+/**
+ * Bounded alternative to [InMemoryCache].
+ *
+ * Entries are kept in access order and the least recently used one is dropped once [LruCacheConfig.maxEntries] is
+ * exceeded, entries older than [LruCacheConfig.maxAge] are dropped lazily on access.
+ *
+ * Every key has its own flow which only exists while somebody is reading it, so a [write] is O(1) and only wakes up
+ * the collectors of that key.
+ *
+ * Evictions are recorded in [metrics], hits and misses are already recorded by the instrumented mediator of the store.
+ */
+class LruInMemoryCache<K, T> internal constructor(
+    private val config: LruCacheConfig,
+    private val storeId: StoreId? = null,
+    private val metrics: StoreMetrics? = null
+) : Cache<K, T> {
+
+    private val lock = Any()
+
+    private val entries = object : LinkedHashMap<K, Entry<K, T>>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<K, Entry<K, T>>): Boolean =
+            (size > config.maxEntries).also { evict ->
+                if (evict) recordEviction()
+            }
+    }
+
+    private val readers = HashMap<K, Reader<K, T>>()
+
+    override fun read(key: K): Flow<CachedData<K, T>?> = flow {
+        val reader = acquireReader(key)
+        try {
+            emitAll(reader.flow)
+        } finally {
+            releaseReader(key, reader)
+        }
+    }
+
+    override suspend fun write(cachedData: CachedData<K, T>) {
+        synchronized(lock) {
+            entries[cachedData.key] = Entry(cachedData, CurrentTimeProvider.currentTimeMillis())
+            readers[cachedData.key]?.flow?.tryEmit(cachedData)
+        }
+    }
+
+    override suspend fun markAsStale(key: K) {
+        synchronized(lock) {
+            val entry = getAlive(key) ?: return
+            entry.data = entry.data.copy(lastFetched = 0L)
+            readers[key]?.flow?.tryEmit(entry.data)
+        }
+    }
+
+    override suspend fun markStoreAsStale() {
+        synchronized(lock) {
+            entries.values.forEach { entry ->
+                entry.data = entry.data.copy(lastFetched = 0L)
+                readers[entry.data.key]?.flow?.tryEmit(entry.data)
+            }
+        }
+    }
+
+    /**
+     * Also emits null to the current readers, so neither they nor later collectors of their flows replay data written
+     * before the clear
+     */
+    internal fun clear() {
+        synchronized(lock) {
+            entries.clear()
+            readers.values.forEach { it.flow.tryEmit(null) }
+        }
+    }
+
+    private fun acquireReader(key: K): Reader<K, T> = synchronized(lock) {
+        val cached = getAlive(key)
+        val reader = readers[key]?.also {
+            // the entry might have expired or been evicted since the last emission
+            if (it.flow.replayCache.firstOrNull() !== cached?.data) it.flow.tryEmit(cached?.data)
+        } ?: Reader(
+            // Using SharedFlow rather than StateFlow because Store relies on [read] to always emit regardless of
+            // the value being distinct or not
+            MutableSharedFlow<CachedData<K, T>?>(
+                replay = 1,
+                onBufferOverflow = BufferOverflow.DROP_OLDEST
+            ).apply { tryEmit(cached?.data) }
+        ).also { readers[key] = it }
+        reader.subscribers++
+        reader
+    }
+
+    private fun releaseReader(key: K, reader: Reader<K, T>) {
+        synchronized(lock) {
+            reader.subscribers--
+            if (reader.subscribers == 0 && readers[key] === reader) {
+                readers.remove(key)
+            }
+        }
+    }
+
+    /**
+     * Must be called while holding [lock]
+     */
+    private fun getAlive(key: K): Entry<K, T>? {
+        val entry = entries[key] ?: return null
+        val maxAge = config.maxAge?.toMillis() ?: return entry
+        val age = CurrentTimeProvider.currentTimeMillis() - entry.insertedAt
+        return if (age in 0..maxAge) {
+            entry
+        } else {
+            entries.remove(key)
+            recordEviction()
+            null
+        }
+    }
+
+    private fun recordEviction() {
+        if (storeId != null) metrics?.recordCacheEviction(storeId)
+    }
+
+    private class Entry<K, T>(
+        var data: CachedData<K, T>,
+        val insertedAt: Long
+    )
+
+    private class Reader<K, T>(
+        val flow: MutableSharedFlow<CachedData<K, T>?>,
+        var subscribers: Int = 0
+    )
+
+    companion object {
+        private const val INITIAL_CAPACITY = 16
+        private const val LOAD_FACTOR = 0.75f
+    }
+}
+
+data class LruCacheConfig(
+    val maxEntries: Int,
+    val maxAge: Freshness? = null
+) {
+    init {
+        require(maxEntries > 0) { "maxEntries must be positive" }
+    }
+}
@@ -0,0 +1,123 @@
+package com.blockchain.store_caches_inmemory
+
+import app.cash.turbine.test
+import com.blockchain.store.CachedData
+import com.blockchain.store.impl.Freshness
+import com.blockchain.store.impl.StoreMetricsRecorder
+import com.blockchain.utils.CurrentTimeProvider
+import io.mockk.every
+import io.mockk.mockkObject
+import io.mockk.unmockkObject
+import kotlin.test.assertEquals
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.test.runTest
+import org.junit.After
+import org.junit.Test
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class LruInMemoryCacheTest {
+
+    private val metrics = StoreMetricsRecorder()
+    private val cache = LruInMemoryCache<Key, Item>(LruCacheConfig(maxEntries = 2), STORE_ID, metrics)
+
+    @After
+    fun tearDown() {
+        unmockkObject(CurrentTimeProvider)
+    }
+
+    @Test
+    fun `reading for the first time should return null`() = runTest {
+        cache.read(KEY).test {
+            assertEquals(null, awaitItem())
+        }
+    }
+
+    @Test
+    fun `writing should emit a new value in read`() = runTest {
+        cache.read(KEY).test {
+            assertEquals(null, awaitItem())
+            val cached1 = CachedData(KEY, Item(123), 1)
+            cache.write(cached1)
+            assertEquals(cached1, awaitItem())
+            val cached2 = CachedData(KEY, Item(223), 2)
+            cache.write(cached2)
+            assertEquals(cached2, awaitItem())
+            expectNoEvents()
+        }
+    }
+
+    @Test
+    fun `writing to a different key should not emit in read`() = runTest {
+        cache.read(KEY).test {
+            assertEquals(null, awaitItem())
+            val cached1 = CachedData(KEY, Item(123), 1)
+            cache.write(cached1)
+            assertEquals(cached1, awaitItem())
+            cache.write(CachedData(KEY2, Item(223), 2))
+            expectNoEvents()
+        }
+    }
+
+    @Test
+    fun `marking as stale should emit a new value in read with lastFetched zeroed`() = runTest {
+        cache.read(KEY).test {
+            assertEquals(null, awaitItem())
+            val cached1 = CachedData(KEY, Item(123), 1)
+            cache.write(cached1)
+            assertEquals(cached1, awaitItem())
+            cache.markAsStale(KEY)
+            assertEquals(cached1.copy(lastFetched = 0), awaitItem())
+            expectNoEvents()
+        }
+    }
+
+    @Test
+    fun `writing over max entries should evict the least recently used key`() = runTest {
+        val key3 = Key("3")
+        cache.write(CachedData(KEY, Item(1), 1))
+        cache.write(CachedData(KEY2, Item(2), 1))
+        // touch KEY so KEY2 becomes the least recently used
+        cache.read(KEY).first()
+        cache.write(CachedData(key3, Item(3), 1))
+
+        assertEquals(Item(1), cache.read(KEY).first()?.data)
+        assertEquals(null, cache.read(KEY2).first())
+        assertEquals(Item(3), cache.read(key3).first()?.data)
+        assertEquals(1L, metrics.snapshot().getValue(STORE_ID).cacheEvictions)
+    }
+
+    @Test
+    fun `entries older than max age should be dropped on read`() = runTest {
+        mockkObject(CurrentTimeProvider)
+        val ageBoundCache = LruInMemoryCache<Key, Item>(
+            LruCacheConfig(maxEntries = 10, maxAge = Freshness.ofSeconds(10)),
+            STORE_ID,
+            metrics
+        )
+        every { CurrentTimeProvider.currentTimeMillis() } returns 1_000L
+        ageBoundCache.write(CachedData(KEY, Item(1), 1_000L))
+        assertEquals(Item(1), ageBoundCache.read(KEY).first()?.data)
+
+        every { CurrentTimeProvider.currentTimeMillis() } returns 12_000L
+        assertEquals(null, ageBoundCache.read(KEY).first())
+        assertEquals(1L, metrics.snapshot().getValue(STORE_ID).cacheEvictions)
+    }
+
+    @Test
+    fun `clearing should stop readers from replaying data written before`() = runTest {
+        cache.write(CachedData(KEY, Item(1), 1))
+        cache.read(KEY).test {
+            assertEquals(Item(1), awaitItem()?.data)
+
+            cache.clear()
+
+            assertEquals(null, awaitItem())
+            assertEquals(null, cache.read(KEY).first())
+        }
+    }
+
+    companion object {
+        private const val STORE_ID = "LruStore"
+    }
+}
@@ -1,5 +1,7 @@
 package com.blockchain.store_caches_persistedjsonsqldelight
 
+import com.blockchain.store.BinaryData
+import com.blockchain.store.BinaryParser
 import com.blockchain.store.Cache
 import com.blockchain.store.CachedData
 import com.blockchain.store.Parser
@@ -11,28 +13,81 @@ import org.koin.core.component.KoinComponent
 import org.koin.core.component.get
 import org.koin.core.parameter.parametersOf
 
+/**
+ * When [dataParser] is a [BinaryParser] payloads are persisted in its binary format, rows written as JSON before
+ * that are still readable and get rewritten in the binary format the first time they're read.
+ */
 class PersistedJsonSqlDelightCache<K, T> internal constructor(
     private val persister: SqlDelightStoreIdScopedPersister,
     private val keyParser: Parser<K>,
     private val dataParser: Parser<T>
 ) : Cache<K, T> {
+
+    // Set when the data type can't be represented in the binary format, we then stick to JSON for good
+    @Volatile
+    private var binaryUnsupported = false
+
     override fun read(key: K): Flow<CachedData<K, T>?> =
         persister.read(keyParser.encode(key)).map { persisterData ->
             if (persisterData == null) return@map null
-            val parsedData = dataParser.decode(persisterData.data) ?: return@map null
+            val parsedData = persisterData.decode() ?: return@map null
 
-            CachedData(key, parsedData, persisterData.lastFetched)
+            CachedData(key, parsedData, persisterData.lastFetched).also {
+                if (persisterData.needsMigration()) write(it)
+            }
         }
 
     override suspend fun write(cachedData: CachedData<K, T>) =
-        persister.write(
-            PersisterData(keyParser.encode(cachedData.key), dataParser.encode(cachedData.data), cachedData.lastFetched)
-        )
+        persister.write(cachedData.toPersisterData())
+
+    /**
+     * Writes every entry in one transaction, so the batch costs a single commit and a single re-query per reader
+     */
+    suspend fun writeAll(cachedData: List<CachedData<K, T>>) =
+        persister.writeAll(cachedData.map { it.toPersisterData() })
 
     override suspend fun markAsStale(key: K) = persister.markAsStale(keyParser.encode(key))
 
+    suspend fun markAllAsStale(keys: List<K>) = persister.markAllAsStale(keys.map { keyParser.encode(it) })
+
     override suspend fun markStoreAsStale() = persister.markStoreAsStale()
 
+    private fun PersisterData.decode(): T? {
+        val binaryParser = dataParser as? BinaryParser<T>
+        val binaryData = binaryData
+        return if (binaryParser != null && binaryData != null && binaryData.format == binaryParser.format) {
+            binaryParser.decodeFromBytes(binaryData.bytes)
+        } else {
+            dataParser.decode(data)
+        }
+    }
+
+    private fun PersisterData.needsMigration(): Boolean {
+        val binaryParser = dataParser as? BinaryParser<T> ?: return false
+        return !binaryUnsupported && binaryData?.format != binaryParser.format
+    }
+
+    private fun CachedData<K, T>.toPersisterData(): PersisterData {
+        val encodedKey = keyParser.encode(key)
+        val binaryParser = dataParser as? BinaryParser<T>
+        val bytes = if (binaryParser != null && !binaryUnsupported) {
+            try {
+                binaryParser.encodeToBytes(data)
+            } catch (ex: Exception) {
+                binaryUnsupported = true
+                null
+            }
+        } else {
+            null
+        }
+
+        return if (binaryParser != null && bytes != null) {
+            PersisterData(encodedKey, "", lastFetched, BinaryData(binaryParser.format, bytes))
+        } else {
+            PersisterData(encodedKey, dataParser.encode(data), lastFetched)
+        }
+    }
+
     class Builder<K, T>(
         private val storeId: StoreId,
         private val keyParser: Parser<K>,
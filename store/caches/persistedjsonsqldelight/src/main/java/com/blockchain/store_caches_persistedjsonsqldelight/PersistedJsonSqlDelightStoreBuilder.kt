@@ -7,19 +7,28 @@ import com.blockchain.store.Fetcher
 import com.blockchain.store.Mediator
 import com.blockchain.store.Store
 import com.blockchain.store.StoreId
+import com.blockchain.store.StoreMetrics
+import com.blockchain.store.impl.CborParser
 import com.blockchain.store.impl.JsonParser
 import com.blockchain.store.impl.MulticasterFetcher
 import com.blockchain.store.impl.RealStore
+import com.blockchain.store.impl.instrumented
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.DelicateCoroutinesApi
 import kotlinx.coroutines.GlobalScope
 import kotlinx.coroutines.flow.Flow
 import kotlinx.serialization.KSerializer
 import kotlinx.serialization.builtins.serializer
+import kotlinx.serialization.json.Json
 import org.koin.core.component.KoinComponent
 import org.koin.core.component.get
 
-class PersistedJsonSqlDelightStoreBuilder : KoinComponent {
+/**
+ * @param metrics when set the fetcher, mediator and data parser of the built stores are instrumented
+ */
+class PersistedJsonSqlDelightStoreBuilder(
+    private val metrics: StoreMetrics? = null
+) : KoinComponent {
 
     @OptIn(DelicateCoroutinesApi::class)
     fun <T : Any> build(
@@ -27,7 +36,8 @@ class PersistedJsonSqlDelightStoreBuilder : KoinComponent {
         fetcher: Fetcher<Unit, T>,
         dataSerializer: KSerializer<T>,
         mediator: Mediator<Unit, T>,
-        scope: CoroutineScope = GlobalScope
+        scope: CoroutineScope = GlobalScope,
+        payloadFormat: PayloadFormat = PayloadFormat.JSON
     ): Store<T> = object : Store<T> {
         private val backingStore = buildKeyed(
             storeId = storeId,
@@ -36,6 +46,7 @@ class PersistedJsonSqlDelightStoreBuilder : KoinComponent {
             dataSerializer = dataSerializer,
             mediator = mediator,
             scope = scope,
+            payloadFormat = payloadFormat,
         )
 
         override fun stream(request: FreshnessStrategy): Flow<DataResource<T>> = backingStore.stream(
@@ -55,15 +66,46 @@ class PersistedJsonSqlDelightStoreBuilder : KoinComponent {
         keySerializer: KSerializer<K>,
         dataSerializer: KSerializer<T>,
         mediator: Mediator<K, T>,
-        scope: CoroutineScope = GlobalScope
+        scope: CoroutineScope = GlobalScope,
+        payloadFormat: PayloadFormat = PayloadFormat.JSON
     ): RealStore<K, T> = RealStore(
         scope,
-        MulticasterFetcher(fetcher, scope),
-        PersistedJsonSqlDelightCache.Builder(
-            storeId,
-            JsonParser(get(), keySerializer),
-            JsonParser(get(), dataSerializer)
-        ).build(),
-        mediator
+        MulticasterFetcher(
+            fetcher = fetcher.instrumented(storeId, metrics),
+            scope = scope,
+            storeId = storeId,
+            metrics = metrics
+        ),
+        buildCache(storeId, keySerializer, dataSerializer, payloadFormat),
+        mediator.instrumented(storeId, metrics)
     )
+
+    /**
+     * The persisted cache alone, for data the caller fetches and merges itself rather than fetching a whole value
+     * per key
+     */
+    fun <K : Any, T : Any> buildCache(
+        storeId: StoreId,
+        keySerializer: KSerializer<K>,
+        dataSerializer: KSerializer<T>,
+        payloadFormat: PayloadFormat = PayloadFormat.JSON
+    ): PersistedJsonSqlDelightCache<K, T> = PersistedJsonSqlDelightCache.Builder(
+        storeId,
+        JsonParser(get(), keySerializer),
+        when (payloadFormat) {
+            PayloadFormat.JSON -> JsonParser(get(), dataSerializer)
+            PayloadFormat.CBOR -> get<Json>().let { json ->
+                CborParser(CborParser.cborFor(json), json, dataSerializer)
+            }
+        }.instrumented(storeId, metrics)
+    ).build()
+
+    /**
+     * How the data is persisted, keys are always persisted as JSON.
+     * [CBOR] is cheaper to decode for large payloads, existing JSON rows are migrated the first time they're read.
+     */
+    enum class PayloadFormat {
+        JSON,
+        CBOR
+    }
 }
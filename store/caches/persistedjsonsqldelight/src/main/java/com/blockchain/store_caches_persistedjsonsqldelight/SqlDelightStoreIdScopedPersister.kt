@@ -1,5 +1,16 @@
 package com.blockchain.store_caches_persistedjsonsqldelight
 
 import com.blockchain.store.Persister
+import com.blockchain.store.PersisterData
 
-interface SqlDelightStoreIdScopedPersister : Persister
+interface SqlDelightStoreIdScopedPersister : Persister {
+    /**
+     * write all [data] in a single transaction, readers are only notified once the whole batch is committed
+     */
+    suspend fun writeAll(data: List<PersisterData>)
+
+    /**
+     * mark store as stale for all [keys] in a single transaction
+     */
+    suspend fun markAllAsStale(keys: List<String?>)
+}
@@ -5,6 +5,7 @@ import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelig
 import com.blockchain.store_caches_persistedjsonsqldelight.SqlDelightStoreIdScopedPersister
 import io.mockk.coEvery
 import io.mockk.coVerify
+import io.mockk.every
 import io.mockk.mockk
 import kotlin.test.assertEquals
 import kotlinx.coroutines.ExperimentalCoroutinesApi
@@ -19,7 +20,7 @@ class CacheTest {
     val keyParser: Parser<Key> = mockk()
     val dataParser: Parser<Item> = mockk()
 
-    val cache: Cache<Key, Item> = PersistedJsonSqlDelightCache(persister, keyParser, dataParser)
+    val cache = PersistedJsonSqlDelightCache(persister, keyParser, dataParser)
 
     @Test
     fun `read`() = runTest {
@@ -59,6 +60,75 @@ class CacheTest {
         coVerify { persister.write(PersisterData("{key}", "{data}", lastFetched)) }
     }
 
+    @Test
+    fun `write all`() = runTest {
+        val key2 = Key("789")
+        coEvery { keyParser.encode(KEY) } returns "{key}"
+        coEvery { keyParser.encode(key2) } returns "{key2}"
+        coEvery { dataParser.encode(Item(1)) } returns "{data1}"
+        coEvery { dataParser.encode(Item(2)) } returns "{data2}"
+        coEvery { persister.writeAll(any()) } returns Unit
+
+        cache.writeAll(listOf(CachedData(KEY, Item(1), 10L), CachedData(key2, Item(2), 20L)))
+
+        coVerify(exactly = 1) {
+            persister.writeAll(
+                listOf(PersisterData("{key}", "{data1}", 10L), PersisterData("{key2}", "{data2}", 20L))
+            )
+        }
+        coVerify(exactly = 0) { persister.write(any()) }
+    }
+
+    @Test
+    fun `mark all as stale`() = runTest {
+        val key2 = Key("789")
+        coEvery { keyParser.encode(KEY) } returns "{key}"
+        coEvery { keyParser.encode(key2) } returns "{key2}"
+        coEvery { persister.markAllAsStale(any()) } returns Unit
+
+        cache.markAllAsStale(listOf(KEY, key2))
+
+        coVerify(exactly = 1) { persister.markAllAsStale(listOf("{key}", "{key2}")) }
+    }
+
+    @Test
+    fun `binary parser should write binary data`() = runTest {
+        val binaryParser: BinaryParser<Item> = mockk()
+        val binaryCache = PersistedJsonSqlDelightCache(persister, keyParser, binaryParser)
+        val bytes = byteArrayOf(1, 2, 3)
+        coEvery { keyParser.encode(KEY) } returns "{key}"
+        every { binaryParser.format } returns BinaryParser.FORMAT_CBOR_V1
+        every { binaryParser.encodeToBytes(Item(1)) } returns bytes
+        coEvery { persister.write(any()) } returns Unit
+
+        binaryCache.write(CachedData(KEY, Item(1), 10L))
+
+        coVerify {
+            persister.write(PersisterData("{key}", "", 10L, BinaryData(BinaryParser.FORMAT_CBOR_V1, bytes)))
+        }
+    }
+
+    @Test
+    fun `binary parser should read legacy json rows and migrate them`() = runTest {
+        val binaryParser: BinaryParser<Item> = mockk()
+        val binaryCache = PersistedJsonSqlDelightCache(persister, keyParser, binaryParser)
+        val bytes = byteArrayOf(1, 2, 3)
+        coEvery { keyParser.encode(KEY) } returns "{key}"
+        coEvery { persister.read("{key}") } returns MutableStateFlow(PersisterData("{key}", "{data}", 1))
+        every { binaryParser.format } returns BinaryParser.FORMAT_CBOR_V1
+        every { binaryParser.decode("{data}") } returns Item(123)
+        every { binaryParser.encodeToBytes(Item(123)) } returns bytes
+        coEvery { persister.write(any()) } returns Unit
+
+        binaryCache.read(KEY).test {
+            assertEquals(CachedData(KEY, Item(123), 1), awaitItem())
+        }
+
+        coVerify {
+            persister.write(PersisterData("{key}", "", 1, BinaryData(BinaryParser.FORMAT_CBOR_V1, bytes)))
+        }
+    }
+
     @Test
     fun `mark as stale`() = runTest {
         coEvery { keyParser.encode(KEY) } returns "{key}"
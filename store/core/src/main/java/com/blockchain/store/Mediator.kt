@@ -2,4 +2,10 @@ package com.blockchain.store
 
 interface Mediator<K, T> {
     fun shouldFetch(cachedData: CachedData<K, T>?): Boolean
+
+    /**
+     * Whether [cachedData] that [shouldFetch] considers stale can still be emitted while it's being revalidated,
+     * the stream will then emit `[Data(stale cache), Loading, Data/Error(fetcher)]` instead of hiding the cache
+     */
+    fun canServeStale(cachedData: CachedData<K, T>): Boolean = false
 }
@@ -4,3 +4,19 @@ interface Parser<T> {
     fun encode(data: T): String
     fun decode(data: String): T?
 }
+
+/**
+ * A [Parser] that can also produce a compact binary payload.
+ *
+ * The String based [encode]/[decode] are kept so rows persisted before the binary format was introduced
+ * can still be read, [format] is persisted next to every binary payload so it can be changed in the future.
+ */
+interface BinaryParser<T> : Parser<T> {
+    val format: Int
+    fun encodeToBytes(data: T): ByteArray
+    fun decodeFromBytes(data: ByteArray): T?
+
+    companion object {
+        const val FORMAT_CBOR_V1 = 1
+    }
+}
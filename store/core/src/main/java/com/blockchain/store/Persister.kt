@@ -17,8 +17,25 @@ interface Persister {
     suspend fun markStoreAsStale()
 }
 
+/**
+ * @param data the JSON payload, empty when the payload is stored in [binaryData]
+ */
 data class PersisterData(
     val key: String?,
     val data: String,
-    val lastFetched: Millis
+    val lastFetched: Millis,
+    val binaryData: BinaryData? = null
 )
+
+/**
+ * @param format the [BinaryParser.format] that produced [bytes]
+ */
+class BinaryData(
+    val format: Int,
+    val bytes: ByteArray
+) {
+    override fun equals(other: Any?): Boolean =
+        other is BinaryData && format == other.format && bytes.contentEquals(other.bytes)
+
+    override fun hashCode(): Int = 31 * format + bytes.contentHashCode()
+}
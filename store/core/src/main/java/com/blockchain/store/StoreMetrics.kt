@@ -0,0 +1,38 @@
+package com.blockchain.store
+
+/**
+ * Receives the instrumentation of every store built while an implementation is registered in Koin,
+ * see [com.blockchain.store.impl.StoreMetricsRecorder]
+ */
+interface StoreMetrics {
+    fun recordFetch(storeId: StoreId, durationMillis: Long, isSuccess: Boolean)
+
+    /**
+     * A fetch that joined a call already in flight, or reused a recent result, instead of making its own
+     */
+    fun recordDeduplicatedFetch(storeId: StoreId)
+    fun recordCacheRead(storeId: StoreId, result: CacheReadResult)
+
+    /**
+     * An entry dropped by a bounded cache because it was full or the entry too old
+     */
+    fun recordCacheEviction(storeId: StoreId)
+    fun recordParse(storeId: StoreId, durationMillis: Long, bytes: Int)
+}
+
+enum class CacheReadResult {
+    /**
+     * Cached data was fresh, no network call
+     */
+    HIT,
+
+    /**
+     * Cached data was found but the mediator decided to fetch
+     */
+    STALE,
+
+    /**
+     * Nothing was cached
+     */
+    MISS
+}
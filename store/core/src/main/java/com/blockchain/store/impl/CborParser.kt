@@ -0,0 +1,42 @@
+package com.blockchain.store.impl
+
+import com.blockchain.store.BinaryParser
+import kotlinx.serialization.ExperimentalSerializationApi
+import kotlinx.serialization.KSerializer
+import kotlinx.serialization.cbor.Cbor
+import kotlinx.serialization.json.Json
+
+@OptIn(ExperimentalSerializationApi::class)
+class CborParser<T>(
+    private val cbor: Cbor,
+    json: Json,
+    private val serializer: KSerializer<T>
+) : BinaryParser<T> {
+
+    private val legacyParser = JsonParser(json, serializer)
+
+    override val format: Int = BinaryParser.FORMAT_CBOR_V1
+
+    override fun encode(data: T): String = legacyParser.encode(data)
+
+    override fun decode(data: String): T? = legacyParser.decode(data)
+
+    override fun encodeToBytes(data: T): ByteArray = cbor.encodeToByteArray(serializer, data)
+
+    override fun decodeFromBytes(data: ByteArray): T? = try {
+        cbor.decodeFromByteArray(serializer, data)
+    } catch (ex: Exception) {
+        null
+    }
+
+    companion object {
+        /**
+         * Builds a [Cbor] instance sharing the contextual serializers of [json]
+         */
+        fun cborFor(json: Json): Cbor = Cbor {
+            serializersModule = json.serializersModule
+            encodeDefaults = true
+            ignoreUnknownKeys = true
+        }
+    }
+}
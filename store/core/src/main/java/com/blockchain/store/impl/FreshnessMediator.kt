@@ -5,8 +5,13 @@ import com.blockchain.store.Mediator
 import com.blockchain.utils.CurrentTimeProvider
 import java.util.concurrent.TimeUnit
 
+/**
+ * @param staleWhileRevalidate how long after [freshness] expired the cached data can still be served while a new
+ * fetch is in progress, data explicitly marked as stale is never served
+ */
 class FreshnessMediator<K, T>(
     private val freshness: Freshness,
+    private val staleWhileRevalidate: Freshness? = null,
 ) : Mediator<K, T> {
     override fun shouldFetch(cachedData: CachedData<K, T>?): Boolean {
         val now = CurrentTimeProvider.currentTimeMillis()
@@ -18,6 +23,16 @@ class FreshnessMediator<K, T>(
             now < lastFetchedTimestamp ||
             now > lastFetchedTimestamp + freshness.toMillis()
     }
+
+    override fun canServeStale(cachedData: CachedData<K, T>): Boolean {
+        val staleWindow = staleWhileRevalidate ?: return false
+        val now = CurrentTimeProvider.currentTimeMillis()
+        val lastFetchedTimestamp = cachedData.lastFetched
+
+        return lastFetchedTimestamp != 0L &&
+            now >= lastFetchedTimestamp &&
+            now <= lastFetchedTimestamp + freshness.toMillis() + staleWindow.toMillis()
+    }
 }
 
 data class Freshness private constructor(
@@ -0,0 +1,108 @@
+package com.blockchain.store.impl
+
+import com.blockchain.store.BinaryParser
+import com.blockchain.store.CacheReadResult
+import com.blockchain.store.CachedData
+import com.blockchain.store.Fetcher
+import com.blockchain.store.FetcherResult
+import com.blockchain.store.Mediator
+import com.blockchain.store.Parser
+import com.blockchain.store.StoreId
+import com.blockchain.store.StoreMetrics
+
+fun <K, T> Fetcher<K, T>.instrumented(storeId: StoreId, metrics: StoreMetrics?): Fetcher<K, T> =
+    if (metrics == null) this else InstrumentedFetcher(storeId, this, metrics)
+
+fun <K, T> Mediator<K, T>.instrumented(storeId: StoreId, metrics: StoreMetrics?): Mediator<K, T> =
+    if (metrics == null) this else InstrumentedMediator(storeId, this, metrics)
+
+fun <T> Parser<T>.instrumented(storeId: StoreId, metrics: StoreMetrics?): Parser<T> = when {
+    metrics == null -> this
+    this is BinaryParser<T> -> InstrumentedBinaryParser(storeId, this, metrics)
+    else -> InstrumentedParser(storeId, this, metrics)
+}
+
+private class InstrumentedFetcher<K, T>(
+    private val storeId: StoreId,
+    private val fetcher: Fetcher<K, T>,
+    private val metrics: StoreMetrics
+) : Fetcher<K, T> {
+    override suspend fun fetch(key: K): FetcherResult<T> {
+        val start = System.nanoTime()
+        val result = fetcher.fetch(key)
+        metrics.recordFetch(storeId, elapsedMillis(start), result is FetcherResult.Success)
+        return result
+    }
+}
+
+private class InstrumentedMediator<K, T>(
+    private val storeId: StoreId,
+    private val mediator: Mediator<K, T>,
+    private val metrics: StoreMetrics
+) : Mediator<K, T> {
+    override fun shouldFetch(cachedData: CachedData<K, T>?): Boolean =
+        mediator.shouldFetch(cachedData).also { shouldFetch ->
+            metrics.recordCacheRead(
+                storeId,
+                when {
+                    cachedData == null -> CacheReadResult.MISS
+                    shouldFetch -> CacheReadResult.STALE
+                    else -> CacheReadResult.HIT
+                }
+            )
+        }
+
+    override fun canServeStale(cachedData: CachedData<K, T>): Boolean = mediator.canServeStale(cachedData)
+}
+
+private open class InstrumentedParser<T>(
+    private val storeId: StoreId,
+    private val parser: Parser<T>,
+    protected val metrics: StoreMetrics
+) : Parser<T> {
+    override fun encode(data: T): String = parser.encode(data)
+
+    override fun decode(data: String): T? = measureParse(data.utf8Size()) { parser.decode(data) }
+
+    protected fun <R> measureParse(bytes: Int, parse: () -> R): R {
+        val start = System.nanoTime()
+        return parse().also { metrics.recordParse(storeId, elapsedMillis(start), bytes) }
+    }
+}
+
+private class InstrumentedBinaryParser<T>(
+    storeId: StoreId,
+    private val parser: BinaryParser<T>,
+    metrics: StoreMetrics
+) : InstrumentedParser<T>(storeId, parser, metrics), BinaryParser<T> {
+    override val format: Int
+        get() = parser.format
+
+    override fun encodeToBytes(data: T): ByteArray = parser.encodeToBytes(data)
+
+    override fun decodeFromBytes(data: ByteArray): T? = measureParse(data.size) { parser.decodeFromBytes(data) }
+}
+
+private fun elapsedMillis(startNanos: Long): Long = (System.nanoTime() - startNanos) / 1_000_000L
+
+/**
+ * The UTF-8 encoded size, as persisted, counted without copying the string
+ */
+private fun String.utf8Size(): Int {
+    var bytes = 0
+    var i = 0
+    while (i < length) {
+        val c = this[i]
+        bytes += when {
+            c.code < 0x80 -> 1
+            c.code < 0x800 -> 2
+            c.isHighSurrogate() && i + 1 < length && this[i + 1].isLowSurrogate() -> {
+                i++
+                4
+            }
+            else -> 3
+        }
+        i++
+    }
+    return bytes
+}
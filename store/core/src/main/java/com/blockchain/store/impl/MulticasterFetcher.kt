@@ -2,33 +2,81 @@ package com.blockchain.store.impl
 
 import com.blockchain.store.Fetcher
 import com.blockchain.store.FetcherResult
+import com.blockchain.store.StoreId
+import com.blockchain.store.StoreMetrics
+import com.blockchain.utils.CurrentTimeProvider
+import java.util.concurrent.ConcurrentHashMap
 import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.CoroutineStart
 import kotlinx.coroutines.Deferred
+import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.async
-import kotlinx.coroutines.sync.Mutex
-import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
 
+/**
+ * Deduplicates concurrent fetches for the same key, every caller awaits the same in-flight call.
+ *
+ * Calls are removed as soon as they complete, unless [reuseWindowMillis] is set in which case a successful result is
+ * also handed to callers for that long after it arrived.
+ *
+ * Callers served by another call are recorded in [metrics], the calls actually made are recorded by the instrumented
+ * [fetcher].
+ */
 class MulticasterFetcher<K, T>(
     private val fetcher: Fetcher<K, T>,
-    private val scope: CoroutineScope
+    private val scope: CoroutineScope,
+    private val reuseWindowMillis: Long = 0L,
+    private val storeId: StoreId? = null,
+    private val metrics: StoreMetrics? = null
 ) : Fetcher<K, T> {
 
-    private val mutex = Mutex()
-    private val currentCalls: MutableMap<K, Deferred<FetcherResult<T>>> = mutableMapOf()
+    private val currentCalls = ConcurrentHashMap<K, Call<T>>()
 
     override suspend fun fetch(key: K): FetcherResult<T> {
-        val call = mutex.withLock {
-            val currentCall = currentCalls[key]
-            if (currentCall == null || !currentCall.isActive) {
-                val call = scope.async {
-                    fetcher.fetch(key)
-                }
-                currentCalls[key] = call
-                call
-            } else {
+        var newCall: Call<T>? = null
+        // compute is atomic per key, so only one caller can ever start a call for a given key
+        val call = currentCalls.compute(key) { _, currentCall ->
+            if (currentCall != null && currentCall.isReusable()) {
                 currentCall
+            } else {
+                Call(scope.async(start = CoroutineStart.LAZY) { fetcher.fetch(key) }).also { newCall = it }
             }
+        }!!
+
+        if (call === newCall) {
+            call.deferred.invokeOnCompletion { onCallCompleted(key, call) }
+            call.deferred.start()
+        } else if (storeId != null) {
+            metrics?.recordDeduplicatedFetch(storeId)
         }
-        return call.await()
+        return call.deferred.await()
     }
+
+    private fun onCallCompleted(key: K, call: Call<T>) {
+        call.completedAt = CurrentTimeProvider.currentTimeMillis()
+        if (reuseWindowMillis > 0L && call.isSuccess()) {
+            scope.launch {
+                delay(reuseWindowMillis)
+                currentCalls.remove(key, call)
+            }
+        } else {
+            currentCalls.remove(key, call)
+        }
+    }
+
+    private fun Call<T>.isReusable(): Boolean {
+        val completedAt = completedAt ?: return !deferred.isCompleted
+        return isSuccess() && CurrentTimeProvider.currentTimeMillis() - completedAt in 0..reuseWindowMillis
+    }
+
+    @OptIn(ExperimentalCoroutinesApi::class)
+    private fun Call<T>.isSuccess(): Boolean =
+        deferred.isCompleted && !deferred.isCancelled && deferred.getCompletionExceptionOrNull() == null &&
+            deferred.getCompleted() is FetcherResult.Success
+
+    private class Call<T>(
+        val deferred: Deferred<FetcherResult<T>>,
+        @Volatile var completedAt: Long? = null
+    )
 }
@@ -58,7 +58,8 @@ class RealStore<K : Any, T : Any>(
             // This is done so even if the mediator considers a network response stale we don't skip that emission
             val isStale = isFirstEmission && isStale(cachedData)
             val shouldFetch = isFirstEmission && (request.forceRefresh || isStale)
-            val shouldEmit = cachedData != null && !isStale
+            // Stale data is emitted right away when the mediator allows it, the fetch will then revalidate it
+            val shouldEmit = cachedData != null && (!isStale || mediator.canServeStale(cachedData))
 
             if (shouldEmit) send(DataResource.Data(cachedData!!.data))
 
@@ -0,0 +1,136 @@
+package com.blockchain.store.impl
+
+import com.blockchain.logging.RemoteLogger
+import com.blockchain.store.CacheReadResult
+import com.blockchain.store.StoreId
+import com.blockchain.store.StoreMetrics
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicLongArray
+
+/**
+ * Aggregates [StoreMetrics] in memory per [StoreId], recording is lock free so it's cheap enough to leave on.
+ *
+ * Fetch latencies are kept in a fixed bucket histogram, see [FETCH_LATENCY_BUCKETS_MILLIS].
+ */
+class StoreMetricsRecorder : StoreMetrics {
+
+    private val metrics = ConcurrentHashMap<StoreId, Metrics>()
+
+    override fun recordFetch(storeId: StoreId, durationMillis: Long, isSuccess: Boolean) {
+        val storeMetrics = metricsFor(storeId)
+        storeMetrics.fetchLatencyHistogram.incrementAndGet(bucketIndex(durationMillis))
+        storeMetrics.fetchTotalMillis.addAndGet(durationMillis)
+        if (!isSuccess) storeMetrics.fetchFailures.incrementAndGet()
+    }
+
+    override fun recordDeduplicatedFetch(storeId: StoreId) {
+        metricsFor(storeId).fetchDeduplicated.incrementAndGet()
+    }
+
+    override fun recordCacheRead(storeId: StoreId, result: CacheReadResult) {
+        metricsFor(storeId).cacheReads.incrementAndGet(result.ordinal)
+    }
+
+    override fun recordCacheEviction(storeId: StoreId) {
+        metricsFor(storeId).cacheEvictions.incrementAndGet()
+    }
+
+    override fun recordParse(storeId: StoreId, durationMillis: Long, bytes: Int) {
+        val storeMetrics = metricsFor(storeId)
+        storeMetrics.parseCount.incrementAndGet()
+        storeMetrics.parseTotalMillis.addAndGet(durationMillis)
+        storeMetrics.parseTotalBytes.addAndGet(bytes.toLong())
+        storeMetrics.parseMaxBytes.accumulateAndGet(bytes.toLong()) { a, b -> maxOf(a, b) }
+    }
+
+    fun snapshot(): Map<StoreId, StoreMetricsSnapshot> = metrics.mapValues { (_, storeMetrics) ->
+        StoreMetricsSnapshot(
+            fetchLatencyHistogram = List(storeMetrics.fetchLatencyHistogram.length()) {
+                storeMetrics.fetchLatencyHistogram.get(it)
+            },
+            fetchTotalMillis = storeMetrics.fetchTotalMillis.get(),
+            fetchFailures = storeMetrics.fetchFailures.get(),
+            fetchDeduplicated = storeMetrics.fetchDeduplicated.get(),
+            cacheHits = storeMetrics.cacheReads.get(CacheReadResult.HIT.ordinal),
+            cacheStale = storeMetrics.cacheReads.get(CacheReadResult.STALE.ordinal),
+            cacheMisses = storeMetrics.cacheReads.get(CacheReadResult.MISS.ordinal),
+            cacheEvictions = storeMetrics.cacheEvictions.get(),
+            parseCount = storeMetrics.parseCount.get(),
+            parseTotalMillis = storeMetrics.parseTotalMillis.get(),
+            parseTotalBytes = storeMetrics.parseTotalBytes.get(),
+            parseMaxBytes = storeMetrics.parseMaxBytes.get()
+        )
+    }
+
+    /**
+     * Logs a summary line per store as [RemoteLogger.logState] so it's attached to the next session report
+     */
+    fun reportTo(remoteLogger: RemoteLogger) {
+        snapshot().forEach { (storeId, snapshot) ->
+            remoteLogger.logState("$STATE_PREFIX$storeId", snapshot.toReport())
+        }
+    }
+
+    fun reset() {
+        metrics.clear()
+    }
+
+    private fun metricsFor(storeId: StoreId): Metrics = metrics.getOrPut(storeId) { Metrics() }
+
+    private fun bucketIndex(durationMillis: Long): Int =
+        FETCH_LATENCY_BUCKETS_MILLIS.indexOfFirst { durationMillis <= it }
+            .takeIf { it >= 0 } ?: FETCH_LATENCY_BUCKETS_MILLIS.size
+
+    private class Metrics {
+        // one extra bucket for anything above the last bound
+        val fetchLatencyHistogram = AtomicLongArray(FETCH_LATENCY_BUCKETS_MILLIS.size + 1)
+        val fetchTotalMillis = AtomicLong()
+        val fetchFailures = AtomicLong()
+        val fetchDeduplicated = AtomicLong()
+        val cacheReads = AtomicLongArray(CacheReadResult.values().size)
+        val cacheEvictions = AtomicLong()
+        val parseCount = AtomicLong()
+        val parseTotalMillis = AtomicLong()
+        val parseTotalBytes = AtomicLong()
+        val parseMaxBytes = AtomicLong()
+    }
+
+    companion object {
+        val FETCH_LATENCY_BUCKETS_MILLIS = listOf(50L, 100L, 250L, 500L, 1_000L, 2_500L, 5_000L)
+        private const val STATE_PREFIX = "store_metrics_"
+    }
+}
+
+data class StoreMetricsSnapshot(
+    val fetchLatencyHistogram: List<Long>,
+    val fetchTotalMillis: Long,
+    val fetchFailures: Long,
+    val fetchDeduplicated: Long,
+    val cacheHits: Long,
+    val cacheStale: Long,
+    val cacheMisses: Long,
+    val cacheEvictions: Long,
+    val parseCount: Long,
+    val parseTotalMillis: Long,
+    val parseTotalBytes: Long,
+    val parseMaxBytes: Long
+) {
+    val fetchCount: Long
+        get() = fetchLatencyHistogram.sum()
+
+    val hitRatio: Double
+        get() = (cacheHits + cacheStale + cacheMisses).let { reads ->
+            if (reads == 0L) 0.0 else cacheHits.toDouble() / reads
+        }
+
+    fun toReport(): String =
+        "fetches=$fetchCount failures=$fetchFailures deduplicated=$fetchDeduplicated " +
+            "avgFetchMs=${average(fetchTotalMillis, fetchCount)} " +
+            "latencyHistogram=${fetchLatencyHistogram.joinToString("/")} " +
+            "hits=$cacheHits stale=$cacheStale misses=$cacheMisses evictions=$cacheEvictions " +
+            "parses=$parseCount avgParseMs=${average(parseTotalMillis, parseCount)} " +
+            "avgBytes=${average(parseTotalBytes, parseCount)} maxBytes=$parseMaxBytes"
+
+    private fun average(total: Long, count: Long): Long = if (count == 0L) 0L else total / count
+}
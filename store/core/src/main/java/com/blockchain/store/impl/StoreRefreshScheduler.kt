@@ -0,0 +1,136 @@
+package com.blockchain.store.impl
+
+import com.blockchain.data.DataResource
+import com.blockchain.data.FreshnessStrategy
+import com.blockchain.data.KeyedFreshnessStrategy
+import com.blockchain.lifecycle.AppState
+import com.blockchain.lifecycle.LifecycleObservable
+import com.blockchain.store.KeyedStore
+import com.blockchain.store.Store
+import com.blockchain.store.firstOutcome
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.SharingStarted
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.onCompletion
+import kotlinx.coroutines.flow.onStart
+import kotlinx.coroutines.flow.stateIn
+import kotlinx.coroutines.isActive
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.rx3.asFlow
+
+/**
+ * Keeps the data of "hot" keys, the ones currently being streamed by someone, fresh in the background.
+ *
+ * Every registered store is refreshed [refreshAheadRatio] into its [Freshness] window so screens opened later find
+ * fresh data in the cache instead of paying for the network call. Refreshes are paused while the app is in the
+ * background and the overdue ones run as soon as it's foregrounded again.
+ *
+ * Combine with [FreshnessMediator.staleWhileRevalidate] so keys that still expire are served while refreshing.
+ */
+class StoreRefreshScheduler(
+    private val scope: CoroutineScope,
+    lifecycleObservable: LifecycleObservable,
+    private val refreshAheadRatio: Double = DEFAULT_REFRESH_AHEAD_RATIO
+) {
+    init {
+        require(refreshAheadRatio > 0.0 && refreshAheadRatio <= 1.0) { "refreshAheadRatio must be in (0, 1]" }
+    }
+
+    private val isForeground: StateFlow<Boolean> = lifecycleObservable.onStateUpdated
+        .asFlow()
+        .map { it == AppState.FOREGROUNDED }
+        .stateIn(scope, SharingStarted.Eagerly, true)
+
+    fun <K : Any, T : Any> schedule(store: KeyedStore<K, T>, freshness: Freshness): KeyedStore<K, T> =
+        ScheduledKeyedStore(store, freshness)
+
+    fun <T : Any> schedule(store: Store<T>, freshness: Freshness): Store<T> = object : Store<T> {
+        private val backingStore = schedule(
+            object : KeyedStore<Unit, T> {
+                override fun stream(request: KeyedFreshnessStrategy<Unit>): Flow<DataResource<T>> = store.stream(
+                    when (request) {
+                        is KeyedFreshnessStrategy.Fresh -> FreshnessStrategy.Fresh
+                        is KeyedFreshnessStrategy.Cached -> FreshnessStrategy.Cached(request.forceRefresh)
+                    }
+                )
+
+                override fun markAsStale(key: Unit) = store.markAsStale()
+                override fun markStoreAsStale() = store.markAsStale()
+            },
+            freshness
+        )
+
+        override fun stream(request: FreshnessStrategy): Flow<DataResource<T>> = backingStore.stream(
+            when (request) {
+                FreshnessStrategy.Fresh -> KeyedFreshnessStrategy.Fresh(Unit)
+                is FreshnessStrategy.Cached -> KeyedFreshnessStrategy.Cached(Unit, request.forceRefresh)
+            }
+        )
+
+        override fun markAsStale() = backingStore.markAsStale(Unit)
+    }
+
+    private inner class ScheduledKeyedStore<K : Any, T : Any>(
+        private val store: KeyedStore<K, T>,
+        freshness: Freshness
+    ) : KeyedStore<K, T> {
+
+        private val refreshIntervalMillis = (freshness.toMillis() * refreshAheadRatio).toLong()
+        private val hotKeys = mutableMapOf<K, HotKey>()
+
+        override fun stream(request: KeyedFreshnessStrategy<K>): Flow<DataResource<T>> {
+            val key = when (request) {
+                is KeyedFreshnessStrategy.Fresh -> request.key
+                is KeyedFreshnessStrategy.Cached -> request.key
+            }
+            return store.stream(request)
+                .onStart { acquire(key) }
+                .onCompletion { release(key) }
+        }
+
+        override fun markAsStale(key: K) = store.markAsStale(key)
+
+        override fun markStoreAsStale() = store.markStoreAsStale()
+
+        private fun acquire(key: K) {
+            synchronized(hotKeys) {
+                val hotKey = hotKeys.getOrPut(key) { HotKey(refreshJob = launchRefresh(key)) }
+                hotKey.subscribers++
+            }
+        }
+
+        private fun release(key: K) {
+            synchronized(hotKeys) {
+                val hotKey = hotKeys[key] ?: return
+                hotKey.subscribers--
+                if (hotKey.subscribers == 0) {
+                    hotKey.refreshJob.cancel()
+                    hotKeys.remove(key)
+                }
+            }
+        }
+
+        private fun launchRefresh(key: K): Job = scope.launch {
+            while (isActive) {
+                delay(refreshIntervalMillis)
+                isForeground.first { it }
+                // Writing to the cache is enough, every subscriber of this key is listening to it
+                store.stream(KeyedFreshnessStrategy.Fresh(key)).firstOutcome()
+            }
+        }
+    }
+
+    private class HotKey(
+        val refreshJob: Job,
+        var subscribers: Int = 0
+    )
+
+    companion object {
+        private const val DEFAULT_REFRESH_AHEAD_RATIO = 0.8
+    }
+}
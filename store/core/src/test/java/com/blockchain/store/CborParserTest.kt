@@ -0,0 +1,32 @@
+package com.blockchain.store
+
+import com.blockchain.store.impl.CborParser
+import kotlinx.serialization.Serializable
+import kotlinx.serialization.json.Json
+import org.amshove.kluent.`should be equal to`
+import org.junit.Test
+
+class CborParserTest {
+
+    private val json = Json { ignoreUnknownKeys = true }
+    private val parser = CborParser(CborParser.cborFor(json), json, Payload.serializer())
+
+    @Test
+    fun `binary round trip should return the same data`() {
+        val payload = Payload("BTC", listOf(1.5, 2.0))
+        parser.decodeFromBytes(parser.encodeToBytes(payload)) `should be equal to` payload
+    }
+
+    @Test
+    fun `legacy json should still be decoded`() {
+        parser.decode("""{"ticker":"ETH","prices":[3.0]}""") `should be equal to` Payload("ETH", listOf(3.0))
+    }
+
+    @Test
+    fun `invalid binary data should decode to null`() {
+        parser.decodeFromBytes(byteArrayOf(0x7f, 0x01)) `should be equal to` null
+    }
+
+    @Serializable
+    data class Payload(val ticker: String, val prices: List<Double>)
+}
@@ -52,4 +52,26 @@ class FreshnessMediatorTest {
         val shouldFetch = mediator.shouldFetch(cachedData)
         shouldFetch `should be equal to` true
     }
+
+    @Test
+    fun `given no stale while revalidate window it should not serve stale data`() {
+        val cachedData = CachedData<Key, List<Item>>(KEY, emptyList(), 1L)
+        mediator.canServeStale(cachedData) `should be equal to` false
+    }
+
+    @Test
+    fun `given stale data within the stale while revalidate window it should serve it`() {
+        val swrMediator = FreshnessMediator<Key, List<Item>>(freshness, Freshness.ofMinutes(10))
+        mockkObject(CurrentTimeProvider)
+        val currentTime = 10_000_000L
+        every { CurrentTimeProvider.currentTimeMillis() } returns currentTime
+
+        val insideWindow = currentTime - freshness.toMillis() - Freshness.ofMinutes(5).toMillis()
+        val outsideWindow = currentTime - freshness.toMillis() - Freshness.ofMinutes(11).toMillis()
+
+        swrMediator.canServeStale(CachedData(KEY, emptyList(), insideWindow)) `should be equal to` true
+        swrMediator.canServeStale(CachedData(KEY, emptyList(), outsideWindow)) `should be equal to` false
+        // explicitly marked as stale
+        swrMediator.canServeStale(CachedData(KEY, emptyList(), 0L)) `should be equal to` false
+    }
 }
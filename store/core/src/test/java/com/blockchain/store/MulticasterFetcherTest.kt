@@ -0,0 +1,78 @@
+package com.blockchain.store
+
+import com.blockchain.store.impl.MulticasterFetcher
+import com.blockchain.store.impl.StoreMetricsRecorder
+import com.blockchain.utils.CurrentTimeProvider
+import io.mockk.every
+import io.mockk.mockkObject
+import io.mockk.unmockkObject
+import kotlin.test.assertEquals
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import org.junit.After
+import org.junit.Test
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class MulticasterFetcherTest {
+
+    private var fetchCount = 0
+    private val response = CompletableDeferred<FetcherResult<Item>>()
+    private val fetcher = Fetcher.Keyed.of<Key, Item> {
+        fetchCount++
+        response.await()
+    }
+
+    @After
+    fun tearDown() {
+        unmockkObject(CurrentTimeProvider)
+    }
+
+    @Test
+    fun `concurrent fetches for the same key should share one call and be cleaned up`() = runTest {
+        val recorder = StoreMetricsRecorder()
+        val multicaster = MulticasterFetcher(fetcher, backgroundScope, storeId = STORE_ID, metrics = recorder)
+
+        val results = List(3) { async { multicaster.fetch(KEY) } }
+        runCurrent()
+        response.complete(FetcherResult.Success(Item(1)))
+
+        results.awaitAll().forEach { assertEquals(FetcherResult.Success(Item(1)), it) }
+        assertEquals(1, fetchCount)
+        assertEquals(2L, recorder.snapshot().getValue(STORE_ID).fetchDeduplicated)
+    }
+
+    @Test
+    fun `successful results should be reused within the reuse window`() = runTest {
+        mockkObject(CurrentTimeProvider)
+        every { CurrentTimeProvider.currentTimeMillis() } returns 1_000L
+        val multicaster = MulticasterFetcher(fetcher, backgroundScope, reuseWindowMillis = 500L)
+        response.complete(FetcherResult.Success(Item(1)))
+
+        multicaster.fetch(KEY)
+        every { CurrentTimeProvider.currentTimeMillis() } returns 1_400L
+        multicaster.fetch(KEY)
+        assertEquals(1, fetchCount)
+
+        every { CurrentTimeProvider.currentTimeMillis() } returns 1_600L
+        multicaster.fetch(KEY)
+        assertEquals(2, fetchCount)
+    }
+
+    @Test
+    fun `failures should not be reused`() = runTest {
+        val multicaster = MulticasterFetcher(fetcher, backgroundScope, reuseWindowMillis = 500L)
+        response.complete(FetcherResult.Failure(IllegalStateException()))
+
+        multicaster.fetch(KEY)
+        multicaster.fetch(KEY)
+        assertEquals(2, fetchCount)
+    }
+
+    companion object {
+        private const val STORE_ID = "TestStore"
+    }
+}
@@ -0,0 +1,87 @@
+package com.blockchain.store
+
+import com.blockchain.logging.RemoteLogger
+import com.blockchain.store.impl.StoreMetricsRecorder
+import com.blockchain.store.impl.instrumented
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.runTest
+import org.amshove.kluent.`should be equal to`
+import org.junit.Test
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class StoreMetricsRecorderTest {
+
+    private val recorder = StoreMetricsRecorder()
+
+    @Test
+    fun `instrumented mediator should record hits stale and misses`() {
+        val mediator: Mediator<Key, Item> = mockk {
+            every { shouldFetch(null) } returns true
+            every { shouldFetch(CachedData(KEY, Item(1), 1)) } returns true
+            every { shouldFetch(CachedData(KEY, Item(2), 2)) } returns false
+        }
+        val instrumented = mediator.instrumented(STORE_ID, recorder)
+
+        instrumented.shouldFetch(null)
+        instrumented.shouldFetch(CachedData(KEY, Item(1), 1))
+        instrumented.shouldFetch(CachedData(KEY, Item(2), 2))
+        instrumented.shouldFetch(CachedData(KEY, Item(2), 2))
+
+        val snapshot = recorder.snapshot().getValue(STORE_ID)
+        snapshot.cacheMisses `should be equal to` 1L
+        snapshot.cacheStale `should be equal to` 1L
+        snapshot.cacheHits `should be equal to` 2L
+        snapshot.hitRatio `should be equal to` 0.5
+    }
+
+    @Test
+    fun `instrumented fetcher should record latency and failures`() = runTest {
+        val fetcher = Fetcher.Keyed.of<Key, Item> { key ->
+            if (key == KEY) FetcherResult.Success(Item(1)) else FetcherResult.Failure(IllegalStateException())
+        }.instrumented(STORE_ID, recorder)
+
+        fetcher.fetch(KEY)
+        fetcher.fetch(Key("other"))
+
+        val snapshot = recorder.snapshot().getValue(STORE_ID)
+        snapshot.fetchCount `should be equal to` 2L
+        snapshot.fetchFailures `should be equal to` 1L
+        // both calls return immediately so they land in the first bucket
+        snapshot.fetchLatencyHistogram.first() `should be equal to` 2L
+    }
+
+    @Test
+    fun `instrumented parser should record the encoded size in bytes`() {
+        val parser = object : Parser<String> {
+            override fun encode(data: String): String = data
+            override fun decode(data: String): String = data
+        }.instrumented(STORE_ID, recorder)
+
+        // 1 + 2 + 3 + 4 bytes in UTF-8, 5 chars
+        parser.decode("a\u00e9\u20ac\ud83d\ude00")
+
+        recorder.snapshot().getValue(STORE_ID).parseTotalBytes `should be equal to` 10L
+    }
+
+    @Test
+    fun `parse sizes should be aggregated and reported`() {
+        val remoteLogger: RemoteLogger = mockk(relaxed = true)
+        recorder.recordParse(STORE_ID, 2L, 100)
+        recorder.recordParse(STORE_ID, 4L, 300)
+
+        val snapshot = recorder.snapshot().getValue(STORE_ID)
+        snapshot.parseCount `should be equal to` 2L
+        snapshot.parseTotalBytes `should be equal to` 400L
+        snapshot.parseMaxBytes `should be equal to` 300L
+
+        recorder.reportTo(remoteLogger)
+        verify { remoteLogger.logState("store_metrics_$STORE_ID", snapshot.toReport()) }
+    }
+
+    companion object {
+        private const val STORE_ID = "TestStore"
+    }
+}
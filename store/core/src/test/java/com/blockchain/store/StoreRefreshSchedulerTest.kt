@@ -0,0 +1,75 @@
+package com.blockchain.store
+
+import com.blockchain.data.DataResource
+import com.blockchain.data.KeyedFreshnessStrategy
+import com.blockchain.lifecycle.AppState
+import com.blockchain.lifecycle.LifecycleObservable
+import com.blockchain.store.impl.Freshness
+import com.blockchain.store.impl.StoreRefreshScheduler
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import io.reactivex.rxjava3.subjects.PublishSubject
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.advanceTimeBy
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import org.junit.Test
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class StoreRefreshSchedulerTest {
+
+    private val testScope = TestScope()
+    private val appState = PublishSubject.create<AppState>()
+    private val lifecycleObservable: LifecycleObservable = mockk {
+        every { onStateUpdated } returns appState
+    }
+    private val cachedStream = MutableSharedFlow<DataResource<Item>>()
+    private val store: KeyedStore<Key, Item> = mockk {
+        every { stream(KeyedFreshnessStrategy.Cached(KEY, false)) } returns cachedStream
+        every { stream(KeyedFreshnessStrategy.Fresh(KEY)) } returns flowOf(DataResource.Data(Item(2)))
+    }
+    private val freshness = Freshness.ofSeconds(10)
+
+    @Test
+    fun `hot keys should be refreshed ahead of expiring`() = testScope.runTest {
+        val scheduler = StoreRefreshScheduler(backgroundScope, lifecycleObservable)
+        val scheduled = scheduler.schedule(store, freshness)
+
+        val job = launch { scheduled.stream(KeyedFreshnessStrategy.Cached(KEY, false)).collect {} }
+        advanceTimeBy(7_000L)
+        runCurrent()
+        verify(exactly = 0) { store.stream(KeyedFreshnessStrategy.Fresh(KEY)) }
+
+        advanceTimeBy(1_000L)
+        runCurrent()
+        verify(exactly = 1) { store.stream(KeyedFreshnessStrategy.Fresh(KEY)) }
+
+        job.cancel()
+        advanceTimeBy(20_000L)
+        runCurrent()
+        verify(exactly = 1) { store.stream(KeyedFreshnessStrategy.Fresh(KEY)) }
+    }
+
+    @Test
+    fun `refreshes should wait for the app to be foregrounded`() = testScope.runTest {
+        val scheduler = StoreRefreshScheduler(backgroundScope, lifecycleObservable)
+        val scheduled = scheduler.schedule(store, freshness)
+        runCurrent()
+        appState.onNext(AppState.BACKGROUNDED)
+
+        val job = launch { scheduled.stream(KeyedFreshnessStrategy.Cached(KEY, false)).collect {} }
+        advanceTimeBy(20_000L)
+        runCurrent()
+        verify(exactly = 0) { store.stream(KeyedFreshnessStrategy.Fresh(KEY)) }
+
+        appState.onNext(AppState.FOREGROUNDED)
+        runCurrent()
+        verify(exactly = 1) { store.stream(KeyedFreshnessStrategy.Fresh(KEY)) }
+        job.cancel()
+    }
+}
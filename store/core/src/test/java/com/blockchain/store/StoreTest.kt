@@ -32,7 +32,9 @@ class StoreTest {
         every { read(any()) } returns cacheReadState
         coEvery { write(any()) } just Runs
     }
-    val mediator: Mediator<Key, Item> = mockk()
+    val mediator: Mediator<Key, Item> = mockk {
+        every { canServeStale(any()) } returns false
+    }
     val store: KeyedStore<Key, Item> = RealStore(testScope, fetcher, cache, mediator)
 
     @Test
@@ -169,6 +171,30 @@ class StoreTest {
         coVerify { mediator.shouldFetch(cachedData) }
     }
 
+    @Test
+    fun `stale cached data should be emitted while revalidating when the mediator allows it`() = testScope.runTest {
+        val resultData = Item(2)
+        coEvery { fetcher.fetch(KEY) } returns FetcherResult.Success(resultData)
+        val cachedItem = Item(1)
+        val cachedData = CachedData(KEY, cachedItem, 1)
+        every { mediator.shouldFetch(cachedData) } returns true
+        every { mediator.canServeStale(cachedData) } returns true
+        cacheReadState.emit(cachedData)
+
+        store.stream(KeyedFreshnessStrategy.Cached(KEY, false)).test {
+            assertEquals(DataResource.Data(cachedItem), awaitItem())
+            assertEquals(DataResource.Loading, awaitItem())
+            expectNoEvents()
+
+            cacheReadState.emit(CachedData(KEY, resultData, 2))
+            assertEquals(DataResource.Data(resultData), awaitItem())
+            expectNoEvents()
+        }
+
+        coVerify { fetcher.fetch(KEY) }
+        coVerify { cache.write(match { it.data == resultData }) }
+    }
+
     @Test
     fun `cached non refresh request should fetch network failure`() = testScope.runTest {
         val error = IllegalStateException("error")
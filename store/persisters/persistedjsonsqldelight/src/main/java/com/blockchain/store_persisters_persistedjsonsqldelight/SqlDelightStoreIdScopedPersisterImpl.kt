@@ -1,5 +1,6 @@
 package com.blockchain.store_persisters_persistedjsonsqldelight
 
+import com.blockchain.store.BinaryData
 import com.blockchain.store.PersisterData
 import com.blockchain.store.StoreId
 import com.blockchain.store_caches_persistedjsonsqldelight.SqlDelightStoreIdScopedPersister
@@ -12,7 +13,8 @@ import store.StorePersisterDataQueries
 
 internal class SqlDelightStoreIdScopedPersisterImpl(
     private val storeId: StoreId,
-    private val storePersisterDataQueries: StorePersisterDataQueries
+    private val storePersisterDataQueries: StorePersisterDataQueries,
+    private val writeBatcher: StorePersisterWriteBatcher
 ) : SqlDelightStoreIdScopedPersister {
     override fun read(key: String?): Flow<PersisterData?> =
         storePersisterDataQueries.selectByStoreIdAndKey(storeId, key)
@@ -20,14 +22,44 @@ internal class SqlDelightStoreIdScopedPersisterImpl(
             .mapToOneOrNull()
             .map { data ->
                 if (data == null) return@map null
-                PersisterData(data.key, data.data_, data.last_fetched)
+                PersisterData(
+                    key = data.key,
+                    data = data.data_,
+                    lastFetched = data.last_fetched,
+                    binaryData = data.data_blob?.let { BinaryData(data.data_format.toInt(), it) }
+                )
             }
 
-    override suspend fun write(data: PersisterData) = storePersisterDataQueries.insert(
-        StorePersisterData(storeId, data.key, data.data, data.lastFetched)
-    )
+    override suspend fun write(data: PersisterData) {
+        val row = data.toRow()
+        writeBatcher.submit { insert(row) }
+    }
+
+    override suspend fun writeAll(data: List<PersisterData>) {
+        if (data.isEmpty()) return
+        val rows = data.map { it.toRow() }
+        writeBatcher.submit { rows.forEach { insert(it) } }
+    }
+
+    override suspend fun markAsStale(key: String?) = writeBatcher.submit { markAsStale(storeId, key) }
 
-    override suspend fun markAsStale(key: String?) = storePersisterDataQueries.markAsStale(storeId, key)
+    override suspend fun markAllAsStale(keys: List<String?>) {
+        if (keys.isEmpty()) return
+        writeBatcher.submit { keys.forEach { markAsStale(storeId, it) } }
+    }
+
+    override suspend fun markStoreAsStale() = writeBatcher.submit { markStoreAsStale(storeId) }
+
+    private fun PersisterData.toRow() = StorePersisterData(
+        store_id = storeId,
+        key = key,
+        data_ = data,
+        last_fetched = lastFetched,
+        data_blob = binaryData?.bytes,
+        data_format = binaryData?.format?.toLong() ?: JSON_FORMAT
+    )
 
-    override suspend fun markStoreAsStale() = storePersisterDataQueries.markStoreAsStale(storeId)
+    companion object {
+        private const val JSON_FORMAT = 0L
+    }
 }
@@ -0,0 +1,54 @@
+package com.blockchain.store_persisters_persistedjsonsqldelight
+
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.yield
+import store.StorePersisterDataQueries
+
+/**
+ * Group commit for every store sharing the database. On cold start dozens of stores are hydrated at once, instead of
+ * one SQLite commit and one round of query notifications per written row, the writes submitted while a batch is
+ * being collected or committed are applied together in the next transaction.
+ *
+ * [submit] only returns once its writes are committed, so a store reading its cache right after writing still sees
+ * the new value.
+ */
+internal class StorePersisterWriteBatcher(
+    private val storePersisterDataQueries: StorePersisterDataQueries
+) {
+    private class PendingWrite(
+        val apply: StorePersisterDataQueries.() -> Unit,
+        val committed: CompletableDeferred<Unit> = CompletableDeferred()
+    )
+
+    private val lock = Any()
+    private var pending = ArrayList<PendingWrite>()
+    private val commitMutex = Mutex()
+
+    suspend fun submit(apply: StorePersisterDataQueries.() -> Unit) {
+        val write = PendingWrite(apply)
+        synchronized(lock) { pending.add(write) }
+
+        commitMutex.withLock {
+            if (!write.committed.isCompleted) {
+                // Let the writers already running join this batch
+                yield()
+                commit(synchronized(lock) { pending.also { pending = ArrayList() } })
+            }
+        }
+        write.committed.await()
+    }
+
+    private fun commit(batch: List<PendingWrite>) {
+        try {
+            // SqlDelight defers query notifications until the outermost transaction commits
+            storePersisterDataQueries.transaction {
+                batch.forEach { it.apply(storePersisterDataQueries) }
+            }
+            batch.forEach { it.committed.complete(Unit) }
+        } catch (e: Exception) {
+            batch.forEach { it.committed.completeExceptionally(e) }
+        }
+    }
+}
@@ -17,10 +17,17 @@ val storePersistersJsonSqlDelightModule = module {
         get<Database>().storePersisterDataQueries
     }
 
+    single {
+        StorePersisterWriteBatcher(
+            storePersisterDataQueries = get()
+        )
+    }
+
     factory<SqlDelightStoreIdScopedPersister> { params ->
         SqlDelightStoreIdScopedPersisterImpl(
             storeId = params.get(),
             storePersisterDataQueries = get(),
+            writeBatcher = get(),
         )
     }
 
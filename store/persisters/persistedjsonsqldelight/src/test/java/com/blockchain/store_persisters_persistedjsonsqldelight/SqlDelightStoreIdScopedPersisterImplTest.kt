@@ -0,0 +1,99 @@
+package com.blockchain.store_persisters_persistedjsonsqldelight
+
+import com.blockchain.store.PersisterData
+import com.squareup.sqldelight.Query
+import com.squareup.sqldelight.db.SqlDriver
+import com.squareup.sqldelight.sqlite.driver.JdbcSqliteDriver
+import kotlin.test.assertEquals
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.advanceUntilIdle
+import kotlinx.coroutines.test.runTest
+import org.junit.Before
+import org.junit.Test
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class SqlDelightStoreIdScopedPersisterImplTest {
+
+    private class CountingDriver(private val driver: SqlDriver) : SqlDriver by driver {
+        var transactions = 0
+
+        override fun newTransaction() = driver.newTransaction().also { transactions++ }
+    }
+
+    private val driver = CountingDriver(JdbcSqliteDriver(JdbcSqliteDriver.IN_MEMORY))
+    private val queries = Database(driver).storePersisterDataQueries
+    private val writeBatcher = StorePersisterWriteBatcher(queries)
+
+    private val persister = SqlDelightStoreIdScopedPersisterImpl(STORE_ID, queries, writeBatcher)
+    private val otherPersister = SqlDelightStoreIdScopedPersisterImpl(OTHER_STORE_ID, queries, writeBatcher)
+
+    private var notifications = 0
+
+    @Before
+    fun setUp() {
+        Database.Schema.create(driver)
+        queries.selectByStoreIdAndKey(STORE_ID, KEY_1).addListener(
+            object : Query.Listener {
+                override fun queryResultsChanged() {
+                    notifications++
+                }
+            }
+        )
+    }
+
+    @Test
+    fun `writeAll should commit the batch in one transaction with one notification`() = runTest {
+        persister.writeAll(listOf(data(KEY_1), data(KEY_2), data(KEY_3)))
+
+        assertEquals(1, driver.transactions)
+        assertEquals(1, notifications)
+        assertEquals(data(KEY_2), persister.read(KEY_2).first())
+    }
+
+    @Test
+    fun `markAllAsStale should commit the batch in one transaction with one notification`() = runTest {
+        persister.writeAll(listOf(data(KEY_1), data(KEY_2)))
+        driver.transactions = 0
+        notifications = 0
+
+        persister.markAllAsStale(listOf(KEY_1, KEY_2))
+
+        assertEquals(1, driver.transactions)
+        assertEquals(1, notifications)
+        assertEquals(0L, persister.read(KEY_1).first()?.lastFetched)
+        assertEquals(0L, persister.read(KEY_2).first()?.lastFetched)
+    }
+
+    @Test
+    fun `concurrent writes from different stores should be committed together`() = runTest {
+        launch { persister.write(data(KEY_1)) }
+        launch { persister.write(data(KEY_2)) }
+        launch { otherPersister.write(data(KEY_1)) }
+        launch { otherPersister.markAsStale(KEY_2) }
+        advanceUntilIdle()
+
+        assertEquals(1, driver.transactions)
+        assertEquals(1, notifications)
+        assertEquals(data(KEY_1), otherPersister.read(KEY_1).first())
+    }
+
+    @Test
+    fun `write should only return once the data is readable`() = runTest {
+        persister.write(data(KEY_1))
+
+        assertEquals(data(KEY_1), persister.read(KEY_1).first())
+    }
+
+    private fun data(key: String) = PersisterData(key, "{\"key\":\"$key\"}", LAST_FETCHED)
+
+    companion object {
+        private const val STORE_ID = "store"
+        private const val OTHER_STORE_ID = "otherStore"
+        private const val KEY_1 = "key1"
+        private const val KEY_2 = "key2"
+        private const val KEY_3 = "key3"
+        private const val LAST_FETCHED = 123L
+    }
+}
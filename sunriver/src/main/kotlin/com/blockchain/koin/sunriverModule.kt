@@ -1,13 +1,18 @@
 package com.blockchain.koin
 
+import com.blockchain.appinfo.AppInfo
 import com.blockchain.sunriver.HorizonProxy
 import com.blockchain.sunriver.MemoMapper
 import com.blockchain.sunriver.XlmDataManager
 import com.blockchain.sunriver.XlmSecretAccess
+import com.blockchain.sunriver.XlmTransactionCache
 import com.blockchain.sunriver.datamanager.XlmMetaDataInitializer
+import java.io.File
 import org.koin.dsl.module
 import org.stellar.sdk.Server
 
+private const val XLM_TRANSACTION_CACHE_FILE = "xlm_transactions.json"
+
 val sunriverModule = module {
 
     scope(payloadScopeQualifier) {
@@ -29,7 +34,9 @@ val sunriverModule = module {
             )
         }
 
-        factory { HorizonProxy { Server(it) } }
+        factory { HorizonProxy(transactionCache = get()) { Server(it) } }
+
+        scoped { XlmTransactionCache(File(get<AppInfo>().cacheDir, XLM_TRANSACTION_CACHE_FILE)) }
 
         scoped { XlmMetaDataInitializer(get(), get(), get(), get()) }
     }
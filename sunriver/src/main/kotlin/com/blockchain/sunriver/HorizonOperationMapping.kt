@@ -9,85 +9,62 @@ import org.stellar.sdk.MemoHash
 import org.stellar.sdk.MemoId
 import org.stellar.sdk.MemoReturnHash
 import org.stellar.sdk.MemoText
+import org.stellar.sdk.responses.TransactionResponse
 import org.stellar.sdk.responses.operations.CreateAccountOperationResponse
 import org.stellar.sdk.responses.operations.OperationResponse
 import org.stellar.sdk.responses.operations.PaymentOperationResponse
 
-internal fun List<OperationResponse>.map(accountId: String, horizonProxy: HorizonProxy): List<XlmTransaction> =
-    filter { it is CreateAccountOperationResponse || it is PaymentOperationResponse }
-        .map {
-            mapOperationResponse(
-                it,
-                accountId,
-                horizonProxy
-            )
-        }
+internal fun List<OperationResponse>.map(accountId: String, horizonProxy: HorizonProxy): List<XlmTransaction> {
+    val operations = filter { it is CreateAccountOperationResponse || it is PaymentOperationResponse }
+    val transactionDetails = horizonProxy.getTransactionDetails(operations)
+    return operations.map {
+        mapOperationResponse(
+            it,
+            accountId,
+            transactionDetails[it.transactionHash]
+        )
+    }
+}
 
 internal fun mapOperationResponse(
     operationResponse: OperationResponse,
     usersAccountId: String,
-    horizonProxy: HorizonProxy
+    transactionDetails: XlmTransactionDetails?
 ): XlmTransaction =
     when (operationResponse) {
-        is CreateAccountOperationResponse -> operationResponse.mapCreate(usersAccountId, horizonProxy)
-        is PaymentOperationResponse -> operationResponse.mapPayment(usersAccountId, horizonProxy)
+        is CreateAccountOperationResponse -> with(operationResponse) {
+            toXlmTransaction(usersAccountId, startingBalance, account, funder, transactionDetails)
+        }
+        is PaymentOperationResponse -> with(operationResponse) {
+            toXlmTransaction(usersAccountId, amount, to, from, transactionDetails)
+        }
         else -> throw IllegalArgumentException("Unsupported operation type ${operationResponse.javaClass.simpleName}")
     }
 
-private fun CreateAccountOperationResponse.mapCreate(
-    usersAccountId: String,
-    horizonProxy: HorizonProxy
-): XlmTransaction {
-    return try {
-        val transactionResponse = horizonProxy.getTransaction(transactionHash)
-        val memo = transactionResponse.memo ?: Memo.none()
-        val fee = CryptoValue.fromMinor(CryptoCurrency.XLM, transactionResponse.feeCharged.toBigInteger())
-        toXlmTransaction(usersAccountId, startingBalance, memo, account, funder, fee)
-    } catch (e: Throwable) {
-        // There's a bug in the xlm sdk (horizonProxy.getTransaction()) which throws a
-        // NoSuchMethodError when parsing a int memo on pre jdk 1.8 devices
-        // In this case, we can't know the fee but everything else is known, so:
-        toXlmTransaction(
-            usersAccountId,
-            startingBalance,
-            Memo.none(),
-            account,
-            funder,
-            CryptoValue.zero(CryptoCurrency.XLM)
-        )
-    }
-}
-
-private fun PaymentOperationResponse.mapPayment(
-    usersAccountId: String,
-    horizonProxy: HorizonProxy
-): XlmTransaction {
-    return try {
-        val transactionResponse = horizonProxy.getTransaction(transactionHash)
-        val memo = transactionResponse.memo ?: Memo.none()
-        val fee = CryptoValue.fromMinor(CryptoCurrency.XLM, transactionResponse.feeCharged.toBigInteger())
-        toXlmTransaction(usersAccountId, amount, memo, to, from, fee)
-    } catch (e: Throwable) {
-        // There's a bug in the xlm sdk (horizonProxy.getTransaction()) which throws a
-        // NoSuchMethodError when parsing a int memo on pre jdk 1.8 devices
-        // In this case, we can't know the fee but everything else is known, so:
-        toXlmTransaction(usersAccountId, amount, Memo.none(), to, from, CryptoValue.zero(CryptoCurrency.XLM))
-    }
+internal fun TransactionResponse.toXlmTransactionDetails(): XlmTransactionDetails {
+    val mappedMemo = mapMemo(memo ?: Memo.none())
+    return XlmTransactionDetails(
+        feeCharged = feeCharged,
+        memoValue = mappedMemo.value,
+        memoType = mappedMemo.type
+    )
 }
 
+/**
+ * When the transaction could not be loaded the fee and memo are unknown, but everything else is known
+ */
 private fun OperationResponse.toXlmTransaction(
     usersAccountId: String,
     amount: String,
-    memo: Memo,
     to: String,
     from: String,
-    fee: CryptoValue
+    transactionDetails: XlmTransactionDetails?
 ) = XlmTransaction(
     timeStamp = createdAt,
     value = deltaValueForAccount(usersAccountId, KeyPair.fromAccountId(from), amount),
-    fee = fee,
+    fee = CryptoValue.fromMinor(CryptoCurrency.XLM, (transactionDetails?.feeCharged ?: 0L).toBigInteger()),
     hash = transactionHash,
-    memo = mapMemo(memo),
+    memo = transactionDetails?.memo ?: com.blockchain.sunriver.Memo.None,
     to = KeyPair.fromAccountId(to).toHorizonKeyPair().neuter(),
     from = KeyPair.fromAccountId(from).toHorizonKeyPair().neuter()
 )
@@ -2,6 +2,9 @@ package com.blockchain.sunriver
 
 import info.blockchain.balance.CryptoCurrency
 import info.blockchain.balance.CryptoValue
+import io.reactivex.rxjava3.core.Maybe
+import io.reactivex.rxjava3.core.Observable
+import io.reactivex.rxjava3.schedulers.Schedulers
 import java.math.BigDecimal
 import java.math.BigInteger
 import org.stellar.sdk.AssetTypeNative
@@ -21,7 +24,10 @@ import org.stellar.sdk.responses.operations.OperationResponse
 
 private val basePerOperationFee = CryptoValue.fromMinor(CryptoCurrency.XLM, 100.toBigInteger())
 
-internal class HorizonProxy(var serverFactory: ((String) -> Server)) {
+internal class HorizonProxy(
+    private val transactionCache: XlmTransactionCache,
+    var serverFactory: ((String) -> Server)
+) {
 
     private var server = serverFactory("")
     private lateinit var currentNetwork: Network
@@ -61,10 +67,16 @@ internal class HorizonProxy(var serverFactory: ((String) -> Server)) {
         }
     }
 
+    /**
+     * The latest operations of the account, newest first. Only the first page is loaded, the activity list is
+     * refreshed often and older pages would cost a request each on every refresh. Each operation carries its
+     * transaction, so that [getTransactionDetails] rarely needs to fetch anything.
+     */
     fun getTransactionList(accountId: String): List<OperationResponse> = try {
         server.operations()
             .order(RequestBuilder.Order.DESC)
-            .limit(50)
+            .limit(OPERATIONS_PAGE_SIZE)
+            .includeTransactions(true)
             .forAccount(accountId)
             .execute()
             .records
@@ -76,10 +88,47 @@ internal class HorizonProxy(var serverFactory: ((String) -> Server)) {
         }
     }
 
+    /**
+     * Returns the details of the transactions of [operations], keyed by hash. Details come from the
+     * transaction included with the operation, then from [transactionCache], and are otherwise fetched
+     * with at most [MAX_CONCURRENT_TRANSACTION_REQUESTS] requests in flight.
+     * Transactions that could not be loaded are left out.
+     */
+    fun getTransactionDetails(operations: List<OperationResponse>): Map<String, XlmTransactionDetails> {
+        val included = operations.mapNotNull { operation ->
+            operation.includedTransaction()?.let { operation.transactionHash to it }
+        }.toMap()
+        val cached = transactionCache.getAll(operations.map { it.transactionHash }.toSet() - included.keys)
+        val missing = operations.map { it.transactionHash }.toSet() - included.keys - cached.keys
+        val fetched = Observable.fromIterable(missing)
+            .flatMapMaybe(
+                { hash ->
+                    Maybe.fromCallable { fetchTransactionDetails(hash)?.let { hash to it } }
+                        .subscribeOn(Schedulers.io())
+                },
+                false,
+                MAX_CONCURRENT_TRANSACTION_REQUESTS
+            )
+            .toList()
+            .blockingGet()
+            .toMap()
+
+        transactionCache.putAll(included + fetched)
+        return included + cached + fetched
+    }
+
     fun getTransaction(hash: String): TransactionResponse =
         server.transactions()
             .transaction(hash)
 
+    private fun fetchTransactionDetails(hash: String): XlmTransactionDetails? =
+        try {
+            getTransaction(hash).toXlmTransactionDetails()
+        } catch (e: Throwable) {
+            // Also catches the NoSuchMethodError described in [toDetailsOrNull]
+            null
+        }
+
     fun sendTransaction(
         source: KeyPair,
         destinationAccountId: String,
@@ -257,9 +306,28 @@ internal class HorizonProxy(var serverFactory: ((String) -> Server)) {
 
     companion object {
         const val XLM_DEFAULT_TIMEOUT_SECS: Long = 10
+
+        // Horizon's maximum page size
+        private const val OPERATIONS_PAGE_SIZE = 200
+
+        private const val MAX_CONCURRENT_TRANSACTION_REQUESTS = 4
     }
 }
 
+private fun OperationResponse.includedTransaction(): XlmTransactionDetails? =
+    transaction?.takeIf { it.isPresent }?.get()?.toDetailsOrNull()
+
+/**
+ * There's a bug in the xlm sdk which throws a NoSuchMethodError when parsing an int memo on
+ * pre jdk 1.8 devices, in which case the details are unknown.
+ */
+private fun TransactionResponse.toDetailsOrNull(): XlmTransactionDetails? =
+    try {
+        toXlmTransactionDetails()
+    } catch (e: Throwable) {
+        null
+    }
+
 private val AccountResponse?.balance: CryptoValue
     get() =
         this?.balances?.firstOrNull {
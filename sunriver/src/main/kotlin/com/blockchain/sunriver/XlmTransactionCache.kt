@@ -0,0 +1,93 @@
+package com.blockchain.sunriver
+
+import java.io.File
+import java.io.IOException
+import kotlinx.serialization.KSerializer
+import kotlinx.serialization.Serializable
+import kotlinx.serialization.SerializationException
+import kotlinx.serialization.builtins.MapSerializer
+import kotlinx.serialization.builtins.serializer
+import kotlinx.serialization.json.Json
+
+/**
+ * The parts of a Horizon transaction that the history shows next to each operation
+ */
+@Serializable
+internal data class XlmTransactionDetails(
+    val feeCharged: Long,
+    val memoValue: String = "",
+    val memoType: String? = null
+) {
+    val memo: Memo
+        get() = Memo(memoValue, memoType)
+}
+
+/**
+ * On-disk cache of [XlmTransactionDetails] keyed by transaction hash.
+ *
+ * A transaction never changes once it is in a ledger, so entries are never refreshed. The whole
+ * cache is small enough to be read once and rewritten on each change. A missing or unreadable file
+ * is treated as an empty cache.
+ */
+internal class XlmTransactionCache(private val file: File) {
+
+    private val json = Json { ignoreUnknownKeys = true }
+    private val serializer: KSerializer<Map<String, XlmTransactionDetails>> =
+        MapSerializer(String.serializer(), XlmTransactionDetails.serializer())
+
+    private var entries: LinkedHashMap<String, XlmTransactionDetails>? = null
+
+    @Synchronized
+    fun getAll(hashes: Collection<String>): Map<String, XlmTransactionDetails> {
+        val loaded = load()
+        return hashes.mapNotNull { hash -> loaded[hash]?.let { hash to it } }.toMap()
+    }
+
+    @Synchronized
+    fun putAll(details: Map<String, XlmTransactionDetails>) {
+        val loaded = load()
+        val added = details.filterKeys { it !in loaded }
+        if (added.isEmpty()) return
+
+        loaded.putAll(added)
+        val iterator = loaded.keys.iterator()
+        while (loaded.size > MAX_ENTRIES) {
+            iterator.next()
+            iterator.remove()
+        }
+        write(loaded)
+    }
+
+    private fun load(): LinkedHashMap<String, XlmTransactionDetails> =
+        entries ?: read().also { entries = it }
+
+    private fun read(): LinkedHashMap<String, XlmTransactionDetails> =
+        try {
+            if (file.exists()) {
+                LinkedHashMap(json.decodeFromString(serializer, file.readText()))
+            } else {
+                LinkedHashMap()
+            }
+        } catch (e: IOException) {
+            LinkedHashMap()
+        } catch (e: SerializationException) {
+            LinkedHashMap()
+        }
+
+    private fun write(entries: Map<String, XlmTransactionDetails>) {
+        try {
+            file.parentFile?.mkdirs()
+            val temporaryFile = File(file.path + ".tmp")
+            temporaryFile.writeText(json.encodeToString(serializer, entries))
+            if (!temporaryFile.renameTo(file)) {
+                temporaryFile.delete()
+            }
+        } catch (e: IOException) {
+            // Entries that could not be written are fetched again next time
+        }
+    }
+
+    companion object {
+        private const val MAX_ENTRIES = 10_000
+    }
+}
@@ -2,14 +2,12 @@ package com.blockchain.sunriver
 
 import com.blockchain.testutils.lumens
 import com.blockchain.testutils.stroops
-import com.nhaarman.mockitokotlin2.any
 import com.nhaarman.mockitokotlin2.mock
 import java.util.Locale
 import org.amshove.kluent.`should be equal to`
 import org.amshove.kluent.`should throw`
 import org.junit.Before
 import org.junit.Test
-import org.stellar.sdk.responses.TransactionResponse
 import org.stellar.sdk.responses.operations.CreateAccountOperationResponse
 import org.stellar.sdk.responses.operations.ManageDataOperationResponse
 import org.stellar.sdk.responses.operations.PaymentOperationResponse
@@ -25,7 +23,7 @@ class HorizonOperationMappingTest {
     fun `map response rejects unsupported types`() {
         val unsupportedResponse: ManageDataOperationResponse = mock();
         {
-            mapOperationResponse(unsupportedResponse, "", givenHorizonProxy(100))
+            mapOperationResponse(unsupportedResponse, "", XlmTransactionDetails(feeCharged = 100))
         } `should throw` IllegalArgumentException::class
     }
 
@@ -41,7 +39,7 @@ class HorizonOperationMappingTest {
                 on { createdAt }.thenReturn("TIME")
                 on { amount }.thenReturn(50.lumens().toStringWithoutSymbol())
             },
-            myAccount, givenHorizonProxy(100)
+            myAccount, XlmTransactionDetails(feeCharged = 100)
         )
             .apply {
                 hash `should be equal to` "ABCD"
@@ -65,7 +63,7 @@ class HorizonOperationMappingTest {
                 on { createdAt }.thenReturn("TIME")
                 on { amount }.thenReturn(50.lumens().toStringWithoutSymbol())
             },
-            myAccount, givenHorizonProxy(100)
+            myAccount, XlmTransactionDetails(feeCharged = 100)
         )
             .apply {
                 hash `should be equal to` "ABCD"
@@ -89,7 +87,7 @@ class HorizonOperationMappingTest {
                 on { createdAt }.thenReturn("TIME")
                 on { startingBalance }.thenReturn(100.lumens().toStringWithoutSymbol())
             },
-            myAccount, givenHorizonProxy(100)
+            myAccount, XlmTransactionDetails(feeCharged = 100)
         )
             .apply {
                 hash `should be equal to` "ABCD"
@@ -113,7 +111,7 @@ class HorizonOperationMappingTest {
                 on { createdAt }.thenReturn("TIME")
                 on { startingBalance }.thenReturn(100.lumens().toStringWithoutSymbol())
             },
-            myAccount, givenHorizonProxy(100)
+            myAccount, XlmTransactionDetails(feeCharged = 100)
         )
             .apply {
                 hash `should be equal to` "ABCD"
@@ -124,13 +122,4 @@ class HorizonOperationMappingTest {
                 value `should be equal to` (-100).lumens()
             }
     }
-
-    private fun givenHorizonProxy(fee: Long): HorizonProxy {
-        val mockTx: TransactionResponse = mock {
-            on { feeCharged }.thenReturn(fee)
-        }
-        return mock {
-            on { getTransaction(any()) }.thenReturn(mockTx)
-        }
-    }
 }
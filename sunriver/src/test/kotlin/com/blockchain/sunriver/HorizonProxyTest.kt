@@ -3,15 +3,22 @@ package com.blockchain.sunriver
 import com.blockchain.testutils.bitcoin
 import com.blockchain.testutils.lumens
 import com.blockchain.testutils.stroops
+import com.google.common.base.Optional
+import com.nhaarman.mockitokotlin2.any
 import com.nhaarman.mockitokotlin2.internal.createInstance
 import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.never
+import com.nhaarman.mockitokotlin2.verify
 import com.nhaarman.mockitokotlin2.whenever
+import java.io.File
 import org.amshove.kluent.`should be`
 import org.amshove.kluent.`should be equal to`
 import org.amshove.kluent.`should be instance of`
 import org.amshove.kluent.`should not be`
 import org.amshove.kluent.`should throw`
+import org.junit.Rule
 import org.junit.Test
+import org.junit.rules.TemporaryFolder
 import org.koin.test.KoinTest
 import org.mockito.ArgumentMatcher
 import org.mockito.Mockito
@@ -29,6 +36,7 @@ import org.stellar.sdk.responses.Page
 import org.stellar.sdk.responses.SubmitTransactionResponse
 import org.stellar.sdk.responses.TransactionResponse
 import org.stellar.sdk.responses.operations.OperationResponse
+import org.stellar.sdk.responses.operations.PaymentOperationResponse
 
 class HorizonProxyTest : KoinTest {
     companion object {
@@ -37,8 +45,12 @@ class HorizonProxyTest : KoinTest {
         val minimumBalance = 1.lumens()
     }
 
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    private val cacheFile by lazy { File(folder.root, "xlm_transactions.json") }
     private val server: Server = mock()
-    private val subject = HorizonProxy { server }
+    private val subject by lazy { HorizonProxy(XlmTransactionCache(cacheFile)) { server } }
 
     @Test
     fun `get xlm balance`() {
@@ -105,7 +117,7 @@ class HorizonProxyTest : KoinTest {
 
     @Test
     fun `get xlm transaction history`() {
-        val records: ArrayList<OperationResponse> = mock()
+        val records = listOf<OperationResponse>(mock(), mock())
 
         givenTheServerOperationsWillReturnFor(accountId, records)
 
@@ -114,6 +126,48 @@ class HorizonProxyTest : KoinTest {
         obtainedTransactionList `should be equal to` records
     }
 
+    @Test
+    fun `get xlm transaction history only loads the first page`() {
+        val firstPage = (0 until 200).map { createOperationWith(pagingToken = "token$it") }
+        val secondPage = listOf(createOperationWith(pagingToken = "token200"))
+
+        val operationsRequestBuilder = givenTheServerOperationsWillReturnFor(accountId, firstPage, secondPage)
+
+        subject.getTransactionList(accountId) `should be equal to` firstPage
+        verify(operationsRequestBuilder).limit(200)
+        verify(operationsRequestBuilder, never()).cursor(any())
+    }
+
+    @Test
+    fun `transaction details come from the operation, then the cache, then the server`() {
+        val includedTransaction = createTransactionWith(feeCharged = 100L)
+        val included = createOperationWith(transactionHash = "included", transaction = includedTransaction)
+        val fetched = createOperationWith(transactionHash = "fetched")
+        givenServerTransactionsWillReturn(
+            transactionResponse = createTransactionWith(feeCharged = 200L),
+            withHash = "fetched"
+        )
+
+        subject.getTransactionDetails(listOf(included, fetched)) `should be equal to` mapOf(
+            "included" to XlmTransactionDetails(feeCharged = 100L),
+            "fetched" to XlmTransactionDetails(feeCharged = 200L)
+        )
+
+        whenever(server.transactions()).thenThrow(ErrorResponse(500, ""))
+        val reopened = HorizonProxy(XlmTransactionCache(cacheFile)) { server }
+
+        reopened.getTransactionDetails(listOf(createOperationWith(transactionHash = "fetched"))) `should be equal to`
+            mapOf("fetched" to XlmTransactionDetails(feeCharged = 200L))
+    }
+
+    @Test
+    fun `transactions that cannot be loaded are left out of the details`() {
+        whenever(server.transactions()).thenThrow(ErrorResponse(500, ""))
+
+        subject.getTransactionDetails(listOf(createOperationWith(transactionHash = "ABCD"))) `should be equal to`
+            emptyMap()
+    }
+
     @Test
     fun `get xlm transaction history if not found`() {
         givenServerWillThrowErrorResponseForOperationsWith(404)
@@ -408,16 +462,38 @@ class HorizonProxyTest : KoinTest {
         return mock
     }
 
-    private fun givenTheServerOperationsWillReturnFor(accountId: String, records: ArrayList<OperationResponse>) {
+    private fun givenTheServerOperationsWillReturnFor(
+        accountId: String,
+        vararg pages: List<OperationResponse>
+    ): OperationsRequestBuilder {
         val operationsRequestBuilder: OperationsRequestBuilder = mock()
-        val operationResponse: Page<OperationResponse> = mock()
+        val operationResponses = pages.map { records ->
+            mock<Page<OperationResponse>> {
+                on { this.records }.thenReturn(ArrayList(records))
+            }
+        }
 
         whenever(server.operations()).thenReturn(operationsRequestBuilder)
         whenever(operationsRequestBuilder.order(RequestBuilder.Order.DESC)).thenReturn(operationsRequestBuilder)
-        whenever(operationsRequestBuilder.limit(50)).thenReturn(operationsRequestBuilder)
+        whenever(operationsRequestBuilder.limit(200)).thenReturn(operationsRequestBuilder)
+        whenever(operationsRequestBuilder.includeTransactions(true)).thenReturn(operationsRequestBuilder)
         whenever(operationsRequestBuilder.forAccount(accountId)).thenReturn(operationsRequestBuilder)
-        whenever(operationsRequestBuilder.execute()).thenReturn(operationResponse)
-        whenever(operationResponse.records).thenReturn(records)
+        whenever(operationsRequestBuilder.cursor(any())).thenReturn(operationsRequestBuilder)
+        whenever(operationsRequestBuilder.execute())
+            .thenReturn(operationResponses.first(), *operationResponses.drop(1).toTypedArray())
+        return operationsRequestBuilder
+    }
+
+    private fun createOperationWith(
+        pagingToken: String = "",
+        transactionHash: String = "",
+        transaction: TransactionResponse? = null
+    ): OperationResponse {
+        val operationResponse: PaymentOperationResponse = mock()
+        whenever(operationResponse.pagingToken).thenReturn(pagingToken)
+        whenever(operationResponse.transactionHash).thenReturn(transactionHash)
+        whenever(operationResponse.transaction).thenReturn(Optional.fromNullable(transaction))
+        return operationResponse
     }
 
     private fun createTransactionWith(feeCharged: Long): TransactionResponse {
@@ -33,7 +33,6 @@ import org.junit.Rule
 import org.junit.Test
 import org.stellar.sdk.KeyPair
 import org.stellar.sdk.Transaction
-import org.stellar.sdk.responses.TransactionResponse
 import org.stellar.sdk.responses.operations.CreateAccountOperationResponse
 import org.stellar.sdk.responses.operations.OperationResponse
 import org.stellar.sdk.responses.operations.PaymentOperationResponse
@@ -1251,12 +1250,14 @@ private fun givenTransactions(
     vararg transactions: Pair<String, List<OperationResponse>>
 ): HorizonProxy {
     val horizonProxy: HorizonProxy = mock()
-    val mockTx: TransactionResponse = mock { on { feeCharged }.thenReturn(fee) }
     transactions
         .forEach { pair ->
             whenever(horizonProxy.getTransactionList(pair.first)).thenReturn(pair.second)
         }
-    whenever(horizonProxy.getTransaction(any())).thenReturn(mockTx)
+    whenever(horizonProxy.getTransactionDetails(any())).thenAnswer { invocation ->
+        invocation.getArgument<List<OperationResponse>>(0)
+            .associate { it.transactionHash to XlmTransactionDetails(feeCharged = fee) }
+    }
     return horizonProxy
 }
 
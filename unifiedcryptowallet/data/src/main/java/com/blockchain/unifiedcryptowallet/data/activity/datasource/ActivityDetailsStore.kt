@@ -6,6 +6,7 @@ import com.blockchain.domain.wallet.PubKeyStyle
 import com.blockchain.preferences.CurrencyPrefs
 import com.blockchain.store.Fetcher
 import com.blockchain.store.KeyedStore
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store.impl.Freshness
 import com.blockchain.store.impl.FreshnessMediator
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
@@ -14,8 +15,9 @@ import kotlinx.serialization.Serializable
 
 class ActivityDetailsStore(
     private val selfCustodyService: DynamicSelfCustodyService,
-    private val currencyPrefs: CurrencyPrefs
-) : KeyedStore<ActivityDetailsStore.Key, ActivityDetailGroupsDto> by PersistedJsonSqlDelightStoreBuilder()
+    private val currencyPrefs: CurrencyPrefs,
+    storeMetrics: StoreMetrics? = null
+) : KeyedStore<ActivityDetailsStore.Key, ActivityDetailGroupsDto> by PersistedJsonSqlDelightStoreBuilder(storeMetrics)
     .buildKeyed(
         storeId = STORE_ID,
         fetcher = Fetcher.Keyed.ofOutcome(
@@ -34,7 +36,8 @@ class ActivityDetailsStore(
         ),
         keySerializer = Key.serializer(),
         dataSerializer = ActivityDetailGroupsDto.serializer(),
-        mediator = FreshnessMediator(Freshness.DURATION_24_HOURS)
+        mediator = FreshnessMediator(Freshness.DURATION_24_HOURS),
+        payloadFormat = PersistedJsonSqlDelightStoreBuilder.PayloadFormat.CBOR
     ),
     KeyedFlushableDataSource<ActivityDetailsStore.Key> {
 
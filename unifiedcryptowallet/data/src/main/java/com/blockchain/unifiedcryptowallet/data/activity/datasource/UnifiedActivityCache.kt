@@ -4,53 +4,180 @@ import activity.ActivityItem
 import activity.ActivityQueries
 import com.blockchain.api.selfcustody.activity.ActivityResponse
 import com.blockchain.api.services.ActivityCacheService
-import com.squareup.sqldelight.runtime.coroutines.asFlow
+import java.util.TreeMap
+import java.util.concurrent.CopyOnWriteArraySet
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.channels.awaitClose
 import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.buffer
+import kotlinx.coroutines.flow.callbackFlow
 import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.emitAll
+import kotlinx.coroutines.flow.filter
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.flowOn
 import kotlinx.coroutines.flow.map
 import kotlinx.serialization.encodeToString
 import kotlinx.serialization.json.Json
 
+/**
+ * Owns the activityItem table. The flows below are not driven by SqlDelight query notifications but by the
+ * changes this class dispatches after each of its own writes, so every write to activityItem must go through it.
+ * A write made straight through [ActivityQueries], such as markAsStale, is never seen by current collectors.
+ */
 class UnifiedActivityCache(
     private val activityQueries: ActivityQueries,
     private val json: Json
 ) : ActivityCacheService {
 
-    fun getActivity(): Flow<List<ActivityItem>> {
-        return activityQueries.selectAllActivity()
-            .asFlow()
-            .distinctUntilChanged()
-            .map {
-                it.executeAsList()
+    private val listeners = CopyOnWriteArraySet<(ActivityChange) -> Unit>()
+
+    /**
+     * Emits every cached item, newest first.
+     *
+     * The list is loaded page by page once, then kept up to date by re-reading only the rows
+     * changed by each write rather than the whole table.
+     */
+    fun getActivity(): Flow<List<ActivityItem>> = flow {
+        val items = TreeMap<ActivityKey, ActivityItem>()
+        val keys = HashMap<String, ActivityKey>()
+
+        emitAll(
+            activityChanges().map { change ->
+                when (change) {
+                    is ActivityChange.All -> {
+                        items.clear()
+                        keys.clear()
+                        loadAll().forEach { items.insert(keys, it) }
+                    }
+                    is ActivityChange.Rows -> {
+                        change.txIds.forEach { txId -> keys.remove(txId)?.let { items.remove(it) } }
+                        selectByTxIds(change.txIds).forEach { items.insert(keys, it) }
+                    }
+                }
+                items.values.toList()
             }
+        )
     }
+        .distinctUntilChanged()
+        .flowOn(Dispatchers.IO)
 
     fun getActivity(txId: String): Flow<ActivityItem?> {
-        return activityQueries.selectByTxId(txId)
-            .asFlow()
+        return activityChanges()
+            .filter { it is ActivityChange.All || (it is ActivityChange.Rows && txId in it.txIds) }
             .map {
-                it.executeAsOneOrNull()
+                activityQueries.selectByTxId(txId).executeAsOneOrNull()
             }
+            .flowOn(Dispatchers.IO)
+    }
+
+    /**
+     * Returns up to [limit] items older than [before], newest first, or the newest items when
+     * [before] is null. Pass the last item of a page to get the next one.
+     */
+    fun getActivityPage(before: ActivityItem?, limit: Long): List<ActivityItem> {
+        return if (before == null) {
+            activityQueries.selectFirstPage(limit).executeAsList()
+        } else {
+            activityQueries.selectPageBefore(
+                timestamp = before.timestamp,
+                txId = before.tx_id,
+                limit = limit
+            ).executeAsList()
+        }
     }
 
     override fun addOrUpdateActivityItems(items: ActivityResponse) {
-        items.activityData.activity.map { activityItem ->
-            activityQueries.insert(
-                ActivityItem(
-                    tx_id = activityItem.id,
-                    network = items.activityData.network,
-                    pubkey = items.activityData.pubKey,
-                    external_url = activityItem.externalUrl,
-                    summary_view = json.encodeToString(activityItem.summary),
-                    status = activityItem.status,
-                    timestamp = activityItem.timestamp ?: 0,
-                    last_fetched = 0
-                )
+        val updated = items.activityData.activity.map { activityItem ->
+            ActivityItem(
+                tx_id = activityItem.id,
+                network = items.activityData.network,
+                pubkey = items.activityData.pubKey,
+                external_url = activityItem.externalUrl,
+                summary_view = json.encodeToString(activityItem.summary),
+                status = activityItem.status,
+                timestamp = activityItem.timestamp ?: 0,
+                last_fetched = 0
             )
         }
+        if (updated.isEmpty()) return
+
+        val changed = mutableSetOf<String>()
+        activityQueries.transaction {
+            val existing = selectByTxIds(updated.map { it.tx_id }).associateBy { it.tx_id }
+            updated.filter { existing[it.tx_id] != it }.forEach {
+                activityQueries.insert(it)
+                changed.add(it.tx_id)
+            }
+        }
+        if (changed.isNotEmpty()) {
+            dispatch(ActivityChange.Rows(changed))
+        }
     }
 
     override fun clearActivityCache() {
         activityQueries.deleteAll()
+        dispatch(ActivityChange.All)
+    }
+
+    /**
+     * Emits [ActivityChange.All] on collection, followed by every change written afterwards.
+     * The listener is registered before the first emission so that no write is missed.
+     */
+    private fun activityChanges(): Flow<ActivityChange> = callbackFlow {
+        val listener: (ActivityChange) -> Unit = { trySend(it) }
+        listeners.add(listener)
+        trySend(ActivityChange.All)
+        awaitClose { listeners.remove(listener) }
+    }.buffer(Channel.UNLIMITED)
+
+    private fun dispatch(change: ActivityChange) {
+        listeners.forEach { it(change) }
+    }
+
+    private fun loadAll(): List<ActivityItem> {
+        val result = mutableListOf<ActivityItem>()
+        var page = getActivityPage(before = null, limit = PAGE_SIZE)
+        while (page.isNotEmpty()) {
+            result.addAll(page)
+            page = if (page.size < PAGE_SIZE) {
+                emptyList()
+            } else {
+                getActivityPage(before = page.last(), limit = PAGE_SIZE)
+            }
+        }
+        return result
+    }
+
+    private fun selectByTxIds(txIds: Collection<String>): List<ActivityItem> =
+        txIds.chunked(MAX_QUERY_ARGUMENTS).flatMap {
+            activityQueries.selectByTxIds(it).executeAsList()
+        }
+
+    private fun TreeMap<ActivityKey, ActivityItem>.insert(keys: MutableMap<String, ActivityKey>, item: ActivityItem) {
+        val key = ActivityKey(item.timestamp, item.tx_id)
+        keys[item.tx_id] = key
+        put(key, item)
+    }
+
+    private sealed class ActivityChange {
+        object All : ActivityChange()
+        data class Rows(val txIds: Set<String>) : ActivityChange()
+    }
+
+    /**
+     * Sorts newest first, matching the order of the page queries
+     */
+    private data class ActivityKey(val timestamp: Long, val txId: String) : Comparable<ActivityKey> {
+        override fun compareTo(other: ActivityKey): Int =
+            compareValuesBy(other, this, { it.timestamp }, { it.txId })
+    }
+
+    companion object {
+        private const val PAGE_SIZE = 200L
+
+        // Stays below SQLite's default limit of 999 bound parameters
+        private const val MAX_QUERY_ARGUMENTS = 500
     }
 }
@@ -49,13 +49,25 @@ class UnifiedActivityRepository(
                 timeZone = timeZone
             )
 
+            // Summaries are only decoded again when their row changes
+            val decoded = HashMap<String, DecodedActivityItem>()
             emitAll(
                 activityCache.getActivity()
                     .catch {
                         emit(DataResource.Error(Exception(it)))
                     }.map { activityItems ->
-                        val items = activityItems.mapNotNull {
-                            it.toUnifiedActivityItem()
+                        val items = activityItems.mapNotNull { activityItem ->
+                            val cached = decoded[activityItem.tx_id]
+                            if (cached != null && cached.source == activityItem) {
+                                cached.item
+                            } else {
+                                activityItem.toUnifiedActivityItem().also {
+                                    decoded[activityItem.tx_id] = DecodedActivityItem(activityItem, it)
+                                }
+                            }
+                        }
+                        if (decoded.size > activityItems.size) {
+                            decoded.keys.retainAll(activityItems.mapTo(HashSet()) { it.tx_id })
                         }
                         DataResource.Data(items)
                     }
@@ -113,4 +125,9 @@ class UnifiedActivityRepository(
                 )
             }
     }
+
+    private class DecodedActivityItem(
+        val source: ActivityItem,
+        val item: UnifiedActivityItem?
+    )
 }
@@ -11,14 +11,16 @@ import com.blockchain.store.Fetcher
 import com.blockchain.store.KeyedStore
 import com.blockchain.store.Mediator
 import com.blockchain.store.Store
+import com.blockchain.store.StoreMetrics
 import com.blockchain.store_caches_persistedjsonsqldelight.PersistedJsonSqlDelightStoreBuilder
 import com.blockchain.storedatasource.FlushableDataSource
 import kotlinx.serialization.builtins.ListSerializer
 
 internal class UnifiedBalancesStore(
     private val selfCustodyService: DynamicSelfCustodyService,
-    private val currencyPrefs: CurrencyPrefs
-) : Store<BalancesResponse> by PersistedJsonSqlDelightStoreBuilder()
+    private val currencyPrefs: CurrencyPrefs,
+    storeMetrics: StoreMetrics? = null
+) : Store<BalancesResponse> by PersistedJsonSqlDelightStoreBuilder(storeMetrics)
     .build(
         storeId = STORE_ID,
         fetcher = Fetcher.ofOutcome(
@@ -49,7 +51,8 @@ internal class UnifiedBalancesStore(
 internal class UnifiedBalancesSubscribeStore(
     private val selfCustodyService: DynamicSelfCustodyService,
     private val unifiedBalancesStore: UnifiedBalancesStore,
-) : KeyedStore<List<SubscriptionInfo>, CommonResponse> by PersistedJsonSqlDelightStoreBuilder().buildKeyed(
+    storeMetrics: StoreMetrics? = null,
+) : KeyedStore<List<SubscriptionInfo>, CommonResponse> by PersistedJsonSqlDelightStoreBuilder(storeMetrics).buildKeyed(
     storeId = STORE_ID,
     fetcher = Fetcher.Keyed.ofOutcome(
         mapper = { key ->
@@ -36,21 +36,24 @@ val unifiedCryptoWalletModule = module {
         scoped {
             UnifiedBalancesSubscribeStore(
                 selfCustodyService = get(),
-                unifiedBalancesStore = get()
+                unifiedBalancesStore = get(),
+                storeMetrics = getOrNull()
             )
         }
 
         scoped {
             UnifiedBalancesStore(
                 selfCustodyService = get(),
-                currencyPrefs = get()
+                currencyPrefs = get(),
+                storeMetrics = getOrNull()
             )
         }.bind(Store::class)
 
         scoped {
             ActivityDetailsStore(
                 selfCustodyService = get(),
-                currencyPrefs = get()
+                currencyPrefs = get(),
+                storeMetrics = getOrNull()
             )
         }.bind(KeyedStore::class)
 
@@ -0,0 +1,159 @@
+package com.blockchain.unifiedcryptowallet.data.activity.datasource
+
+import app.cash.turbine.test
+import com.blockchain.api.selfcustody.activity.ActivityItemDto
+import com.blockchain.api.selfcustody.activity.ActivityResponse
+import com.blockchain.api.selfcustody.activity.ActivityViewItemDto
+import com.blockchain.api.selfcustody.activity.NetworkActivityResponse
+import com.blockchain.unifiedcryptowallet.data.Database
+import com.squareup.sqldelight.db.SqlCursor
+import com.squareup.sqldelight.db.SqlDriver
+import com.squareup.sqldelight.db.SqlPreparedStatement
+import com.squareup.sqldelight.sqlite.driver.JdbcSqliteDriver
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.runTest
+import kotlinx.serialization.json.Json
+import org.junit.Before
+import org.junit.Test
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class UnifiedActivityCacheTest {
+
+    private class RecordingDriver(private val driver: SqlDriver) : SqlDriver by driver {
+        var transactions = 0
+        val statements = mutableListOf<String>()
+        val queries = mutableListOf<Pair<String, Int>>()
+
+        override fun newTransaction() = driver.newTransaction().also { transactions++ }
+
+        override fun execute(
+            identifier: Int?,
+            sql: String,
+            parameters: Int,
+            binders: (SqlPreparedStatement.() -> Unit)?
+        ) {
+            statements.add(sql)
+            driver.execute(identifier, sql, parameters, binders)
+        }
+
+        override fun executeQuery(
+            identifier: Int?,
+            sql: String,
+            parameters: Int,
+            binders: (SqlPreparedStatement.() -> Unit)?
+        ): SqlCursor {
+            queries.add(sql to parameters)
+            return driver.executeQuery(identifier, sql, parameters, binders)
+        }
+
+        fun reset() {
+            transactions = 0
+            statements.clear()
+            queries.clear()
+        }
+    }
+
+    private val driver = RecordingDriver(JdbcSqliteDriver(JdbcSqliteDriver.IN_MEMORY))
+    private val subject = UnifiedActivityCache(
+        activityQueries = Database(driver).activityQueries,
+        json = Json
+    )
+
+    @Before
+    fun setUp() {
+        Database.Schema.create(driver)
+        driver.reset()
+    }
+
+    @Test
+    fun `upserting a batch should use one transaction and skip unchanged rows`() {
+        subject.addOrUpdateActivityItems(response(item("a"), item("b"), item("c")))
+
+        assertEquals(1, driver.transactions)
+        assertEquals(3, driver.statements.count { it.startsWith("INSERT") })
+
+        driver.reset()
+        subject.addOrUpdateActivityItems(response(item("a"), item("b", status = "CONFIRMED"), item("c")))
+
+        assertEquals(1, driver.transactions)
+        assertEquals(1, driver.statements.count { it.startsWith("INSERT") })
+        assertEquals("CONFIRMED", subject.getActivityPage(before = null, limit = 10).single { it.tx_id == "b" }.status)
+    }
+
+    @Test
+    fun `changed rows should only re-read their tx ids`() = runTest {
+        subject.addOrUpdateActivityItems(response(item("a", timestamp = 1), item("b", timestamp = 2)))
+
+        subject.getActivity().test {
+            assertEquals(listOf("b", "a"), awaitItem().map { it.tx_id })
+
+            driver.reset()
+            subject.addOrUpdateActivityItems(response(item("a", timestamp = 3)))
+
+            assertEquals(listOf("a", "b"), awaitItem().map { it.tx_id })
+            // One lookup for the upsert and one re-read of the changed row, never a page of the table
+            assertEquals(2, driver.queries.size)
+            assertTrue(driver.queries.all { (sql, parameters) -> " IN " in sql && parameters == 1 })
+        }
+    }
+
+    @Test
+    fun `keyset pages should order equal timestamps by tx id`() {
+        subject.addOrUpdateActivityItems(
+            response(
+                item("a", timestamp = 5),
+                item("b", timestamp = 5),
+                item("c", timestamp = 5),
+                item("d", timestamp = 5),
+                item("e", timestamp = 6)
+            )
+        )
+
+        val first = subject.getActivityPage(before = null, limit = 2)
+        val second = subject.getActivityPage(before = first.last(), limit = 2)
+        val third = subject.getActivityPage(before = second.last(), limit = 2)
+
+        assertEquals(listOf("e", "d"), first.map { it.tx_id })
+        assertEquals(listOf("c", "b"), second.map { it.tx_id })
+        assertEquals(listOf("a"), third.map { it.tx_id })
+    }
+
+    @Test
+    fun `clearing the cache should reset the list`() = runTest {
+        subject.addOrUpdateActivityItems(response(item("a"), item("b")))
+
+        subject.getActivity().test {
+            assertEquals(2, awaitItem().size)
+
+            subject.clearActivityCache()
+
+            assertEquals(emptyList(), awaitItem())
+        }
+    }
+
+    private fun response(vararg items: ActivityItemDto) = ActivityResponse(
+        seqnum = 0,
+        event = "snapshot",
+        channel = "activity",
+        activityData = NetworkActivityResponse(
+            network = NETWORK,
+            pubKey = PUB_KEY,
+            activity = items.toList()
+        )
+    )
+
+    private fun item(id: String, timestamp: Long = 1, status: String = "PENDING") = ActivityItemDto(
+        id = id,
+        externalUrl = "https://explorer/$id",
+        summary = ActivityViewItemDto.Unknown,
+        status = status,
+        timestamp = timestamp
+    )
+
+    companion object {
+        private const val NETWORK = "ETH"
+        private const val PUB_KEY = "pubKey"
+    }
+}
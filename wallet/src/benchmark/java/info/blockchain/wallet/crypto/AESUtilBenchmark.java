@@ -0,0 +1,77 @@
+package info.blockchain.wallet.crypto;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decrypts and encrypts payloads through {@link AESUtil} with each {@link AESCryptoProvider}, at the iteration counts
+ * used for QR codes and for PINs and wallet payloads, and at the sizes of a PIN secret and of a wallet payload.
+ *
+ * Run with `./gradlew :wallet:aesUtilBenchmark`
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AESUtilBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"jca", "spongycastle"})
+    public String provider;
+
+    @Param({"10", "5000"})
+    public int iterations;
+
+    @Param({"64", "65536"})
+    public int payloadSize;
+
+    private String cleartext;
+    private String ciphertext;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        AESUtil.setCryptoProvider(
+            provider.equals("jca") ? new JcaAESCryptoProvider() : new SpongyCastleAESCryptoProvider()
+        );
+        cleartext = syntheticPayload(payloadSize);
+        ciphertext = AESUtil.encrypt(cleartext, PASSWORD, iterations);
+    }
+
+    @Benchmark
+    public String decrypt() throws Exception {
+        return AESUtil.decrypt(ciphertext, PASSWORD, iterations);
+    }
+
+    @Benchmark
+    public String encrypt() throws Exception {
+        return AESUtil.encrypt(cleartext, PASSWORD, iterations);
+    }
+
+    /**
+     * JSON like text, wallet payloads are mostly hex and base58 strings
+     */
+    private static String syntheticPayload(int size) {
+        String alphabet = "{}\":,0123456789abcdefABCDEFGHJKLMNPQRSTUVWXYZ";
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder(size);
+        for (int i = 0; i < size; i++) {
+            builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return builder.toString();
+    }
+}
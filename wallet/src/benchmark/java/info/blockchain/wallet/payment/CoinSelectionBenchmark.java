@@ -0,0 +1,164 @@
+package info.blockchain.wallet.payment;
+
+import info.blockchain.wallet.payload.model.Utxo;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import kotlin.random.RandomKt;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Selects random payments from synthetic wallets with {@link DescentDraw} accumulation and with
+ * {@link WasteMinimizing} selection, for wallets from a handful of coins to tens of thousands of them.
+ *
+ * The same {@link CoinSelection} is reused for every payment of a trial, so coins are sorted once and only the
+ * selection itself is measured. Next to the time per selection, {@link SelectionCosts} reports the average fee paid,
+ * the average waste (the fee plus the cost of later spending the change output, if any) and the number of change
+ * outputs created over the payments of a trial, for the two strategies to be compared on the same wallets.
+ *
+ * Run with `./gradlew :wallet:coinSelectionBenchmark`
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CoinSelectionBenchmark {
+
+    private static final long SEED = 42L;
+    private static final long FEE_PER_BYTE = 20L;
+    private static final long MIN_PAYMENT = 10_000L;
+    private static final int PAYMENTS = 200;
+    // Spending a segwit change output later: input plus its share of the change output
+    private static final long CHANGE_SPEND_COST_BYTES = 68L + 31L;
+
+    @Param({"DescentDraw", "WasteMinimizing"})
+    public String strategy;
+
+    @Param({"10", "100", "1000", "10000", "50000"})
+    public int walletSize;
+
+    private CoinSelection selection;
+    private CoinSortingMethod sortingMethod;
+    private BigInteger[] payments;
+    private int next;
+
+    private double averageFee;
+    private double averageWaste;
+    private long changeOutputs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(SEED + walletSize);
+        List<Utxo> coins = new ArrayList<>(walletSize);
+        long total = 0L;
+        for (int i = 0; i < walletSize; i++) {
+            Utxo coin = syntheticCoin(random);
+            coins.add(coin);
+            total += coin.getValue().longValue();
+        }
+
+        long maxPayment = Math.max(MIN_PAYMENT + 1, total / 2);
+        payments = new BigInteger[PAYMENTS];
+        for (int i = 0; i < PAYMENTS; i++) {
+            payments[i] = BigInteger.valueOf(MIN_PAYMENT + (long) (random.nextDouble() * (maxPayment - MIN_PAYMENT)));
+        }
+
+        if (strategy.equals("DescentDraw")) {
+            sortingMethod = DescentDraw.INSTANCE;
+        } else {
+            WasteMinimizing defaults = new WasteMinimizing();
+            sortingMethod = new WasteMinimizing(
+                defaults.getTimeBudgetMillis(),
+                defaults.getMaxTries(),
+                RandomKt.Random(SEED)
+            );
+        }
+        selection = new CoinSelection(coins, BigInteger.valueOf(FEE_PER_BYTE));
+        measureCosts();
+    }
+
+    @Benchmark
+    public SpendableUnspentOutputs select(SelectionCosts costs) {
+        BigInteger payment = payments[next];
+        next = (next + 1) % PAYMENTS;
+        return selection.select(payment, OutputType.P2WPKH, OutputType.P2WPKH, sortingMethod);
+    }
+
+    /**
+     * Fees and waste are the same on every run for a given wallet and strategy, so they're measured once per trial
+     */
+    private void measureCosts() {
+        long fees = 0L;
+        long waste = 0L;
+        changeOutputs = 0L;
+        for (BigInteger payment : payments) {
+            SpendableUnspentOutputs result =
+                selection.select(payment, OutputType.P2WPKH, OutputType.P2WPKH, sortingMethod);
+            long fee = result.getAbsoluteFee().longValue();
+            long selected = CoinSelectionKt.sum(result.getSpendableOutputs()).longValue();
+            boolean hasChange = selected - fee > payment.longValue();
+            fees += fee;
+            waste += fee;
+            if (hasChange) {
+                waste += CHANGE_SPEND_COST_BYTES * FEE_PER_BYTE;
+                changeOutputs++;
+            }
+        }
+        averageFee = (double) fees / PAYMENTS;
+        averageWaste = (double) waste / PAYMENTS;
+    }
+
+    /**
+     * Selection costs of the trial, in satoshis per payment and in change outputs per {@value #PAYMENTS} payments.
+     * They're reported as is for every iteration, JMH sums them over threads and the benchmark runs on one.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class SelectionCosts {
+        public double averageFee;
+        public double averageWaste;
+        public long changeOutputs;
+
+        @Setup(Level.Iteration)
+        public void setUp(CoinSelectionBenchmark benchmark) {
+            averageFee = benchmark.averageFee;
+            averageWaste = benchmark.averageWaste;
+            changeOutputs = benchmark.changeOutputs;
+        }
+    }
+
+    /**
+     * Coin values are log-uniformly distributed between 1,000 and 100,000,000 satoshis, mixed legacy and segwit
+     */
+    private static Utxo syntheticCoin(Random random) {
+        double min = Math.log(1_000.0);
+        double max = Math.log(100_000_000.0);
+        long value = (long) Math.exp(min + random.nextDouble() * (max - min));
+        return new Utxo(
+            BigInteger.valueOf(value),
+            "",
+            Long.toHexString(random.nextLong()),
+            0,
+            true,
+            null,
+            random.nextBoolean(),
+            false
+        );
+    }
+}
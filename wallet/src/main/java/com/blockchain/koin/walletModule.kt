@@ -8,6 +8,7 @@ import info.blockchain.wallet.api.dust.BchDustService
 import info.blockchain.wallet.api.dust.DustApi
 import info.blockchain.wallet.api.dust.DustService
 import info.blockchain.wallet.api.session.SessionIdRepository
+import info.blockchain.wallet.bip44.HDChain
 import info.blockchain.wallet.ethereum.EthAccountApi
 import info.blockchain.wallet.ethereum.EthEndpoints
 import info.blockchain.wallet.ethereum.node.EthNodeEndpoints
@@ -72,6 +73,7 @@ val walletModule = module {
                 if (!payloadScope.closed) {
                     payloadScope.close()
                 }
+                HDChain.clearDerivedAddresses()
             }
         }
     }.bind(PayloadScopeWiper::class)
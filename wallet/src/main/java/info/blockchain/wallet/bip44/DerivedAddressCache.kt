@@ -0,0 +1,44 @@
+package info.blockchain.wallet.bip44
+
+/**
+ * Formatted addresses already derived from a chain, so that account lookahead lists and receive/change lookups don't
+ * repeat the EC multiplication and hashing every time the wallet is synced.
+ *
+ * Only public addresses are kept, never keys. Least recently used entries are dropped past [maxEntries].
+ */
+internal class DerivedAddressCache(private val maxEntries: Int) {
+
+    private val entries = object : LinkedHashMap<Key, String>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<Key, String>): Boolean =
+            size > maxEntries
+    }
+
+    operator fun get(key: Key): String? = synchronized(entries) { entries[key] }
+
+    operator fun set(key: Key, address: String) {
+        synchronized(entries) { entries[key] = address }
+    }
+
+    val size: Int
+        get() = synchronized(entries) { entries.size }
+
+    fun clear() {
+        synchronized(entries) { entries.clear() }
+    }
+
+    /**
+     * @param xpub the chain xpub, it also tells apart accounts, coins and networks
+     * @param chain 0 for receive, 1 for change
+     */
+    data class Key(
+        val xpub: String,
+        val chain: Int,
+        val index: Int,
+        val purpose: Int
+    )
+
+    companion object {
+        private const val INITIAL_CAPACITY = 256
+        private const val LOAD_FACTOR = 0.75f
+    }
+}
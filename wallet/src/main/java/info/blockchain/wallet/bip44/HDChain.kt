@@ -1,6 +1,12 @@
 package info.blockchain.wallet.bip44
 
+import info.blockchain.wallet.payload.data.Derivation
+import java.util.stream.Collectors
+import java.util.stream.IntStream
+import org.bitcoinj.core.LegacyAddress
 import org.bitcoinj.core.NetworkParameters
+import org.bitcoinj.core.SegwitAddress
+import org.bitcoinj.crypto.ChildNumber
 import org.bitcoinj.crypto.DeterministicKey
 import org.bitcoinj.crypto.HDKeyDerivation
 
@@ -13,12 +19,16 @@ class HDChain private constructor(
     aKey: DeterministicKey
 ) {
     private val childKey: DeterministicKey
+    private val chain: Int = if (isReceiveChain) RECEIVE_CHAIN else CHANGE_CHAIN
+
+    // Addresses only need the public key, which avoids deriving and encoding private keys we don't use
+    private val publicChildKey: DeterministicKey by lazy { childKey.dropPrivateBytes() }
+
     // Return BIP44 path for this chain (m / purpose' / coin_type' / account' / chain).
     val path: String
     val xpub: String
 
     init {
-        val chain = if (isReceiveChain) RECEIVE_CHAIN else CHANGE_CHAIN
         childKey = HDKeyDerivation.deriveChildKey(aKey, chain)
         path = childKey.getPathAsString()
         xpub = childKey.serializePubB58(params)
@@ -28,15 +38,78 @@ class HDChain private constructor(
         return HDAddress(params, childKey, addressIndex, purpose)
     }
 
+    /**
+     * Same address as [getAddressAt] formats, served from the derived address cache when possible
+     */
+    fun getFormattedAddressAt(addressIndex: Int, purpose: Int): String {
+        val key = cacheKey(addressIndex, purpose)
+        return derivedAddresses[key] ?: deriveFormattedAddress(addressIndex, purpose).also {
+            derivedAddresses[key] = it
+        }
+    }
+
+    /**
+     * Formatted addresses from [fromIndex] (inclusive) to [toIndex] (exclusive). Addresses which aren't cached yet are
+     * derived in parallel on the common fork-join pool, all from the same public chain key.
+     */
+    fun getAddressRange(fromIndex: Int, toIndex: Int, purpose: Int): List<String> {
+        require(fromIndex in 0..toIndex) { "Invalid address range $fromIndex..$toIndex" }
+
+        val addresses = arrayOfNulls<String>(toIndex - fromIndex)
+        val missing = ArrayList<Int>()
+        for (index in fromIndex until toIndex) {
+            val cached = derivedAddresses[cacheKey(index, purpose)]
+            if (cached != null) addresses[index - fromIndex] = cached else missing.add(index)
+        }
+
+        val derived = if (missing.size > 1) {
+            IntStream.range(0, missing.size)
+                .parallel()
+                .mapToObj { deriveFormattedAddress(missing[it], purpose) }
+                .collect(Collectors.toList())
+        } else {
+            missing.map { deriveFormattedAddress(it, purpose) }
+        }
+        missing.forEachIndexed { i, index ->
+            addresses[index - fromIndex] = derived[i]
+            derivedAddresses[cacheKey(index, purpose)] = derived[i]
+        }
+        return addresses.map { it!! }
+    }
+
+    private fun cacheKey(addressIndex: Int, purpose: Int) =
+        DerivedAddressCache.Key(xpub, chain, addressIndex, purpose)
+
+    private fun deriveFormattedAddress(addressIndex: Int, purpose: Int): String {
+        val key = HDKeyDerivation.deriveChildKey(publicChildKey, ChildNumber(addressIndex, false))
+        return if (purpose == Derivation.SEGWIT_BECH32_PURPOSE) {
+            SegwitAddress.fromHash(params, key.pubKeyHash).toBech32()
+        } else {
+            LegacyAddress.fromKey(params, key).toBase58()
+        }
+    }
+
     companion object {
         private const val RECEIVE_CHAIN = 0
         private const val CHANGE_CHAIN = 1
         const val RECEIVE_CHAIN_DERIVATION_PREFIX = "M/$RECEIVE_CHAIN/"
 
+        // Enough for the lookahead of a few hundred accounts on both chains, cleared with the payload scope
+        private const val MAX_CACHED_ADDRESSES = 10_000
+        private val derivedAddresses = DerivedAddressCache(MAX_CACHED_ADDRESSES)
+
         fun receiveChain(params: NetworkParameters, rootKey: DeterministicKey): HDChain =
             HDChain(params, true, rootKey)
 
         fun changeChain(params: NetworkParameters, rootKey: DeterministicKey): HDChain =
             HDChain(params, false, rootKey)
+
+        internal val derivedAddressCount: Int
+            get() = derivedAddresses.size
+
+        /**
+         * Drops every cached address, called when the payload is wiped so a signed out wallet's addresses aren't kept
+         */
+        internal fun clearDerivedAddresses() = derivedAddresses.clear()
     }
 }
@@ -49,13 +49,36 @@ public class HDWallet {
         String passphrase,
         int nbAccounts,
         int purpose
+    ) throws MnemonicException.MnemonicLengthException {
+        this(mc, params, seed, passphrase, MnemonicCode.toSeed(mc.toMnemonic(seed), passphrase), nbAccounts, purpose);
+    }
+
+    /**
+     * Constructor for wallet from an already stretched BIP39 seed, so that wallets for several purposes can share
+     * a single PBKDF2 run.
+     *
+     * @param mc         mnemonic code object
+     * @param seed       seed for this wallet
+     * @param passphrase optional BIP39 passphrase
+     * @param hdSeed     BIP39 seed derived from the mnemonic of seed and passphrase
+     * @param nbAccounts number of accounts to create
+     * @param purpose    BIP43 purpose
+     */
+    public HDWallet(
+        MnemonicCode mc,
+        NetworkParameters params,
+        byte[] seed,
+        String passphrase,
+        byte[] hdSeed,
+        int nbAccounts,
+        int purpose
     ) throws MnemonicException.MnemonicLengthException {
         this.params = params;
         this.seed = seed;
         strPassphrase = passphrase;
 
         wordList = mc.toMnemonic(seed);
-        hd_seed = MnemonicCode.toSeed(wordList, strPassphrase);
+        hd_seed = hdSeed;
         dkKey = HDKeyDerivation.createMasterPrivateKey(hd_seed);
         DeterministicKey dKey = HDKeyDerivation.deriveChildKey(
             dkKey, purpose | ChildNumber.HARDENED_BIT
@@ -151,6 +174,18 @@ public class HDWallet {
         return account;
     }
 
+    /**
+     * Adds or drops accounts at the end of the wallet until it has nbAccounts.
+     */
+    public void resizeAccounts(int nbAccounts) {
+        while (accounts.size() > nbAccounts) {
+            accounts.remove(accounts.size() - 1);
+        }
+        while (accounts.size() < nbAccounts) {
+            addAccount();
+        }
+    }
+
     /**
      * Return BIP44 path for this wallet (m / purpose').
      *
@@ -44,7 +44,19 @@ object HDWalletFactory {
         passphrase: String,
         nbAccounts: Int,
         purpose: Int
-    ): HDWallet {
+    ): HDWallet = restoreWallets(language, data, passphrase, nbAccounts, listOf(purpose)).first()
+
+    /**
+     * Restore one wallet per purpose, running the BIP39 seed stretching only once for all of them.
+     */
+    @JvmStatic
+    fun restoreWallets(
+        language: Language,
+        data: String,
+        passphrase: String,
+        nbAccounts: Int,
+        purposes: List<Int>
+    ): List<HDWallet> {
         val networkParameters = MainNetParams.get()
 
         getMnemonicWordList(language).use { wis ->
@@ -59,7 +71,10 @@ object HDWalletFactory {
                     .split("\\s+".toRegex())
                 mc.toEntropy(words)
             }
-            return HDWallet(mc, networkParameters, seed, passphrase, nbAccounts, purpose)
+            val hdSeed = MnemonicCode.toSeed(mc.toMnemonic(seed), passphrase)
+            return purposes.map { purpose ->
+                HDWallet(mc, networkParameters, seed, passphrase, hdSeed, nbAccounts, purpose)
+            }
         }
     }
 
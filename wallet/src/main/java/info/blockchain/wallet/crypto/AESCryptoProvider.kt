@@ -0,0 +1,28 @@
+package info.blockchain.wallet.crypto
+
+import org.spongycastle.crypto.InvalidCipherTextException
+import org.spongycastle.crypto.paddings.BlockCipherPadding
+
+/**
+ * The primitives behind [AESUtil]: PBKDF2-HMAC-SHA1 key derivation and AES-256 in CBC or OFB mode.
+ *
+ * Implementations must be interchangeable byte for byte, payloads encrypted by one are decrypted by any other, and
+ * failures are reported with the same SpongyCastle exceptions since callers such as
+ * [info.blockchain.wallet.payload.data.WalletBase] rely on them to try the next padding.
+ */
+interface AESCryptoProvider {
+
+    /**
+     * @return a 256 bit key derived from the UTF-8 bytes of [password]
+     */
+    fun deriveKey(password: String, salt: ByteArray, iterations: Int): ByteArray
+
+    /**
+     * @param mode [AESUtil.MODE_CBC] or [AESUtil.MODE_OFB]
+     * @param padding null for none, in which case CBC input must be block aligned
+     */
+    fun encrypt(key: ByteArray, iv: ByteArray, data: ByteArray, mode: Int, padding: BlockCipherPadding?): ByteArray
+
+    @Throws(InvalidCipherTextException::class)
+    fun decrypt(key: ByteArray, iv: ByteArray, data: ByteArray, mode: Int, padding: BlockCipherPadding?): ByteArray
+}
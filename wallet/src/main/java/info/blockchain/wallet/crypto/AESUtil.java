@@ -7,21 +7,9 @@ import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
 import javax.annotation.Nullable;
 import org.apache.commons.codec.binary.Base64;
-import org.spongycastle.crypto.BlockCipher;
-import org.spongycastle.crypto.BufferedBlockCipher;
-import org.spongycastle.crypto.CipherParameters;
 import org.spongycastle.crypto.InvalidCipherTextException;
-import org.spongycastle.crypto.PBEParametersGenerator;
-import org.spongycastle.crypto.engines.AESEngine;
-import org.spongycastle.crypto.engines.AESFastEngine;
-import org.spongycastle.crypto.generators.PKCS5S2ParametersGenerator;
-import org.spongycastle.crypto.modes.CBCBlockCipher;
-import org.spongycastle.crypto.modes.OFBBlockCipher;
 import org.spongycastle.crypto.paddings.BlockCipherPadding;
 import org.spongycastle.crypto.paddings.ISO10126d2Padding;
-import org.spongycastle.crypto.paddings.PaddedBufferedBlockCipher;
-import org.spongycastle.crypto.params.KeyParameter;
-import org.spongycastle.crypto.params.ParametersWithIV;
 
 public class AESUtil {
 
@@ -37,7 +25,15 @@ public class AESUtil {
     public static final int MODE_OFB = 1;
 
     private static final int AESBlockSize = 4;
-    private static final int KEY_BIT_LEN = 256;
+
+    private static volatile AESCryptoProvider cryptoProvider = new JcaAESCryptoProvider();
+
+    /**
+     * Replaces the implementation of key derivation and AES, by default the platform one with a SpongyCastle fallback
+     */
+    public static void setCryptoProvider(AESCryptoProvider provider) {
+        cryptoProvider = provider;
+    }
 
     private static byte[] copyOfRange(byte[] source, int from, int to) {
         byte[] range = new byte[to - from];
@@ -62,39 +58,8 @@ public class AESUtil {
         byte[] iv = copyOfRange(cipherdata, 0, AESBlockSize * 4);
         byte[] input = copyOfRange(cipherdata, AESBlockSize * 4, cipherdata.length);
 
-        PBEParametersGenerator generator = new PKCS5S2ParametersGenerator();
-        generator.init(PBEParametersGenerator.PKCS5PasswordToUTF8Bytes(password.toCharArray()), iv, iterations);
-        KeyParameter keyParam = (KeyParameter) generator.generateDerivedParameters(256);
-
-        CipherParameters params = new ParametersWithIV(keyParam, iv);
-
-        BlockCipher cipherMode;
-        if (mode == MODE_CBC) {
-            cipherMode = new CBCBlockCipher(new AESEngine());
-
-        } else {
-            //mode == MODE_OFB
-            cipherMode = new OFBBlockCipher(new AESEngine(), 128);
-        }
-
-        BufferedBlockCipher cipher;
-        if (padding != null) {
-            cipher = new PaddedBufferedBlockCipher(cipherMode, padding);
-        } else {
-            cipher = new BufferedBlockCipher(cipherMode);
-        }
-
-        cipher.reset();
-        cipher.init(false, params);
-
-        // create a temporary buffer to decode into (includes padding)
-        byte[] buf = new byte[cipher.getOutputSize(input.length)];
-        int len = cipher.processBytes(input, 0, input.length, buf, 0);
-        len += cipher.doFinal(buf, len);
-
-        // remove padding
-        byte[] out = new byte[len];
-        System.arraycopy(buf, 0, out, 0, len);
+        byte[] key = cryptoProvider.deriveKey(password, iv, iterations);
+        byte[] out = cryptoProvider.decrypt(key, iv, input, mode, padding);
 
         // return string representation of decoded bytes
         String result = new String(out, StandardCharsets.UTF_8);
@@ -132,32 +97,8 @@ public class AESUtil {
 
         byte[] clearbytes = cleartext.getBytes(StandardCharsets.UTF_8);
 
-        PBEParametersGenerator generator = new PKCS5S2ParametersGenerator();
-        generator.init(PBEParametersGenerator.PKCS5PasswordToUTF8Bytes(password.toCharArray()), iv, iterations);
-        KeyParameter keyParam = (KeyParameter) generator.generateDerivedParameters(256);
-
-        CipherParameters params = new ParametersWithIV(keyParam, iv);
-
-        BlockCipher cipherMode;
-        if (mode == MODE_CBC) {
-            cipherMode = new CBCBlockCipher(new AESEngine());
-
-        } else {
-            //mode == MODE_OFB
-            cipherMode = new OFBBlockCipher(new AESEngine(), 128);
-        }
-
-        BufferedBlockCipher cipher;
-        if (padding != null) {
-            cipher = new PaddedBufferedBlockCipher(cipherMode, padding);
-        } else {
-            cipher = new BufferedBlockCipher(cipherMode);
-        }
-
-        cipher.reset();
-        cipher.init(true, params);
-
-        byte[] outBuf = cipherData(cipher, clearbytes);
+        byte[] key = cryptoProvider.deriveKey(password, iv, iterations);
+        byte[] outBuf = cryptoProvider.encrypt(key, iv, clearbytes, mode, padding);
 
         // Append to IV to the output
         int len1 = iv.length;
@@ -171,23 +112,6 @@ public class AESUtil {
         return new String(raw);
     }
 
-    private static byte[] cipherData(BufferedBlockCipher cipher, byte[] data) {
-        int minSize = cipher.getOutputSize(data.length);
-        byte[] outBuf = new byte[minSize];
-        int len1 = cipher.processBytes(data, 0, data.length, outBuf, 0);
-        int len2 = -1;
-        try {
-            len2 = cipher.doFinal(outBuf, len1);
-        } catch (InvalidCipherTextException icte) {
-            icte.printStackTrace();
-        }
-
-        int actualLength = len1 + len2;
-        byte[] result = new byte[actualLength];
-        System.arraycopy(outBuf, 0, result, 0, result.length);
-        return result;
-    }
-
     /**
      * Use secure random to generate a 16 byte iv
      */
@@ -210,15 +134,7 @@ public class AESUtil {
         byte[] iv = getSalt();
         byte[] dataBytes = data.getBytes(StandardCharsets.UTF_8);
 
-        KeyParameter keyParam = new KeyParameter(key);
-        CipherParameters params = new ParametersWithIV(keyParam, iv);
-
-        BlockCipher cipherMode = new CBCBlockCipher(new AESFastEngine());
-        BufferedBlockCipher cipher = new PaddedBufferedBlockCipher(cipherMode, new ISO10126d2Padding());
-        cipher.reset();
-        cipher.init(true, params);
-
-        byte[] outBuf = cipherData(cipher, dataBytes);
+        byte[] outBuf = cryptoProvider.encrypt(key, iv, dataBytes, MODE_CBC, new ISO10126d2Padding());
 
         // Concatenate iv
         int len1 = iv.length;
@@ -242,22 +158,7 @@ public class AESUtil {
         byte[] iv = copyOfRange(dataBytesB64, 0, AESBlockSize * 4);
         byte[] dataBytes = copyOfRange(dataBytesB64, AESBlockSize * 4, dataBytesB64.length);
 
-        KeyParameter keyParam = new KeyParameter(key);
-        CipherParameters params = new ParametersWithIV(keyParam, iv);
-
-        BlockCipher cipherMode = new CBCBlockCipher(new AESFastEngine());
-        BufferedBlockCipher cipher = new PaddedBufferedBlockCipher(cipherMode, new ISO10126d2Padding());
-        cipher.reset();
-        cipher.init(false, params);
-
-        //Create a temporary buffer to decode into (includes padding)
-        byte[] buf = new byte[cipher.getOutputSize(dataBytes.length)];
-        int len = cipher.processBytes(dataBytes, 0, dataBytes.length, buf, 0);
-        len += cipher.doFinal(buf, len);
-
-        //Remove padding
-        byte[] out = new byte[len];
-        System.arraycopy(buf, 0, out, 0, len);
+        byte[] out = cryptoProvider.decrypt(key, iv, dataBytes, MODE_CBC, new ISO10126d2Padding());
 
         return new String(out, StandardCharsets.UTF_8);
     }
@@ -266,10 +167,6 @@ public class AESUtil {
 
         byte[] salt = "salt".getBytes(StandardCharsets.UTF_8);
 
-        PBEParametersGenerator generator = new PKCS5S2ParametersGenerator();
-        generator.init(PBEParametersGenerator.PKCS5PasswordToUTF8Bytes(string.toCharArray()), salt, iterations);
-        KeyParameter keyParam = (KeyParameter) generator.generateDerivedParameters(KEY_BIT_LEN);
-
-        return  keyParam.getKey();
+        return cryptoProvider.deriveKey(string, salt, iterations);
     }
 }
\ No newline at end of file
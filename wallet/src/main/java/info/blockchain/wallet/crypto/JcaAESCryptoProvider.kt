@@ -0,0 +1,152 @@
+package info.blockchain.wallet.crypto
+
+import java.security.GeneralSecurityException
+import java.security.NoSuchAlgorithmException
+import javax.crypto.Cipher
+import javax.crypto.NoSuchPaddingException
+import javax.crypto.SecretKeyFactory
+import javax.crypto.spec.IvParameterSpec
+import javax.crypto.spec.PBEKeySpec
+import javax.crypto.spec.SecretKeySpec
+import org.spongycastle.crypto.DataLengthException
+import org.spongycastle.crypto.InvalidCipherTextException
+import org.spongycastle.crypto.PBEParametersGenerator
+import org.spongycastle.crypto.paddings.BlockCipherPadding
+
+/**
+ * Runs key derivation and AES on the platform providers, which are native on Android and intrinsified on the JVM,
+ * instead of SpongyCastle's pure Java digests and engines.
+ *
+ * Only the unpadded block transforms come from the platform. Padding is added and checked here with the same
+ * SpongyCastle [BlockCipherPadding], so output and failures are identical to [SpongyCastleAESCryptoProvider]. Anything
+ * the platform can't do, like a missing algorithm, a restricted key size or a password the platform would encode
+ * differently, is delegated to [fallback].
+ */
+class JcaAESCryptoProvider @JvmOverloads constructor(
+    private val fallback: AESCryptoProvider = SpongyCastleAESCryptoProvider()
+) : AESCryptoProvider {
+
+    private val hasPbkdf2 = isAvailable { SecretKeyFactory.getInstance(PBKDF2_ALGORITHM) }
+    private val hasCbc = isAvailable { Cipher.getInstance(CBC_TRANSFORMATION) }
+    private val hasOfb = isAvailable { Cipher.getInstance(OFB_TRANSFORMATION) }
+
+    override fun deriveKey(password: String, salt: ByteArray, iterations: Int): ByteArray {
+        val chars = password.toCharArray()
+        if (!hasPbkdf2 || iterations < 1 || salt.isEmpty() || !isEncodedAsUtf8(chars)) {
+            return fallback.deriveKey(password, salt, iterations)
+        }
+        val spec = PBEKeySpec(chars, salt, iterations, KEY_BIT_LEN)
+        return try {
+            SecretKeyFactory.getInstance(PBKDF2_ALGORITHM).generateSecret(spec).encoded
+        } catch (e: GeneralSecurityException) {
+            fallback.deriveKey(password, salt, iterations)
+        } finally {
+            spec.clearPassword()
+        }
+    }
+
+    override fun encrypt(
+        key: ByteArray,
+        iv: ByteArray,
+        data: ByteArray,
+        mode: Int,
+        padding: BlockCipherPadding?
+    ): ByteArray {
+        if (!supports(mode)) return fallback.encrypt(key, iv, data, mode, padding)
+
+        val input = if (padding != null) {
+            pad(data, padding)
+        } else {
+            if (mode == AESUtil.MODE_CBC && data.size % BLOCK_SIZE != 0) {
+                throw DataLengthException("data not block size aligned")
+            }
+            data
+        }
+        return transform(Cipher.ENCRYPT_MODE, key, iv, input, mode)
+            ?: fallback.encrypt(key, iv, data, mode, padding)
+    }
+
+    @Throws(InvalidCipherTextException::class)
+    override fun decrypt(
+        key: ByteArray,
+        iv: ByteArray,
+        data: ByteArray,
+        mode: Int,
+        padding: BlockCipherPadding?
+    ): ByteArray {
+        if (!supports(mode)) return fallback.decrypt(key, iv, data, mode, padding)
+
+        if (padding != null) {
+            if (data.isEmpty() || data.size % BLOCK_SIZE != 0) {
+                throw DataLengthException("last block incomplete in decryption")
+            }
+        } else if (mode == AESUtil.MODE_CBC && data.size % BLOCK_SIZE != 0) {
+            throw DataLengthException("data not block size aligned")
+        }
+
+        val output = transform(Cipher.DECRYPT_MODE, key, iv, data, mode)
+            ?: return fallback.decrypt(key, iv, data, mode, padding)
+        return if (padding != null) unpad(output, padding) else output
+    }
+
+    private fun supports(mode: Int) = if (mode == AESUtil.MODE_CBC) hasCbc else hasOfb
+
+    /**
+     * @return null if the platform refused the key or parameters
+     */
+    private fun transform(cipherMode: Int, key: ByteArray, iv: ByteArray, data: ByteArray, mode: Int): ByteArray? =
+        try {
+            val cipher = Cipher.getInstance(if (mode == AESUtil.MODE_CBC) CBC_TRANSFORMATION else OFB_TRANSFORMATION)
+            cipher.init(cipherMode, SecretKeySpec(key, AES), IvParameterSpec(iv))
+            cipher.doFinal(data)
+        } catch (e: GeneralSecurityException) {
+            null
+        }
+
+    // Same as PaddedBufferedBlockCipher: a whole padding block is added when the data is already aligned
+    private fun pad(data: ByteArray, padding: BlockCipherPadding): ByteArray {
+        val remainder = data.size % BLOCK_SIZE
+        val lastBlock = ByteArray(BLOCK_SIZE)
+        System.arraycopy(data, data.size - remainder, lastBlock, 0, remainder)
+        padding.init(null)
+        padding.addPadding(lastBlock, remainder)
+
+        val padded = data.copyOf(data.size - remainder + BLOCK_SIZE)
+        System.arraycopy(lastBlock, 0, padded, padded.size - BLOCK_SIZE, BLOCK_SIZE)
+        return padded
+    }
+
+    @Throws(InvalidCipherTextException::class)
+    private fun unpad(data: ByteArray, padding: BlockCipherPadding): ByteArray {
+        val padCount = padding.padCount(data.copyOfRange(data.size - BLOCK_SIZE, data.size))
+        return data.copyOf(data.size - padCount)
+    }
+
+    companion object {
+        private const val AES = "AES"
+        private const val PBKDF2_ALGORITHM = "PBKDF2WithHmacSHA1"
+        private const val CBC_TRANSFORMATION = "AES/CBC/NoPadding"
+        private const val OFB_TRANSFORMATION = "AES/OFB/NoPadding"
+        private const val KEY_BIT_LEN = 256
+        private const val BLOCK_SIZE = 16
+
+        private fun isAvailable(lookup: () -> Any): Boolean =
+            try {
+                lookup()
+                true
+            } catch (e: NoSuchAlgorithmException) {
+                false
+            } catch (e: NoSuchPaddingException) {
+                false
+            }
+
+        /**
+         * Platforms encode the password chars as UTF-8 too, but may differ from SpongyCastle on malformed input such as
+         * unpaired surrogates, so those passwords are left to the fallback.
+         */
+        private fun isEncodedAsUtf8(chars: CharArray): Boolean =
+            chars.isNotEmpty() &&
+                PBEParametersGenerator.PKCS5PasswordToUTF8Bytes(chars)
+                    .contentEquals(String(chars).toByteArray(Charsets.UTF_8))
+    }
+}
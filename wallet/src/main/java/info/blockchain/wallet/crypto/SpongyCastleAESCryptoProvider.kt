@@ -0,0 +1,80 @@
+package info.blockchain.wallet.crypto
+
+import org.spongycastle.crypto.BlockCipher
+import org.spongycastle.crypto.BufferedBlockCipher
+import org.spongycastle.crypto.InvalidCipherTextException
+import org.spongycastle.crypto.PBEParametersGenerator
+import org.spongycastle.crypto.engines.AESEngine
+import org.spongycastle.crypto.generators.PKCS5S2ParametersGenerator
+import org.spongycastle.crypto.modes.CBCBlockCipher
+import org.spongycastle.crypto.modes.OFBBlockCipher
+import org.spongycastle.crypto.paddings.BlockCipherPadding
+import org.spongycastle.crypto.paddings.PaddedBufferedBlockCipher
+import org.spongycastle.crypto.params.KeyParameter
+import org.spongycastle.crypto.params.ParametersWithIV
+
+/**
+ * Pure Java implementation, available everywhere. It is the reference the other providers are checked against and
+ * what they fall back to.
+ */
+class SpongyCastleAESCryptoProvider : AESCryptoProvider {
+
+    override fun deriveKey(password: String, salt: ByteArray, iterations: Int): ByteArray {
+        val generator = PKCS5S2ParametersGenerator()
+        generator.init(PBEParametersGenerator.PKCS5PasswordToUTF8Bytes(password.toCharArray()), salt, iterations)
+        return (generator.generateDerivedParameters(KEY_BIT_LEN) as KeyParameter).key
+    }
+
+    override fun encrypt(
+        key: ByteArray,
+        iv: ByteArray,
+        data: ByteArray,
+        mode: Int,
+        padding: BlockCipherPadding?
+    ): ByteArray = process(cipher(mode, padding), true, key, iv, data)
+
+    @Throws(InvalidCipherTextException::class)
+    override fun decrypt(
+        key: ByteArray,
+        iv: ByteArray,
+        data: ByteArray,
+        mode: Int,
+        padding: BlockCipherPadding?
+    ): ByteArray = process(cipher(mode, padding), false, key, iv, data)
+
+    private fun cipher(mode: Int, padding: BlockCipherPadding?): BufferedBlockCipher {
+        val cipherMode: BlockCipher = if (mode == AESUtil.MODE_CBC) {
+            CBCBlockCipher(AESEngine())
+        } else {
+            // mode == MODE_OFB
+            OFBBlockCipher(AESEngine(), BLOCK_BIT_LEN)
+        }
+        return if (padding != null) {
+            PaddedBufferedBlockCipher(cipherMode, padding)
+        } else {
+            BufferedBlockCipher(cipherMode)
+        }
+    }
+
+    private fun process(
+        cipher: BufferedBlockCipher,
+        forEncryption: Boolean,
+        key: ByteArray,
+        iv: ByteArray,
+        data: ByteArray
+    ): ByteArray {
+        cipher.reset()
+        cipher.init(forEncryption, ParametersWithIV(KeyParameter(key), iv))
+
+        // The buffer includes room for the padding, which is then trimmed
+        val buf = ByteArray(cipher.getOutputSize(data.size))
+        var len = cipher.processBytes(data, 0, data.size, buf, 0)
+        len += cipher.doFinal(buf, len)
+        return buf.copyOf(len)
+    }
+
+    companion object {
+        private const val KEY_BIT_LEN = 256
+        private const val BLOCK_BIT_LEN = 128
+    }
+}
@@ -2,11 +2,12 @@ package info.blockchain.wallet.multiaddress
 
 import com.blockchain.api.ApiException
 import com.blockchain.api.bitcoin.data.MultiAddress
+import com.blockchain.api.bitcoin.data.Transaction
 import com.blockchain.api.services.NonCustodialBitcoinService
 import info.blockchain.wallet.payload.data.AddressLabel
 import info.blockchain.wallet.payload.data.XPub
 import info.blockchain.wallet.payload.data.XPubs
-import info.blockchain.wallet.payload.data.allAddresses
+import java.util.stream.Collectors
 import retrofit2.Call
 
 abstract class MultiAddressFactory(
@@ -16,10 +17,10 @@ abstract class MultiAddressFactory(
     private val nextChangeAddressMap: HashMap<String, Int> = HashMap()
 
     // Field for testing if address belongs to us - Quicker than derivation
-    private val addressToXpubMap: HashMap<String, String> = HashMap()
+    private val ownAddressIndex = OwnedAddressIndex()
 
     fun getXpubFromAddress(address: String): String? {
-        return addressToXpubMap[address]
+        return ownAddressIndex.xpubOf(address)
     }
 
     /**
@@ -102,7 +103,7 @@ abstract class MultiAddressFactory(
     }
 
     fun isOwnHDAddress(address: String): Boolean {
-        return addressToXpubMap.containsKey(address)
+        return ownAddressIndex.isHDAddress(address)
     }
 
     @Deprecated("Use the XPub version")
@@ -129,26 +130,34 @@ abstract class MultiAddressFactory(
         multiAddress: MultiAddress,
         startingBlockHeight: Int
     ): List<TransactionSummary> {
-        val ownAddresses = xpubs.allAddresses().toMutableList()
-        val summaryList = ArrayList<TransactionSummary>()
-
         // Set next address indexes
         for (address in multiAddress.addresses) {
             nextReceiveAddressMap[address.address] = address.accountIndex
             nextChangeAddressMap[address.address] = address.changeIndex
         }
+        ownAddressIndex.updateWalletAddresses(xpubs)
+        ownAddressIndex.indexHDAddresses(multiAddress.txs)
+
         val latestBlock = multiAddress.info.latestBlock.height.toInt()
-        multiAddress.txs.forEach { tx ->
+        val toSummary = { tx: Transaction ->
             tx.toTransactionSummary(
-                ownAddresses = ownAddresses,
+                ownAddresses = ownAddressIndex,
                 startingBlockHeight = startingBlockHeight,
                 latestBlock = latestBlock
-            )?.let { txSummary ->
-                addressToXpubMap.putAll(txSummary.inputsXpubMap)
-                addressToXpubMap.putAll(txSummary.outputsXpubMap)
-                summaryList.add(txSummary)
-            }
+            )
         }
-        return summaryList
+        // Transactions are independent of each other once the index is up to date, large pages are mapped in parallel
+        return if (multiAddress.txs.size >= PARALLEL_MAPPING_THRESHOLD) {
+            multiAddress.txs.parallelStream()
+                .map { toSummary(it) }
+                .collect(Collectors.toList())
+                .filterNotNull()
+        } else {
+            multiAddress.txs.mapNotNull(toSummary)
+        }
+    }
+
+    companion object {
+        private const val PARALLEL_MAPPING_THRESHOLD = 32
     }
 }
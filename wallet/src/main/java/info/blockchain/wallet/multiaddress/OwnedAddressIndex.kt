@@ -0,0 +1,59 @@
+package info.blockchain.wallet.multiaddress
+
+import com.blockchain.api.bitcoin.data.Transaction
+import info.blockchain.wallet.payload.data.XPubs
+import info.blockchain.wallet.payload.data.allAddresses
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Hashed index of the addresses belonging to the wallet: its xpubs and imported addresses, plus every HD address
+ * the multiaddress endpoint has tagged with one of our xpubs so far.
+ *
+ * It lives as long as its [MultiAddressFactory] so it is shared across activity pages, and it's safe to read from
+ * several threads while transactions are being mapped.
+ */
+internal class OwnedAddressIndex(walletAddresses: Collection<String> = emptyList()) {
+
+    @Volatile
+    private var indexedXpubs: List<XPubs>? = null
+
+    @Volatile
+    private var walletAddresses: Set<String> = walletAddresses.toHashSet()
+
+    private val hdAddressToXpub = ConcurrentHashMap<String, String>()
+
+    fun contains(address: String): Boolean =
+        address in walletAddresses || hdAddressToXpub.containsKey(address)
+
+    fun xpubOf(address: String): String? = hdAddressToXpub[address]
+
+    fun isHDAddress(address: String): Boolean = hdAddressToXpub.containsKey(address)
+
+    /**
+     * Addresses can be imported or archived between pages, so the wallet part is re-indexed when the xpubs change
+     */
+    fun updateWalletAddresses(xpubs: List<XPubs>) {
+        if (xpubs != indexedXpubs) {
+            walletAddresses = xpubs.allAddresses().toHashSet()
+            indexedXpubs = xpubs
+        }
+    }
+
+    /**
+     * Indexes the inputs and outputs tagged with an xpub, which the endpoint only does for our own accounts, so that
+     * the transactions can then be mapped independently of each other.
+     */
+    fun indexHDAddresses(txs: List<Transaction>) {
+        txs.forEach { tx ->
+            tx.inputs.forEach { input ->
+                val prevOut = input.prevOut ?: return@forEach
+                val address = prevOut.addr ?: return@forEach
+                prevOut.xpub?.let { hdAddressToXpub[address] = it.address }
+            }
+            tx.out.forEach { output ->
+                val address = output.addr ?: return@forEach
+                output.xpub?.let { hdAddressToXpub[address] = it.address }
+            }
+        }
+    }
+}
@@ -6,7 +6,7 @@ import info.blockchain.wallet.bip44.HDChain
 import java.math.BigInteger
 
 internal fun Transaction.toTransactionSummary(
-    ownAddresses: MutableList<String>,
+    ownAddresses: OwnedAddressIndex,
     startingBlockHeight: Int,
     latestBlock: Int
 ): TransactionSummary? {
@@ -29,6 +29,11 @@ internal fun Transaction.toTransactionSummary(
 
     var transactionType = determineTxType(this)
 
+    // Addresses of this transaction tagged with our xpubs, the shared index is only read so that transactions can be
+    // mapped in parallel
+    val txOwnAddresses = HashSet<String>()
+    val isOwnAddress = { address: String -> address in txOwnAddresses || ownAddresses.contains(address) }
+
     val inputsMap = HashMap<String, BigInteger>()
     val inputsXpubMap = HashMap<String, String>()
 
@@ -38,20 +43,12 @@ internal fun Transaction.toTransactionSummary(
             val inputAddr = prevOut.addr
             val inputValue = prevOut.value
             if (inputAddr != null) {
-                // Transaction from HD account
-                prevOut.xpub?.let {
-                    // xpubBody will only show if it belongs to our account
-                    // inputAddr belongs to our own account - add it, it's a transfer/send
-                    ownAddresses.add(inputAddr)
-                    inputsXpubMap[inputAddr] = it.address
-                }
-
                 // Transaction from HD account
                 val xpubBody = prevOut.xpub
                 if (xpubBody != null) {
                     // xpubBody will only show if it belongs to our account
                     // inputAddr belongs to our own account - add it, it's a transfer/send
-                    ownAddresses.add(inputAddr)
+                    txOwnAddresses.add(inputAddr)
                     inputsXpubMap[inputAddr] = xpubBody.address
                 }
 
@@ -70,7 +67,8 @@ internal fun Transaction.toTransactionSummary(
     val taggedOuts = this.out.map { out ->
         out.toTaggedOutput(
             inputsMap = inputsMap,
-            ownAddresses = ownAddresses,
+            txOwnAddresses = txOwnAddresses,
+            isOwnAddress = isOwnAddress,
             outputsXpubMap = outputsXpubMap
         )
     }
@@ -105,7 +103,7 @@ internal fun Transaction.toTransactionSummary(
 
     // Remove input addresses not ours
     filterOwnedAddresses(
-        ownAddresses,
+        isOwnAddress,
         inputsMap,
         outputsMap,
         transactionType
@@ -247,7 +245,8 @@ private enum class OutputType {
 
 private fun Output.toTaggedOutput(
     inputsMap: Map<String, BigInteger>,
-    ownAddresses: MutableList<String>,
+    txOwnAddresses: MutableSet<String>,
+    isOwnAddress: (String) -> Boolean,
     outputsXpubMap: MutableMap<String, String>
 ): TaggedOutput {
     val outputAddr = this.addr
@@ -257,7 +256,7 @@ private fun Output.toTaggedOutput(
         val xpubBody = this.xpub
         if (xpubBody != null) {
             // inputAddr belongs to our own account - add it
-            ownAddresses.add(outputAddr)
+            txOwnAddresses.add(outputAddr)
             outputsXpubMap[outputAddr] = xpubBody.address
             return if (xpubBody.derivationPath.startsWith(HDChain.RECEIVE_CHAIN_DERIVATION_PREFIX)) {
                 TaggedOutput(
@@ -275,7 +274,7 @@ private fun Output.toTaggedOutput(
         } else {
             // If we own this address and it's not change coming back, it's a transfer
             return when {
-                ownAddresses.contains(outputAddr) && !inputsMap.containsKey(outputAddr) -> {
+                isOwnAddress(outputAddr) && !inputsMap.containsKey(outputAddr) -> {
                     TaggedOutput(
                         type = OutputType.INTERNAL,
                         address = outputAddr,
@@ -307,7 +306,7 @@ private fun Output.toTaggedOutput(
 }
 
 private fun filterOwnedAddresses(
-    ownAddresses: List<String>,
+    isOwnAddress: (String) -> Boolean,
     inputsMap: HashMap<String, BigInteger>,
     outputsMap: HashMap<String, BigInteger>,
     transactionType: TransactionSummary.TransactionType
@@ -315,7 +314,7 @@ private fun filterOwnedAddresses(
     var iterator: MutableIterator<Map.Entry<String, BigInteger>> = inputsMap.entries.iterator()
     while (iterator.hasNext()) {
         val item = iterator.next()
-        if (!ownAddresses.contains(item.key) && transactionType == TransactionSummary.TransactionType.SENT) {
+        if (!isOwnAddress(item.key) && transactionType == TransactionSummary.TransactionType.SENT) {
             iterator.remove()
         }
     }
@@ -323,7 +322,7 @@ private fun filterOwnedAddresses(
     iterator = outputsMap.entries.iterator()
     while (iterator.hasNext()) {
         val item = iterator.next()
-        if (!ownAddresses.contains(item.key) && transactionType == TransactionSummary.TransactionType.RECEIVED) {
+        if (!isOwnAddress(item.key) && transactionType == TransactionSummary.TransactionType.RECEIVED) {
             iterator.remove()
         }
     }
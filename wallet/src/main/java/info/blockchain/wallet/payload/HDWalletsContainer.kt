@@ -108,20 +108,23 @@ class HDWalletsContainer {
         passphrase: String,
         nbAccounts: Int
     ) {
-        legacy = HDWalletFactory.restoreWallet(
+        val (legacy, segwit) = HDWalletFactory.restoreWallets(
             language,
             data,
             passphrase,
             nbAccounts,
-            Derivation.LEGACY_PURPOSE
-        )
-        segwitBech32 = HDWalletFactory.restoreWallet(
-            language,
-            data,
-            passphrase,
-            nbAccounts,
-            Derivation.SEGWIT_BECH32_PURPOSE
+            listOf(Derivation.LEGACY_PURPOSE, Derivation.SEGWIT_BECH32_PURPOSE)
         )
+        this.legacy = legacy
+        segwitBech32 = segwit
+    }
+
+    /**
+     * Grows or shrinks every wallet to [nbAccounts] accounts without restoring them again
+     */
+    fun resizeAccounts(nbAccounts: Int) {
+        legacy.resizeAccounts(nbAccounts)
+        segwitBech32?.resizeAccounts(nbAccounts)
     }
 
     fun restoreWatchOnly(
@@ -781,12 +781,12 @@ class PayloadManager(
             .getHDAccountFromAccountBody(account)[if (derivationType === Derivation.LEGACY_TYPE) 0 else 1]!!
 
         return hdAccount.receive
-            .getAddressAt(
+            .getFormattedAddressAt(
                 position,
                 if (derivationType === Derivation.LEGACY_TYPE)
                     Derivation.LEGACY_PURPOSE else
                     Derivation.SEGWIT_BECH32_PURPOSE
-            ).formattedAddress
+            )
     }
 
     private fun getChangeAddress(account: Account, position: Int, derivationType: String): String? {
@@ -794,14 +794,14 @@ class PayloadManager(
             .walletBody?.getHDAccountFromAccountBody(account)
             ?.get(if (derivationType === Derivation.LEGACY_TYPE) 0 else 1) ?: return null
         return hdAccount.change
-            .getAddressAt(
+            .getFormattedAddressAt(
                 position,
                 if (derivationType === Derivation.LEGACY_TYPE) {
                     Derivation.LEGACY_PURPOSE
                 } else {
                     Derivation.SEGWIT_BECH32_PURPOSE
                 }
-            ).formattedAddress
+            )
     }
 
     /**
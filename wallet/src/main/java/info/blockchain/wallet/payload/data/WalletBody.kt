@@ -17,7 +17,11 @@ import info.blockchain.wallet.payload.model.toBalanceMap
 import info.blockchain.wallet.payment.SpendableUnspentOutputs
 import info.blockchain.wallet.util.DoubleEncryptionFactory
 import info.blockchain.wallet.util.PrivateKeyFactory
-import java.util.LinkedList
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
 import org.spongycastle.util.encoders.Hex
 
 class WalletBody(
@@ -393,6 +397,8 @@ class WalletBody(
     companion object {
         private const val DEFAULT_MNEMONIC_LENGTH = 12
         private const val DEFAULT_NEW_WALLET_SIZE = 1
+        private const val INITIAL_DISCOVERY_BATCH_SIZE = 5
+        private const val ACCOUNT_LOOKAHEAD = 10
         private const val DEFAULT_PASSPHRASE = ""
 
         fun create(defaultAccountName: String, createV4: Boolean = true): WalletBody {
@@ -518,8 +524,8 @@ class WalletBody(
         ): WalletBody {
             val wrapperVersion = WalletWrapper.V4
             val HD = HDWalletsContainer()
-            // Start with initial wallet size of 1.
-            // After wallet is recovered we'll check how many accounts to restore
+            // Start with initial wallet size of 1, the seed is only derived this once.
+            // Account discovery then grows the wallets in place and they are trimmed to the recovered size
             HD.restoreWallets(
                 HDWalletFactory.Language.US,
                 mnemonic,
@@ -527,36 +533,12 @@ class WalletBody(
                 DEFAULT_NEW_WALLET_SIZE
             )
 
-            var walletSize = _walletSize
-
-            if (walletSize <= 0) {
-                val legacyWalletSize = getDeterminedSize(
-                    _walletSize = 1,
-                    trySize = 5,
-                    _currentGap = 0,
-                    bitcoinApi = bitcoinApi,
-                    bip44Wallet = HD.getHDWallet(Derivation.LEGACY_PURPOSE),
-                    purpose = Derivation.LEGACY_PURPOSE
-                )
-                var segwitP2SHWalletSize = 0
-                if (wrapperVersion == WalletWrapper.V4) {
-                    segwitP2SHWalletSize = getDeterminedSize(
-                        _walletSize = 1,
-                        trySize = 5,
-                        _currentGap = 0,
-                        bitcoinApi = bitcoinApi,
-                        bip44Wallet = HD.getHDWallet(Derivation.SEGWIT_BECH32_PURPOSE),
-                        purpose = Derivation.SEGWIT_BECH32_PURPOSE
-                    )
-                }
-                walletSize = legacyWalletSize.coerceAtLeast(segwitP2SHWalletSize)
+            val walletSize = if (_walletSize <= 0) {
+                discoverWalletSize(HD, bitcoinApi)
+            } else {
+                _walletSize
             }
-            HD.restoreWallets(
-                HDWalletFactory.Language.US,
-                mnemonic,
-                passphrase,
-                walletSize
-            )
+            HD.resizeAccounts(walletSize)
 
             val legacyAccounts = HD.legacyAccounts
             val segwitAccounts = HD.segwitAccounts
@@ -588,59 +570,95 @@ class WalletBody(
             )
         }
 
+        /**
+         * Scans the legacy and segwit accounts for transactions at the same time, each on its own thread
+         */
+        private fun discoverWalletSize(HD: HDWalletsContainer, bitcoinApi: NonCustodialBitcoinService): Int {
+            val executor = Executors.newCachedThreadPool()
+            try {
+                val scans = listOf(Derivation.LEGACY_PURPOSE, Derivation.SEGWIT_BECH32_PURPOSE).map { purpose ->
+                    executor.submit(
+                        Callable {
+                            getDeterminedSize(
+                                bitcoinApi = bitcoinApi,
+                                bip44Wallet = HD.getHDWallet(purpose)!!,
+                                purpose = purpose,
+                                executor = executor
+                            )
+                        }
+                    )
+                }
+                return scans.maxOf { it.awaitResult() }
+            } finally {
+                executor.shutdownNow()
+            }
+        }
+
+        /**
+         * Looks up the balances of batches of accounts, doubling in size, until [ACCOUNT_LOOKAHEAD] accounts in a row
+         * have no transactions. The accounts of the next batch are derived while the balances of the current one are
+         * being fetched, accounts are added to [bip44Wallet] along the way.
+         */
         private fun getDeterminedSize(
-            _walletSize: Int,
-            trySize: Int,
-            _currentGap: Int,
             bitcoinApi: NonCustodialBitcoinService,
-            bip44Wallet: HDWallet?,
-            purpose: Int
+            bip44Wallet: HDWallet,
+            purpose: Int,
+            executor: ExecutorService
         ): Int {
-
-            var walletSize = _walletSize
-            var currentGap = _currentGap
-
-            val xPubs = LinkedList<String>()
-            for (i in 0 until trySize) {
-                val account = bip44Wallet!!.addAccount()
-                xPubs.add(account.xpub)
+            var walletSize = 1
+            var currentGap = 0
+            var trySize = INITIAL_DISCOVERY_BATCH_SIZE
+
+            var xPubs = deriveAccountXpubs(bip44Wallet, trySize)
+            while (true) {
+                val batch = xPubs
+                val balances = executor.submit(Callable { getBalances(bitcoinApi, batch, purpose) })
+
+                trySize *= 2
+                xPubs = deriveAccountXpubs(bip44Wallet, trySize)
+
+                val map = balances.awaitResult()
+                batch.forEach { xpub ->
+                    // If account has txs
+                    if (map[xpub]!!.txCount > 0) {
+                        walletSize += 1
+                        currentGap = 0
+                    } else {
+                        currentGap += 1
+                    }
+                    if (currentGap >= ACCOUNT_LOOKAHEAD) {
+                        return walletSize
+                    }
+                }
             }
+        }
 
-            val exe = bitcoinApi.getBalance(
-                coin = NonCustodialBitcoinService.BITCOIN,
-                addressAndXpubListLegacy = if (purpose == Derivation.LEGACY_PURPOSE) xPubs else emptyList(),
-                xpubListBech32 = if (purpose == Derivation.SEGWIT_BECH32_PURPOSE) xPubs else emptyList(),
-                filter = NonCustodialBitcoinService.BalanceFilter.Confirmed
-            ).execute()
+        private fun deriveAccountXpubs(bip44Wallet: HDWallet, count: Int): List<String> =
+            List(count) { bip44Wallet.addAccount().xpub }
 
+        private fun getBalances(
+            bitcoinApi: NonCustodialBitcoinService,
+            xPubs: List<String>,
+            purpose: Int
+        ) = bitcoinApi.getBalance(
+            coin = NonCustodialBitcoinService.BITCOIN,
+            addressAndXpubListLegacy = if (purpose == Derivation.LEGACY_PURPOSE) xPubs else emptyList(),
+            xpubListBech32 = if (purpose == Derivation.SEGWIT_BECH32_PURPOSE) xPubs else emptyList(),
+            filter = NonCustodialBitcoinService.BalanceFilter.Confirmed
+        ).execute().let { exe ->
             if (!exe.isSuccessful) {
                 throw Exception("${exe.code()} ${exe.errorBody()}")
             }
-            val map = exe.body()!!.toBalanceMap()
-
-            val lookAheadTotal = 10
-            xPubs.forEach { xpub ->
-                // If account has txs
-                if (map[xpub]!!.txCount > 0) {
-                    walletSize += 1
-                    currentGap = 0
-                } else {
-                    currentGap += 1
-                }
-                if (currentGap >= lookAheadTotal) {
-                    return walletSize
-                }
-            }
-            return getDeterminedSize(
-                _walletSize = walletSize,
-                trySize = trySize * 2,
-                _currentGap = currentGap,
-                bitcoinApi = bitcoinApi,
-                bip44Wallet = bip44Wallet,
-                purpose = purpose
-            )
+            exe.body()!!.toBalanceMap()
         }
 
+        private fun <T> Future<T>.awaitResult(): T =
+            try {
+                get()
+            } catch (e: ExecutionException) {
+                throw e.cause ?: e
+            }
+
         const val HD_DEFAULT_WALLET_INDEX = 0
     }
 }
@@ -3,57 +3,141 @@ package info.blockchain.wallet.payment
 import info.blockchain.wallet.payload.model.Utxo
 import java.math.BigInteger
 
-private val COST_BASE: BigInteger = BigInteger.valueOf(10)
-private val COST_PER_INPUT_LEGACY: BigInteger = BigInteger.valueOf(149)
-private val COST_PER_INPUT_SEGWIT: BigInteger = BigInteger.valueOf(68)
+internal const val COST_BASE = 10L
+internal const val COST_PER_INPUT_LEGACY = 149L
+internal const val COST_PER_INPUT_SEGWIT = 68L
 
+/**
+ * Coin selection runs on every amount change in the send flow so the arithmetic is done on longs with running totals,
+ * satoshi amounts comfortably fit in a long. Amounts that don't fit, and totals that would overflow, are treated as
+ * insufficient funds. The sorted and filtered coins are shared through [PreparedCoinsCache], so the selections made
+ * while an amount is typed, each on a new instance, don't sort the same coins again.
+ */
 class CoinSelection(
     private val coins: List<Utxo>,
-    private val feePerByte: BigInteger
+    feePerByte: BigInteger
 ) {
+    private val feeRateOrNull: Long? = feePerByte.longValueOrNull()
+
     fun select(
         outputAmount: BigInteger,
         targetOutputType: OutputType,
         changeOutputType: OutputType,
         coinSortingMethod: CoinSortingMethod
     ): SpendableUnspentOutputs {
-        val effectiveCoins = coinSortingMethod.sort(coins).effective(feePerByte)
+        val feeRate = feeRateOrNull
+        val target = outputAmount.longValueOrNull()
+        val prepared = feeRate?.let { prepare(coinSortingMethod, it) }
+        if (feeRate == null || target == null || prepared == null) {
+            return SpendableUnspentOutputs(isReplayProtected = coins.replayProtected)
+        }
+
+        return try {
+            wasteMinimizing(prepared, feeRate, target, targetOutputType, changeOutputType, coinSortingMethod)
+                ?: spendableOutputs(
+                    prepared,
+                    accumulate(prepared, feeRate, target, targetOutputType.costBytes),
+                    feeRate,
+                    target,
+                    targetOutputType,
+                    changeOutputType
+                )
+        } catch (e: ArithmeticException) {
+            null
+        } ?: SpendableUnspentOutputs(isReplayProtected = prepared.coins.replayProtected)
+    }
+
+    private fun wasteMinimizing(
+        prepared: PreparedCoins,
+        feeRate: Long,
+        target: Long,
+        targetOutputType: OutputType,
+        changeOutputType: OutputType,
+        coinSortingMethod: CoinSortingMethod
+    ): SpendableUnspentOutputs? {
+        if (coinSortingMethod !is WasteMinimizing || prepared.lastForceIncludeIndex >= 0) return null
+        return try {
+            coinSortingMethod.selector(prepared, feeRate)
+                .select(target, targetOutputType.costBytes, changeOutputType)
+                ?.let { indices ->
+                    spendableOutputs(prepared, indices, feeRate, target, targetOutputType, changeOutputType)
+                }
+        } catch (e: ArithmeticException) {
+            // Fall back to accumulating coins
+            null
+        }
+    }
 
-        val selected = mutableListOf<Utxo>()
-        var accumulatedValue = BigInteger.ZERO
-        var accumulatedFee = BigInteger.ZERO
+    private fun prepare(coinSortingMethod: CoinSortingMethod?, feeRate: Long): PreparedCoins? =
+        PreparedCoinsCache.getOrPrepare(coins, feeRate, coinSortingMethod)
 
-        for (coin in effectiveCoins) {
-            if (!coin.isForceInclude && accumulatedValue >= outputAmount + accumulatedFee) {
-                continue
+    /**
+     * Picks coins in order until the target and the fee are covered
+     */
+    private fun accumulate(prepared: PreparedCoins, feeRate: Long, target: Long, targetOutputCost: Long): IntArray {
+        val selected = IntArray(prepared.coins.size)
+        var selectedCount = 0
+        var accumulatedValue = 0L
+        var accumulatedFee = 0L
+        var legacyInputs = 0
+        var segwitInputs = 0
+
+        for (index in prepared.coins.indices) {
+            if (accumulatedValue >= Math.addExact(target, accumulatedFee)) {
+                // Target met, only force included coins are left to add
+                if (index > prepared.lastForceIncludeIndex) break
+                if (!prepared.isForceInclude[index]) continue
             }
-            selected += coin
-            accumulatedValue = selected.sum()
-            accumulatedFee = transactionBytes(selected, outputs = 1, targetOutputType) * feePerByte
+            selected[selectedCount++] = index
+            accumulatedValue = Math.addExact(accumulatedValue, prepared.values[index])
+            if (prepared.isSegwit[index]) segwitInputs++ else legacyInputs++
+            accumulatedFee = fee(transactionBytes(legacyInputs, segwitInputs, outputs = 1, targetOutputCost), feeRate)
         }
+        return selected.copyOf(selectedCount)
+    }
 
-        val dust = dustThreshold(changeOutputType, feePerByte)
-        val remainingValue = accumulatedValue - (outputAmount + accumulatedFee)
-        val isReplayProtected = selected.replayProtected
+    /**
+     * @return null when [selected] doesn't cover the target and the fee
+     */
+    private fun spendableOutputs(
+        prepared: PreparedCoins,
+        selected: IntArray,
+        feeRate: Long,
+        target: Long,
+        targetOutputType: OutputType,
+        changeOutputType: OutputType
+    ): SpendableUnspentOutputs? {
+        val selectedCoins = selected.map { prepared.coins[it] }
+        val accumulatedValue = selected.fold(0L) { total, index -> Math.addExact(total, prepared.values[index]) }
+        val segwitInputs = selected.count { prepared.isSegwit[it] }
+        val legacyInputs = selected.size - segwitInputs
+
+        val accumulatedFee =
+            fee(transactionBytes(legacyInputs, segwitInputs, outputs = 1, targetOutputType.costBytes), feeRate)
+        val dust = dustThreshold(changeOutputType, feeRate)
+        val remainingValue = accumulatedValue - Math.addExact(target, accumulatedFee)
+        val isReplayProtected = selectedCoins.replayProtected
 
         return when {
             // Either there were no effective coins or we were not able to meet the target value
-            selected.isEmpty() || remainingValue < BigInteger.ZERO -> {
-                SpendableUnspentOutputs(isReplayProtected = isReplayProtected)
-            }
+            selected.isEmpty() || remainingValue < 0L -> null
             // Remaining value is worth keeping, add change output
             remainingValue >= dust -> {
-                accumulatedFee = transactionBytes(selected, outputs = 2, changeOutputType) * feePerByte
-                SpendableUnspentOutputs(selected, accumulatedFee, isReplayProtected = isReplayProtected)
+                val feeWithChange =
+                    fee(transactionBytes(legacyInputs, segwitInputs, outputs = 2, changeOutputType.costBytes), feeRate)
+                SpendableUnspentOutputs(
+                    selectedCoins,
+                    feeWithChange.toBigInteger(),
+                    isReplayProtected = isReplayProtected
+                )
             }
             // Remaining value is not worth keeping, consume it as part of the fee
             else -> {
                 SpendableUnspentOutputs(
-                    selected,
-                    accumulatedFee + remainingValue,
-                    remainingValue,
+                    selectedCoins,
+                    (accumulatedFee + remainingValue).toBigInteger(),
+                    remainingValue.toBigInteger(),
                     isReplayProtected
-
                 )
             }
         }
@@ -63,14 +147,25 @@ class CoinSelection(
         targetOutputType: OutputType,
         coinSortingMethod: CoinSortingMethod? = null
     ): SpendableUnspentOutputs {
-        val effectiveCoins = (coinSortingMethod?.sort(coins) ?: coins).effective(feePerByte)
-        val effectiveValue = effectiveCoins.sum()
-        val effectiveBalance = effectiveCoins.balance(feePerByte, targetOutputType, outputs = 1).max(BigInteger.ZERO)
+        val feeRate = feeRateOrNull
+        val prepared = feeRate?.let { prepare(coinSortingMethod, it) }
+            ?: return SpendableUnspentOutputs(isReplayProtected = coins.replayProtected)
+
+        val fee = try {
+            fee(
+                transactionBytes(prepared.legacyInputs, prepared.segwitInputs, outputs = 1, targetOutputType.costBytes),
+                feeRate
+            )
+        } catch (e: ArithmeticException) {
+            // The fee is more than any balance, nothing can be sent
+            Long.MAX_VALUE
+        }
+        val effectiveBalance = maxOf(prepared.totalValue - fee, 0L)
 
         return SpendableUnspentOutputs(
-            spendableOutputs = effectiveCoins,
-            absoluteFee = effectiveValue - effectiveBalance,
-            isReplayProtected = effectiveCoins.replayProtected
+            spendableOutputs = prepared.coins,
+            absoluteFee = (prepared.totalValue - effectiveBalance).toBigInteger(),
+            isReplayProtected = prepared.coins.replayProtected
         )
     }
 }
@@ -82,47 +177,120 @@ fun List<Utxo>.sum(): BigInteger {
     return this.map { it.value }.reduce { value, acc -> value + acc }
 }
 
-private fun List<Utxo>.effective(feePerByte: BigInteger): List<Utxo> {
-    return this.filter { it.isForceInclude || effectiveValue(it, feePerByte) > BigInteger.ZERO }
+/**
+ * Sorted coins with a positive effective value (or force included) and their values unpacked to primitives.
+ */
+internal class PreparedCoins private constructor(
+    val coins: List<Utxo>,
+    val values: LongArray
+) {
+    val isSegwit = BooleanArray(coins.size) { coins[it].isSegwit }
+    val isForceInclude = BooleanArray(coins.size) { coins[it].isForceInclude }
+    val lastForceIncludeIndex = isForceInclude.lastIndexOf(true)
+    val totalValue = values.fold(0L) { total, value -> Math.addExact(total, value) }
+    val segwitInputs = isSegwit.count { it }
+    val legacyInputs = coins.size - segwitInputs
+
+    companion object {
+        /**
+         * @return null when a coin value or the total value of the coins doesn't fit in a long
+         */
+        fun of(source: List<Utxo>, feeRate: Long, coinSortingMethod: CoinSortingMethod?): PreparedCoins? {
+            if (source.any { it.value.longValueOrNull() == null }) return null
+
+            val sorted = coinSortingMethod?.sort(source) ?: source
+            val effective = sorted.filter { it.isForceInclude || effectiveValue(it, feeRate) > 0L }
+            return try {
+                PreparedCoins(effective, LongArray(effective.size) { effective[it].value.toLong() })
+            } catch (e: ArithmeticException) {
+                null
+            }
+        }
+    }
 }
 
-private fun List<Utxo>.balance(
-    feePerByte: BigInteger,
-    outputType: OutputType,
-    outputs: Int
-): BigInteger {
-    return this.sum() - transactionBytes(this, outputs, outputType) * feePerByte
+/**
+ * The last few [PreparedCoins], keyed by the coins, the fee rate and the sorting method. Equal coin lists hit the same
+ * entry, so a send session typing an amount prepares its coins once instead of on every keystroke.
+ */
+internal object PreparedCoinsCache {
+    // A few sessions at a time, ie BTC and BCH sends with both their regular and max amount selections
+    private const val MAX_ENTRIES = 8
+
+    private data class Key(
+        val coins: List<Utxo>,
+        val feeRate: Long,
+        val coinSortingMethod: CoinSortingMethod?
+    ) {
+        // Coin lists can be large, hash them once
+        private val hash = 31 * (31 * coins.hashCode() + feeRate.hashCode()) + coinSortingMethod.hashCode()
+        override fun hashCode() = hash
+    }
+
+    private val entries = object : LinkedHashMap<Key, PreparedCoins>(MAX_ENTRIES, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<Key, PreparedCoins>): Boolean =
+            size > MAX_ENTRIES
+    }
+
+    fun get(coins: List<Utxo>, feeRate: Long, coinSortingMethod: CoinSortingMethod?): PreparedCoins? =
+        synchronized(entries) { entries[Key(coins, feeRate, coinSortingMethod)] }
+
+    fun getOrPrepare(coins: List<Utxo>, feeRate: Long, coinSortingMethod: CoinSortingMethod?): PreparedCoins? {
+        val key = Key(coins.toList(), feeRate, coinSortingMethod)
+        synchronized(entries) { entries[key] }?.let { return it }
+
+        // Prepared outside of the lock, two racing callers at worst both sort the same coins
+        val prepared = PreparedCoins.of(key.coins, feeRate, coinSortingMethod) ?: return null
+        return synchronized(entries) { entries.getOrPut(key) { prepared } }
+    }
+
+    fun clear() = synchronized(entries) { entries.clear() }
 }
 
 private val List<Utxo>.replayProtected get(): Boolean {
     return this.firstOrNull()?.isReplayable != true
 }
 
-private fun dustThreshold(outputType: OutputType, feePerByte: BigInteger): BigInteger =
+internal val OutputType.costBytes: Long
+    get() = cost.toLong()
+
+internal fun dustThreshold(outputType: OutputType, feeRate: Long): Long =
     when (outputType) {
         OutputType.P2PKH,
-        OutputType.P2SH -> (COST_PER_INPUT_LEGACY + outputType.cost) * feePerByte
-        else -> (COST_PER_INPUT_SEGWIT + outputType.cost) * feePerByte
+        OutputType.P2SH -> fee(COST_PER_INPUT_LEGACY + outputType.costBytes, feeRate)
+        else -> fee(COST_PER_INPUT_SEGWIT + outputType.costBytes, feeRate)
     }
 
-private fun transactionBytes(
-    inputs: List<Utxo>,
+/**
+ * @throws ArithmeticException when the fee doesn't fit in a long
+ */
+internal fun fee(bytes: Long, feeRate: Long): Long =
+    Math.multiplyExact(bytes, feeRate)
+
+internal fun transactionBytes(
+    legacyInputs: Int,
+    segwitInputs: Int,
     outputs: Int,
-    outputType: OutputType
-): BigInteger {
-    val segwitInputs = inputs.count { it.isSegwit }
-    val legacyInputs = inputs.size - segwitInputs
-
-    return COST_BASE +
-        COST_PER_INPUT_LEGACY.multiply(legacyInputs.toBigInteger()) +
-        COST_PER_INPUT_SEGWIT.multiply(segwitInputs.toBigInteger()) +
-        outputType.cost.multiply(outputs.toBigInteger())
-}
+    outputCost: Long
+): Long = COST_BASE +
+    COST_PER_INPUT_LEGACY * legacyInputs +
+    COST_PER_INPUT_SEGWIT * segwitInputs +
+    outputCost * outputs
 
-private fun effectiveValue(coin: Utxo, feePerByte: BigInteger): BigInteger {
+internal fun effectiveValue(coin: Utxo, feeRate: Long): Long {
     val costPerInput = when (coin.isSegwit) {
         true -> COST_PER_INPUT_SEGWIT
         false -> COST_PER_INPUT_LEGACY
     }
-    return (coin.value - feePerByte.multiply(costPerInput)).max(BigInteger.ZERO)
+    val value = coin.value.longValueOrNull() ?: return 0L
+    // A fee to spend the coin that overflows is more than any coin is worth
+    val cost = try {
+        fee(costPerInput, feeRate)
+    } catch (e: ArithmeticException) {
+        return 0L
+    }
+    return maxOf(value - cost, 0L)
 }
+
+internal fun BigInteger.longValueOrNull(): Long? =
+    if (bitLength() < Long.SIZE_BITS) toLong() else null
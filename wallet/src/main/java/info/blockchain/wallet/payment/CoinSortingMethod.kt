@@ -1,6 +1,8 @@
 package info.blockchain.wallet.payment
 
 import info.blockchain.wallet.payload.model.Utxo
+import java.util.concurrent.TimeUnit
+import kotlin.random.Random
 
 /**
  * Sort coins for different selection optimizations.
@@ -27,7 +29,7 @@ object DescentDraw : CoinSortingMethod {
  * The smallest non-replayable coin, followed by all replayable coins (largest to smallest),
  * followed by all remaining non-replayable coins (also largest to smallest). Adds replay protection.
  */
-class ReplayProtection(private val nonReplayableInput: Utxo) : CoinSortingMethod {
+data class ReplayProtection(private val nonReplayableInput: Utxo) : CoinSortingMethod {
     override fun sort(coins: List<Utxo>): List<Utxo> {
         if (coins.isEmpty()) {
             return coins
@@ -40,3 +42,29 @@ class ReplayProtection(private val nonReplayableInput: Utxo) : CoinSortingMethod
             DescentDraw.sort(nonReplayable.drop(1))
     }
 }
+
+/**
+ * Selects coins with [WasteMinimizingSelector] instead of accumulating them: a changeless Branch and Bound
+ * selection when one exists, a Knapsack selection with change otherwise, falling back to [DescentDraw] accumulation
+ * if neither finishes within [timeBudgetMillis]. Not applied when coins are force included (replay protection).
+ */
+data class WasteMinimizing(
+    val timeBudgetMillis: Long = DEFAULT_TIME_BUDGET_MILLIS,
+    val maxTries: Int = DEFAULT_MAX_TRIES,
+    val random: Random = Random.Default
+) : CoinSortingMethod {
+    override fun sort(coins: List<Utxo>) = DescentDraw.sort(coins)
+
+    internal fun selector(prepared: PreparedCoins, feeRate: Long) = WasteMinimizingSelector(
+        prepared = prepared,
+        feeRate = feeRate,
+        random = random,
+        maxTries = maxTries,
+        timeBudgetNanos = TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis)
+    )
+
+    companion object {
+        private const val DEFAULT_TIME_BUDGET_MILLIS = 3L
+        private const val DEFAULT_MAX_TRIES = 100_000
+    }
+}
@@ -0,0 +1,190 @@
+package info.blockchain.wallet.payment
+
+import kotlin.random.Random
+
+/**
+ * Bitcoin Core style selection over the effective values (value minus the fee to spend it) of the prepared coins:
+ *
+ * 1. Branch and Bound looks for a changeless selection, one that overshoots the target by less than what creating
+ *    and later spending a change output would cost, preferring the smallest overshoot.
+ * 2. Knapsack, when no changeless selection exists, looks for the smallest selection that leaves at least dust
+ *    as change over a number of randomised passes.
+ *
+ * Both are bounded by [maxTries] and [timeBudgetNanos], returning null when nothing suitable was found in time
+ * so the caller can fall back to accumulating coins. Targets that overflow a long throw [ArithmeticException].
+ */
+internal class WasteMinimizingSelector(
+    private val prepared: PreparedCoins,
+    private val feeRate: Long,
+    private val random: Random,
+    private val maxTries: Int,
+    private val timeBudgetNanos: Long
+) {
+    private val effectiveValues = LongArray(prepared.coins.size) { effectiveValue(prepared.coins[it], feeRate) }
+
+    fun select(target: Long, targetOutputCost: Long, changeOutputType: OutputType): IntArray? {
+        val deadline = System.nanoTime() + timeBudgetNanos
+        val changelessTarget =
+            Math.addExact(target, fee(transactionBytes(0, 0, outputs = 1, targetOutputCost), feeRate))
+        // Creating a change output and spending it later costs as much as the dust threshold
+        val costOfChange = dustThreshold(changeOutputType, feeRate)
+
+        return branchAndBound(changelessTarget, costOfChange, deadline)
+            ?: knapsack(
+                target = Math.addExact(
+                    target,
+                    fee(transactionBytes(0, 0, outputs = 2, changeOutputType.costBytes), feeRate)
+                ),
+                minChange = costOfChange,
+                deadline = deadline
+            )
+    }
+
+    /**
+     * Depth first search over include/exclude branches of the coins, sorted by descending effective value,
+     * cutting branches that can't reach [target] or already overshoot it by [costOfChange] or more.
+     */
+    private fun branchAndBound(target: Long, costOfChange: Long, deadline: Long): IntArray? {
+        val order = effectiveValues.indices.sortedByDescending { effectiveValues[it] }
+        val values = LongArray(order.size) { effectiveValues[order[it]] }
+        var available = values.sum()
+        if (available < target) return null
+        val maxSelectedValue = Math.addExact(target, costOfChange)
+
+        val selection = IntArray(values.size)
+        var selectionSize = 0
+        var selectedValue = 0L
+        var best: IntArray? = null
+        var bestExcess = Long.MAX_VALUE
+        var index = 0
+
+        for (tries in 0 until maxTries) {
+            if (tries and TIME_CHECK_MASK == 0 && System.nanoTime() > deadline) break
+
+            var backtrack = false
+            if (selectedValue + available < target || selectedValue >= maxSelectedValue) {
+                backtrack = true
+            } else if (selectedValue >= target) {
+                val excess = selectedValue - target
+                if (excess < bestExcess) {
+                    bestExcess = excess
+                    best = selection.copyOf(selectionSize)
+                    if (excess == 0L) break
+                }
+                backtrack = true
+            }
+
+            if (backtrack) {
+                if (selectionSize == 0) break
+                // Give back the lookahead of the coins skipped after the last included one, then exclude it
+                index--
+                while (index > selection[selectionSize - 1]) {
+                    available += values[index]
+                    index--
+                }
+                selectedValue -= values[index]
+                selectionSize--
+            } else {
+                available -= values[index]
+                // Excluding a coin and including an identical one next is a branch that was already explored
+                val isDuplicateOfExcluded = index > 0 && values[index] == values[index - 1] &&
+                    (selectionSize == 0 || selection[selectionSize - 1] != index - 1)
+                if (!isDuplicateOfExcluded) {
+                    selection[selectionSize++] = index
+                    selectedValue += values[index]
+                }
+            }
+            index++
+        }
+
+        return best?.map { order[it] }?.toIntArray()
+    }
+
+    /**
+     * Randomised approximation of the smallest subset reaching [target] + [minChange]
+     */
+    private fun knapsack(target: Long, minChange: Long, deadline: Long): IntArray? {
+        val targetWithChange = Math.addExact(target, minChange)
+        val lower = ArrayList<Int>()
+        var totalLower = 0L
+        var lowestLarger = -1
+
+        for (i in effectiveValues.indices.shuffled(random)) {
+            val value = effectiveValues[i]
+            when {
+                value == target -> return intArrayOf(i)
+                value < targetWithChange -> {
+                    lower += i
+                    totalLower += value
+                }
+                lowestLarger == -1 || value < effectiveValues[lowestLarger] -> lowestLarger = i
+            }
+        }
+
+        if (totalLower == target) return lower.toIntArray()
+        if (totalLower < target) return if (lowestLarger == -1) null else intArrayOf(lowestLarger)
+
+        lower.sortByDescending { effectiveValues[it] }
+        val values = LongArray(lower.size) { effectiveValues[lower[it]] }
+
+        var (best, bestValue) = approximateBestSubset(values, totalLower, target, deadline)
+        if (bestValue != target && totalLower >= targetWithChange) {
+            approximateBestSubset(values, totalLower, targetWithChange, deadline).let {
+                best = it.first
+                bestValue = it.second
+            }
+        }
+
+        val useLowestLarger = lowestLarger != -1 &&
+            ((bestValue != target && bestValue < targetWithChange) || effectiveValues[lowestLarger] <= bestValue)
+
+        return if (useLowestLarger) {
+            intArrayOf(lowestLarger)
+        } else {
+            best.indices.filter { best[it] }.map { lower[it] }.toIntArray()
+        }
+    }
+
+    private fun approximateBestSubset(
+        values: LongArray,
+        totalLower: Long,
+        target: Long,
+        deadline: Long
+    ): Pair<BooleanArray, Long> {
+        var best = BooleanArray(values.size) { true }
+        var bestValue = totalLower
+        val included = BooleanArray(values.size)
+
+        for (repetition in 0 until KNAPSACK_ITERATIONS) {
+            if (bestValue == target || System.nanoTime() > deadline) break
+            included.fill(false)
+            var total = 0L
+            var reachedTarget = false
+            for (pass in 0 until 2) {
+                if (reachedTarget) break
+                for (i in values.indices) {
+                    // First pass includes coins at random, the second fills in the ones left out
+                    val include = if (pass == 0) random.nextBoolean() else !included[i]
+                    if (!include) continue
+                    total += values[i]
+                    included[i] = true
+                    if (total >= target) {
+                        reachedTarget = true
+                        if (total < bestValue) {
+                            bestValue = total
+                            best = included.copyOf()
+                        }
+                        total -= values[i]
+                        included[i] = false
+                    }
+                }
+            }
+        }
+        return best to bestValue
+    }
+
+    companion object {
+        private const val TIME_CHECK_MASK = 0x3FF
+        private const val KNAPSACK_ITERATIONS = 1000
+    }
+}
@@ -135,13 +135,7 @@ public class Tools {
      * @return A non-null List of addresses as Strings
      */
     public static List<String> getReceiveAddressList(HDAccount account, int startIndex, int endIndex, int derivationType) {
-        List<String> list = new ArrayList<>();
-
-        for (int i = startIndex; i < endIndex; i++) {
-            list.add(account.getReceive().getAddressAt(i, derivationType).getFormattedAddress());
-        }
-
-        return list;
+        return account.getReceive().getAddressRange(startIndex, endIndex, derivationType);
     }
 
     public static Transaction makeTxObject(NetworkParameters params) {
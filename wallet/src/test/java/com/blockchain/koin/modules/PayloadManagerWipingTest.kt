@@ -8,10 +8,15 @@ import com.blockchain.logging.RemoteLogger
 import com.nhaarman.mockitokotlin2.mock
 import info.blockchain.wallet.Device
 import info.blockchain.wallet.api.WalletApi
+import info.blockchain.wallet.bip44.HDChain
 import info.blockchain.wallet.payload.PayloadManager
 import info.blockchain.wallet.payload.PayloadScopeWiper
+import info.blockchain.wallet.payload.data.Derivation
 import org.amshove.kluent.`should be`
+import org.amshove.kluent.`should be equal to`
 import org.amshove.kluent.`should not be`
+import org.bitcoinj.crypto.HDKeyDerivation
+import org.bitcoinj.params.MainNetParams
 import org.junit.After
 import org.junit.Test
 import org.koin.core.context.startKoin
@@ -56,4 +61,19 @@ class PayloadManagerWipingTest : KoinTest {
 
         thirdPayloadManager `should not be` secondPayloadManager
     }
+
+    @Test
+    fun `Wiping the payload scope clears the derived address cache`() {
+        startKoin {
+            modules(listOf(walletModule))
+        }
+        val key = HDKeyDerivation.createMasterPrivateKey("15e23aa73d25994f1921a1256f93f72c".toByteArray())
+        HDChain.receiveChain(MainNetParams.get(), key).getAddressRange(0, 5, Derivation.SEGWIT_BECH32_PURPOSE)
+
+        val wiper: PayloadScopeWiper = payloadScope.get()
+
+        wiper.wipe()
+
+        HDChain.derivedAddressCount `should be equal to` 0
+    }
 }
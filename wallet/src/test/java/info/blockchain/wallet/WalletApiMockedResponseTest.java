@@ -16,7 +16,9 @@ import org.junit.After;
 import org.junit.Before;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -38,10 +40,13 @@ public abstract class WalletApiMockedResponseTest extends MockedResponseTest {
         when(sessionIdService.sessionId()).thenReturn(Single.just(""));
     }
 
-    @SuppressWarnings("unchecked")
     protected Call<Map<String, BalanceDto>> makeBalanceResponse(String body) throws IOException {
+        return makeBalanceResponse(LoaderUtilKt.parseBalanceResponseDto(body));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Call<Map<String, BalanceDto>> makeBalanceResponse(Map<String, BalanceDto> data) throws IOException {
         Response<Map<String, BalanceDto>> response = mock(Response.class);
-        Map<String, BalanceDto> data = LoaderUtilKt.parseBalanceResponseDto(body);
         when(response.isSuccessful()).thenReturn(true);
         when(response.body()).thenReturn(data);
 
@@ -90,6 +95,31 @@ public abstract class WalletApiMockedResponseTest extends MockedResponseTest {
         )).thenReturn(bchMultiResponse);
     }
 
+    /**
+     * Answers each balance request with the body covering all of the requested xpubs, for code which may request
+     * balances concurrently and so in no particular order.
+     */
+    protected void mockBalancesByXpub(NonCustodialBitcoinService bitcoinApi, String... bodies) throws IOException {
+        // Stubbed up front, mocks shouldn't be stubbed from the threads requesting the balances
+        Map<Map<String, BalanceDto>, Call<Map<String, BalanceDto>>> responses = new HashMap<>();
+        for (String body : bodies) {
+            Map<String, BalanceDto> balance = LoaderUtilKt.parseBalanceResponseDto(body);
+            responses.put(balance, makeBalanceResponse(balance));
+        }
+        when(bitcoinApi.getBalance(
+            any(String.class), any(), any(), any()
+        )).thenAnswer(invocation -> {
+            List<String> requested = new ArrayList<>(invocation.<List<String>>getArgument(1));
+            requested.addAll(invocation.<List<String>>getArgument(2));
+            for (Map.Entry<Map<String, BalanceDto>, Call<Map<String, BalanceDto>>> response : responses.entrySet()) {
+                if (response.getKey().keySet().containsAll(requested)) {
+                    return response.getValue();
+                }
+            }
+            throw new IllegalStateException("No balance response for " + requested);
+        });
+    }
+
     protected void mockEmptyBalance(NonCustodialBitcoinService bitcoinApi) throws IOException {
         Call<Map<String, BalanceDto>> bchBalanceResponse = makeEmptyBalanceResponse();
         when(bitcoinApi.getBalance(
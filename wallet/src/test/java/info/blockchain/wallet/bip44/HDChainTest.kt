@@ -33,4 +33,35 @@ class HDChainTest {
         val chain = HDChain.receiveChain(MainNetParams.get(), key)
         Assert.assertEquals("m/0", chain.path)
     }
+
+    @Test
+    fun getFormattedAddressAtMatchesDerivedAddress() {
+        HDChain.clearDerivedAddresses()
+        val chain = HDChain.changeChain(MainNetParams.get(), key)
+        listOf(Derivation.LEGACY_PURPOSE, Derivation.SEGWIT_BECH32_PURPOSE).forEach { purpose ->
+            (0 until 3).forEach { index ->
+                Assert.assertEquals(
+                    chain.getAddressAt(index, purpose).formattedAddress,
+                    chain.getFormattedAddressAt(index, purpose)
+                )
+            }
+        }
+    }
+
+    @Test
+    fun getAddressRangeMixesCachedAndDerivedAddresses() {
+        HDChain.clearDerivedAddresses()
+        val chain = HDChain.receiveChain(MainNetParams.get(), key)
+        // Cache a few addresses in the middle of the range
+        chain.getFormattedAddressAt(3, Derivation.SEGWIT_BECH32_PURPOSE)
+        chain.getFormattedAddressAt(4, Derivation.SEGWIT_BECH32_PURPOSE)
+
+        val range = chain.getAddressRange(0, 20, Derivation.SEGWIT_BECH32_PURPOSE)
+
+        Assert.assertEquals(
+            (0 until 20).map { chain.getAddressAt(it, Derivation.SEGWIT_BECH32_PURPOSE).formattedAddress },
+            range
+        )
+        Assert.assertEquals("bc1qh8cka3lk4k74dnr7pqzyct8em57ky43a2x05lq", range[0])
+    }
 }
@@ -0,0 +1,96 @@
+package info.blockchain.wallet.crypto
+
+import java.security.SecureRandom
+import org.junit.Assert.assertArrayEquals
+import org.junit.Test
+import org.spongycastle.crypto.InvalidCipherTextException
+import org.spongycastle.crypto.paddings.BlockCipherPadding
+import org.spongycastle.crypto.paddings.ISO10126d2Padding
+import org.spongycastle.crypto.paddings.ISO7816d4Padding
+import org.spongycastle.crypto.paddings.ZeroBytePadding
+
+class JcaAESCryptoProviderTest {
+
+    private val random = SecureRandom()
+    private val jca = JcaAESCryptoProvider()
+    private val spongyCastle = SpongyCastleAESCryptoProvider()
+
+    @Test
+    fun `derived keys match SpongyCastle`() {
+        listOf("password", "pässwörd €", "🔑 key", "\uD800 unpaired").forEach { password ->
+            listOf(1, AESUtil.QR_CODE_PBKDF_2ITERATIONS, AESUtil.PIN_PBKDF2_ITERATIONS).forEach { iterations ->
+                val salt = randomBytes(16)
+                assertArrayEquals(
+                    spongyCastle.deriveKey(password, salt, iterations),
+                    jca.deriveKey(password, salt, iterations)
+                )
+            }
+        }
+    }
+
+    @Test
+    fun `deterministic paddings produce identical ciphertext`() {
+        val paddings: List<() -> BlockCipherPadding?> = listOf({ ZeroBytePadding() }, { ISO7816d4Padding() })
+        listOf(AESUtil.MODE_CBC, AESUtil.MODE_OFB).forEach { mode ->
+            paddings.forEach { padding ->
+                DATA_SIZES.forEach { size ->
+                    val key = randomBytes(32)
+                    val iv = randomBytes(16)
+                    val data = randomBytes(size)
+
+                    val encrypted = jca.encrypt(key, iv, data, mode, padding())
+                    assertArrayEquals(spongyCastle.encrypt(key, iv, data, mode, padding()), encrypted)
+                    assertArrayEquals(
+                        spongyCastle.decrypt(key, iv, encrypted, mode, padding()),
+                        jca.decrypt(key, iv, encrypted, mode, padding())
+                    )
+                }
+            }
+        }
+    }
+
+    @Test
+    fun `unpadded OFB produces identical ciphertext`() {
+        DATA_SIZES.forEach { size ->
+            val key = randomBytes(32)
+            val iv = randomBytes(16)
+            val data = randomBytes(size)
+
+            val encrypted = jca.encrypt(key, iv, data, AESUtil.MODE_OFB, null)
+            assertArrayEquals(spongyCastle.encrypt(key, iv, data, AESUtil.MODE_OFB, null), encrypted)
+            assertArrayEquals(data, jca.decrypt(key, iv, encrypted, AESUtil.MODE_OFB, null))
+        }
+    }
+
+    @Test
+    fun `ISO10126 payloads decrypt across providers`() {
+        listOf(AESUtil.MODE_CBC, AESUtil.MODE_OFB).forEach { mode ->
+            DATA_SIZES.forEach { size ->
+                val key = randomBytes(32)
+                val iv = randomBytes(16)
+                val data = randomBytes(size)
+
+                val fromJca = jca.encrypt(key, iv, data, mode, ISO10126d2Padding())
+                val fromSpongyCastle = spongyCastle.encrypt(key, iv, data, mode, ISO10126d2Padding())
+                assertArrayEquals(data, spongyCastle.decrypt(key, iv, fromJca, mode, ISO10126d2Padding()))
+                assertArrayEquals(data, jca.decrypt(key, iv, fromSpongyCastle, mode, ISO10126d2Padding()))
+            }
+        }
+    }
+
+    @Test(expected = InvalidCipherTextException::class)
+    fun `corrupted padding fails like SpongyCastle`() {
+        val key = randomBytes(32)
+        val iv = randomBytes(16)
+        // A block without any ISO 7816-4 padding marker
+        val encrypted = jca.encrypt(key, iv, ByteArray(16) { 1 }, AESUtil.MODE_CBC, null)
+
+        jca.decrypt(key, iv, encrypted, AESUtil.MODE_CBC, ISO7816d4Padding())
+    }
+
+    private fun randomBytes(size: Int) = ByteArray(size).also { random.nextBytes(it) }
+
+    companion object {
+        private val DATA_SIZES = listOf(0, 1, 15, 16, 17, 32, 1000)
+    }
+}
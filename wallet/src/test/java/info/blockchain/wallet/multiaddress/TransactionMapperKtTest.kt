@@ -70,7 +70,7 @@ class TransactionMapperKtTest {
 
         // Act
         val result = tx.toTransactionSummary(
-            ownAddresses = xpubs.toMutableList(),
+            ownAddresses = OwnedAddressIndex(xpubs),
             startingBlockHeight = startingBlockHeight,
             latestBlock = latestBlock
         )
@@ -83,4 +83,55 @@ class TransactionMapperKtTest {
         assertEquals(1, result?.outputsMap?.size)
         assertTrue(result!!.outputsMap.containsKey("bc1qdec4ga0z24f2nq2chcfckm0edkqdx6dqr6a0m7"))
     }
+
+    @Test
+    fun receiveToImportedAddressKeepsOnlyOwnedOutputs() {
+        val importedAddress = "1EKqhuyQKMeG8wmTZe5Fuezwtt2Db2h8Rm"
+        val tx = Transaction(
+            hash = "f4184fc596403b9d638783cf57adfe4c75c605f6356fbc91338530e9831e9e16",
+            blockHeight = 688470,
+            result = 1000.toBigInteger(),
+            fee = 200.toBigInteger(),
+            time = 1624350848,
+            isDoubleSpend = false,
+            inputs = listOf(
+                Input(
+                    prevOut = Output(
+                        isSpent = true,
+                        addr = "1PPNN4psDFyAgdjQcKBJ8GSgE4ES4GHP9c",
+                        value = 1700.toBigInteger(),
+                        count = 0,
+                        xpub = null
+                    )
+                )
+            ),
+            out = listOf(
+                Output(
+                    isSpent = false,
+                    addr = importedAddress,
+                    value = 1000.toBigInteger(),
+                    count = 0,
+                    xpub = null
+                ),
+                Output(
+                    isSpent = false,
+                    addr = "bc1qdec4ga0z24f2nq2chcfckm0edkqdx6dqr6a0m7",
+                    value = 500.toBigInteger(),
+                    count = 1,
+                    xpub = null
+                )
+            )
+        )
+
+        val result = tx.toTransactionSummary(
+            ownAddresses = OwnedAddressIndex(xpubs + importedAddress),
+            startingBlockHeight = startingBlockHeight,
+            latestBlock = latestBlock
+        )
+
+        assertNotNull(result)
+        assertEquals(TransactionSummary.TransactionType.RECEIVED, result?.transactionType)
+        assertEquals(1000.toBigInteger(), result?.total)
+        assertEquals(setOf(importedAddress), result?.outputsMap?.keys)
+    }
 }
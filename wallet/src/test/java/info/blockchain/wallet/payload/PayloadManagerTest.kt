@@ -139,26 +139,10 @@ class PayloadManagerTest : WalletApiMockedResponseTest() {
         val mnemonic = "all all all all all all all all all all all all"
 
         // Responses for checking how many accounts to recover
-        val balance1 = loadResourceContent("balance/wallet_all_balance_1.txt")
-        val balanceResponse1 = makeBalanceResponse(balance1)
-        val balance2 = loadResourceContent("balance/wallet_all_balance_2.txt")
-        val balanceResponse2 = makeBalanceResponse(balance2)
-        val balance3 = loadResourceContent("balance/wallet_all_balance_3.txt")
-        val balanceResponse3 = makeBalanceResponse(balance3)
-        val balance4 = loadResourceContent("balance/wallet_all_balance_4.txt")
-        val balanceResponse4 = makeBalanceResponse(balance4)
-        val balance5 = loadResourceContent("balance/wallet_all_balance_5.txt")
-        val balanceResponse5 = makeBalanceResponse(balance5)
-        Mockito.`when`(
-            bitcoinApi.getBalance(
-                any(), any(), any(), any()
-            )
+        mockBalancesByXpub(
+            bitcoinApi,
+            *(1..5).map { loadResourceContent("balance/wallet_all_balance_$it.txt") }.toTypedArray()
         )
-            .thenReturn(balanceResponse1)
-            .thenReturn(balanceResponse2)
-            .thenReturn(balanceResponse3)
-            .thenReturn(balanceResponse4)
-            .thenReturn(balanceResponse5)
 
         payloadManager.recoverFromMnemonic(
             mnemonic,
@@ -185,26 +169,10 @@ class PayloadManagerTest : WalletApiMockedResponseTest() {
 
         // checking if xpubs has txs succeeds but then saving fails
         // Responses for checking how many accounts to recover
-        val balance1 = loadResourceContent("balance/wallet_all_balance_1.txt")
-        val balanceResponse1 = makeBalanceResponse(balance1)
-        val balance2 = loadResourceContent("balance/wallet_all_balance_2.txt")
-        val balanceResponse2 = makeBalanceResponse(balance2)
-        val balance3 = loadResourceContent("balance/wallet_all_balance_3.txt")
-        val balanceResponse3 = makeBalanceResponse(balance3)
-        val balance4 = loadResourceContent("balance/wallet_all_balance_4.txt")
-        val balanceResponse4 = makeBalanceResponse(balance4)
-        val balance5 = loadResourceContent("balance/wallet_all_balance_5.txt")
-        val balanceResponse5 = makeBalanceResponse(balance5)
-        Mockito.`when`(
-            bitcoinApi.getBalance(
-                any(), any(), any(), any()
-            )
+        mockBalancesByXpub(
+            bitcoinApi,
+            *(1..5).map { loadResourceContent("balance/wallet_all_balance_$it.txt") }.toTypedArray()
         )
-            .thenReturn(balanceResponse1)
-            .thenReturn(balanceResponse2)
-            .thenReturn(balanceResponse3)
-            .thenReturn(balanceResponse4)
-            .thenReturn(balanceResponse5)
 
         whenever(
             walletApi.insertWallet(
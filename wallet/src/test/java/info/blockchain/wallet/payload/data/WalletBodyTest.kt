@@ -1,7 +1,6 @@
 package info.blockchain.wallet.payload.data
 
 import com.blockchain.api.services.NonCustodialBitcoinService
-import com.nhaarman.mockitokotlin2.any
 import info.blockchain.wallet.WalletApiMockedResponseTest
 import info.blockchain.wallet.exceptions.HDWalletException
 import info.blockchain.wallet.payload.HDWalletsContainer
@@ -75,21 +74,14 @@ class WalletBodyTest : WalletApiMockedResponseTest() {
         val xpubs = LinkedList<String>()
         xpubs.add("HDWallet successfully synced with server")
         mockInterceptor!!.setResponseStringList(xpubs)
-        val balanceResponse1 = makeBalanceResponse(recoverBalance_5)
-        val balanceResponse2 = makeBalanceResponse(recoverBalance_6)
-        val balanceResponse3 = makeBalanceResponse(recoverBalance_7)
-        val balanceResponse4 = makeBalanceResponse(recoverBalance_8)
-        val balanceResponse5 = makeBalanceResponse(recoverBalance_9)
-        Mockito.`when`(
-            bitcoinApi.getBalance(
-                any(), any(), any(), any()
-            )
+        mockBalancesByXpub(
+            bitcoinApi,
+            recoverBalance_5,
+            recoverBalance_6,
+            recoverBalance_7,
+            recoverBalance_8,
+            recoverBalance_9
         )
-            .thenReturn(balanceResponse1)
-            .thenReturn(balanceResponse2)
-            .thenReturn(balanceResponse3)
-            .thenReturn(balanceResponse4)
-            .thenReturn(balanceResponse5)
         val label = "HDAccount 1"
         val walletBody = recoverFromMnemonic(mnemonic, label, bitcoinApi)
         Assert.assertEquals(walletBody.accounts[0].label, label)
@@ -99,19 +91,13 @@ class WalletBodyTest : WalletApiMockedResponseTest() {
     @Test
     fun recoverFromMnemonic_passphrase() {
         val mnemonic = "all all all all all all all all all all all all"
-        val balanceResponse1 = makeBalanceResponse(recoverBalance_1)
-        val balanceResponse2 = makeBalanceResponse(recoverBalance_2)
-        val balanceResponse3 = makeBalanceResponse(recoverBalance_3)
-        val balanceResponse4 = makeBalanceResponse(recoverBalance_4)
-        Mockito.`when`(
-            bitcoinApi.getBalance(
-                any(), any(), any(), any()
-            )
+        mockBalancesByXpub(
+            bitcoinApi,
+            recoverBalance_1,
+            recoverBalance_2,
+            recoverBalance_3,
+            recoverBalance_4
         )
-            .thenReturn(balanceResponse1)
-            .thenReturn(balanceResponse2)
-            .thenReturn(balanceResponse3)
-            .thenReturn(balanceResponse4)
         val xpubs = LinkedList<String>()
         xpubs.add("HDWallet successfully synced with server")
         mockInterceptor!!.setResponseStringList(xpubs)
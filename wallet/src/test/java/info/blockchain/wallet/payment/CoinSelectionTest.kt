@@ -2,7 +2,10 @@ package info.blockchain.wallet.payment
 
 import info.blockchain.wallet.payload.model.Utxo
 import java.math.BigInteger
+import kotlin.random.Random
+import org.amshove.kluent.`should be`
 import org.amshove.kluent.`should be equal to`
+import org.amshove.kluent.`should not be`
 import org.junit.Test
 
 class CoinSelectionTest {
@@ -118,4 +121,137 @@ class CoinSelectionTest {
             it.consumedAmount `should be equal to` BigInteger.ZERO
         }
     }
+
+    @Test
+    fun `repeated selections over the same coins should match a fresh selection`() {
+        val coins = unspents(1, 20000, 0, 0, 300000, 50000, 30000)
+        val selection = CoinSelection(coins, feePerByte)
+
+        listOf(10000, 100000, 320000).forEach { amount ->
+            val reused = selection.select(
+                outputAmount = amount.toBigInteger(),
+                targetOutputType = OutputType.P2PKH,
+                changeOutputType = OutputType.P2PKH,
+                coinSortingMethod = DescentDraw
+            )
+            val fresh = CoinSelection(coins.toList(), feePerByte).select(
+                outputAmount = amount.toBigInteger(),
+                targetOutputType = OutputType.P2PKH,
+                changeOutputType = OutputType.P2PKH,
+                coinSortingMethod = DescentDraw
+            )
+            reused.spendableOutputs.values() `should be equal to` fresh.spendableOutputs.values()
+            reused.absoluteFee `should be equal to` fresh.absoluteFee
+            reused.consumedAmount `should be equal to` fresh.consumedAmount
+        }
+    }
+
+    @Test
+    fun `a selection on an equal coin list should reuse the prepared coins`() {
+        PreparedCoinsCache.clear()
+        val feeRate = feePerByte.toLong()
+
+        CoinSelection(unspents(1, 20000, 300000, 50000), feePerByte).select(
+            outputAmount = 100000.toBigInteger(),
+            targetOutputType = OutputType.P2PKH,
+            changeOutputType = OutputType.P2PKH,
+            coinSortingMethod = DescentDraw
+        )
+        val prepared = PreparedCoinsCache.get(unspents(1, 20000, 300000, 50000), feeRate, DescentDraw)
+        prepared `should not be` null
+
+        CoinSelection(unspents(1, 20000, 300000, 50000), feePerByte).select(
+            outputAmount = 200000.toBigInteger(),
+            targetOutputType = OutputType.P2PKH,
+            changeOutputType = OutputType.P2PKH,
+            coinSortingMethod = DescentDraw
+        )
+        PreparedCoinsCache.get(unspents(1, 20000, 300000, 50000), feeRate, DescentDraw) `should be` prepared
+        PreparedCoinsCache.get(unspents(1, 20000, 300000, 50000), feeRate + 1, DescentDraw) `should be` null
+        PreparedCoinsCache.get(unspents(1, 20000, 300000), feeRate, DescentDraw) `should be` null
+    }
+
+    @Test
+    fun `force included coins should be selected after the target is met`() {
+        val forced = Utxo(value = 546.toBigInteger(), isForceInclude = true)
+        val coins = unspents(300000, 50000) + forced
+
+        CoinSelection(coins, feePerByte).select(
+            outputAmount = 100000.toBigInteger(),
+            targetOutputType = OutputType.P2PKH,
+            changeOutputType = OutputType.P2PKH,
+            coinSortingMethod = DescentDraw
+        ).also {
+            it.spendableOutputs.values() `should be equal to` listOf(300000, 546).map { v -> v.toBigInteger() }
+        }
+    }
+
+    @Test
+    fun `waste minimizing selection should find a changeless selection`() {
+        val coins = unspents(10000, 5000, 3000, 2000)
+        val outputAmount = 7658.toBigInteger()
+
+        CoinSelection(coins, BigInteger.ONE).select(
+            outputAmount = outputAmount,
+            targetOutputType = OutputType.P2PKH,
+            changeOutputType = OutputType.P2PKH,
+            coinSortingMethod = WasteMinimizing(random = Random(1))
+        ).also {
+            it.spendableOutputs.values() `should be equal to` unspents(5000, 3000).values()
+            it.absoluteFee `should be equal to` 342.toBigInteger()
+            it.consumedAmount `should be equal to` BigInteger.ZERO
+        }
+    }
+
+    @Test
+    fun `waste minimizing selection should fall back to the smallest sufficient coin with change`() {
+        val coins = unspents(10000, 5000)
+        val outputAmount = 1000.toBigInteger()
+
+        CoinSelection(coins, BigInteger.ONE).select(
+            outputAmount = outputAmount,
+            targetOutputType = OutputType.P2PKH,
+            changeOutputType = OutputType.P2PKH,
+            coinSortingMethod = WasteMinimizing(random = Random(1))
+        ).also {
+            it.spendableOutputs.values() `should be equal to` unspents(5000).values()
+            it.absoluteFee `should be equal to` 227.toBigInteger()
+            it.consumedAmount `should be equal to` BigInteger.ZERO
+        }
+    }
+
+    @Test
+    fun `amounts outside the long range should be insufficient funds`() {
+        val coins = unspents(300000, 50000)
+        val huge = BigInteger.valueOf(Long.MAX_VALUE).shiftLeft(1)
+
+        CoinSelection(coins, feePerByte).select(
+            outputAmount = huge,
+            targetOutputType = OutputType.P2PKH,
+            changeOutputType = OutputType.P2PKH,
+            coinSortingMethod = DescentDraw
+        ).spendableOutputs `should be equal to` emptyList()
+
+        CoinSelection(coins, huge).select(
+            outputAmount = 100000.toBigInteger(),
+            targetOutputType = OutputType.P2PKH,
+            changeOutputType = OutputType.P2PKH,
+            coinSortingMethod = WasteMinimizing(random = Random(1))
+        ).spendableOutputs `should be equal to` emptyList()
+
+        CoinSelection(coins + Utxo(value = huge), feePerByte).selectAll(OutputType.P2PKH)
+            .spendableBalance `should be equal to` BigInteger.ZERO
+    }
+
+    @Test
+    fun `totals that overflow a long should be insufficient funds`() {
+        val coins = listOf(Utxo(value = Long.MAX_VALUE.toBigInteger()), Utxo(value = Long.MAX_VALUE.toBigInteger()))
+
+        CoinSelection(coins, BigInteger.ONE).select(
+            outputAmount = (Long.MAX_VALUE - 1).toBigInteger(),
+            targetOutputType = OutputType.P2PKH,
+            changeOutputType = OutputType.P2PKH,
+            coinSortingMethod = DescentDraw
+        ).spendableOutputs `should be equal to` emptyList()
+    }
 }